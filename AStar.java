@@ -0,0 +1,36 @@
+package edu.usca.acsc492l.flightplanner;
+
+/**
+ * A {@link Dijkstra} which finds the shortest path between two {@link Vertex} nodes
+ * with the A* algorithm.  Each Vertex in the queue is keyed by its minimum weight
+ * plus a {@link Heuristic} lower bound on the weight remaining to the target, so
+ * the search is drawn toward the target and stops as soon as it is settled,
+ * rather than settling the entire graph.
+ *
+ * @author Dylon Edwards
+ */
+public class AStar extends Dijkstra {
+	
+	/**
+	 * Constructs an AStar object which estimates the weight remaining to the
+	 * target with a {@link StraightLineHeuristic}
+	 */
+	public AStar() {
+		this(new StraightLineHeuristic());
+	}
+	
+	/**
+	 * Constructs an AStar object with the given {@link Heuristic}
+	 *
+	 * @param heuristic The {@link Heuristic} which estimates the weight remaining
+	 *                  to the target
+	 * @throws NullPointerException When heuristic is null
+	 */
+	public AStar(Heuristic heuristic) {
+		if (heuristic == null) {
+			throw new NullPointerException("heuristic may not be null");
+		}
+		
+		this.heuristic = heuristic;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package edu.usca.acsc492l.flightplanner;
+
+/**
+ * Holds the {@link Edge}s leaving each Vertex id of a {@link RoutingGraph} as rows
+ * of consecutive Edge numbers, each with the id of the Vertex it leads to and its
+ * weight, sorted by weight within the row.  A row is only valid for reading once
+ * {@link #getRowStart(int)} has been called for its Vertex id on the reading Thread.
+ *
+ * @author Dylon Edwards
+ */
+public interface Adjacency {
+	
+	/**
+	 * Returns the first Edge of the row of a Vertex id
+	 *
+	 * @param vertex The id of the Vertex
+	 * @return The number of the first Edge of vertex
+	 */
+	public int getRowStart(int vertex);
+	
+	/**
+	 * Returns the Edge after the last of the row of a Vertex id, once its row has
+	 * been started
+	 *
+	 * @param vertex The id of the Vertex
+	 * @return The number of the Edge after the last of vertex
+	 */
+	public int getRowEnd(int vertex);
+	
+	/**
+	 * Returns the id of the Vertex to which an Edge leads
+	 *
+	 * @param edge The number of the Edge
+	 * @return The id of the Vertex to which edge leads
+	 */
+	public int getTarget(int edge);
+	
+	/**
+	 * Returns the weight of an Edge
+	 *
+	 * @param edge The number of the Edge
+	 * @return The weight of edge
+	 */
+	public float getWeight(int edge);
+	
+	/**
+	 * Returns the number of Edges held
+	 *
+	 * @return The number of Edges held
+	 */
+	public int getEdgeCount();
+}
\ No newline at end of file
@@ -0,0 +1,268 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Holds a sparse network of airways between {@link NAVBeacon}s and
+ * {@link Airport}s, in which each Vertex is joined to its <em>k</em> nearest
+ * neighbors within range, rather than to every other in range, as in a
+ * {@link CompressedGraph}.  Each Vertex thus has few Edges however densely the
+ * Vertex nodes are packed, so a search costs time in proportion to the number of
+ * Vertex nodes, and its routes follow chains of NAVBeacons between the Airports.
+ * <br /><br />
+ * The nearest neighbors of each Vertex are found on a ForkJoinPool from a
+ * {@link SpatialIndex} whose cells are sized to hold about <em>k</em> Vertex nodes
+ * each, looking through a distance which doubles until it holds <em>k</em> of
+ * them, or reaches the range.  Since one Vertex may be among the nearest of
+ * another without the other being among its own, every Edge found is joined by
+ * its twin leading back, so a Vertex may have more than <em>k</em> Edges, and
+ * every Edge may be flown either way.
+ *
+ * @author Dylon Edwards
+ */
+public class AirwayGraph extends CompressedGraph {
+	
+	/** Holds the Vertex nodes joined by airways, by location */
+	protected final SpatialIndex<Vertex> index;
+	
+	/** Holds the number of nearest neighbors to which each Vertex is joined */
+	protected final int degree;
+	
+	/** Holds the length of the longest Edge */
+	protected final float range;
+	
+	/**
+	 * Constructs an AirwayGraph joining each of the given Vertex nodes to its
+	 * nearest neighbors, found on the common ForkJoinPool
+	 *
+	 * @param vertices The {@link NAVBeacon}s and {@link Airport}s to join
+	 * @param degree   The number of nearest neighbors to which each is joined
+	 * @param range    The length of the longest Edge
+	 * @throws IllegalArgumentException When degree is not positive
+	 * @throws NullPointerException     When vertices is null
+	 */
+	public AirwayGraph(Vertex[] vertices, int degree, float range) {
+		this(vertices, degree, range, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Constructs an AirwayGraph joining each of the given Vertex nodes to its
+	 * nearest neighbors, found on the given ForkJoinPool
+	 *
+	 * @param vertices The {@link NAVBeacon}s and {@link Airport}s to join
+	 * @param degree   The number of nearest neighbors to which each is joined
+	 * @param range    The length of the longest Edge
+	 * @param pool     The ForkJoinPool on which to find the nearest neighbors
+	 * @throws IllegalArgumentException When degree is not positive
+	 * @throws NullPointerException     When vertices or pool is null
+	 */
+	public AirwayGraph(Vertex[] vertices, int degree, float range, ForkJoinPool pool) {
+		if (degree <= 0) {
+			throw new IllegalArgumentException("degree must be positive");
+		}
+		
+		if (pool == null) {
+			throw new NullPointerException("pool may not be null");
+		}
+		
+		this.degree = degree;
+		this.range = range;
+		index = new SpatialIndex<Vertex>(getSpacing(vertices, degree, range));
+		
+		for (Vertex vertex : vertices) {
+			index.add(vertex);
+		}
+		
+		vertices = sortById(vertices);
+		
+		// Holds the nearest neighbors of each Vertex, each written only by the
+		// task of its block
+		long[][] rows = new long[vertices.length][];
+		pool.invoke(new NearestTask(vertices, rows, 0, vertices.length));
+		
+		build(vertices, addTwins(vertices, rows));
+	}
+	
+	/**
+	 * Returns the distance within which a Vertex has about the given number of
+	 * neighbors, were the Vertex nodes spread evenly over the latitudes and
+	 * longitudes they span, which sizes the cells of the {@link SpatialIndex}
+	 *
+	 * @param vertices The Vertex nodes to join
+	 * @param degree   The number of nearest neighbors to which each is joined
+	 * @param range    The length of the longest Edge, beyond which no search looks
+	 * @return The distance in Kilometers between neighboring Vertex nodes
+	 */
+	protected static float getSpacing(Vertex[] vertices, int degree, float range) {
+		if (vertices.length == 0) {
+			return range;
+		}
+		
+		float minLatitude = Float.POSITIVE_INFINITY;
+		float maxLatitude = Float.NEGATIVE_INFINITY;
+		float minLongitude = Float.POSITIVE_INFINITY;
+		float maxLongitude = Float.NEGATIVE_INFINITY;
+		
+		for (Vertex vertex : vertices) {
+			Coordinate coordinate = vertex.getCoordinate();
+			
+			minLatitude = Math.min(minLatitude, coordinate.getLatitude());
+			maxLatitude = Math.max(maxLatitude, coordinate.getLatitude());
+			minLongitude = Math.min(minLongitude, coordinate.getLongitude());
+			maxLongitude = Math.max(maxLongitude, coordinate.getLongitude());
+		}
+		
+		// Holds the area in square degrees around each group of degree Vertex nodes
+		double area = (double) (maxLatitude - minLatitude) * (maxLongitude - minLongitude)
+		              * degree / vertices.length;
+		
+		// 1 degree latitude = 40,000 / 360 = ~111.1 Kilometers
+		return (float) Math.min(Math.sqrt(area) * 111.1, range);
+	}
+	
+	/**
+	 * Returns the Edges of a Vertex to its nearest neighbors in this AirwayGraph
+	 * within range, sorted by weight and then by the id of the Vertex each leads to
+	 *
+	 * @param vertex The Vertex whose nearest neighbors to return, which need not be
+	 *               in this AirwayGraph
+	 * @return The packed Edges of vertex to at most {@link #degree} others, read
+	 *         with {@link #getTarget(long)} and {@link #getWeight(long)}
+	 * @throws NullPointerException When vertex is null
+	 */
+	public long[] getNearest(Vertex vertex) {
+		Coordinate coordinate = vertex.getCoordinate();
+		
+		// Look through a distance of about one cell first, since that usually
+		// holds enough neighbors
+		float distance = Math.min(index.cellSize * 111.1f, range);
+		
+		while (true) {
+			long[] row = new long[16];
+			int rowSize = 0;
+			
+			for (Vertex neighbor : index.getCandidates(coordinate, distance)) {
+				float weight = Edge.getWeight(vertex, neighbor);
+				
+				if (neighbor.getId() != vertex.getId() && weight <= distance) {
+					if (rowSize == row.length) {
+						row = Arrays.copyOf(row, rowSize * 2);
+					}
+					
+					row[rowSize ++] = getEntry(weight, neighbor.getId());
+				}
+			}
+			
+			// Every Vertex within the distance has been found, so once there are
+			// enough of them, the nearest are among them
+			if (rowSize >= degree || distance >= range) {
+				Arrays.sort(row, 0, rowSize);
+				return Arrays.copyOf(row, Math.min(rowSize, degree));
+			}
+			
+			distance = Math.min(distance * 2, range);
+		}
+	}
+	
+	/**
+	 * Adds to the rows the twin of every Edge leading back, and sorts each row
+	 *
+	 * @param vertices The Vertex nodes joined, sorted by id
+	 * @param rows     The nearest neighbors of each Vertex
+	 * @return The rows holding every Edge and its twin once
+	 */
+	protected static long[][] addTwins(Vertex[] vertices, long[][] rows) {
+		int[] ids = new int[vertices.length];
+		
+		for (int vertex = 0; vertex < vertices.length; vertex ++) {
+			ids[vertex] = vertices[vertex].getId();
+		}
+		
+		// Holds the number of twins leading to each Vertex
+		int[] twinCounts = new int[vertices.length];
+		
+		for (long[] row : rows) {
+			for (long entry : row) {
+				twinCounts[Arrays.binarySearch(ids, getTarget(entry))] ++;
+			}
+		}
+		
+		long[][] twinnedRows = new long[vertices.length][];
+		int[] rowSizes = new int[vertices.length];
+		
+		for (int vertex = 0; vertex < vertices.length; vertex ++) {
+			twinnedRows[vertex] = Arrays.copyOf(rows[vertex], rows[vertex].length + twinCounts[vertex]);
+			rowSizes[vertex] = rows[vertex].length;
+		}
+		
+		for (int vertex = 0; vertex < vertices.length; vertex ++) {
+			for (long entry : rows[vertex]) {
+				int target = Arrays.binarySearch(ids, getTarget(entry));
+				twinnedRows[target][rowSizes[target] ++] = getEntry(getWeight(entry), ids[vertex]);
+			}
+		}
+		
+		// An Edge between two Vertex nodes each among the nearest of the other is
+		// found from both, so its second copy is dropped
+		for (int vertex = 0; vertex < vertices.length; vertex ++) {
+			long[] row = twinnedRows[vertex];
+			Arrays.sort(row);
+			
+			int rowSize = 0;
+			for (int entry = 0; entry < row.length; entry ++) {
+				if (rowSize == 0 || row[entry] != row[rowSize - 1]) {
+					row[rowSize ++] = row[entry];
+				}
+			}
+			
+			twinnedRows[vertex] = Arrays.copyOf(row, rowSize);
+		}
+		
+		return twinnedRows;
+	}
+	
+	/**
+	 * Returns the number of nearest neighbors to which each Vertex is joined
+	 *
+	 * @return The {@link #degree} attribute
+	 */
+	public int getDegree() {
+		return degree;
+	}
+	
+	/**
+	 * Finds the nearest neighbors of a block of Vertex nodes
+	 */
+	protected class NearestTask extends RowTask {
+		
+		/** Generated by the serialver utility */
+		private static final long serialVersionUID = -6949006345579040025L;
+		
+		/** Holds the Vertex nodes being joined, sorted by id */
+		protected final Vertex[] vertices;
+		
+		/**
+		 * Constructs a NearestTask over a block of Vertex nodes
+		 *
+		 * @param vertices The Vertex nodes being joined, sorted by id
+		 * @param rows     The nearest neighbors found for each Vertex
+		 * @param from     The index of the first Vertex of the block
+		 * @param to       The index after the last Vertex of the block
+		 */
+		protected NearestTask(Vertex[] vertices, long[][] rows, int from, int to) {
+			super(rows, from, to);
+			this.vertices = vertices;
+		}
+		
+		@Override
+		protected RowTask split(int from, int to) {
+			return new NearestTask(vertices, rows, from, to);
+		}
+		
+		@Override
+		protected long[] findRow(int vertex) {
+			return getNearest(vertices[vertex]);
+		}
+	}
+}
\ No newline at end of file
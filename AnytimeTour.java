@@ -0,0 +1,354 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.Arrays;
+
+/**
+ * Orders the stops of a flight plan with too many of them for {@link HeldKarp}
+ * within a budget of time, returning the shortest order found once the budget
+ * runs out.  The stops are first inserted one at a time, each the stop nearest
+ * to those already placed, wherever it lengthens the flight least; the order is
+ * then improved by 2-opt moves, which fly a run of stops backwards, and Or-opt
+ * moves, which move a run of up to {@link #MAX_RUN_LENGTH} stops elsewhere,
+ * until no move shortens it or the budget runs out.
+ * <br /><br />
+ * Every move is applied only once it is known to shorten the order, so the order
+ * held whenever the budget runs out is the shortest found so far.  The distances
+ * need not be the same both ways, since the length of a run flown backwards is
+ * found from sums of the distances along the order in each direction.  A leg
+ * which cannot be flown, of infinite distance, is counted as longer than every
+ * other leg together, so any order which avoids such legs is preferred.
+ *
+ * @author Dylon Edwards
+ */
+public class AnytimeTour implements StopOrdering {
+	
+	/** Holds the budget in milliseconds of an AnytimeTour constructed without one */
+	public static final long DEFAULT_BUDGET = 100;
+	
+	/** Holds the number of stops in the longest run an Or-opt move moves */
+	protected static final int MAX_RUN_LENGTH = 3;
+	
+	/** Holds the distance by which a move must shorten the order, so rounding never undoes one */
+	protected static final float EPSILON = 1e-3f;
+	
+	/** Holds the time in milliseconds within which to improve each order */
+	protected final long budget;
+	
+	/**
+	 * Constructs an AnytimeTour with a budget of {@link #DEFAULT_BUDGET}
+	 */
+	public AnytimeTour() {
+		this(DEFAULT_BUDGET);
+	}
+	
+	/**
+	 * Constructs an AnytimeTour with the given budget
+	 *
+	 * @param budget The time in milliseconds within which to improve each order,
+	 *               past the insertion of the stops, which is always completed
+	 * @throws IllegalArgumentException When budget is negative
+	 */
+	public AnytimeTour(long budget) {
+		if (budget < 0) {
+			throw new IllegalArgumentException("budget may not be negative");
+		}
+		
+		this.budget = budget;
+	}
+	
+	/**
+	 * Returns the time within which this AnytimeTour improves each order
+	 *
+	 * @return The {@link #budget} attribute
+	 */
+	public long getBudget() {
+		return budget;
+	}
+	
+	/**
+	 * Returns the shortest order of the stops found within the budget
+	 *
+	 * @param distances The distance from each waypoint to each other, where the
+	 *                  first waypoint is the start of the flight plan, the last
+	 *                  is its end, and those between are its stops
+	 * @return The indices of the stops, from 1 to distances.length - 2, in the
+	 *         order in which to visit them
+	 * @throws IllegalArgumentException When there is no start and end
+	 * @throws NullPointerException     When distances is null
+	 */
+	@Override
+	public int[] order(float[][] distances) {
+		if (distances.length < 2) {
+			throw new IllegalArgumentException("distances must hold a start and an end");
+		}
+		
+		long deadline = System.nanoTime() + budget * 1000000L;
+		
+		distances = boundDistances(distances);
+		
+		int[] path = insertStops(distances);
+		
+		// Holds whether the last pass found a shorter order
+		boolean improved = true;
+		
+		while (improved && System.nanoTime() < deadline) {
+			improved = improveByReversal(distances, path, deadline);
+			improved |= improveByMove(distances, path, deadline);
+		}
+		
+		return Arrays.copyOfRange(path, 1, path.length - 1);
+	}
+	
+	/**
+	 * Returns the distances with each infinite distance replaced by one longer than
+	 * every finite distance together, so the changes in length of the moves stay
+	 * finite
+	 *
+	 * @param distances The distance from each waypoint to each other
+	 * @return distances itself if every distance is finite, and otherwise a copy
+	 *         with each infinite distance replaced
+	 */
+	protected static float[][] boundDistances(float[][] distances) {
+		float total = 0;
+		boolean bounded = true;
+		
+		for (float[] row : distances) {
+			for (float distance : row) {
+				if (distance == Float.POSITIVE_INFINITY) {
+					bounded = false;
+				} else {
+					total += distance;
+				}
+			}
+		}
+		
+		if (bounded) {
+			return distances;
+		}
+		
+		float[][] boundedDistances = new float[distances.length][];
+		
+		for (int from = 0; from < distances.length; from ++) {
+			boundedDistances[from] = distances[from].clone();
+			
+			for (int to = 0; to < distances.length; to ++) {
+				if (boundedDistances[from][to] == Float.POSITIVE_INFINITY) {
+					boundedDistances[from][to] = 2 * total + 1;
+				}
+			}
+		}
+		
+		return boundedDistances;
+	}
+	
+	/**
+	 * Returns an order of every waypoint from the start to the end, found by
+	 * inserting the stop nearest to those already placed wherever it lengthens the
+	 * order least, until every stop is placed
+	 *
+	 * @param distances The distance from each waypoint to each other
+	 * @return The indices of every waypoint, the start first and the end last
+	 */
+	protected static int[] insertStops(float[][] distances) {
+		int waypointCount = distances.length;
+		int end = waypointCount - 1;
+		
+		int[] path = new int[waypointCount];
+		int pathSize = 0;
+		
+		path[pathSize ++] = 0;
+		path[pathSize ++] = end;
+		
+		// Holds the distance between each stop and the nearest waypoint placed
+		float[] nearest = new float[waypointCount];
+		boolean[] placed = new boolean[waypointCount];
+		
+		placed[0] = true;
+		placed[end] = true;
+		
+		for (int stop = 1; stop < end; stop ++) {
+			nearest[stop] = Math.min(
+				Math.min(distances[0][stop], distances[stop][0]),
+				Math.min(distances[end][stop], distances[stop][end])
+			);
+		}
+		
+		for (int count = 1; count < end; count ++) {
+			
+			// Find the stop nearest to those placed, lowest first among equals
+			int stop = -1;
+			
+			for (int other = 1; other < end; other ++) {
+				if (!placed[other] && (stop == -1 || nearest[other] < nearest[stop])) {
+					stop = other;
+				}
+			}
+			
+			// Find where the stop lengthens the order least
+			int position = 1;
+			float shortestIncrease = Float.POSITIVE_INFINITY;
+			
+			for (int index = 1; index < pathSize; index ++) {
+				int from = path[index - 1];
+				int to = path[index];
+				float increase = distances[from][stop] + distances[stop][to] - distances[from][to];
+				
+				if (increase < shortestIncrease) {
+					shortestIncrease = increase;
+					position = index;
+				}
+			}
+			
+			System.arraycopy(path, position, path, position + 1, pathSize - position);
+			path[position] = stop;
+			pathSize ++;
+			placed[stop] = true;
+			
+			for (int other = 1; other < end; other ++) {
+				if (!placed[other]) {
+					nearest[other] = Math.min(
+						nearest[other], Math.min(distances[stop][other], distances[other][stop])
+					);
+				}
+			}
+		}
+		
+		return path;
+	}
+	
+	/**
+	 * Shortens an order by 2-opt moves, each flying a run of stops backwards
+	 *
+	 * @param distances The distance from each waypoint to each other
+	 * @param path      The order of every waypoint, which is changed in place
+	 * @param deadline  The value of System.nanoTime() past which to stop
+	 * @return Whether any move shortened the order
+	 */
+	protected static boolean improveByReversal(float[][] distances, int[] path, long deadline) {
+		int last = path.length - 1;
+		
+		// Hold the length of the order up to each waypoint, flown forwards and
+		// flown backwards
+		float[] forwards = new float[path.length];
+		float[] backwards = new float[path.length];
+		sumDistances(distances, path, forwards, backwards);
+		
+		boolean improved = false;
+		
+		for (int first = 1; first < last - 1; first ++) {
+			if (System.nanoTime() >= deadline) {
+				break;
+			}
+			
+			for (int end = first + 1; end < last; end ++) {
+				int before = path[first - 1];
+				int after = path[end + 1];
+				
+				float change = distances[before][path[end]] + distances[path[first]][after]
+				             - distances[before][path[first]] - distances[path[end]][after]
+				             + (backwards[end] - backwards[first]) - (forwards[end] - forwards[first]);
+				
+				if (change < -EPSILON) {
+					for (int left = first, right = end; left < right; left ++, right --) {
+						int waypoint = path[left];
+						path[left] = path[right];
+						path[right] = waypoint;
+					}
+					
+					sumDistances(distances, path, forwards, backwards);
+					improved = true;
+				}
+			}
+		}
+		
+		return improved;
+	}
+	
+	/**
+	 * Sums the distances along an order, flown forwards and flown backwards
+	 *
+	 * @param distances The distance from each waypoint to each other
+	 * @param path      The order of every waypoint
+	 * @param forwards  The length of the order up to each waypoint
+	 * @param backwards The length of the order up to each waypoint were each
+	 *                  distance flown the other way
+	 */
+	protected static void sumDistances(float[][] distances, int[] path, float[] forwards,
+	                                   float[] backwards) {
+		
+		for (int index = 1; index < path.length; index ++) {
+			forwards[index] = forwards[index - 1] + distances[path[index - 1]][path[index]];
+			backwards[index] = backwards[index - 1] + distances[path[index]][path[index - 1]];
+		}
+	}
+	
+	/**
+	 * Shortens an order by Or-opt moves, each moving a run of stops between two
+	 * other waypoints
+	 *
+	 * @param distances The distance from each waypoint to each other
+	 * @param path      The order of every waypoint, which is changed in place
+	 * @param deadline  The value of System.nanoTime() past which to stop
+	 * @return Whether any move shortened the order
+	 */
+	protected static boolean improveByMove(float[][] distances, int[] path, long deadline) {
+		int last = path.length - 1;
+		boolean improved = false;
+		
+		for (int length = 1; length <= MAX_RUN_LENGTH; length ++) {
+			for (int first = 1; first + length - 1 < last; first ++) {
+				if (System.nanoTime() >= deadline) {
+					return improved;
+				}
+				
+				int end = first + length - 1;
+				int before = path[first - 1];
+				int after = path[end + 1];
+				
+				// Holds the distance saved by taking the run out of the order
+				float saving = distances[before][path[first]] + distances[path[end]][after]
+				             - distances[before][after];
+				
+				for (int index = 0; index < last; index ++) {
+					if (index >= first - 1 && index <= end) {
+						continue;
+					}
+					
+					int from = path[index];
+					int to = path[index + 1];
+					
+					float change = distances[from][path[first]] + distances[path[end]][to]
+					             - distances[from][to] - saving;
+					
+					if (change < -EPSILON) {
+						moveRun(path, first, end, index);
+						improved = true;
+						break;
+					}
+				}
+			}
+		}
+		
+		return improved;
+	}
+	
+	/**
+	 * Moves a run of waypoints of an order to follow another waypoint
+	 *
+	 * @param path  The order of every waypoint, which is changed in place
+	 * @param first The index of the first waypoint of the run
+	 * @param end   The index of the last waypoint of the run
+	 * @param index The index of the waypoint the run is to follow, outside it
+	 */
+	protected static void moveRun(int[] path, int first, int end, int index) {
+		int[] run = Arrays.copyOfRange(path, first, end + 1);
+		
+		if (index < first) {
+			System.arraycopy(path, index + 1, path, index + 1 + run.length, first - index - 1);
+			System.arraycopy(run, 0, path, index + 1, run.length);
+		} else {
+			System.arraycopy(path, end + 1, path, first, index - end);
+			System.arraycopy(run, 0, path, index - run.length + 1, run.length);
+		}
+	}
+}
\ No newline at end of file
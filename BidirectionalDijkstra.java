@@ -0,0 +1,148 @@
+package edu.usca.acsc492l.flightplanner;
+
+/**
+ * A {@link Dijkstra} which finds the shortest path between two {@link Vertex} nodes
+ * by searching forward from the origin and backward from the target at once,
+ * always advancing whichever frontier is nearer its own end, and stopping once no
+ * path through the unsettled Vertex nodes could be shorter than the best path seen
+ * where the two searches meet.  Each search covers roughly half the radius of a
+ * unidirectional search, and so explores roughly half the graph.
+ * <br /><br />
+ * The backward search walks the same {@link Edge}s as the forward search, which is
+ * correct because {@link FlightPlan#setFlightPlan} always connects Vertex nodes in
+ * both directions with Edges of equal weight.
+ *
+ * @author Dylon Edwards
+ */
+public class BidirectionalDijkstra extends Dijkstra {
+	
+	/** Holds the per-search state of the backward search of each Thread */
+	protected final ThreadLocal<SearchContext> backwardSearchContexts =
+		new ThreadLocal<SearchContext>() {
+			
+			@Override
+			protected SearchContext initialValue() {
+				return new SearchContext(0);
+			}
+		};
+	
+	/**
+	 * Computes the shortest path from the origin vertex to the target vertex by
+	 * searching from both ends, and records it in the forward {@link SearchContext}
+	 * so {@link #getShortestPath} may retrieve it as usual
+	 *
+	 * @param a The origin {@link Vertex} from which the shortest path is calculated
+	 * @param z The target {@link Vertex} to which the shortest path is calculated
+	 * @throws NullPointerException When either parameter is null
+	 */
+	@Override
+	public void computePath(Vertex a, Vertex z) throws VertexException {
+		if (a == null) {
+			throw new NullPointerException("a may not be null");
+		}
+		
+		if (z == null) {
+			throw new NullPointerException("z may not be null");
+		}
+		
+		// Holds the FlightPlan which maps Vertex ids back to their Vertex nodes
+		FlightPlan flightPlan = a.flightPlan;
+		int capacity = flightPlan.getVertexIdCount();
+		
+		// Holds the Edges of the flight plan being found, which lead both ways, so
+		// the backward search may follow them as well, and the range of its
+		// Airplane, beyond which none are followed
+		RoutingGraph graph = flightPlan.getSearchGraph();
+		float range = flightPlan.getSearchRange();
+		
+		// Start a new search in each of this Thread's SearchContexts
+		SearchContext forward = getSearchContext();
+		SearchContext backward = backwardSearchContexts.get();
+		forward.reset(capacity);
+		backward.reset(capacity);
+		
+		// Seed the forward search with `a' and the backward search with `z'
+		forward.setMinWeight(a.getId(), 0, -1);
+		forward.getQueue().addOrDecreaseKey(a.getId(), 0);
+		backward.setMinWeight(z.getId(), 0, -1);
+		backward.getQueue().addOrDecreaseKey(z.getId(), 0);
+		
+		// Holds the weight of the shortest path found so far, and the Vertex at
+		// which its forward and backward halves meet
+		float shortestWeight = a == z ? 0 : Float.POSITIVE_INFINITY;
+		int meetingVertex = a == z ? a.getId() : -1;
+		
+		IndexedHeap forwardQueue = forward.getQueue();
+		IndexedHeap backwardQueue = backward.getQueue();
+		
+		while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+			
+			// Every path not yet seen must pass through a Vertex unsettled by both
+			// searches, so it can be no shorter than the sum of the two minimum keys
+			float forwardKey = forwardQueue.peekKey();
+			float backwardKey = backwardQueue.peekKey();
+			
+			if (forwardKey + backwardKey >= shortestWeight) {
+				break;
+			}
+			
+			// Advance whichever search has the nearer frontier
+			SearchContext context, otherContext;
+			if (forwardKey <= backwardKey) {
+				context = forward;
+				otherContext = backward;
+			} else {
+				context = backward;
+				otherContext = forward;
+			}
+			
+			int uId = context.getQueue().poll();
+			float uMinWeight = context.getMinWeight(uId);
+			context.settle();
+			
+			for (int e = graph.getFirstEdge(uId, range); e != -1; e = graph.getNextEdge(uId, e, range)) {
+				int vId = graph.getTarget(e);
+				float weightThroughU = uMinWeight + graph.getWeight(e);
+				
+				if (weightThroughU < context.getMinWeight(vId)) {
+					context.setMinWeight(vId, weightThroughU, uId);
+					context.getQueue().addOrDecreaseKey(vId, weightThroughU);
+					
+					// If the other search has reached v, the two halves form a path
+					float pathWeight = weightThroughU + otherContext.getMinWeight(vId);
+					if (pathWeight < shortestWeight) {
+						shortestWeight = pathWeight;
+						meetingVertex = vId;
+					}
+				}
+			}
+		}
+		
+		// Splice the backward half of the shortest path onto the forward one, so
+		// the previous Vertex of each Vertex from the meeting Vertex to `z' leads
+		// back to `a'
+		if (meetingVertex != -1) {
+			int vId = meetingVertex;
+			int nextId;
+			
+			while ((nextId = backward.getPreviousVertex(vId)) != -1) {
+				forward.setMinWeight(
+					nextId, shortestWeight - backward.getMinWeight(nextId), vId
+				);
+				
+				vId = nextId;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of {@link Vertex} nodes settled by both halves of the
+	 * last search on the current Thread
+	 *
+	 * @return The number of {@link Vertex} nodes settled
+	 */
+	@Override
+	public int getSettledCount() {
+		return super.getSettledCount() + backwardSearchContexts.get().getSettledCount();
+	}
+}
\ No newline at end of file
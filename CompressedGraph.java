@@ -0,0 +1,533 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Holds the {@link Edge}s between a set of {@link Airport}s in compressed sparse
+ * row form: the Edges leaving the Vertex with id <em>v</em> are those from
+ * {@link #rowStarts}[v] up to {@link #rowEnds}[v], and each has only the id of the
+ * Vertex it leads to and its weight, in {@link #targets} and {@link #weights}.
+ * Every Edge thus takes eight bytes, rather than an Edge object and its entry in
+ * a Hashtable, and a search relaxing the Edges of a Vertex scans two arrays.
+ * <br /><br />
+ * The Edges of each Vertex are sorted by weight, so a CompressedGraph built for
+ * the longest range of a fleet serves every {@link Airplane} in it: one with a
+ * shorter range scans each row only until the first Edge beyond its range.
+ * <br /><br />
+ * The rows are found in blocks of {@link Airport}s on a ForkJoinPool, each block
+ * into rows of its own, and only then copied into the arrays in order on the
+ * building Thread, so the CompressedGraph is the same however the work is split.
+ * Once built, the row of a single Vertex may be replaced with
+ * {@link #setRow(int, long[])}, which writes it over the old one where it fits,
+ * and otherwise after every other row, packing the rows together again once the
+ * space left behind outgrows those in use.  Any number of Threads may search a
+ * CompressedGraph at once while none changes it.
+ *
+ * @author Dylon Edwards
+ */
+public class CompressedGraph implements Adjacency {
+	
+	/** Holds the number of {@link Airport}s below which a block is not split further */
+	protected static final int SPLIT_THRESHOLD = 64;
+	
+	/** Holds the index of the first Edge of each Vertex id in {@link #targets} and {@link #weights} */
+	protected int[] rowStarts;
+	
+	/** Holds the index after the last Edge of each Vertex id */
+	protected int[] rowEnds;
+	
+	/** Holds the Vertex id to which each Edge leads */
+	protected int[] targets;
+	
+	/** Holds the weight of each Edge */
+	protected float[] weights;
+	
+	/** Holds the number of entries of {@link #targets} and {@link #weights} written */
+	protected int size;
+	
+	/** Holds the number of entries written which no row uses any longer */
+	protected int garbage = 0;
+	
+	/**
+	 * Constructs a CompressedGraph holding every Edge no longer than the given
+	 * range between the given {@link Airport}s, finding their rows on the
+	 * common ForkJoinPool
+	 *
+	 * @param airports The {@link Airport}s to connect
+	 * @param index    A {@link SpatialIndex} holding the same {@link Airport}s
+	 * @param range    The length of the longest Edge
+	 * @throws NullPointerException When airports or index is null
+	 */
+	public CompressedGraph(Airport[] airports, SpatialIndex<Airport> index, float range) {
+		this(airports, index, range, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Constructs a CompressedGraph holding every Edge no longer than the given
+	 * range between the given {@link Airport}s, finding their rows on the given
+	 * ForkJoinPool
+	 *
+	 * @param airports The {@link Airport}s to connect
+	 * @param index    A {@link SpatialIndex} holding the same {@link Airport}s, which
+	 *                 may not change while the rows are found
+	 * @param range    The length of the longest Edge
+	 * @param pool     The ForkJoinPool on which to find the rows
+	 * @throws NullPointerException When airports, index or pool is null
+	 */
+	public CompressedGraph(Airport[] airports, SpatialIndex<Airport> index, float range,
+	                       ForkJoinPool pool) {
+		
+		if (pool == null) {
+			throw new NullPointerException("pool may not be null");
+		}
+		
+		airports = sortById(airports);
+		
+		// Holds the row of each Airport, each written only by the task of its block
+		long[][] rows = new long[airports.length][];
+		pool.invoke(new NeighborTask(airports, index, range, rows, 0, airports.length));
+		
+		build(airports, rows);
+	}
+	
+	/**
+	 * Constructs a CompressedGraph without any rows, for a subclass which finds
+	 * its own and then {@link #build(Vertex[], long[][]) builds} them
+	 */
+	protected CompressedGraph() {
+	}
+	
+	/**
+	 * Returns a copy of an array of Vertex nodes sorted by id, the order in which
+	 * the rows are filled in
+	 *
+	 * @param <V>      The type of the Vertex nodes
+	 * @param vertices The Vertex nodes to sort
+	 * @return A copy of vertices sorted by id
+	 * @throws NullPointerException When vertices is null
+	 */
+	protected static <V extends Vertex> V[] sortById(V[] vertices) {
+		vertices = vertices.clone();
+		
+		Arrays.sort(vertices, new Comparator<Vertex>() {
+			
+			@Override
+			public int compare(Vertex vertex1, Vertex vertex2) {
+				return vertex1.getId() - vertex2.getId();
+			}
+		});
+		
+		return vertices;
+	}
+	
+	/**
+	 * Copies the rows found for a set of Vertex nodes into the arrays, in order
+	 *
+	 * @param vertices The Vertex nodes, sorted by id
+	 * @param rows     The packed Edges of each Vertex, which are let go of once
+	 *                 copied
+	 */
+	protected void build(Vertex[] vertices, long[][] rows) {
+		int vertexCount = vertices.length > 0 ? vertices[vertices.length - 1].getId() + 1 : 0;
+		
+		int edgeCount = 0;
+		for (long[] row : rows) {
+			edgeCount += row.length;
+		}
+		
+		rowStarts = new int[vertexCount];
+		rowEnds = new int[vertexCount];
+		targets = new int[edgeCount];
+		weights = new float[edgeCount];
+		size = 0;
+		
+		for (int vertex = 0; vertex < vertices.length; vertex ++) {
+			int id = vertices[vertex].getId();
+			
+			rowStarts[id] = size;
+			size = write(rows[vertex], size);
+			rowEnds[id] = size;
+			
+			// Let the row be collected as soon as it is copied
+			rows[vertex] = null;
+		}
+	}
+	
+	/**
+	 * Copies a row of packed Edges into {@link #targets} and {@link #weights},
+	 * which must have room for it
+	 *
+	 * @param row   The packed Edges to copy
+	 * @param start The index at which to copy the first of them
+	 * @return The index after the last Edge copied
+	 */
+	protected int write(long[] row, int start) {
+		for (long entry : row) {
+			targets[start] = getTarget(entry);
+			weights[start] = getWeight(entry);
+			start ++;
+		}
+		
+		return start;
+	}
+	
+	/**
+	 * Replaces the row of a Vertex id, as when an {@link Airport} near it has been
+	 * added, removed or moved, so no search may be running
+	 *
+	 * @param vertex The id of the Vertex
+	 * @param row    The packed Edges of vertex, as returned by
+	 *               {@link #getNeighbors(Airport, SpatialIndex, float)}
+	 * @throws NullPointerException When row is null
+	 */
+	public void setRow(int vertex, long[] row) {
+		if (vertex >= rowStarts.length) {
+			int newCapacity = Math.max(vertex + 1, rowStarts.length * 2);
+			
+			// The new rows start out empty
+			rowStarts = Arrays.copyOf(rowStarts, newCapacity);
+			rowEnds = Arrays.copyOf(rowEnds, newCapacity);
+		}
+		
+		int oldLength = rowEnds[vertex] - rowStarts[vertex];
+		garbage += oldLength - row.length;
+		
+		if (row.length > oldLength) {
+			garbage += row.length;
+			
+			if (size + row.length > targets.length) {
+				int newCapacity = Math.max(size + row.length, targets.length * 2);
+				
+				targets = Arrays.copyOf(targets, newCapacity);
+				weights = Arrays.copyOf(weights, newCapacity);
+			}
+			
+			rowStarts[vertex] = size;
+		}
+		
+		rowEnds[vertex] = write(row, rowStarts[vertex]);
+		size = Math.max(size, rowEnds[vertex]);
+		
+		if (garbage > size - garbage) {
+			compact();
+		}
+	}
+	
+	/**
+	 * Replaces the Edges of the row of a Vertex id leading to any of the given
+	 * Vertex ids with the given Edges, keeping the row sorted, so no search may be
+	 * running
+	 *
+	 * @param vertex  The id of the Vertex
+	 * @param removed The ids of the Vertex nodes whose Edges to drop from the row
+	 * @param added   The packed Edges to add to the row, in any order
+	 * @throws NullPointerException When removed or added is null
+	 */
+	public void patchRow(int vertex, BitSet removed, List<Long> added) {
+		long[] gained = new long[added.size()];
+		
+		for (int edge = 0; edge < gained.length; edge ++) {
+			gained[edge] = added.get(edge);
+		}
+		
+		Arrays.sort(gained);
+		
+		int start = getRowStart(vertex);
+		int end = getRowEnd(vertex);
+		
+		long[] row = new long[end - start + gained.length];
+		int rowSize = 0;
+		int next = 0;
+		
+		// Merge the Edges kept with those gained, which sort as the packed Edges do
+		for (int edge = start; edge < end; edge ++) {
+			if (removed.get(targets[edge])) {
+				continue;
+			}
+			
+			long entry = getEntry(weights[edge], targets[edge]);
+			
+			while (next < gained.length && gained[next] < entry) {
+				row[rowSize ++] = gained[next ++];
+			}
+			
+			row[rowSize ++] = entry;
+		}
+		
+		while (next < gained.length) {
+			row[rowSize ++] = gained[next ++];
+		}
+		
+		setRow(vertex, Arrays.copyOf(row, rowSize));
+	}
+	
+	/**
+	 * Packs every row together in the order of their Vertex ids, discarding the
+	 * entries left behind by {@link #setRow(int, long[])}
+	 */
+	protected void compact() {
+		int[] targets = new int[size - garbage];
+		float[] weights = new float[targets.length];
+		int edgeCount = 0;
+		
+		for (int vertex = 0; vertex < rowStarts.length; vertex ++) {
+			int start = rowStarts[vertex];
+			int length = rowEnds[vertex] - start;
+			
+			System.arraycopy(this.targets, start, targets, edgeCount, length);
+			System.arraycopy(this.weights, start, weights, edgeCount, length);
+			
+			rowStarts[vertex] = edgeCount;
+			edgeCount += length;
+			rowEnds[vertex] = edgeCount;
+		}
+		
+		this.targets = targets;
+		this.weights = weights;
+		size = edgeCount;
+		garbage = 0;
+	}
+	
+	/**
+	 * Finds the rows of a block of Vertex nodes, splitting the block among the
+	 * threads of the pool
+	 */
+	protected abstract static class RowTask extends RecursiveAction {
+		
+		/** Generated by the serialver utility */
+		private static final long serialVersionUID = 4895330978336174325L;
+		
+		/** Holds the row found for each Vertex */
+		protected final long[][] rows;
+		
+		/** Holds the index of the first Vertex of the block */
+		protected final int from;
+		
+		/** Holds the index after the last Vertex of the block */
+		protected final int to;
+		
+		/**
+		 * Constructs a RowTask over a block of Vertex nodes
+		 *
+		 * @param rows The row found for each Vertex
+		 * @param from The index of the first Vertex of the block
+		 * @param to   The index after the last Vertex of the block
+		 */
+		protected RowTask(long[][] rows, int from, int to) {
+			this.rows = rows;
+			this.from = from;
+			this.to = to;
+		}
+		
+		/**
+		 * Returns a RowTask of the same kind over part of the block
+		 *
+		 * @param from The index of the first Vertex of the part
+		 * @param to   The index after the last Vertex of the part
+		 * @return A RowTask over the Vertex nodes from from up to to
+		 */
+		protected abstract RowTask split(int from, int to);
+		
+		/**
+		 * Returns the row of a Vertex of the block
+		 *
+		 * @param vertex The index of the Vertex
+		 * @return The packed Edges of the Vertex
+		 */
+		protected abstract long[] findRow(int vertex);
+		
+		@Override
+		protected void compute() {
+			if (to - from > SPLIT_THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(split(from, middle), split(middle, to));
+				return;
+			}
+			
+			for (int vertex = from; vertex < to; vertex ++) {
+				rows[vertex] = findRow(vertex);
+			}
+		}
+	}
+	
+	/**
+	 * Finds the rows of a block of {@link Airport}s, each holding every Edge to
+	 * the others in range
+	 */
+	protected static class NeighborTask extends RowTask {
+		
+		/** Generated by the serialver utility */
+		private static final long serialVersionUID = 8399959247751494891L;
+		
+		/** Holds the {@link Airport}s being connected */
+		protected final Airport[] airports;
+		
+		/** Holds the {@link Airport}s being connected by location */
+		protected final SpatialIndex<Airport> index;
+		
+		/** Holds the length of the longest Edge */
+		protected final float range;
+		
+		/**
+		 * Constructs a NeighborTask over a block of {@link Airport}s
+		 *
+		 * @param airports The {@link Airport}s being connected
+		 * @param index    The {@link Airport}s being connected by location
+		 * @param range    The length of the longest Edge
+		 * @param rows     The row found for each {@link Airport}
+		 * @param from     The index of the first {@link Airport} of the block
+		 * @param to       The index after the last {@link Airport} of the block
+		 */
+		protected NeighborTask(Airport[] airports, SpatialIndex<Airport> index, float range,
+		                       long[][] rows, int from, int to) {
+			
+			super(rows, from, to);
+			this.airports = airports;
+			this.index = index;
+			this.range = range;
+		}
+		
+		@Override
+		protected RowTask split(int from, int to) {
+			return new NeighborTask(airports, index, range, rows, from, to);
+		}
+		
+		@Override
+		protected long[] findRow(int airport) {
+			return getNeighbors(airports[airport], index, range);
+		}
+	}
+	
+	/**
+	 * Returns the Edges of an {@link Airport} to every other in range, sorted by
+	 * weight and then by the id of the Vertex each leads to, each packing the bits
+	 * of its weight above the id, which sort as the weight does since no weight is
+	 * negative
+	 *
+	 * @param airport The {@link Airport} whose Edges to return
+	 * @param index   A {@link SpatialIndex} holding the {@link Airport}s in range
+	 * @param range   The length of the longest Edge
+	 * @return The packed Edges of airport, read with {@link #getTarget(long)} and
+	 *         {@link #getWeight(long)}
+	 */
+	protected static long[] getNeighbors(Airport airport, SpatialIndex<Airport> index, float range) {
+		long[] row = new long[16];
+		int rowSize = 0;
+		
+		for (Airport neighbor : index.getCandidates(airport.getCoordinate(), range)) {
+			float weight = Edge.getWeight(airport, neighbor);
+			
+			if (neighbor != airport && weight <= range) {
+				if (rowSize == row.length) {
+					row = Arrays.copyOf(row, rowSize * 2);
+				}
+				
+				row[rowSize ++] = getEntry(weight, neighbor.getId());
+			}
+		}
+		
+		Arrays.sort(row, 0, rowSize);
+		return Arrays.copyOf(row, rowSize);
+	}
+	
+	/**
+	 * Packs an Edge into a long, the bits of its weight above the id of the Vertex
+	 * to which it leads
+	 *
+	 * @param weight The weight of the Edge
+	 * @param target The id of the Vertex to which the Edge leads
+	 * @return The packed Edge
+	 */
+	protected static long getEntry(float weight, int target) {
+		return (long) Float.floatToIntBits(weight) << 32 | target;
+	}
+	
+	/**
+	 * Returns the id of the Vertex to which a packed Edge leads
+	 *
+	 * @param entry The packed Edge
+	 * @return The id of the Vertex to which entry leads
+	 */
+	protected static int getTarget(long entry) {
+		return (int) entry;
+	}
+	
+	/**
+	 * Returns the weight of a packed Edge
+	 *
+	 * @param entry The packed Edge
+	 * @return The weight of entry
+	 */
+	protected static float getWeight(long entry) {
+		return Float.intBitsToFloat((int) (entry >>> 32));
+	}
+	
+	/**
+	 * Returns the first Edge of the row of a Vertex id
+	 *
+	 * @param vertex The id of the Vertex
+	 * @return The entry of {@link #rowStarts} for vertex, or 0 if it has no row
+	 */
+	@Override
+	public int getRowStart(int vertex) {
+		return vertex < rowStarts.length ? rowStarts[vertex] : 0;
+	}
+	
+	/**
+	 * Returns the Edge after the last of the row of a Vertex id
+	 *
+	 * @param vertex The id of the Vertex
+	 * @return The entry of {@link #rowEnds} for vertex, or 0 if it has no row
+	 */
+	@Override
+	public int getRowEnd(int vertex) {
+		return vertex < rowEnds.length ? rowEnds[vertex] : 0;
+	}
+	
+	/**
+	 * Returns the id of the Vertex to which an Edge leads
+	 *
+	 * @param edge The number of the Edge
+	 * @return The entry of {@link #targets} for edge
+	 */
+	@Override
+	public int getTarget(int edge) {
+		return targets[edge];
+	}
+	
+	/**
+	 * Returns the weight of an Edge
+	 *
+	 * @param edge The number of the Edge
+	 * @return The entry of {@link #weights} for edge
+	 */
+	@Override
+	public float getWeight(int edge) {
+		return weights[edge];
+	}
+	
+	/**
+	 * Returns the number of Vertex ids with a row in this CompressedGraph, beyond
+	 * which no Vertex has any Edges
+	 *
+	 * @return The length of {@link #rowStarts}
+	 */
+	public int getVertexCount() {
+		return rowStarts.length;
+	}
+	
+	/**
+	 * Returns the number of Edges held by this CompressedGraph
+	 *
+	 * @return The number of entries of {@link #targets} used by some row
+	 */
+	@Override
+	public int getEdgeCount() {
+		return size - garbage;
+	}
+}
\ No newline at end of file
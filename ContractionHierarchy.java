@@ -0,0 +1,930 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static java.lang.Math.*;
+
+/**
+ * A contraction hierarchy over the {@link Airport}s with the fuel required by one
+ * range class of {@link Airplane}, where two Airports are adjacent when the distance
+ * between them is within the range of the class.
+ * <br /><br />
+ * {@link #build()} contracts the Airports one at a time, least important first, and
+ * wherever removing an Airport would lengthen the shortest path between two of its
+ * remaining neighbors, adds a shortcut between them.  Every shortest path may then be
+ * found by a bidirectional search which only ever moves up the hierarchy, settling a
+ * tiny fraction of the graph; the shortcuts along it are unpacked afterward through
+ * the Airport each one skips.
+ * <br /><br />
+ * The Airports and their {@link Coordinate}s are copied on construction, so the
+ * hierarchy may be built on a background Thread while the database changes, and is
+ * immutable (and safe to query from any Thread) once built.
+ *
+ * @author Dylon Edwards
+ */
+public class ContractionHierarchy {
+	
+	/**
+	 * Holds the number of Airports a witness search may settle before giving up and
+	 * adding the shortcut, which bounds the cost of contracting each Airport
+	 */
+	protected static final int WITNESS_SETTLE_LIMIT = 32;
+	
+	/** Holds the Airports of this hierarchy, indexed by node */
+	protected final Airport[] airports;
+	
+	/** Holds the latitude of each node */
+	protected final float[] latitudes;
+	
+	/** Holds the longitude of each node */
+	protected final float[] longitudes;
+	
+	/** Holds the range of the {@link Airplane}s this hierarchy serves */
+	protected final float range;
+	
+	/** Holds the node of each {@link Vertex} id, or -1 if it is not in this hierarchy */
+	protected final int[] nodes;
+	
+	/** Holds the rank of each node, in the order in which they were contracted */
+	protected int[] ranks;
+	
+	/** Holds the offsets of each node's upward edges in the arrays below */
+	protected int[] upwardOffsets;
+	
+	/** Holds the higher-ranked node at the head of each upward edge */
+	protected int[] upwardTargets;
+	
+	/** Holds the weight of each upward edge */
+	protected float[] upwardWeights;
+	
+	/** Holds the node skipped by each upward shortcut, or -1 for an original edge */
+	protected int[] upwardMiddles;
+	
+	/** Holds the nodes bucketed by location while this hierarchy is being built */
+	protected Grid grid;
+	
+	/** Holds the number of shortcuts added while building this hierarchy */
+	protected int shortcutCount;
+	
+	/** Holds the forward and backward search state of each Thread querying this */
+	protected final ThreadLocal<SearchContext[]> searchContexts =
+		new ThreadLocal<SearchContext[]>() {
+			
+			@Override
+			protected SearchContext[] initialValue() {
+				return new SearchContext[] {
+					new SearchContext(airports.length), new SearchContext(airports.length)
+				};
+			}
+		};
+	
+	/**
+	 * Constructs an unbuilt ContractionHierarchy over a snapshot of the given Airports
+	 *
+	 * @param airports The {@link Airport}s with the fuel required by the range class
+	 * @param range    The range of the {@link Airplane}s in the range class
+	 * @throws NullPointerException When airports is null
+	 */
+	public ContractionHierarchy(Airport[] airports, float range) {
+		if (airports == null) {
+			throw new NullPointerException("airports may not be null");
+		}
+		
+		this.airports = airports.clone();
+		this.range = range;
+		
+		int count = this.airports.length;
+		latitudes = new float[count];
+		longitudes = new float[count];
+		
+		// Map each Vertex id to its node
+		int maxId = -1;
+		for (Airport airport : this.airports) {
+			maxId = max(maxId, airport.getId());
+		}
+		
+		nodes = new int[maxId + 1];
+		Arrays.fill(nodes, -1);
+		
+		for (int node = 0; node < count; node ++) {
+			Coordinate coordinate = this.airports[node].getCoordinate();
+			latitudes[node] = coordinate.getLatitude();
+			longitudes[node] = coordinate.getLongitude();
+			nodes[this.airports[node].getId()] = node;
+		}
+	}
+	
+	/**
+	 * Returns the weight of the {@link Edge} between two {@link Coordinate}s, computed
+	 * exactly as the {@link Edge} constructor computes it
+	 *
+	 * @param fromLatitude  The latitude from which the Edge originates
+	 * @param fromLongitude The longitude from which the Edge originates
+	 * @param toLatitude    The latitude at which the Edge ends
+	 * @param toLongitude   The longitude at which the Edge ends
+	 * @return The weight of the Edge in Kilometers
+	 */
+	protected static float getWeight(float fromLatitude,
+	                                 float fromLongitude,
+	                                 float toLatitude,
+	                                 float toLongitude) {
+		
+		float v_x = toLatitude - fromLatitude;
+		float v_y = toLongitude - fromLongitude;
+		
+		return (float)(sqrt(pow(v_x, 2) + pow(v_y, 2))) * 111.1f;
+	}
+	
+	/**
+	 * Returns the weight of the original {@link Edge} between two nodes
+	 *
+	 * @param from The node from which the Edge originates
+	 * @param to   The node at which the Edge ends
+	 * @return The weight of the Edge in Kilometers
+	 */
+	protected float getWeight(int from, int to) {
+		return getWeight(latitudes[from], longitudes[from], latitudes[to], longitudes[to]);
+	}
+	
+	/**
+	 * Returns the weight of the {@link Edge} between a {@link Vertex} and a node
+	 *
+	 * @param vertex The {@link Vertex} from which the Edge originates
+	 * @param node   The node at which the Edge ends
+	 * @return The weight of the Edge in Kilometers
+	 */
+	protected float getWeight(Vertex vertex, int node) {
+		Coordinate coordinate = vertex.getCoordinate();
+		
+		return getWeight(coordinate.getLatitude(), coordinate.getLongitude(),
+		                 latitudes[node], longitudes[node]);
+	}
+	
+	/**
+	 * Holds the adjacency of the nodes while they are being contracted
+	 */
+	protected static class Adjacency {
+		
+		/** Holds the neighbors of each node */
+		protected int[][] targets;
+		
+		/** Holds the weight of the edge to each neighbor */
+		protected float[][] weights;
+		
+		/** Holds the node skipped by the edge to each neighbor, or -1 */
+		protected int[][] middles;
+		
+		/** Holds the number of neighbors of each node */
+		protected int[] degrees;
+		
+		/** Holds the positions of each shortcut in the lists of both its nodes */
+		protected HashMap<Long, int[]> shortcuts = new HashMap<Long, int[]>();
+		
+		/**
+		 * Constructs an empty Adjacency of the given number of nodes
+		 *
+		 * @param count The number of nodes
+		 */
+		protected Adjacency(int count) {
+			targets = new int[count][4];
+			weights = new float[count][4];
+			middles = new int[count][4];
+			degrees = new int[count];
+		}
+		
+		/**
+		 * Appends an edge to the list of a node
+		 *
+		 * @param from   The node whose list to append to
+		 * @param to     The neighbor
+		 * @param weight The weight of the edge
+		 * @param middle The node the edge skips, or -1
+		 * @return The position of the edge in the list of from
+		 */
+		protected int append(int from, int to, float weight, int middle) {
+			int degree = degrees[from];
+			
+			if (degree == targets[from].length) {
+				targets[from] = Arrays.copyOf(targets[from], degree * 2);
+				weights[from] = Arrays.copyOf(weights[from], degree * 2);
+				middles[from] = Arrays.copyOf(middles[from], degree * 2);
+			}
+			
+			targets[from][degree] = to;
+			weights[from][degree] = weight;
+			middles[from][degree] = middle;
+			
+			return degrees[from] ++;
+		}
+		
+		/**
+		 * Returns the key of the shortcut between two nodes
+		 *
+		 * @param u One of the nodes
+		 * @param w The other node
+		 * @return A key which is the same regardless of the order of u and w
+		 */
+		protected static long getKey(int u, int w) {
+			return ((long) min(u, w) << 32) | max(u, w);
+		}
+		
+		/**
+		 * Returns the weight of the shortcut between two nodes
+		 *
+		 * @param u One of the nodes
+		 * @param w The other node
+		 * @return The weight of the shortcut, or infinity if there is none
+		 */
+		protected float getShortcutWeight(int u, int w) {
+			int[] positions = shortcuts.get(getKey(u, w));
+			
+			return positions != null ? weights[min(u, w)][positions[0]]
+			                         : Float.POSITIVE_INFINITY;
+		}
+		
+		/**
+		 * Adds a shortcut between two nodes through a middle node, or shortens the
+		 * existing one
+		 *
+		 * @param u      One of the nodes
+		 * @param w      The other node
+		 * @param weight The weight of the shortcut
+		 * @param middle The node the shortcut skips
+		 * @return Whether a new shortcut was added
+		 */
+		protected boolean addShortcut(int u, int w, float weight, int middle) {
+			long key = getKey(u, w);
+			int[] positions = shortcuts.get(key);
+			int low = min(u, w);
+			int high = max(u, w);
+			
+			if (positions == null) {
+				shortcuts.put(key, new int[] {
+					append(low, high, weight, middle), append(high, low, weight, middle)
+				});
+				
+				return true;
+			}
+			
+			if (weight < weights[low][positions[0]]) {
+				weights[low][positions[0]] = weight;
+				middles[low][positions[0]] = middle;
+				weights[high][positions[1]] = weight;
+				middles[high][positions[1]] = middle;
+			}
+			
+			return false;
+		}
+	}
+	
+	/**
+	 * Buckets the nodes into a uniform grid of latitude and longitude cells
+	 */
+	protected class Grid {
+		
+		/** Holds the latitude and longitude of the corner of the first cell */
+		protected final float minLatitude, minLongitude;
+		
+		/** Holds the width and height of each cell in degrees */
+		protected final float cellSize;
+		
+		/** Holds the number of rows and columns of cells */
+		protected final int rows, columns;
+		
+		/** Holds the offsets of each cell's nodes in {@link #nodes} */
+		protected final int[] offsets;
+		
+		/** Holds the nodes of each cell, one cell after another */
+		protected final int[] nodes;
+		
+		/**
+		 * Constructs a Grid over every node with cells of the given size
+		 *
+		 * @param cellSize The width and height of each cell in degrees
+		 */
+		protected Grid(float cellSize) {
+			int count = airports.length;
+			float minLatitude = Float.POSITIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+			float minLongitude = Float.POSITIVE_INFINITY, maxLongitude = Float.NEGATIVE_INFINITY;
+			
+			for (int node = 0; node < count; node ++) {
+				minLatitude = min(minLatitude, latitudes[node]);
+				maxLatitude = max(maxLatitude, latitudes[node]);
+				minLongitude = min(minLongitude, longitudes[node]);
+				maxLongitude = max(maxLongitude, longitudes[node]);
+			}
+			
+			if (count == 0) {
+				minLatitude = maxLatitude = minLongitude = maxLongitude = 0;
+			}
+			
+			// Never use more cells than there are nodes, plus a few
+			float area = (maxLatitude - minLatitude + cellSize) * (maxLongitude - minLongitude + cellSize);
+			cellSize = max(cellSize, (float) sqrt(area / (count + 16)));
+			
+			this.minLatitude = minLatitude;
+			this.minLongitude = minLongitude;
+			this.cellSize = cellSize;
+			rows = (int)((maxLatitude - minLatitude) / cellSize) + 1;
+			columns = (int)((maxLongitude - minLongitude) / cellSize) + 1;
+			
+			// Count the nodes of each cell, then place them with a prefix sum
+			offsets = new int[rows * columns + 1];
+			for (int node = 0; node < count; node ++) {
+				offsets[getCell(node) + 1] ++;
+			}
+			
+			for (int cell = 0; cell < rows * columns; cell ++) {
+				offsets[cell + 1] += offsets[cell];
+			}
+			
+			nodes = new int[count];
+			int[] next = Arrays.copyOf(offsets, rows * columns);
+			for (int node = 0; node < count; node ++) {
+				nodes[next[getCell(node)] ++] = node;
+			}
+		}
+		
+		/**
+		 * Returns the row of a latitude
+		 *
+		 * @param latitude The latitude
+		 * @return The row of cells containing latitude
+		 */
+		protected int getRow(float latitude) {
+			return min(max((int)((latitude - minLatitude) / cellSize), 0), rows - 1);
+		}
+		
+		/**
+		 * Returns the column of a longitude
+		 *
+		 * @param longitude The longitude
+		 * @return The column of cells containing longitude
+		 */
+		protected int getColumn(float longitude) {
+			return min(max((int)((longitude - minLongitude) / cellSize), 0), columns - 1);
+		}
+		
+		/**
+		 * Returns the cell of a node
+		 *
+		 * @param node The node
+		 * @return The index of the cell containing node
+		 */
+		protected int getCell(int node) {
+			return getRow(latitudes[node]) * columns + getColumn(longitudes[node]);
+		}
+	}
+	
+	/**
+	 * Contracts every node and records the upward edges of the finished hierarchy
+	 */
+	public void build() {
+		int count = airports.length;
+		Adjacency adjacency = new Adjacency(count);
+		
+		// Cells a quarter of the range across keep midpoint witnesses close by
+		grid = new Grid(range / 111.1f / 4);
+		
+		// Connect every pair of nodes within range, as the RoutingGraph does, looking 
+		// only through the cells of the grid which the range reaches
+		int reach = (int) ceil(range * 1.001f / 111.1f / grid.cellSize);
+		int[] candidates = new int[16];
+		
+		for (int u = 0; u < count; u ++) {
+			int row = grid.getRow(latitudes[u]);
+			int column = grid.getColumn(longitudes[u]);
+			int candidateCount = 0;
+			
+			for (int r = max(row - reach, 0); r <= min(row + reach, grid.rows - 1); r ++) {
+				for (int c = max(column - reach, 0); c <= min(column + reach, grid.columns - 1); c ++) {
+					int cell = r * grid.columns + c;
+					
+					for (int index = grid.offsets[cell]; index < grid.offsets[cell + 1]; index ++) {
+						int w = grid.nodes[index];
+						
+						if (w > u) {
+							if (candidateCount == candidates.length) {
+								candidates = Arrays.copyOf(candidates, candidateCount * 2);
+							}
+							
+							candidates[candidateCount ++] = w;
+						}
+					}
+				}
+			}
+			
+			// Keep the Edges in the order of the nodes, however the cells held them
+			Arrays.sort(candidates, 0, candidateCount);
+			
+			for (int index = 0; index < candidateCount; index ++) {
+				int w = candidates[index];
+				float weight = getWeight(u, w);
+				
+				if (weight <= range) {
+					adjacency.append(u, w, weight, -1);
+					adjacency.append(w, u, getWeight(w, u), -1);
+				}
+			}
+		}
+		
+		boolean[] contracted = new boolean[count];
+		int[] deletedNeighbors = new int[count];
+		ranks = new int[count];
+		
+		// Holds the state of the witness searches
+		SearchContext witnessContext = new SearchContext(count);
+		
+		// Order the nodes by their initial priorities
+		IndexedHeap order = new IndexedHeap(count);
+		for (int node = 0; node < count; node ++) {
+			order.addOrDecreaseKey(node, getPriority(node, adjacency, contracted, deletedNeighbors));
+		}
+		
+		int rank = 0;
+		while (!order.isEmpty()) {
+			int v = order.poll();
+			
+			// Priorities only grow as neighbors are contracted, so lazily recompute
+			// the priority of v, and put it back if it is no longer the minimum
+			float priority = getPriority(v, adjacency, contracted, deletedNeighbors);
+			if (!order.isEmpty() && priority > order.peekKey()) {
+				order.addOrDecreaseKey(v, priority);
+				continue;
+			}
+			
+			contract(v, adjacency, contracted, witnessContext);
+			contracted[v] = true;
+			ranks[v] = rank ++;
+			
+			for (int index = 0; index < adjacency.degrees[v]; index ++) {
+				deletedNeighbors[adjacency.targets[v][index]] ++;
+			}
+		}
+		
+		// Keep only the edges leading up the hierarchy
+		upwardOffsets = new int[count + 1];
+		for (int u = 0; u < count; u ++) {
+			int upward = 0;
+			for (int index = 0; index < adjacency.degrees[u]; index ++) {
+				if (ranks[adjacency.targets[u][index]] > ranks[u]) {
+					upward ++;
+				}
+			}
+			
+			upwardOffsets[u + 1] = upwardOffsets[u] + upward;
+		}
+		
+		upwardTargets = new int[upwardOffsets[count]];
+		upwardWeights = new float[upwardOffsets[count]];
+		upwardMiddles = new int[upwardOffsets[count]];
+		
+		for (int u = 0; u < count; u ++) {
+			int offset = upwardOffsets[u];
+			for (int index = 0; index < adjacency.degrees[u]; index ++) {
+				int w = adjacency.targets[u][index];
+				
+				if (ranks[w] > ranks[u]) {
+					upwardTargets[offset] = w;
+					upwardWeights[offset] = adjacency.weights[u][index];
+					upwardMiddles[offset] = adjacency.middles[u][index];
+					offset ++;
+				}
+			}
+		}
+		
+		// The grid is only needed while contracting
+		grid = null;
+	}
+	
+	/**
+	 * Returns the priority of contracting a node, which is the number of shortcuts
+	 * contracting it might add less the number of edges it would remove, plus the
+	 * number of its neighbors already contracted to spread contraction evenly
+	 *
+	 * @param v                The node
+	 * @param adjacency        The Adjacency of the nodes
+	 * @param contracted       Whether each node has been contracted
+	 * @param deletedNeighbors The number of contracted neighbors of each node
+	 * @return The priority of v, where lower priorities are contracted first
+	 */
+	protected float getPriority(int v,
+	                            Adjacency adjacency,
+	                            boolean[] contracted,
+	                            int[] deletedNeighbors) {
+		
+		int[] targets = adjacency.targets[v];
+		float[] weights = adjacency.weights[v];
+		int degree = adjacency.degrees[v];
+		
+		int edges = 0;
+		int shortcuts = 0;
+		
+		for (int i = 0; i < degree; i ++) {
+			int u = targets[i];
+			if (contracted[u]) {
+				continue;
+			}
+			
+			edges ++;
+			
+			for (int j = i + 1; j < degree; j ++) {
+				int w = targets[j];
+				if (contracted[w]) {
+					continue;
+				}
+				
+				// Count the pairs which have neither an original edge nor a shortcut
+				// as short as the path through v
+				float weight = weights[i] + weights[j];
+				if (getWeight(u, w) > range && adjacency.getShortcutWeight(u, w) > weight) {
+					shortcuts ++;
+				}
+			}
+		}
+		
+		return shortcuts - edges + deletedNeighbors[v];
+	}
+	
+	/**
+	 * Contracts a node by adding a shortcut between each pair of its remaining
+	 * neighbors whose shortest path runs through it
+	 *
+	 * @param v              The node to contract
+	 * @param adjacency      The Adjacency of the nodes
+	 * @param contracted     Whether each node has been contracted
+	 * @param witnessContext The SearchContext of the witness searches
+	 */
+	protected void contract(int v,
+	                        Adjacency adjacency,
+	                        boolean[] contracted,
+	                        SearchContext witnessContext) {
+		
+		int[] targets = adjacency.targets[v].clone();
+		float[] weights = adjacency.weights[v].clone();
+		int degree = adjacency.degrees[v];
+		
+		// Holds the neighbors of u which may need shortcuts, and their weights
+		int[] candidates = new int[degree];
+		float[] candidateWeights = new float[degree];
+		
+		for (int i = 0; i < degree; i ++) {
+			int u = targets[i];
+			if (contracted[u]) {
+				continue;
+			}
+			
+			int candidateCount = 0;
+			float maxWeight = 0;
+			
+			for (int j = i + 1; j < degree; j ++) {
+				int w = targets[j];
+				if (contracted[w]) {
+					continue;
+				}
+				
+				// An original edge within range is never longer than the path
+				// through v, since the weights are straight-line distances
+				float weight = weights[i] + weights[j];
+				if (getWeight(u, w) <= range || adjacency.getShortcutWeight(u, w) <= weight) {
+					continue;
+				}
+				
+				// Most pairs have a witness near the midpoint between them, which
+				// is far cheaper to find than by searching outward from u
+				if (hasMidpointWitness(u, w, v, weight, contracted)) {
+					continue;
+				}
+				
+				candidates[candidateCount] = w;
+				candidateWeights[candidateCount ++] = weight;
+				maxWeight = max(maxWeight, weight);
+			}
+			
+			if (candidateCount == 0) {
+				continue;
+			}
+			
+			// Look for witness paths from u which avoid v
+			witnessSearch(u, v, maxWeight, adjacency, contracted, witnessContext);
+			
+			for (int index = 0; index < candidateCount; index ++) {
+				int w = candidates[index];
+				
+				if (witnessContext.getMinWeight(w) > candidateWeights[index]) {
+					if (adjacency.addShortcut(u, w, candidateWeights[index], v)) {
+						shortcutCount ++;
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns whether an uncontracted node near the midpoint between two nodes is
+	 * within range of both, and forms a path between them no longer than weight
+	 *
+	 * @param u          One of the nodes
+	 * @param w          The other node
+	 * @param avoid      The node being contracted
+	 * @param weight     The weight of the path through the node being contracted
+	 * @param contracted Whether each node has been contracted
+	 * @return Whether there is a witness path through a node near the midpoint
+	 */
+	protected boolean hasMidpointWitness(int u,
+	                                     int w,
+	                                     int avoid,
+	                                     float weight,
+	                                     boolean[] contracted) {
+		
+		float latitude = (latitudes[u] + latitudes[w]) / 2;
+		float longitude = (longitudes[u] + longitudes[w]) / 2;
+		
+		int row = grid.getRow(latitude);
+		int column = grid.getColumn(longitude);
+		
+		// Look through the cell of the midpoint and the eight around it
+		for (int r = max(row - 1, 0); r <= min(row + 1, grid.rows - 1); r ++) {
+			for (int c = max(column - 1, 0); c <= min(column + 1, grid.columns - 1); c ++) {
+				int cell = r * grid.columns + c;
+				
+				for (int index = grid.offsets[cell]; index < grid.offsets[cell + 1]; index ++) {
+					int x = grid.nodes[index];
+					if (x == u || x == w || x == avoid || contracted[x]) {
+						continue;
+					}
+					
+					float first = getWeight(u, x);
+					float second = getWeight(x, w);
+					
+					if (first <= range && second <= range && first + second <= weight) {
+						return true;
+					}
+				}
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Searches the uncontracted nodes from a source, avoiding one node, until either
+	 * the maximum weight or the {@link #WITNESS_SETTLE_LIMIT} is reached
+	 *
+	 * @param source     The node from which to search
+	 * @param avoid      The node being contracted
+	 * @param maxWeight  The weight beyond which no witness is useful
+	 * @param adjacency  The Adjacency of the nodes
+	 * @param contracted Whether each node has been contracted
+	 * @param context    The SearchContext in which to record the search
+	 */
+	protected void witnessSearch(int source,
+	                             int avoid,
+	                             float maxWeight,
+	                             Adjacency adjacency,
+	                             boolean[] contracted,
+	                             SearchContext context) {
+		
+		context.reset(airports.length);
+		context.setMinWeight(source, 0, -1);
+		
+		IndexedHeap queue = context.getQueue();
+		queue.addOrDecreaseKey(source, 0);
+		
+		while (!queue.isEmpty() && context.getSettledCount() < WITNESS_SETTLE_LIMIT) {
+			if (queue.peekKey() > maxWeight) {
+				break;
+			}
+			
+			int u = queue.poll();
+			float uMinWeight = context.getMinWeight(u);
+			context.settle();
+			
+			for (int index = 0; index < adjacency.degrees[u]; index ++) {
+				int w = adjacency.targets[u][index];
+				if (w == avoid || contracted[w]) {
+					continue;
+				}
+				
+				float weightThroughU = uMinWeight + adjacency.weights[u][index];
+				if (weightThroughU < context.getMinWeight(w)) {
+					context.setMinWeight(w, weightThroughU, u);
+					queue.addOrDecreaseKey(w, weightThroughU);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of shortcuts added while building this hierarchy
+	 *
+	 * @return The {@link #shortcutCount} attribute
+	 */
+	public int getShortcutCount() {
+		return shortcutCount;
+	}
+	
+	/**
+	 * Returns the node of a {@link Vertex}
+	 *
+	 * @param vertex The {@link Vertex}
+	 * @return The node of vertex, or -1 if it is not in this hierarchy
+	 */
+	protected int getNode(Vertex vertex) {
+		int id = vertex.getId();
+		
+		if (id >= nodes.length || nodes[id] == -1) {
+			return -1;
+		}
+		
+		return airports[nodes[id]] == vertex ? nodes[id] : -1;
+	}
+	
+	/**
+	 * Seeds a search with a {@link Vertex}, which enters the hierarchy either at its
+	 * own node or, if it has none, at every node within range of it
+	 *
+	 * @param vertex  The {@link Vertex} from which to search
+	 * @param context The SearchContext of the search
+	 */
+	protected void seed(Vertex vertex, SearchContext context) {
+		int node = getNode(vertex);
+		
+		if (node != -1) {
+			context.setMinWeight(node, 0, -1);
+			context.getQueue().addOrDecreaseKey(node, 0);
+			return;
+		}
+		
+		for (int other = 0; other < airports.length; other ++) {
+			float weight = getWeight(vertex, other);
+			
+			if (weight <= range) {
+				context.setMinWeight(other, weight, -1);
+				context.getQueue().addOrDecreaseKey(other, weight);
+			}
+		}
+	}
+	
+	/**
+	 * Returns the shortest path between two {@link Vertex} nodes, refueling only at
+	 * the {@link Airport}s of this hierarchy
+	 *
+	 * @param a The {@link Vertex} at which the path begins
+	 * @param z The {@link Vertex} at which the path ends
+	 * @return The {@link Vertex} nodes along the shortest path from a to z, or null
+	 *         if there is no such path
+	 * @throws NullPointerException When either parameter is null
+	 * @throws IllegalStateException When this hierarchy has not been built
+	 */
+	public ArrayList<Vertex> getShortestPath(Vertex a, Vertex z) {
+		if (a == null) {
+			throw new NullPointerException("a may not be null");
+		}
+		
+		if (z == null) {
+			throw new NullPointerException("z may not be null");
+		}
+		
+		if (ranks == null) {
+			throw new IllegalStateException("The hierarchy has not been built");
+		}
+		
+		ArrayList<Vertex> path = new ArrayList<Vertex>();
+		
+		if (a == z) {
+			path.add(a);
+			return path;
+		}
+		
+		SearchContext[] contexts = searchContexts.get();
+		SearchContext forward = contexts[0];
+		SearchContext backward = contexts[1];
+		forward.reset(airports.length);
+		backward.reset(airports.length);
+		
+		seed(a, forward);
+		seed(z, backward);
+		
+		// Holds the weight of the shortest path found so far, and the node at the
+		// top of it where the two searches meet
+		float shortestWeight = Float.POSITIVE_INFINITY;
+		int meetingNode = -1;
+		
+		IndexedHeap forwardQueue = forward.getQueue();
+		IndexedHeap backwardQueue = backward.getQueue();
+		
+		while (true) {
+			float forwardKey = forwardQueue.isEmpty() ? Float.POSITIVE_INFINITY
+			                                          : forwardQueue.peekKey();
+			float backwardKey = backwardQueue.isEmpty() ? Float.POSITIVE_INFINITY
+			                                            : backwardQueue.peekKey();
+			
+			// Neither search can find a shorter path through a higher node
+			if (min(forwardKey, backwardKey) >= shortestWeight ||
+			    (forwardQueue.isEmpty() && backwardQueue.isEmpty())) {
+				break;
+			}
+			
+			SearchContext context, otherContext;
+			if (forwardKey <= backwardKey) {
+				context = forward;
+				otherContext = backward;
+			} else {
+				context = backward;
+				otherContext = forward;
+			}
+			
+			int u = context.getQueue().poll();
+			float uMinWeight = context.getMinWeight(u);
+			context.settle();
+			
+			float pathWeight = uMinWeight + otherContext.getMinWeight(u);
+			if (pathWeight < shortestWeight) {
+				shortestWeight = pathWeight;
+				meetingNode = u;
+			}
+			
+			// Both searches only ever move up the hierarchy
+			for (int index = upwardOffsets[u]; index < upwardOffsets[u + 1]; index ++) {
+				int w = upwardTargets[index];
+				float weightThroughU = uMinWeight + upwardWeights[index];
+				
+				if (weightThroughU < context.getMinWeight(w)) {
+					context.setMinWeight(w, weightThroughU, u);
+					context.getQueue().addOrDecreaseKey(w, weightThroughU);
+				}
+			}
+		}
+		
+		if (meetingNode == -1) {
+			return null;
+		}
+		
+		// Collect the nodes from the entry of the forward search up to the meeting
+		// node, then down to the entry of the backward search
+		ArrayList<Integer> upward = new ArrayList<Integer>();
+		for (int node = meetingNode; node != -1; node = forward.getPreviousVertex(node)) {
+			upward.add(node);
+		}
+		
+		Collections.reverse(upward);
+		
+		ArrayList<Integer> nodePath = new ArrayList<Integer>(upward);
+		for (int node = backward.getPreviousVertex(meetingNode);
+		     node != -1;
+		     node = backward.getPreviousVertex(node)) {
+			
+			nodePath.add(node);
+		}
+		
+		// Unpack every shortcut into the original edges it skips
+		if (getNode(a) == -1) {
+			path.add(a);
+		}
+		
+		path.add(airports[nodePath.get(0)]);
+		for (int index = 1; index < nodePath.size(); index ++) {
+			unpack(nodePath.get(index - 1), nodePath.get(index), path);
+		}
+		
+		if (getNode(z) == -1) {
+			path.add(z);
+		}
+		
+		return path;
+	}
+	
+	/**
+	 * Appends the {@link Airport}s along the edge between two nodes, excluding the
+	 * first, unpacking shortcuts recursively
+	 *
+	 * @param from The node at which the edge begins
+	 * @param to   The node at which the edge ends
+	 * @param path The path to which to append the {@link Airport}s
+	 */
+	protected void unpack(int from, int to, ArrayList<Vertex> path) {
+		
+		// The edge is stored on whichever node is lower in the hierarchy
+		int low = ranks[from] < ranks[to] ? from : to;
+		int high = low == from ? to : from;
+		int middle = -1;
+		
+		for (int index = upwardOffsets[low]; index < upwardOffsets[low + 1]; index ++) {
+			if (upwardTargets[index] == high) {
+				middle = upwardMiddles[index];
+				break;
+			}
+		}
+		
+		if (middle == -1) {
+			path.add(airports[to]);
+		} else {
+			unpack(from, middle, path);
+			unpack(middle, to, path);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * A {@link Dijkstra} which answers point-to-point queries with the
+ * {@link ContractionHierarchy} that its {@link FlightPlan} keeps for the range
+ * class of the {@link Airplane}.  While that hierarchy is still being built on
+ * the background Thread, queries fall back to the search of the superclass.
+ *
+ * @author Dylon Edwards
+ */
+public class ContractionHierarchyDijkstra extends Dijkstra {
+	
+	/**
+	 * Leaves the paths from the origin vertex to be found one at a time, since the
+	 * {@link ContractionHierarchy} answers each query far faster than a search of
+	 * the whole graph
+	 *
+	 * @param a        The origin {@link Vertex} from which the paths are calculated
+	 * @param targets  The target {@link Vertex} nodes to which the paths are calculated
+	 * @param airplane The {@link Airplane} being used to traverse the paths
+	 * @return false, since no path is computed
+	 */
+	@Override
+	public boolean computePaths(Vertex a, Collection<? extends Vertex> targets, Airplane airplane) {
+		return false;
+	}
+	
+	/**
+	 * Computes the shortest path from the origin vertex to the target vertex in the
+	 * {@link ContractionHierarchy} of the range class of airplane, and records it in
+	 * the {@link SearchContext} so {@link #getShortestPath} may retrieve it as usual
+	 *
+	 * @param a        The origin {@link Vertex} from which the shortest path is calculated
+	 * @param z        The target {@link Vertex} to which the shortest path is calculated
+	 * @param airplane The {@link Airplane} being used to traverse the path
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	@Override
+	public void computePath(Vertex a, Vertex z, Airplane airplane) throws VertexException {
+		if (a == null) {
+			throw new NullPointerException("a may not be null");
+		}
+		
+		if (z == null) {
+			throw new NullPointerException("z may not be null");
+		}
+		
+		if (airplane == null) {
+			throw new NullPointerException("airplane may not be null");
+		}
+		
+		ContractionHierarchy hierarchy = a.flightPlan.getContractionHierarchy(airplane);
+		
+		// Until the hierarchy is ready, search the graph directly
+		if (hierarchy == null) {
+			computePath(a, z);
+			return;
+		}
+		
+		ArrayList<Vertex> path = hierarchy.getShortestPath(a, z);
+		
+		// Record the path as a chain of previous Vertex nodes from `z' back to `a'
+		SearchContext context = getSearchContext();
+		context.reset(a.flightPlan.getVertexIdCount());
+		context.setMinWeight(a.getId(), 0, -1);
+		
+		if (path != null) {
+			float minWeight = 0;
+			
+			for (int index = 1; index < path.size(); index ++) {
+				Vertex previousVertex = path.get(index - 1);
+				Vertex vertex = path.get(index);
+				
+				minWeight += Edge.getWeight(previousVertex, vertex);
+				context.setMinWeight(vertex.getId(), minWeight, previousVertex.getId());
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,467 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link Dijkstra} whose {@link #computePaths(Vertex)} computes the shortest path
+ * tree from the origin vertex in parallel with the delta-stepping algorithm of Meyer
+ * and Sanders.  Rather than settling one {@link Vertex} at a time, the tentative
+ * weights are sorted into buckets <em>delta</em> wide, and every Vertex in the
+ * lowest bucket has its edges relaxed at once on a ForkJoinPool: first the light
+ * edges (no heavier than delta) until the bucket stops refilling, then the heavy
+ * ones.
+ * <br /><br />
+ * The minimum weights are lowered by compare-and-set on their float bits, which
+ * order just as the non-negative floats do.  Every minimum weight is the least fixed
+ * point of the same float sums Dijkstra's algorithm computes, so they match those of
+ * the superclass exactly.  Once they are final, one more parallel pass picks the
+ * previous Vertex of each Vertex as Dijkstra's algorithm would: of the neighbors
+ * through which its minimum weight is reached, the one with the lowest minimum
+ * weight, which Dijkstra's algorithm settles first (neighbors of exactly equal
+ * minimum weight are told apart by id instead).  The results are copied into the
+ * {@link SearchContext} of the calling Thread, so {@link #getShortestPath} works
+ * as usual.
+ * <br /><br />
+ * Point-to-point searches through {@link #computePath(Vertex, Vertex)} are left to
+ * the superclass, since they settle too little of the graph to split up.
+ *
+ * @author Dylon Edwards
+ */
+public class DeltaSteppingDijkstra extends Dijkstra {
+	
+	/** Holds the number of {@link Vertex} nodes below which a task is not split */
+	protected static final int SPLIT_THRESHOLD = 64;
+	
+	/** Holds the number of {@link Edge}s sampled to choose delta automatically */
+	protected static final int DELTA_SAMPLE_SIZE = 4096;
+	
+	/** Holds the bits of the minimum weight of an unreached {@link Vertex} */
+	protected static final int UNREACHED = Float.floatToIntBits(Float.POSITIVE_INFINITY);
+	
+	/** Holds the packed minimum weight and id of a missing previous {@link Vertex} */
+	protected static final long NO_PREVIOUS_VERTEX = pack(Float.POSITIVE_INFINITY, -1);
+	
+	/** Holds the ForkJoinPool on which the edges are relaxed */
+	protected final ForkJoinPool pool;
+	
+	/** Holds the width of each bucket, or NaN to choose it from the graph */
+	protected final float delta;
+	
+	/**
+	 * Constructs a DeltaSteppingDijkstra which relaxes edges on the common 
+	 * ForkJoinPool, choosing delta from the graph
+	 */
+	public DeltaSteppingDijkstra() {
+		this(ForkJoinPool.commonPool(), Float.NaN);
+	}
+	
+	/**
+	 * Constructs a DeltaSteppingDijkstra with the given ForkJoinPool and delta
+	 *
+	 * @param pool  The ForkJoinPool on which to relax the edges
+	 * @param delta The width of each bucket in Kilometers, or NaN to choose the
+	 *              mean weight of a sample of the edges
+	 * @throws NullPointerException When pool is null
+	 * @throws IllegalArgumentException When delta is neither positive nor NaN
+	 */
+	public DeltaSteppingDijkstra(ForkJoinPool pool, float delta) {
+		if (pool == null) {
+			throw new NullPointerException("pool may not be null");
+		}
+		
+		if (delta <= 0) {
+			throw new IllegalArgumentException("delta must be positive");
+		}
+		
+		this.pool = pool;
+		this.delta = delta;
+	}
+	
+	/**
+	 * Packs the minimum weight and id of a candidate previous {@link Vertex} into one
+	 * long, which orders first by minimum weight, then by id
+	 *
+	 * @param weight         The minimum weight of the previous {@link Vertex}
+	 * @param previousVertex The id of the previous {@link Vertex}, or -1 if there is none
+	 * @return The packed long
+	 */
+	protected static long pack(float weight, int previousVertex) {
+		return ((long) Float.floatToIntBits(weight) << 32) | (previousVertex & 0xffffffffL);
+	}
+	
+	/**
+	 * Computes the shortest paths from the origin vertex to each destination
+	 * vertex in parallel with the delta-stepping algorithm
+	 *
+	 * @param a the origin {@link Vertex} from which the shortest paths are calculated
+	 * @throws NullPointerException When a is null
+	 */
+	@Override
+	public void computePaths(Vertex a) throws VertexException {
+		if (a == null) {
+			throw new NullPointerException("a may not be null");
+		}
+		
+		new Search(a).run();
+	}
+	
+	/**
+	 * Holds the state of one delta-stepping search
+	 */
+	protected class Search {
+		
+		/** Holds the FlightPlan which maps Vertex ids back to their Vertex nodes */
+		protected final FlightPlan flightPlan;
+		
+		/** Holds the origin {@link Vertex} */
+		protected final Vertex a;
+		
+		/** Holds the Edges of the flight plan being found */
+		protected final RoutingGraph graph;
+		
+		/** Holds the range of the {@link Airplane}, beyond which no Edge is followed */
+		protected final float range;
+		
+		/** Holds the width of each bucket */
+		protected final float delta;
+		
+		/** Holds the bits of the tentative minimum weight of each Vertex id */
+		protected final AtomicIntegerArray tentative;
+		
+		/**
+		 * Holds the packed minimum weight and id of the previous Vertex of each
+		 * Vertex id, which is only chosen once the minimum weights are final
+		 */
+		protected AtomicLongArray previousVertices;
+		
+		/** Holds the Vertex ids waiting in each bucket, which may hold stale ids */
+		protected final ConcurrentSkipListMap<Integer, ConcurrentLinkedQueue<Integer>> buckets =
+			new ConcurrentSkipListMap<Integer, ConcurrentLinkedQueue<Integer>>();
+		
+		/**
+		 * Constructs a Search from the origin vertex
+		 *
+		 * @param a The origin {@link Vertex}
+		 */
+		protected Search(Vertex a) {
+			this.flightPlan = a.flightPlan;
+			this.a = a;
+			graph = flightPlan.getSearchGraph();
+			range = flightPlan.getSearchRange();
+			
+			int count = flightPlan.getVertexIdCount();
+			tentative = new AtomicIntegerArray(count);
+			
+			for (int id = 0; id < count; id ++) {
+				tentative.set(id, UNREACHED);
+			}
+			
+			delta = Float.isNaN(DeltaSteppingDijkstra.this.delta) ?
+				getMeanWeight(count) : DeltaSteppingDijkstra.this.delta;
+		}
+		
+		/**
+		 * Returns the mean weight of a sample of the {@link Edge}s of the graph
+		 *
+		 * @param count The number of Vertex ids in the graph
+		 * @return The mean weight, or 1 if there are no {@link Edge}s
+		 */
+		protected float getMeanWeight(int count) {
+			double sum = 0;
+			int sampled = 0;
+			
+			for (int id = 0; id < count && sampled < DELTA_SAMPLE_SIZE; id ++) {
+				for (int e = graph.getFirstEdge(id, range); e != -1; e = graph.getNextEdge(id, e, range)) {
+					sum += graph.getWeight(e);
+					
+					if (++ sampled == DELTA_SAMPLE_SIZE) {
+						break;
+					}
+				}
+			}
+			
+			return sampled > 0 && sum > 0 ? (float) (sum / sampled) : 1;
+		}
+		
+		/**
+		 * Returns the bucket of a weight
+		 *
+		 * @param weight The weight
+		 * @return The index of the bucket holding weight
+		 */
+		protected int getBucket(float weight) {
+			return (int) Math.min(weight / delta, Integer.MAX_VALUE - 1);
+		}
+		
+		/**
+		 * Returns the tentative minimum weight of a {@link Vertex} id
+		 *
+		 * @param id The id of the Vertex
+		 * @return The tentative minimum weight of id
+		 */
+		protected float getMinWeight(int id) {
+			return Float.intBitsToFloat(tentative.get(id));
+		}
+		
+		/**
+		 * Lowers the tentative weight of a {@link Vertex} id, if the given path to it
+		 * is shorter, and files it in its new bucket
+		 *
+		 * @param id     The id of the Vertex
+		 * @param weight The weight of the path
+		 */
+		protected void relax(int id, float weight) {
+			int bits = Float.floatToIntBits(weight);
+			int current;
+			
+			do {
+				current = tentative.get(id);
+				
+				if (bits >= current) {
+					return;
+				}
+			} while (!tentative.compareAndSet(id, current, bits));
+			
+			int bucket = getBucket(weight);
+			ConcurrentLinkedQueue<Integer> queue = buckets.get(bucket);
+			
+			if (queue == null) {
+				queue = new ConcurrentLinkedQueue<Integer>();
+				ConcurrentLinkedQueue<Integer> existing = buckets.putIfAbsent(bucket, queue);
+				
+				if (existing != null) {
+					queue = existing;
+				}
+			}
+			
+			queue.add(id);
+		}
+		
+		/**
+		 * Runs the search and copies its results into the {@link SearchContext} of
+		 * the calling Thread
+		 */
+		protected void run() {
+			int count = tentative.length();
+			
+			// Marks the Vertex ids already taken from the current bucket in each
+			// phase, and those settled in the current bucket
+			int[] phaseStamps = new int[count];
+			int[] bucketStamps = new int[count];
+			int phase = 0;
+			
+			int[] frontier = new int[16];
+			int[] settled = new int[16];
+			
+			relax(a.getId(), 0);
+			
+			while (!buckets.isEmpty()) {
+				int bucket = buckets.firstKey();
+				int settledCount = 0;
+				ConcurrentLinkedQueue<Integer> queue;
+				
+				// Relax the light edges until the bucket stops refilling
+				while ((queue = buckets.remove(bucket)) != null) {
+					phase ++;
+					int frontierCount = 0;
+					
+					for (Integer id : queue) {
+						
+						// Skip the ids whose weight has since moved to a lower bucket,
+						// and those already taken in this phase
+						if (phaseStamps[id] == phase ||
+						    getBucket(getMinWeight(id)) != bucket) {
+							continue;
+						}
+						
+						phaseStamps[id] = phase;
+						
+						if (frontierCount == frontier.length) {
+							frontier = Arrays.copyOf(frontier, frontierCount * 2);
+						}
+						
+						frontier[frontierCount ++] = id;
+						
+						if (bucketStamps[id] != bucket + 1) {
+							bucketStamps[id] = bucket + 1;
+							
+							if (settledCount == settled.length) {
+								settled = Arrays.copyOf(settled, settledCount * 2);
+							}
+							
+							settled[settledCount ++] = id;
+						}
+					}
+					
+					pool.invoke(new RelaxTask(frontier, 0, frontierCount, true));
+				}
+				
+				// Every weight in the bucket is now final, so relax the heavy edges
+				pool.invoke(new RelaxTask(settled, 0, settledCount, false));
+			}
+			
+			// Now that the minimum weights are final, choose the previous Vertex
+			// of every Vertex reached
+			int reachedCount = 0;
+			int[] reached = new int[count];
+			
+			for (int id = 0; id < count; id ++) {
+				if (tentative.get(id) != UNREACHED) {
+					reached[reachedCount ++] = id;
+				}
+			}
+			
+			previousVertices = new AtomicLongArray(count);
+			for (int id = 0; id < count; id ++) {
+				previousVertices.set(id, NO_PREVIOUS_VERTEX);
+			}
+			
+			pool.invoke(new PreviousVertexTask(reached, 0, reachedCount));
+			
+			// Copy the results into the SearchContext of this Thread
+			SearchContext context = getSearchContext();
+			context.reset(count);
+			
+			for (int index = 0; index < reachedCount; index ++) {
+				int id = reached[index];
+				int previousVertex = id != a.getId() ? (int) previousVertices.get(id) : -1;
+				
+				context.setMinWeight(id, getMinWeight(id), previousVertex);
+				context.settle();
+			}
+		}
+		
+		/**
+		 * Relaxes either the light or the heavy {@link Edge}s of a range of Vertex
+		 * ids, splitting the range among the threads of the pool
+		 */
+		protected class RelaxTask extends RecursiveAction {
+			
+			/** Generated by the serialver utility */
+			private static final long serialVersionUID = -3196762959604839762L;
+			
+			/** Holds the Vertex ids to relax */
+			protected final int[] ids;
+			
+			/** Holds the index of the first Vertex id to relax */
+			protected final int from;
+			
+			/** Holds the index after the last Vertex id to relax */
+			protected final int to;
+			
+			/** Holds whether to relax the light Edges, rather than the heavy ones */
+			protected final boolean light;
+			
+			/**
+			 * Constructs a RelaxTask over a range of Vertex ids
+			 *
+			 * @param ids   The Vertex ids to relax
+			 * @param from  The index of the first Vertex id to relax
+			 * @param to    The index after the last Vertex id to relax
+			 * @param light Whether to relax the light Edges, rather than the heavy ones
+			 */
+			protected RelaxTask(int[] ids, int from, int to, boolean light) {
+				this.ids = ids;
+				this.from = from;
+				this.to = to;
+				this.light = light;
+			}
+			
+			@Override
+			protected void compute() {
+				if (to - from > SPLIT_THRESHOLD) {
+					int middle = (from + to) >>> 1;
+					invokeAll(new RelaxTask(ids, from, middle, light),
+					          new RelaxTask(ids, middle, to, light));
+					return;
+				}
+				
+				for (int index = from; index < to; index ++) {
+					int uId = ids[index];
+					float uMinWeight = getMinWeight(uId);
+					
+					for (int e = graph.getFirstEdge(uId, range); e != -1; e = graph.getNextEdge(uId, e, range)) {
+						float weight = graph.getWeight(e);
+						
+						if ((weight <= delta) == light) {
+							relax(graph.getTarget(e), uMinWeight + weight);
+						}
+					}
+				}
+			}
+		}
+		
+		/**
+		 * Offers each Vertex id in a range as the previous Vertex of every neighbor
+		 * whose minimum weight it reaches exactly, keeping the offer of the lowest
+		 * minimum weight, and splits the range among the threads of the pool
+		 */
+		protected class PreviousVertexTask extends RecursiveAction {
+			
+			/** Generated by the serialver utility */
+			private static final long serialVersionUID = -742443055622183724L;
+			
+			/** Holds the Vertex ids to offer */
+			protected final int[] ids;
+			
+			/** Holds the index of the first Vertex id to offer */
+			protected final int from;
+			
+			/** Holds the index after the last Vertex id to offer */
+			protected final int to;
+			
+			/**
+			 * Constructs a PreviousVertexTask over a range of Vertex ids
+			 *
+			 * @param ids  The Vertex ids to offer
+			 * @param from The index of the first Vertex id to offer
+			 * @param to   The index after the last Vertex id to offer
+			 */
+			protected PreviousVertexTask(int[] ids, int from, int to) {
+				this.ids = ids;
+				this.from = from;
+				this.to = to;
+			}
+			
+			@Override
+			protected void compute() {
+				if (to - from > SPLIT_THRESHOLD) {
+					int middle = (from + to) >>> 1;
+					invokeAll(new PreviousVertexTask(ids, from, middle),
+					          new PreviousVertexTask(ids, middle, to));
+					return;
+				}
+				
+				for (int index = from; index < to; index ++) {
+					int uId = ids[index];
+					float uMinWeight = getMinWeight(uId);
+					long offer = pack(uMinWeight, uId);
+					
+					for (int e = graph.getFirstEdge(uId, range); e != -1; e = graph.getNextEdge(uId, e, range)) {
+						int vId = graph.getTarget(e);
+						
+						// Only the neighbors reaching the minimum weight of v exactly
+						// may precede it
+						if (uMinWeight + graph.getWeight(e) == getMinWeight(vId)) {
+							long current;
+							
+							do {
+								current = previousVertices.get(vId);
+								
+								if (offer >= current) {
+									break;
+								}
+							} while (!previousVertices.compareAndSet(vId, current, offer));
+						}
+					}
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
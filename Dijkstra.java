@@ -1,8 +1,8 @@
 package edu.usca.acsc492l.flightplanner;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.PriorityQueue;
 
 /**
  * <p>Dijkstra's Shortest Path Algorithm for finding the shortest weighted path between 
@@ -53,6 +53,25 @@ public class Dijkstra {
 	/** Holds the current date in milliseconds */
 	private long timestamp;
 	
+	/** 
+	 * Holds the per-search state of each Thread using this Dijkstra, so several 
+	 * searches may run over the same graph at once
+	 */
+	protected final ThreadLocal<SearchContext> searchContexts = 
+		new ThreadLocal<SearchContext>() {
+			
+			@Override
+			protected SearchContext initialValue() {
+				return new SearchContext(0);
+			}
+		};
+	
+	/** 
+	 * Holds the {@link Heuristic} which directs point-to-point searches toward their 
+	 * target, or null if they should expand uniformly as in Dijkstra's algorithm
+	 */
+	protected Heuristic heuristic = null;
+	
 	/**
 	 * Constructs a default Dijkstra object
 	 */
@@ -74,44 +93,219 @@ public class Dijkstra {
 			throw new NullPointerException("a may not be null");
 		}
 		
+		search(a, null);
+	}
+	
+	/**
+	 * Computes the shortest paths the given {@link Airplane} can fly from the 
+	 * origin vertex to each of the target vertices, departing with a full tank, in 
+	 * one search, where this Dijkstra finds them faster that way; otherwise each 
+	 * path must be found by {@link #computePath(Vertex, Vertex, Airplane)} instead.  
+	 * Dijkstra's algorithm does, unless it has a {@link #heuristic}, since a search 
+	 * directed toward each target in turn settles far less of the graph than one 
+	 * directed toward none.
+	 *
+	 * @param a        The origin {@link Vertex} from which the shortest paths are calculated
+	 * @param targets  The target {@link Vertex} nodes to which the shortest paths are 
+	 *                 calculated
+	 * @param airplane The {@link Airplane} being used to traverse the paths
+	 * @return Whether the paths were computed
+	 * @throws NullPointerException When a is null
+	 */
+	public boolean computePaths(Vertex a, Collection<? extends Vertex> targets, Airplane airplane) 
+	                            throws VertexException {
+		
+		if (heuristic != null) {
+			return false;
+		}
+		
+		computePaths(a);
+		return true;
+	}
+	
+	/**
+	 * Computes the shortest path from the origin vertex to the target vertex, 
+	 * stopping as soon as the target is settled
+	 *
+	 * @param a The origin {@link Vertex} from which the shortest path is calculated
+	 * @param z The target {@link Vertex} to which the shortest path is calculated
+	 * @throws NullPointerException When either parameter is null
+	 */
+	public void computePath(Vertex a, Vertex z) throws VertexException {
+		if (a == null) {
+			throw new NullPointerException("a may not be null");
+		}
+		
+		if (z == null) {
+			throw new NullPointerException("z may not be null");
+		}
+		
+		search(a, z);
+	}
+	
+	/**
+	 * Computes the shortest path from the origin vertex to the target vertex for 
+	 * the given {@link Airplane}, which engines that keep precomputed data for 
+	 * each kind of {@link Airplane} use to select it
+	 *
+	 * @param a        The origin {@link Vertex} from which the shortest path is calculated
+	 * @param z        The target {@link Vertex} to which the shortest path is calculated
+	 * @param airplane The {@link Airplane} being used to traverse the path
+	 * @throws NullPointerException When a or z is null
+	 */
+	public void computePath(Vertex a, Vertex z, Airplane airplane) throws VertexException {
+		computePath(a, z);
+	}
+	
+	/**
+	 * Computes the shortest path from the origin vertex to the target vertex for 
+	 * the given {@link Airplane}, which has already flown the given distance since 
+	 * it last refueled.  Engines which track the fuel of the Airplane use the 
+	 * distance to avoid paths it cannot fly; the rest ignore it.
+	 *
+	 * @param a             The origin {@link Vertex} from which the shortest path is calculated
+	 * @param z             The target {@link Vertex} to which the shortest path is calculated
+	 * @param airplane      The {@link Airplane} being used to traverse the path
+	 * @param distanceFlown The distance flown since the Airplane last refueled
+	 * @throws NullPointerException When a or z is null
+	 */
+	public void computePath(Vertex a, Vertex z, Airplane airplane, float distanceFlown) 
+	                        throws VertexException {
+		
+		computePath(a, z, airplane);
+	}
+	
+	/**
+	 * Searches the graph from the origin vertex, keying each {@link Vertex} in the 
+	 * queue by its minimum weight plus the {@link #heuristic} estimate of the weight 
+	 * remaining to the target, if there are both a target and a heuristic
+	 *
+	 * @param a The origin {@link Vertex} from which the shortest paths are calculated
+	 * @param z The target {@link Vertex} at which to stop, or null to settle every 
+	 *          reachable {@link Vertex}
+	 */
+	protected void search(Vertex a, Vertex z) {
+		search(a, z, heuristic);
+	}
+	
+	/**
+	 * Searches the graph from the origin vertex, keying each {@link Vertex} in the 
+	 * queue by its minimum weight plus the given {@link Heuristic} estimate of the 
+	 * weight remaining to the target, if there are both a target and a heuristic
+	 *
+	 * @param a         The origin {@link Vertex} from which the shortest paths are calculated
+	 * @param z         The target {@link Vertex} at which to stop, or null to settle every 
+	 *                  reachable {@link Vertex}
+	 * @param heuristic The {@link Heuristic} which directs the search toward z, or null 
+	 *                  if it should expand uniformly
+	 */
+	protected void search(Vertex a, Vertex z, Heuristic heuristic) {
+		
+		// Holds the FlightPlan which maps Vertex ids back to their Vertex nodes
+		FlightPlan flightPlan = a.flightPlan;
+		
+		// Only direct the search when there is a target to direct it to
+		if (z == null) {
+			heuristic = null;
+		}
+		
+		// Start a new search in this Thread's SearchContext, which discards the 
+		// results of the previous one in constant time
+		SearchContext context = getSearchContext();
+		context.reset(flightPlan.getVertexIdCount());
+		
+		// Holds the Edges of the flight plan being found, and the range of its 
+		// Airplane, beyond which none are followed
+		RoutingGraph graph = flightPlan.getSearchGraph();
+		float range = flightPlan.getSearchRange();
+		
 		// Set the minimum weight of `a' to 0
-		a.setMinWeight(0);
+		context.setMinWeight(a.getId(), 0, -1);
 		
-		// Instantiate a new PriorityQueue to assist in determining the shortest 
-		// paths between the vertices
-		PriorityQueue<Vertex> vertexQueue = new PriorityQueue<Vertex>();
-		vertexQueue.add(a);
+		// Use the IndexedHeap of the SearchContext to assist in determining the 
+		// shortest paths between the vertices
+		IndexedHeap vertexQueue = context.getQueue();
+		vertexQueue.addOrDecreaseKey(
+			a.getId(), heuristic != null ? heuristic.getLowerBound(a, z) : 0
+		);
 		
 		while (!vertexQueue.isEmpty()) {
 			
 			// Assign vertexQueue's head vertex to `u'
-			Vertex u = vertexQueue.poll();
+			int uId = vertexQueue.poll();
+			Vertex u = flightPlan.getVertex(uId);
+			float uMinWeight = context.getMinWeight(uId);
+			context.settle();
+			
+			// Once the target is settled, its shortest path is known
+			if (u == z) {
+				break;
+			}
 			
-			for (Edge e : u.getEdges().values()) {
+			for (int e = graph.getFirstEdge(uId, range); e != -1; e = graph.getNextEdge(uId, e, range)) {
 				
 				// ... assign `v' to the current adjacent vertex of `u'
-				Vertex v = e.getToVertex();
-				
-				// ... get the weight of the current edge
-				float weight = e.getWeight();
+				int vId = graph.getTarget(e);
 				
 				// ... get the total weight of the current edge plus the minimum weight of u
-				float weightThroughU = u.getMinWeight() + weight;
+				float weightThroughU = uMinWeight + graph.getWeight(e);
 				
-				if (weightThroughU < v.getMinWeight()) {
-					
-					// Remove Vertex v from the priority queue so it 
-					// may be reheaped when it is added back in
-					vertexQueue.remove(v);
+				if (weightThroughU < context.getMinWeight(vId)) {
+					context.setMinWeight(vId, weightThroughU, uId);
 					
-					v.setMinWeight(weightThroughU);
-					v.setPreviousVertex(u);
-					vertexQueue.add(v);
+					// Either add v to the queue or move it up to its new position
+					vertexQueue.addOrDecreaseKey(
+						vId, 
+						heuristic != null ? weightThroughU + heuristic.getLowerBound(flightPlan.getVertex(vId), z) 
+						                  : weightThroughU
+					);
 				}
 			}
 		}
 	}
 	
+	/**
+	 * Returns the number of {@link Vertex} nodes settled by the last search on the 
+	 * current Thread, which measures how much of the graph the search explored
+	 *
+	 * @return The number of {@link Vertex} nodes settled
+	 */
+	public int getSettledCount() {
+		return getSearchContext().getSettledCount();
+	}
+	
+	/**
+	 * Returns the SearchContext this Dijkstra uses on the current Thread
+	 *
+	 * @return The current Thread's value of {@link #searchContexts}
+	 */
+	protected SearchContext getSearchContext() {
+		return searchContexts.get();
+	}
+	
+	/**
+	 * Returns the minimum weight of a {@link Vertex} as determined by the last 
+	 * search on the current Thread
+	 *
+	 * @param vertex The {@link Vertex} whose minimum weight to return
+	 * @return The minimum weight of vertex, or infinity if it was not reached
+	 */
+	public float getMinWeight(Vertex vertex) {
+		return getSearchContext().getMinWeight(vertex.getId());
+	}
+	
+	/**
+	 * Returns the previous {@link Vertex} of a {@link Vertex} as determined by the 
+	 * last search on the current Thread
+	 *
+	 * @param vertex The {@link Vertex} whose previous {@link Vertex} to return
+	 * @return The previous {@link Vertex} of vertex, or null if there is none
+	 */
+	public Vertex getPreviousVertex(Vertex vertex) {
+		int previousVertex = getSearchContext().getPreviousVertex(vertex.getId());
+		return previousVertex != -1 ? vertex.flightPlan.getVertex(previousVertex) : null;
+	}
+	
 	/**
 	 * Dynamically creates and determines the reasons for visiting a {@link Destination}
 	 *
@@ -120,6 +314,44 @@ public class Dijkstra {
 	 * @return The {@link Destination} created using vertex and type
 	 */
 	protected Destination getDestination(Vertex vertex, Airplane.AirplaneType type) {
+		
+		// If the Airplane refuels at vertex, it has flown no distance since refueling
+		if (canRefuel(vertex, type)) {
+			distance = 0;
+		}
+		
+		return createDestination(vertex, type);
+	}
+	
+	/**
+	 * Returns whether an {@link Airplane} of the given type may refuel at a {@link Vertex}
+	 *
+	 * @param vertex The {@link Vertex} being visited
+	 * @param type   The {@link Airplane.AirplaneType} of the {@link Airplane} being used
+	 * @return Whether vertex is an {@link Airport} carrying the fuel that type requires
+	 */
+	protected static boolean canRefuel(Vertex vertex, Airplane.AirplaneType type) {
+		if (!(vertex instanceof Airport)) {
+			return false;
+		}
+		
+		if (type.equals(Airplane.AirplaneType.PROP)) {
+			return ((Airport) vertex).hasAVGAS();
+		} else {
+			return ((Airport) vertex).hasJA_a();
+		}
+	}
+	
+	/**
+	 * Creates a {@link Destination} and determines the reasons for visiting it, 
+	 * without changing the state of any Dijkstra, so that routes found outside of 
+	 * a search (such as by {@link HubLabels}) are described the same way
+	 *
+	 * @param vertex The {@link Vertex} being visited
+	 * @param type   The {@link Airplane.AirplaneType} of the {@link Airplane} being used
+	 * @return The {@link Destination} created using vertex and type
+	 */
+	protected static Destination createDestination(Vertex vertex, Airplane.AirplaneType type) {
 		// Create a new Destination with vertex
 		Destination destination = new Destination(vertex);
 		
@@ -131,20 +363,10 @@ public class Dijkstra {
 			);
 			
 			// If the Airport carries the required fuel type for airplane, refuel there
-			if (type.equals(Airplane.AirplaneType.PROP)) {
-				if (((Airport) vertex).hasAVGAS()) {
-					
-					// The Airplane is refueling
-					destination.addReason("refueling");
-					distance = 0;
-				}
-			} else {
-				if (((Airport) vertex).hasJA_a()) {
-					
-					// The Airplane is refueling
-					destination.addReason("refueling");
-					distance = 0;
-				}
+			if (canRefuel(vertex, type)) {
+				
+				// The Airplane is refueling
+				destination.addReason("refueling");
 			}
 		} else {
 			// The Airplane is flying over a NAV Beacon
@@ -193,6 +415,77 @@ public class Dijkstra {
 			resetDijkstra();
 		}
 		
+		return getShortestPath(getPathVertices(z), airplane, timestamp);
+	}
+	
+	/**
+	 * Returns the {@link Vertex} nodes along the shortest path to the target vertex 
+	 * found by the last search on the current Thread, without changing the state 
+	 * of this Dijkstra, so that the paths of several legs may be found at once on 
+	 * different Threads and flown in order afterwards
+	 *
+	 * @param z The target vertex of the last search on the current Thread
+	 * @return The {@link Vertex} nodes of the path, from the source vertex to z
+	 * @throws DijkstraException When the last search never reached z
+	 * @throws NullPointerException When z is null
+	 */
+	public ArrayList<Vertex> getPathVertices(Vertex z) throws DijkstraException {
+		
+		// The target was never reached, so no path the Airplane can fly leads there
+		if (getMinWeight(z) == Float.POSITIVE_INFINITY) {
+			throw new DijkstraException(
+				"Due to lack of refueling facilities, this trip is impossible."
+			);
+		}
+		
+		// Retrieve the shortest path from vertex a to vertex z, working backwards 
+		// from vertex z
+		ArrayList<Vertex> vertices = new ArrayList<Vertex>();
+		for (Vertex vertex = z; vertex != null; vertex = getPreviousVertex(vertex)) {
+			vertices.add(vertex);
+		}
+		
+		Collections.reverse(vertices);
+		
+		return vertices;
+	}
+	
+	/**
+	 * Returns the {@link Destination}s of a path of {@link Vertex} nodes, flying it 
+	 * as the next leg of the flight plan of the given timestamp
+	 * 
+	 * @param vertices  The {@link Vertex} nodes of the path, in the order flown
+	 * @param airplane  The {@link Airplane} being used to traverse this path
+	 * @param timestamp The time at which this method was invoked; in the event it differs 
+	 *                  from the timestamp attribute of this Dijkstra object, the local 
+	 *                  attributes of this Dijkstra object will be reset to accomodate for 
+	 *                  the new path
+	 * @return the {@link Destination} of each {@link Vertex} of the path
+	 * @throws DijkstraException When the distance flown is greater than the possible 
+	 *                           range of the selected {@link Airplane}
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	public ArrayList<Destination> getShortestPath(ArrayList<Vertex> vertices,
+	                                              Airplane airplane, 
+	                                              long timestamp) 
+	                                              throws DijkstraException {
+		
+		if (vertices == null) {
+			throw new NullPointerException("vertices may not be null");
+		}
+		
+		if (airplane == null) {
+			throw new NullPointerException("airplane may not be null");
+		}
+		
+		// If the timestamp differs from the last time this Dijkstra was queried,
+		// a new flight plan is being constructed and all the values of this
+		// Dijkstra should be reset
+		if (this.timestamp != timestamp) {
+			this.timestamp = timestamp;
+			resetDijkstra();
+		}
+		
 		// Holds the type of this Airplane, which dictates what kind of fuel it needs
 		Airplane.AirplaneType type = airplane.getType();
 		
@@ -202,66 +495,60 @@ public class Dijkstra {
 		// Instantiate a new ArrayList to hold the shortest path from vertex a to vertex z
 		ArrayList<Destination> path = new ArrayList<Destination>();
 		
-		// Retrieve the shortest path from vertex a to vertex z
-		Vertex vertex = z;
-		
 		// Holds the previous vertex in the list
-		Vertex previousVertex;
-	
-		// Holds the Edge object between vertex and prevVertex
-		Edge edge;
+		Vertex previousVertex = null;
+		
+		// Holds the heading, distance and time between vertex and prevVertex
+		EdgeMetrics metrics;
 		
 		// Holds the weight of the Edge
 		float weight;
 		
-		// Get the Destination object of the current Vertex
-		Destination destination = getDestination(vertex, type);
-		
-		// If the previous vertex is not null, get the Edge between vertex and it, otherwise,
-		// get the Edge between vertex and itself
-		edge = vertex.getEdge(vertex.previousVertex != null ? vertex.previousVertex : vertex);
-		
-		// Add destination to the path
-		path.add(destination);
-		
-		// Work backwards from the current Vertex
-		while (vertex.previousVertex != null) {
-			previousVertex = vertex;         // Let previousVertex point to the current Vertex
-			vertex = vertex.previousVertex;  // Let vertex point to its previous Vertex
-			
-			// Fetches the Edge object between vertex and prevVertex
-			edge = vertex.getEdge(previousVertex);
-			weight = edge.getWeight();
-			
-			// Increment the distance traveled by the weight of the Edge
-			distance += weight;
-			
-			// Ensure the distance can be covered by the Airplane
-			if (distance > range) {
-				throw new DijkstraException(
-					"Due to lack of refueling facilities, this trip is impossible."
-				);
+		// Fly the path forwards from vertex a, so the distance flown since the 
+		// Airplane last refueled carries over from the previous leg of the flight plan
+		for (Vertex vertex : vertices) {
+			if (previousVertex != null) {
+				
+				// Looks up the metrics of the Edge between previousVertex and vertex
+				metrics = vertex.flightPlan.getEdgeMetrics(previousVertex, vertex, airplane);
+				weight = metrics.getDistance();
+				
+				// Increment the distance traveled by the weight of the Edge
+				distance += weight;
+				
+				// Ensure the distance can be covered by the Airplane
+				if (distance > range) {
+					throw new DijkstraException(
+						"Due to lack of refueling facilities, this trip is impossible."
+					);
+				}
+				
+				// Increment the total distance and time required to traverse this path
+				totalDistance += weight;
+				totalTime += metrics.getTime();
 			}
 			
-			// Construct a new Destination with vertex
-			destination = getDestination(vertex, type);
+			// Add the Destination of vertex to the path of destinations, which 
+			// resets the distance traveled if the Airplane refuels there
+			path.add(getDestination(vertex, type));
 			
-			// Add the destination to the path of destinations
-			path.add(destination);
-			
-			// Increment the total distance and time required to traverse this path
-			totalDistance += weight;
-			totalTime += edge.getTime(airplane);
+			previousVertex = vertex;
 		}
 		
-		// Reverse the order of the shortest path List so it describes the path 
-		// from vertex a to vertex z, rather than from vertex z to vertex a
-		Collections.reverse(path);
-		
 		// Return the shortest path List
 		return path;
 	}
 	
+	/**
+	 * Returns the distance in Kilometers flown since the {@link Airplane} last 
+	 * refueled, at the end of the last path returned by {@link #getShortestPath}
+	 *
+	 * @return The {@link #distance} attribute
+	 */
+	public float getDistanceFlown() {
+		return distance;
+	}
+	
 	/**
 	 * Returns the total distance in Kilometers traveled this entire flight plan
 	 *
@@ -0,0 +1,396 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Holds the shortest distance an {@link Airplane} flies from each of the waypoints
+ * of a flight plan to each other, and the Vertex nodes along each of those legs.
+ * The distances are held in one array of n &times; n entries, at from * n + to,
+ * and the legs as the ids of their Vertex nodes, one after another in a second
+ * array, so that the next hop from any Vertex of a leg is the id after it.
+ * <br /><br />
+ * The legs from each waypoint are found by its own task on a ForkJoinPool, each
+ * searching with the {@link SearchContext} of its own Thread: with one search to
+ * every waypoint where the Dijkstra {@link Dijkstra#computePaths(Vertex,
+ * java.util.Collection, Airplane) finds them that way}, and otherwise with one
+ * search per leg.  The waypoints must stay attached to the {@link FlightPlan#getSearchGraph() search graph},
+ * which none of the tasks changes, until the DistanceMatrix is constructed.
+ *
+ * @author Dylon Edwards
+ */
+public class DistanceMatrix {
+	
+	/** Holds the waypoints between which the legs are found */
+	protected final Vertex[] waypoints;
+	
+	/** Holds the distance of the leg from each waypoint to each other, at from * n + to */
+	protected final float[] distances;
+	
+	/** Holds the index in {@link #hops} of the first id of each leg, and its end */
+	protected final int[] legOffsets;
+	
+	/** Holds the ids of the Vertex nodes along each leg, its waypoints included */
+	protected final int[] hops;
+	
+	/**
+	 * Finds the legs between the waypoints on the common ForkJoinPool
+	 *
+	 * @param waypoints The waypoints between which to find the legs, attached to
+	 *                  the search graph of their {@link FlightPlan}
+	 * @param dijkstra  The Dijkstra with which to find each leg
+	 * @param airplane  The {@link Airplane} which flies each leg, departing with a
+	 *                  full tank
+	 * @throws FlightPlanException  When a leg may not be searched
+	 * @throws NullPointerException When any of the parameters, or any waypoint, is null
+	 */
+	public DistanceMatrix(List<Vertex> waypoints, Dijkstra dijkstra, Airplane airplane)
+	                      throws FlightPlanException {
+		
+		this(waypoints, dijkstra, airplane, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Finds the legs between the waypoints on the given ForkJoinPool
+	 *
+	 * @param waypoints The waypoints between which to find the legs, attached to
+	 *                  the search graph of their {@link FlightPlan}
+	 * @param dijkstra  The Dijkstra with which to find each leg
+	 * @param airplane  The {@link Airplane} which flies each leg, departing with a
+	 *                  full tank
+	 * @param pool      The ForkJoinPool on which to find the legs
+	 * @throws FlightPlanException  When a leg may not be searched
+	 * @throws NullPointerException When any of the parameters, or any waypoint, is null
+	 */
+	public DistanceMatrix(List<Vertex> waypoints, Dijkstra dijkstra, Airplane airplane,
+	                      ForkJoinPool pool) throws FlightPlanException {
+		
+		if (dijkstra == null) {
+			throw new NullPointerException("dijkstra may not be null");
+		}
+		
+		if (airplane == null) {
+			throw new NullPointerException("airplane may not be null");
+		}
+		
+		if (pool == null) {
+			throw new NullPointerException("pool may not be null");
+		}
+		
+		this.waypoints = waypoints.toArray(new Vertex[waypoints.size()]);
+		
+		for (Vertex waypoint : this.waypoints) {
+			if (waypoint == null) {
+				throw new NullPointerException("waypoints may not hold null");
+			}
+		}
+		
+		int size = this.waypoints.length;
+		distances = new float[size * size];
+		
+		// Holds the legs from each waypoint, each written only by the task of its row
+		int[][][] legs = new int[size][][];
+		
+		RowTask task = new RowTask(dijkstra, airplane, legs, 0, size);
+		pool.invoke(task);
+		
+		if (task.getFailure() != null) {
+			throw task.getFailure();
+		}
+		
+		legOffsets = new int[size * size + 1];
+		
+		for (int from = 0; from < size; from ++) {
+			for (int to = 0; to < size; to ++) {
+				legOffsets[from * size + to + 1] = legOffsets[from * size + to] + legs[from][to].length;
+			}
+		}
+		
+		hops = new int[legOffsets[size * size]];
+		
+		for (int from = 0; from < size; from ++) {
+			for (int to = 0; to < size; to ++) {
+				int[] leg = legs[from][to];
+				System.arraycopy(leg, 0, hops, legOffsets[from * size + to], leg.length);
+			}
+		}
+	}
+	
+	/**
+	 * Returns the ids of the Vertex nodes along the shortest leg the {@link Airplane}
+	 * flies from one waypoint to each other, and stores their distances
+	 *
+	 * @param dijkstra The Dijkstra with which to find the legs
+	 * @param airplane The {@link Airplane} which flies the legs
+	 * @param from     The index of the waypoint from which the legs are flown
+	 * @return The ids of the Vertex nodes along the leg to each waypoint, from and
+	 *         to included, or none if the Airplane cannot fly there
+	 */
+	protected int[][] findRow(Dijkstra dijkstra, Airplane airplane, int from)
+	                          throws FlightPlanException {
+		
+		Vertex a = waypoints[from];
+		int size = waypoints.length;
+		int[][] row = new int[size][];
+		
+		// One search finds every leg of the row, where the Dijkstra can
+		boolean searched = dijkstra.computePaths(a, Arrays.asList(waypoints), airplane);
+		
+		for (int to = 0; to < size; to ++) {
+			if (!searched && to != from) {
+				dijkstra.computePath(a, waypoints[to], airplane);
+			}
+			
+			row[to] = findLeg(dijkstra, from, to);
+		}
+		
+		return row;
+	}
+	
+	/**
+	 * Returns the ids of the Vertex nodes along the shortest leg from one waypoint
+	 * to another found by the last search on the current Thread, and stores its
+	 * distance
+	 *
+	 * @param dijkstra The Dijkstra which found the leg
+	 * @param from     The index of the waypoint from which the leg is flown
+	 * @param to       The index of the waypoint to which the leg is flown
+	 * @return The ids of the Vertex nodes along the leg, from and to included, or
+	 *         none if the Airplane cannot fly there
+	 */
+	protected int[] findLeg(Dijkstra dijkstra, int from, int to) throws FlightPlanException {
+		
+		Vertex a = waypoints[from];
+		Vertex z = waypoints[to];
+		int size = waypoints.length;
+		
+		if (from == to) {
+			return new int[] {a.getId()};
+		}
+		
+		if (dijkstra.getMinWeight(z) == Float.POSITIVE_INFINITY) {
+			distances[from * size + to] = Float.POSITIVE_INFINITY;
+			return new int[0];
+		}
+		
+		ArrayList<Vertex> vertices = dijkstra.getPathVertices(z);
+		
+		// Sum the Edges from `a' forward, as a flight plan flying the leg would
+		int[] leg = new int[vertices.size()];
+		float distance = 0;
+		
+		for (int index = 0; index < leg.length; index ++) {
+			leg[index] = vertices.get(index).getId();
+			
+			if (index > 0) {
+				distance += Edge.getWeight(vertices.get(index - 1), vertices.get(index));
+			}
+		}
+		
+		distances[from * size + to] = distance;
+		return leg;
+	}
+	
+	/**
+	 * Returns the number of waypoints
+	 *
+	 * @return The length of the {@link #waypoints} attribute
+	 */
+	public int size() {
+		return waypoints.length;
+	}
+	
+	/**
+	 * Returns the waypoint at an index
+	 *
+	 * @param index The index of the waypoint
+	 * @return The waypoint at index
+	 * @throws ArrayIndexOutOfBoundsException When there is no waypoint at index
+	 */
+	public Vertex getWaypoint(int index) {
+		return waypoints[index];
+	}
+	
+	/**
+	 * Returns the distance of the shortest leg from one waypoint to another
+	 *
+	 * @param from The index of the waypoint from which the leg is flown
+	 * @param to   The index of the waypoint to which the leg is flown
+	 * @return The distance of the leg, or infinity if the {@link Airplane} cannot
+	 *         fly it
+	 * @throws ArrayIndexOutOfBoundsException When either index is out of range
+	 */
+	public float getDistance(int from, int to) {
+		checkIndex(from);
+		checkIndex(to);
+		return distances[from * waypoints.length + to];
+	}
+	
+	/**
+	 * Returns the distance of the shortest leg from each waypoint to each other
+	 *
+	 * @return A copy of the {@link #distances} attribute, indexed from * n + to
+	 */
+	public float[] getDistances() {
+		return distances.clone();
+	}
+	
+	/**
+	 * Returns the distance of the shortest leg from each waypoint to each other,
+	 * as a {@link StopOrdering} takes them
+	 *
+	 * @return The distance of the leg from each waypoint to each other, indexed
+	 *         [from][to]
+	 */
+	public float[][] getDistanceRows() {
+		int size = waypoints.length;
+		float[][] rows = new float[size][];
+		
+		for (int from = 0; from < size; from ++) {
+			rows[from] = Arrays.copyOfRange(distances, from * size, (from + 1) * size);
+		}
+		
+		return rows;
+	}
+	
+	/**
+	 * Returns the id of the Vertex flown to next along the shortest leg from one
+	 * waypoint to another, after the Vertex at the given position of the leg
+	 *
+	 * @param from     The index of the waypoint from which the leg is flown
+	 * @param to       The index of the waypoint to which the leg is flown
+	 * @param position The position along the leg of the Vertex last flown to,
+	 *                 0 being the waypoint from which it is flown
+	 * @return The id of the next Vertex, or -1 if the leg ends at position or the
+	 *         {@link Airplane} cannot fly it
+	 * @throws ArrayIndexOutOfBoundsException When either index is out of range
+	 */
+	public int getNextHop(int from, int to, int position) {
+		checkIndex(from);
+		checkIndex(to);
+		
+		int leg = from * waypoints.length + to;
+		int hop = legOffsets[leg] + position + 1;
+		
+		return position >= 0 && hop < legOffsets[leg + 1] ? hops[hop] : -1;
+	}
+	
+	/**
+	 * Returns the Vertex nodes along the shortest leg from one waypoint to another
+	 *
+	 * @param from The index of the waypoint from which the leg is flown
+	 * @param to   The index of the waypoint to which the leg is flown
+	 * @return The Vertex nodes along the leg, both waypoints included, or none if
+	 *         the {@link Airplane} cannot fly it
+	 * @throws ArrayIndexOutOfBoundsException When either index is out of range
+	 */
+	public ArrayList<Vertex> getLeg(int from, int to) {
+		checkIndex(from);
+		checkIndex(to);
+		
+		FlightPlan flightPlan = waypoints[from].flightPlan;
+		int leg = from * waypoints.length + to;
+		
+		ArrayList<Vertex> vertices = new ArrayList<Vertex>();
+		for (int hop = legOffsets[leg]; hop < legOffsets[leg + 1]; hop ++) {
+			vertices.add(flightPlan.getVertex(hops[hop]));
+		}
+		
+		return vertices;
+	}
+	
+	/**
+	 * Throws an ArrayIndexOutOfBoundsException if there is no waypoint at an index
+	 *
+	 * @param index The index to check
+	 * @throws ArrayIndexOutOfBoundsException When there is no waypoint at index
+	 */
+	protected void checkIndex(int index) {
+		if (index < 0 || index >= waypoints.length) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+	}
+	
+	/**
+	 * Finds the legs from a block of waypoints, splitting the block until each
+	 * waypoint has a task of its own
+	 */
+	protected class RowTask extends RecursiveAction {
+		
+		/** Generated by the serialver utility */
+		private static final long serialVersionUID = 8708287161753098648L;
+		
+		/** Holds the Dijkstra with which to find each leg */
+		protected final Dijkstra dijkstra;
+		
+		/** Holds the {@link Airplane} which flies each leg */
+		protected final Airplane airplane;
+		
+		/** Holds the legs from each waypoint */
+		protected final int[][][] legs;
+		
+		/** Holds the index of the first waypoint of the block */
+		protected final int from;
+		
+		/** Holds the index after the last waypoint of the block */
+		protected final int to;
+		
+		/** Holds the first exception thrown finding a leg of the block, or null */
+		protected volatile FlightPlanException failure;
+		
+		/**
+		 * Constructs a RowTask over a block of waypoints
+		 *
+		 * @param dijkstra The Dijkstra with which to find each leg
+		 * @param airplane The {@link Airplane} which flies each leg
+		 * @param legs     The legs from each waypoint
+		 * @param from     The index of the first waypoint of the block
+		 * @param to       The index after the last waypoint of the block
+		 */
+		protected RowTask(Dijkstra dijkstra, Airplane airplane, int[][][] legs, int from, int to) {
+			this.dijkstra = dijkstra;
+			this.airplane = airplane;
+			this.legs = legs;
+			this.from = from;
+			this.to = to;
+		}
+		
+		/**
+		 * Returns the first exception thrown finding a leg of the block
+		 *
+		 * @return The {@link #failure} attribute
+		 */
+		protected FlightPlanException getFailure() {
+			return failure;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int middle = (from + to) >>> 1;
+				
+				RowTask left = new RowTask(dijkstra, airplane, legs, from, middle);
+				RowTask right = new RowTask(dijkstra, airplane, legs, middle, to);
+				invokeAll(left, right);
+				
+				failure = left.getFailure() != null ? left.getFailure() : right.getFailure();
+				return;
+			}
+			
+			int size = waypoints.length;
+			
+			for (int row = from; row < to; row ++) {
+				try {
+					legs[row] = findRow(dijkstra, airplane, row);
+				} catch (FlightPlanException exception) {
+					failure = exception;
+					legs[row] = new int[size][];
+					Arrays.fill(legs[row], new int[0]);
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
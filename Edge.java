@@ -55,11 +55,11 @@ public class Edge implements Comparable<Edge> {
 	/** Holds the weight of this Edge */
 	protected final float weight;
 	
-	/** Holds the angle of the heading of this Edge */
-	protected float theta = 0;
-	
-	/** Holds the direction in which the {@link Airplane} will travel */
-	protected DirectionsEnum direction;
+	/** 
+	 * Holds the heading, distance and time of the flight along this Edge, which 
+	 * is replaced as a whole rather than changed, or null until it is determined
+	 */
+	protected volatile EdgeMetrics metrics;
 	
 	/** 
 	 * Holds the difference of the {@link Coordinate#latitude} of {@link #toVertex} and 
@@ -76,9 +76,6 @@ public class Edge implements Comparable<Edge> {
 	/** Holds the magnitude of vector v, where v = (v_x, v_y) */
 	protected final float magnitudeOfV;
 	
-	/** Holds the time previously returned by the {@link #getTime(Airplane)} method */
-	protected float time = 0.0f;
-	
 	/**
 	 * Constructs a new Edge object with the supplied originating {@link Airport} 
 	 * or {@link NAVBeacon}, destination {@link Airport} or {@link NAVBeacon}, 
@@ -127,6 +124,28 @@ public class Edge implements Comparable<Edge> {
 		weight = magnitudeOfV * 111.1f;
 	}
 	
+	/**
+	 * Constructs a new Edge object between two Vertex nodes whose heading, 
+	 * distance and time have already been determined
+	 *
+	 * @param fromVertex The {@link Airport} or {@link NAVBeacon} from which this 
+	 *                   Edge originates
+	 * @param toVertex   The {@link Airport} or {@link NAVBeacon} with which the 
+	 *                   {@link #fromVertex} is adjacent
+	 * @param metrics    The {@link EdgeMetrics} of the flight from fromVertex to 
+	 *                   toVertex
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	public Edge(Vertex fromVertex, Vertex toVertex, EdgeMetrics metrics) {
+		this(fromVertex, toVertex);
+		
+		if (metrics == null) {
+			throw new NullPointerException("metrics may not be null");
+		}
+		
+		this.metrics = metrics;
+	}
+	
 	/**
 	 *
 	 */
@@ -138,6 +157,25 @@ public class Edge implements Comparable<Edge> {
 		}
 	}
 	
+	/**
+	 * Returns the weight an Edge between two Vertex nodes would have, without
+	 * constructing it
+	 *
+	 * @param fromVertex The Vertex from which the Edge would originate
+	 * @param toVertex   The Vertex with which fromVertex would be adjacent
+	 * @return The weight of the Edge from fromVertex to toVertex
+	 * @throws NullPointerException When fromVertex or toVertex is null
+	 */
+	public static float getWeight(Vertex fromVertex, Vertex toVertex) {
+		Coordinate fromVertexCoordinate = fromVertex.getCoordinate();
+		Coordinate toVertexCoordinate = toVertex.getCoordinate();
+		
+		float v_x = toVertexCoordinate.getLatitude() - fromVertexCoordinate.getLatitude();
+		float v_y = toVertexCoordinate.getLongitude() - fromVertexCoordinate.getLongitude();
+		
+		return (float)(sqrt(pow(v_x, 2) + pow(v_y, 2))) * 111.1f;
+	}
+	
 	/**
 	 * Returns the vertex from which this Edge originates
 	 *
@@ -166,102 +204,43 @@ public class Edge implements Comparable<Edge> {
 	}
 	
 	/**
-	 * Calculates the heading of the {@link Airplane} on this Edge.<br />
-	 * <pre>
-	 * Taken from: http://mathforum.org/library/drmath/view/55417.html
-	 *
-	 * dlat &eq; lat2 - lat1
-	 * dlon &eq; lon2 - lon1
-	 * y &eq; sin(lon2-lon1)*cos(lat2)
-	 * x &eq; cos(lat1)*sin(lat2)-sin(lat1)*cos(lat2)*cos(lon2-lon1)
-	 * if y &gt; 0 then
-	 *     if x &gt; 0 then tc1 = arctan(y/x)
-	 *     if x &lt; 0 then tc1 = 180 - arctan(-y/x)
-	 *     if x &eq; 0 then tc1 = 90
-	 * if y &lt; 0 then
-	 *     if x &gt; 0 then tc1 = -arctan(-y/x)
-	 *     if x &lt; 0 then tc1 = arctan(y/x)-180
-	 *     if x &eq; 0 then tc1 = 270
-	 * if y &eq; 0 then
-	 *     if x &gt; 0 then tc1 = 0
-	 *     if x &lt; 0 then tc1 = 180
-	 *     if x &eq; 0 then [the 2 points are the same]
-	 * </pre>
+	 * Calculates the heading of the {@link Airplane} on this Edge, as 
+	 * {@link EdgeMetrics} does, unless it has already been determined
 	 */
 	public void calculateHeading() {
-		// The direction is always calculated from the North East
-		direction = DirectionsEnum.NORTH_EAST;
-		
-		// Get the Coordinate of the formVertex
-		Coordinate fromVertexCoordinate = fromVertex.getCoordinate();
-		float lat1 = fromVertexCoordinate.getLatitude();
-		float lon1 = fromVertexCoordinate.getLongitude();
-		
-		// Get the Coordinate of the toVertex
-		Coordinate toVertexCoordinate = toVertex.getCoordinate();
-		float lat2 = toVertexCoordinate.getLatitude();
-		float lon2 = toVertexCoordinate.getLongitude();
-		
-		// Get the difference between the Coordinates
-		float dlat = lat2 - lat1;
-		float dlon = lon2 - lon1;
-		
-		// Determine the x and y variables which will be used to calculate the angle of degree
-		// of the toVertex from to the fromVertex relative to North East
-		float y = (float)(sin(lon2 - lon1) * cos(lat2));
-		float x = (float)(cos(lat1) * sin(lat2) - sin(lat1) * cos(lat2) * cos(lon2 - lon1));
-		
-		// Using the algorithm above, calucate theta, or tcl
-		if (y > 0) {
-			if (x > 0) {
-				theta = (float)(atan(y / x));
-			} else if (x < 0) {
-				theta = (float)(180.0f - atan(-y / x));
-			} else {
-				theta = 90.0f;
-			}
-		} else if (y < 0) {
-			if (x > 0) {
-				theta = (float)(-atan(-y / x));
-			} else if (x > 0) {
-				theta = (float)(atan(y / x) - 180.0f);
-			} else {
-				theta = 270.0f;
-			}
-		} else {
-			if (x > 0) {
-				theta = 0.0f;
-			} else if (x < 0) {
-				theta = 180.0f;
-			} else {
-				theta = 0.0f;
-			}
+		if (metrics == null) {
+			metrics = new EdgeMetrics(fromVertex, toVertex, 0);
 		}
 	}
 	
 	/**
 	 * Returns the angle the {@link Airplane} will take along this Edge
 	 *
-	 * @return The {@link #theta} attribute
+	 * @return The heading of the {@link #metrics}, or 0 if it has not been 
+	 *         determined
 	 * @see #calculateHeading()
 	 */
 	public float getTheta() {
-		return theta;
+		EdgeMetrics metrics = this.metrics;
+		return metrics != null ? metrics.getTheta() : 0;
 	}
 	
 	/**
 	 * Returns the direction in which the {@link Airplane} will be traveling
 	 *
-	 * @return The {@link #direction} attribute
+	 * @return The direction of the {@link #metrics}, or null if it has not been 
+	 *         determined
 	 * @see #calculateHeading()
 	 */
 	public DirectionsEnum getDirection() {
-		return direction;
+		EdgeMetrics metrics = this.metrics;
+		return metrics != null ? metrics.getDirection() : null;
 	}
 	
 	/**
 	 * Determines and returns the time required to traverse this Edge with 
-	 * the given {@link Airplane}
+	 * the given {@link Airplane}, from the {@link EdgeMetrics} its 
+	 * {@link FlightPlan} keeps for the cruise speed of the Airplane
 	 *
 	 * @param airplane The {@link Airplane} being used to traverse this Edge
 	 * @return The time required to travel along this Edge in the selected 
@@ -272,30 +251,32 @@ public class Edge implements Comparable<Edge> {
 	 *                              initialized
 	 */
 	public float getTime(Airplane airplane) {
-		try {
-			// Holds the time required to traverse this edge at the cruise 
-			// speed of the specified Airplane
-			float time = weight / airplane.getCruiseSpeed();
-			
-			// Set the time required to traverse this Edge in airplane
-			this.time = time;
-		} catch (NullPointerException exception) {
+		if (airplane == null) {
 			throw new NullPointerException(
 				"time cannot be calculated since airplane is null"
 			);
 		}
 		
+		// Holds the heading, distance and time along this Edge at the cruise 
+		// speed of the specified Airplane
+		EdgeMetrics metrics = fromVertex.flightPlan.getEdgeMetrics(fromVertex, toVertex, airplane);
+		
+		// Set the time required to traverse this Edge in airplane
+		this.metrics = metrics;
+		
 		// Return the time required to traverse this Edge in the given Airplane
-		return time;
+		return metrics.getTime();
 	}
 	
 	/**
 	 * Returns the previously determined time from {@link #getTime(Airplane)}
 	 *
-	 * @return The previous {@link #time}
+	 * @return The time of the {@link #metrics}, or 0 if it has not been 
+	 *         determined
 	 */
 	public float getTime() {
-		return time;
+		EdgeMetrics metrics = this.metrics;
+		return metrics != null ? metrics.getTime() : 0.0f;
 	}
 	
 	/**
@@ -323,11 +304,18 @@ public class Edge implements Comparable<Edge> {
 			fromVertex.getLongestLabelWidth(), toVertex.getLongestLabelWidth()
 		);
 		
+		// Read the metrics once, so the heading and time are those of one Airplane
+		EdgeMetrics metrics = this.metrics;
+		if (metrics == null) {
+			metrics = new EdgeMetrics(fromVertex, toVertex, 0);
+		}
+		
 		return String.format(" => %-" + longestLabelWidth + "s %s Degrees %s\n" +
 		                     " => %-" + longestLabelWidth + "s %s Kilometers\n" +
 		                     " => %-" + longestLabelWidth + "s %s Hours",
-		                     "Heading:", FlightPlan.formatter.format(theta), direction.toString(),
+		                     "Heading:", FlightPlan.formatter.format(metrics.getTheta()),
+		                     metrics.getDirection().toString(),
 		                     "Distance:", FlightPlan.formatter.format(weight),
-		                     "Time:", FlightPlan.formatter.format(time));
+		                     "Time:", FlightPlan.formatter.format(metrics.getTime()));
 	}
 }
\ No newline at end of file
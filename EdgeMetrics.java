@@ -0,0 +1,205 @@
+package edu.usca.acsc492l.flightplanner;
+
+import static java.lang.Math.*;
+
+/**
+ * Holds the heading, distance and time of the flight along an {@link Edge} at a
+ * cruise speed, which never change once computed, so one EdgeMetrics may be
+ * shared by every flight plan and every Thread rendering one.  Each FlightPlan
+ * keeps those computed most recently, keyed by the ids of the Vertex nodes and
+ * the cruise speed, so the trigonometry of the heading is done once per leg
+ * rather than every time a leg is flown or printed.
+ * <br /><br />
+ * An EdgeMetrics also holds the {@link Coordinate}s of the Vertex nodes when it
+ * was computed, so one whose Vertex nodes have since moved may be recognized and
+ * computed again.
+ *
+ * @author Dylon Edwards
+ */
+public class EdgeMetrics {
+	
+	/** Holds the latitude of the originating Vertex when this EdgeMetrics was computed */
+	protected final float fromLatitude;
+	
+	/** Holds the longitude of the originating Vertex when this EdgeMetrics was computed */
+	protected final float fromLongitude;
+	
+	/** Holds the latitude of the adjacent Vertex when this EdgeMetrics was computed */
+	protected final float toLatitude;
+	
+	/** Holds the longitude of the adjacent Vertex when this EdgeMetrics was computed */
+	protected final float toLongitude;
+	
+	/** Holds the angle of the heading along the {@link Edge} */
+	protected final float theta;
+	
+	/** Holds the direction in which the {@link Airplane} will travel */
+	protected final Edge.DirectionsEnum direction;
+	
+	/** Holds the distance in Kilometers along the {@link Edge} */
+	protected final float distance;
+	
+	/** Holds the cruise speed at which the {@link Edge} is flown */
+	protected final float cruiseSpeed;
+	
+	/** Holds the time in hours required to fly the {@link Edge} at the cruise speed */
+	protected final float time;
+	
+	/**
+	 * Computes the EdgeMetrics of the flight between two Vertex nodes at a cruise
+	 * speed
+	 *
+	 * @param fromVertex  The Vertex from which the {@link Edge} originates
+	 * @param toVertex    The Vertex with which fromVertex is adjacent
+	 * @param cruiseSpeed The cruise speed at which the {@link Edge} is flown, or 0
+	 *                    if only the heading and distance are needed, which leaves
+	 *                    the time 0
+	 * @throws NullPointerException When fromVertex or toVertex is null
+	 */
+	public EdgeMetrics(Vertex fromVertex, Vertex toVertex, float cruiseSpeed) {
+		Coordinate fromVertexCoordinate = fromVertex.getCoordinate();
+		fromLatitude = fromVertexCoordinate.getLatitude();
+		fromLongitude = fromVertexCoordinate.getLongitude();
+		
+		Coordinate toVertexCoordinate = toVertex.getCoordinate();
+		toLatitude = toVertexCoordinate.getLatitude();
+		toLongitude = toVertexCoordinate.getLongitude();
+		
+		// The direction is always calculated from the North East
+		direction = Edge.DirectionsEnum.NORTH_EAST;
+		theta = calculateHeading(fromLatitude, fromLongitude, toLatitude, toLongitude);
+		
+		distance = Edge.getWeight(fromVertex, toVertex);
+		this.cruiseSpeed = cruiseSpeed;
+		time = cruiseSpeed != 0 ? distance / cruiseSpeed : 0.0f;
+	}
+	
+	/**
+	 * Calculates the heading from one latitude and longitude to another.<br />
+	 * <pre>
+	 * Taken from: http://mathforum.org/library/drmath/view/55417.html
+	 *
+	 * dlat &eq; lat2 - lat1
+	 * dlon &eq; lon2 - lon1
+	 * y &eq; sin(lon2-lon1)*cos(lat2)
+	 * x &eq; cos(lat1)*sin(lat2)-sin(lat1)*cos(lat2)*cos(lon2-lon1)
+	 * if y &gt; 0 then
+	 *     if x &gt; 0 then tc1 = arctan(y/x)
+	 *     if x &lt; 0 then tc1 = 180 - arctan(-y/x)
+	 *     if x &eq; 0 then tc1 = 90
+	 * if y &lt; 0 then
+	 *     if x &gt; 0 then tc1 = -arctan(-y/x)
+	 *     if x &lt; 0 then tc1 = arctan(y/x)-180
+	 *     if x &eq; 0 then tc1 = 270
+	 * if y &eq; 0 then
+	 *     if x &gt; 0 then tc1 = 0
+	 *     if x &lt; 0 then tc1 = 180
+	 *     if x &eq; 0 then [the 2 points are the same]
+	 * </pre>
+	 *
+	 * @param lat1 The latitude from which the heading is taken
+	 * @param lon1 The longitude from which the heading is taken
+	 * @param lat2 The latitude to which the heading leads
+	 * @param lon2 The longitude to which the heading leads
+	 * @return The angle of the heading, or tc1
+	 */
+	protected static float calculateHeading(float lat1, float lon1, float lat2, float lon2) {
+		
+		// Determine the x and y variables which will be used to calculate the angle of degree
+		// of the toVertex from to the fromVertex relative to North East
+		float y = (float)(sin(lon2 - lon1) * cos(lat2));
+		float x = (float)(cos(lat1) * sin(lat2) - sin(lat1) * cos(lat2) * cos(lon2 - lon1));
+		
+		// Using the algorithm above, calucate theta, or tcl
+		if (y > 0) {
+			if (x > 0) {
+				return (float)(atan(y / x));
+			} else if (x < 0) {
+				return (float)(180.0f - atan(-y / x));
+			} else {
+				return 90.0f;
+			}
+		} else if (y < 0) {
+			if (x > 0) {
+				return (float)(-atan(-y / x));
+			} else if (x > 0) {
+				return (float)(atan(y / x) - 180.0f);
+			} else {
+				return 270.0f;
+			}
+		} else {
+			if (x > 0) {
+				return 0.0f;
+			} else if (x < 0) {
+				return 180.0f;
+			} else {
+				return 0.0f;
+			}
+		}
+	}
+	
+	/**
+	 * Returns whether this EdgeMetrics still describes the flight between two
+	 * Vertex nodes, which it does until either has moved
+	 *
+	 * @param fromVertex The Vertex from which the {@link Edge} originates
+	 * @param toVertex   The Vertex with which fromVertex is adjacent
+	 * @return Whether fromVertex and toVertex are where they were when this
+	 *         EdgeMetrics was computed
+	 * @throws NullPointerException When fromVertex or toVertex is null
+	 */
+	public boolean isCurrent(Vertex fromVertex, Vertex toVertex) {
+		Coordinate fromVertexCoordinate = fromVertex.getCoordinate();
+		Coordinate toVertexCoordinate = toVertex.getCoordinate();
+		
+		return fromVertexCoordinate.getLatitude() == fromLatitude &&
+		       fromVertexCoordinate.getLongitude() == fromLongitude &&
+		       toVertexCoordinate.getLatitude() == toLatitude &&
+		       toVertexCoordinate.getLongitude() == toLongitude;
+	}
+	
+	/**
+	 * Returns the angle of the heading along the {@link Edge}
+	 *
+	 * @return The {@link #theta} attribute
+	 */
+	public float getTheta() {
+		return theta;
+	}
+	
+	/**
+	 * Returns the direction in which the {@link Airplane} will be traveling
+	 *
+	 * @return The {@link #direction} attribute
+	 */
+	public Edge.DirectionsEnum getDirection() {
+		return direction;
+	}
+	
+	/**
+	 * Returns the distance along the {@link Edge}
+	 *
+	 * @return The {@link #distance} attribute
+	 */
+	public float getDistance() {
+		return distance;
+	}
+	
+	/**
+	 * Returns the cruise speed at which the {@link Edge} is flown
+	 *
+	 * @return The {@link #cruiseSpeed} attribute
+	 */
+	public float getCruiseSpeed() {
+		return cruiseSpeed;
+	}
+	
+	/**
+	 * Returns the time required to fly the {@link Edge} at the cruise speed
+	 *
+	 * @return The {@link #time} attribute
+	 */
+	public float getTime() {
+		return time;
+	}
+}
\ No newline at end of file
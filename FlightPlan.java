@@ -2,15 +2,24 @@ package edu.usca.acsc492l.flightplanner;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Hashtable;
-import java.util.PriorityQueue;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 
 import java.math.BigInteger;
 import java.math.BigDecimal;
@@ -34,6 +43,41 @@ public class FlightPlan {
 	/** Reads input from the user */
 	public static final Scanner input = new Scanner(System.in);
 	
+	/** Represents each way in which a flight plan may be optimized */
+	public static enum PlanningMode {
+		
+		/** Represents flight plans which fly the fewest Kilometers */
+		SHORTEST_DISTANCE("Shortest Distance"),
+		
+		/** 
+		 * Represents flight plans which land the fewest times along each leg, 
+		 * flying the fewest Kilometers of those that do
+		 */
+		FEWEST_STOPS("Fewest Stops");
+		
+		/** Holds the String to return when {@link #toString()} is called */
+		private final String toString;
+		
+		/** 
+		 * Constructs a PlanningMode Enumeration 
+		 *
+		 * @param toString The String to return when {@link #toString()} is called
+		 */
+		PlanningMode(String toString) {
+			this.toString = toString;
+		}
+		
+		/** 
+		 * Overrides the Enumeration toString() method 
+		 *
+		 * @return The {@link #toString} representation of this PlanningMode
+		 */
+		@Override
+		public String toString() {
+			return toString;
+		}
+	};
+	
 	/** Holds the {@link Airplane} objects in the database */
 	protected HashSet<Airplane> airplanes;
 	
@@ -70,6 +114,27 @@ public class FlightPlan {
 	/** Holds each {@link Airport} with JA_a fuel */
 	protected HashSet<Airport> airportsWithJA_a;
 	
+	/** Holds each {@link Airport} closed for now, which no flight plan may visit */
+	protected HashSet<Airport> closedAirports;
+	
+	/** 
+	 * Holds every Vertex node in the database, indexed by its 
+	 * {@link Vertex#getId() id}, along with those removed until their ids are freed
+	 */
+	protected volatile Vertex[] vertexIds;
+	
+	/** Holds the number of ids assigned in {@link #vertexIds}, including the free ones */
+	protected int vertexIdCount;
+	
+	/** Holds the ids in {@link #vertexIds} which are free to be assigned again */
+	protected ArrayList<Integer> freeVertexIds;
+	
+	/** 
+	 * Holds the Vertex nodes removed from the database, whose ids are freed only 
+	 * once every {@link RoutingGraph} has disconnected them
+	 */
+	protected ArrayList<Vertex> removedVertices;
+	
 	/** Holds the Coordinate objects for every Vertex node */
 	protected Hashtable<String, Vertex> coordinates;
 	
@@ -79,12 +144,159 @@ public class FlightPlan {
 	/** Finds the shortest path between two Vertex objects */
 	protected Dijkstra dijkstra;
 	
+	/** 
+	 * Holds the built {@link ContractionHierarchy} of each range class of 
+	 * {@link Airplane}, keyed by {@link #getRangeClass(Airplane)}
+	 */
+	protected Hashtable<String, ContractionHierarchy> contractionHierarchies;
+	
+	/** 
+	 * Holds the built {@link Landmarks} of each range class of {@link Airplane}, 
+	 * keyed by {@link #getRangeClass(Airplane)}
+	 */
+	protected Hashtable<String, Landmarks> landmarks;
+	
+	/** 
+	 * Holds the built {@link HubLabels} of each range class of {@link Airplane}, 
+	 * keyed by {@link #getRangeClass(Airplane)}
+	 */
+	protected Hashtable<String, HubLabels> hubLabels;
+	
+	/** 
+	 * Holds the {@link RoutingGraph} of each type of {@link Airplane}, which spans 
+	 * the longest range of any Airplane of that type requested so far, and is 
+	 * kept up to date rather than invalidated when the database changes
+	 */
+	protected Hashtable<Airplane.AirplaneType, RoutingGraph> routingGraphs;
+	
+	/** 
+	 * Holds the {@link RoutingGraph} of the type of {@link Airplane} of the flight 
+	 * plan being found, whose {@link Edge}s each search traverses
+	 */
+	protected volatile RoutingGraph searchGraph;
+	
+	/** 
+	 * Holds the range of the {@link Airplane} of the flight plan being found, 
+	 * beyond which no {@link Edge} of the {@link #searchGraph} is traversed
+	 */
+	protected volatile float searchRange;
+	
+	/** 
+	 * Holds the number of {@link Edge}s each {@link RoutingGraph} keeps in its 
+	 * {@link NeighborCache}, or 0 if every Edge is held
+	 */
+	protected int neighborCacheSize = 0;
+	
+	/** 
+	 * Holds the number of nearest neighbors to which each {@link RoutingGraph} 
+	 * joins each {@link NAVBeacon} and {@link Airport} by airways, or 0 if only 
+	 * the Airports in range are joined
+	 */
+	protected int airwayDegree = 0;
+	
+	/** 
+	 * Holds the bounded pool of Threads on which the legs of each flight plan 
+	 * with additional destinations are found at once, or null if they are found 
+	 * one after another; guarded by the {@link #routingGraphLock}
+	 */
+	protected ExecutorService legFinder = null;
+	
+	/** Holds the number of Threads of the {@link #legFinder}, or 0 if there is none */
+	protected int legThreads = 0;
+	
+	/** 
+	 * Guards the {@link RoutingGraph}s and their attached destinations, which only 
+	 * one flight plan may search at a time
+	 */
+	protected final Object routingGraphLock = new Object();
+	
+	/** 
+	 * Holds the type of {@link Airplane} of every range class whose routing data 
+	 * has been requested
+	 */
+	protected Hashtable<String, Airplane.AirplaneType> rangeClassTypes;
+	
+	/** 
+	 * Holds the range of every range class whose routing data has been requested
+	 */
+	protected Hashtable<String, Float> rangeClassRanges;
+	
+	/** 
+	 * Holds the version of the routing data ({@link ContractionHierarchy}, 
+	 * {@link Landmarks} and {@link HubLabels} objects) of every range class, 
+	 * which changes whenever a mutation invalidates it
+	 */
+	protected Hashtable<String, Long> routingDataVersions;
+	
+	/** 
+	 * Holds every range class whose rebuild has been scheduled but not started, 
+	 * so the rebuilds for a burst of mutations are coalesced into one
+	 */
+	protected HashSet<String> pendingRebuilds;
+	
+	/** Builds the routing data of each range class in the background */
+	protected final ExecutorService routingDataBuilder = 
+		Executors.newSingleThreadExecutor(new ThreadFactory() {
+			
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Routing data builder");
+				
+				// Never keep the application alive just to finish a build
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	
 	/** Holds the current {@link Airplane} being flown in by the user */
 	protected Airplane airplane;
 	
+	/** Holds the beginning destination of the current flight plan */
+	protected Airport startDestination;
+	
+	/** Holds the ending destination of the current flight plan */
+	protected Airport endDestination;
+	
+	/** Holds the additional destinations of the current flight plan, or null */
+	protected ArrayList<Vertex> additionalDestinations;
+	
 	/** Holds the most recent timestamp of when the flight plan was determined */
 	protected long timestamp;
 	
+	/** 
+	 * Generates the timestamps of the flight plans, which unlike the system clock 
+	 * never gives two flight plans the same one
+	 */
+	protected final AtomicLong timestamps = new AtomicLong();
+	
+	/** Orders the additional destinations of each flight plan with few enough of them */
+	protected final StopOrdering stopOrdering = new HeldKarp();
+	
+	/** 
+	 * Orders the additional destinations of each flight plan with too many of 
+	 * them for the {@link #stopOrdering}, within its budget of time
+	 */
+	protected volatile AnytimeTour anytimeStopOrdering = new AnytimeTour();
+	
+	/** Finds the alternative routes between two {@link Airport}s */
+	protected final KShortestPaths kShortestPaths = new KShortestPaths();
+	
+	/** Holds the number of {@link EdgeMetrics} kept, beyond which the least recently used is discarded */
+	protected static final int MAX_EDGE_METRICS = 4096;
+	
+	/** 
+	 * Holds the {@link EdgeMetrics} of each leg flown, keyed by 
+	 * {@link #getEdgeMetrics}, least recently used first
+	 */
+	protected final LinkedHashMap<String, EdgeMetrics> edgeMetrics = 
+		new LinkedHashMap<String, EdgeMetrics>(16, 0.75f, true) {
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, EdgeMetrics> eldest) {
+				return size() > MAX_EDGE_METRICS;
+			}
+		};
+	
 	/**
 	 * Constructs a default FlightPlan object
 	 */
@@ -111,13 +323,12 @@ public class FlightPlan {
 					if (size > 1) {
 						Destination prevDest = get(size - 2);
 						
-						Edge edge = new Edge(
-							prevDest.getDestination(), destination.getDestination()
-						);
+						Vertex fromVertex = prevDest.getDestination();
+						Vertex toVertex = destination.getDestination();
 						
-						edge.calculateHeading();
-						edge.getTime(airplane);
-						edges.add(edge);
+						edges.add(new Edge(
+							fromVertex, toVertex, getEdgeMetrics(fromVertex, toVertex, airplane)
+						));
 					}
 				}
 				
@@ -132,6 +343,12 @@ public class FlightPlan {
 			}
 		};
 		
+		// Instantiate the list of Vertex nodes by id
+		vertexIds = new Vertex[16];
+		vertexIdCount = 0;
+		freeVertexIds = new ArrayList<Integer>();
+		removedVertices = new ArrayList<Vertex>();
+		
 		// Instantiate the Coordinate HashSet to track the existing Coordinates
 		coordinates = new Hashtable<String, Vertex>();
 		
@@ -147,9 +364,26 @@ public class FlightPlan {
 		airportsWithAVGAS = new HashSet<Airport>();
 		airportsWithJA_a = new HashSet<Airport>();
 		
+		// Instantiate the list of Airports closed for now
+		closedAirports = new HashSet<Airport>();
+		
+		// Instantiate the tables of routing data
+		contractionHierarchies = new Hashtable<String, ContractionHierarchy>();
+		landmarks = new Hashtable<String, Landmarks>();
+		hubLabels = new Hashtable<String, HubLabels>();
+		routingGraphs = new Hashtable<Airplane.AirplaneType, RoutingGraph>();
+		searchGraph = new RoutingGraph(new Airport[0], Airplane.AirplaneType.PROP, 0);
+		searchRange = 0;
+		rangeClassTypes = new Hashtable<String, Airplane.AirplaneType>();
+		rangeClassRanges = new Hashtable<String, Float>();
+		routingDataVersions = new Hashtable<String, Long>();
+		pendingRebuilds = new HashSet<String>();
+		
 		// Instantiate the Dijkstra object of the database to determine the shortest
-		// path between any two Vertex nodes in the database
-		dijkstra = new Dijkstra();
+		// path between any two Vertex nodes in the database (it searches as A* does,
+		// settling far fewer Vertex nodes than Dijkstra's algorithm, and only finds
+		// paths within the range of the Airplane)
+		dijkstra = new RangeConstrainedDijkstra();
 		
 		// Initialize the database
 		airplanes = new HashSet<Airplane>();
@@ -201,6 +435,9 @@ public class FlightPlan {
 			airplanes.add(airplane);
 			airplaneMakes.put(airplane.getMake(), airplane);
 			airplaneModels.put(airplane.getModel(), airplane);
+			
+			// Start building the routing data of its range class
+			registerRangeClass(airplane);
 		} catch (NullPointerException exception) {
 			throw new NullPointerException("airplane may not be null");
 		}
@@ -231,13 +468,14 @@ public class FlightPlan {
 	}
 	
 	/**
-	 * Adds a new Vertex object to the database
+	 * Adds a new Vertex object to the database; the {@link #routingGraphLock} 
+	 * must be held, since the ids of the removed Vertex nodes may be freed
 	 *
 	 * @param vertex   The Vertex object to add to the database
 	 * @param database The database into which to add vertex
 	 * @throws NullPointerException When either parameter is null
 	 */
-	protected void addVertex(Vertex vertex, 
+	protected synchronized void addVertex(Vertex vertex, 
 	                         HashSet<? extends Vertex> database) 
 	                         throws FlightPlanException {
 		
@@ -248,6 +486,10 @@ public class FlightPlan {
 		// Add vertex to database
 		((HashSet<Vertex>) database).add(vertex);
 		
+		// Only now that vertex is fully constructed and in the database may 
+		// the searches reach it by its id
+		registerVertex(vertex);
+		
 		// Get the Coordinate of vertex
 		Coordinate coordinate = vertex.getCoordinate();
 		
@@ -259,17 +501,40 @@ public class FlightPlan {
 		
 		// Add the vertex's name to the database
 		names.put(vertex.getName(), vertex);
+		
+		// An Airport added back to the database sells its fuel again
+		if (vertex instanceof Airport) {
+			Airport airport = (Airport) vertex;
+			
+			if (airport.hasAVGAS()) {
+				airportsWithAVGAS.add(airport);
+			}
+			
+			if (airport.hasJA_a()) {
+				airportsWithJA_a.add(airport);
+			}
+		}
+		
+		updateRoutingGraphs(vertex);
+		
+		// The routes between the Airports may have changed, though a NAVBeacon 
+		// is in none of the routing data
+		if (vertex instanceof Airport) {
+			invalidateRoutingData();
+		}
 	}
 	
 	/**
-	 * Removes the specified Vertex object from the database
+	 * Removes the specified Vertex object from the database; the 
+	 * {@link #routingGraphLock} must be held, as for {@link #addVertex}, since 
+	 * the id of vertex is only freed once no {@link RoutingGraph} refers to it
 	 *
 	 * @param vertex   The Vertex node to remove from the database
 	 * @param database The database from which to remove vertex
 	 * @throws FlightPlanException  When vertex is not in the database
 	 * @throws NullPointerException When vertex is null
 	 */
-	protected void removeVertex(Vertex vertex, 
+	protected synchronized void removeVertex(Vertex vertex, 
 	                            HashSet<? extends Vertex> database) 
 	                            throws FlightPlanException {
 		
@@ -291,6 +556,22 @@ public class FlightPlan {
 			// in the database
 			HashSet<Vertex> vertices = new HashSet<Vertex>(airports);
 			vertices.addAll(navbeacons);
+			
+			// An Airport removed from the database is no longer a place to refuel
+			if (vertex instanceof Airport) {
+				airportsWithAVGAS.remove(vertex);
+				airportsWithJA_a.remove(vertex);
+			}
+			
+			updateRoutingGraphs(vertex, false);
+			
+			// vertex keeps its id until every RoutingGraph has disconnected it
+			removedVertices.add(vertex);
+			
+			// The routes between the Airports may have changed
+			if (vertex instanceof Airport) {
+				invalidateRoutingData();
+			}
 		} else {
 			throw new FlightPlanException(
 				vertex.getName() + " is not in the database"
@@ -298,6 +579,80 @@ public class FlightPlan {
 		}
 	}
 	
+	/**
+	 * Assigns a Vertex added to the database a free id, or the next one if none 
+	 * is free, unless it was removed and added back before its id was freed
+	 *
+	 * @param vertex The Vertex added to the database
+	 */
+	protected synchronized void registerVertex(Vertex vertex) {
+		if (vertex.id != -1) {
+			removedVertices.remove(vertex);
+			return;
+		}
+		
+		if (freeVertexIds.isEmpty() && !removedVertices.isEmpty()) {
+			freeVertexIds();
+		}
+		
+		Vertex[] vertexIds = this.vertexIds;
+		
+		if (!freeVertexIds.isEmpty()) {
+			vertex.id = freeVertexIds.remove(freeVertexIds.size() - 1);
+		} else {
+			if (vertexIdCount == vertexIds.length) {
+				vertexIds = Arrays.copyOf(vertexIds, vertexIdCount * 2);
+			}
+			
+			vertex.id = vertexIdCount ++;
+		}
+		
+		vertexIds[vertex.id] = vertex;
+		
+		// Republish the array so that searches running on other Threads, which 
+		// read it without locking, are guaranteed to see vertex
+		this.vertexIds = vertexIds;
+	}
+	
+	/**
+	 * Frees the ids of the Vertex nodes removed from the database, once each 
+	 * {@link RoutingGraph} has been connected so that none of them refers to 
+	 * those Vertex nodes any longer; the {@link #routingGraphLock} must be held
+	 */
+	protected synchronized void freeVertexIds() {
+		for (RoutingGraph graph : routingGraphs.values()) {
+			graph.connect();
+		}
+		
+		for (Vertex vertex : removedVertices) {
+			vertexIds[vertex.id] = null;
+			freeVertexIds.add(vertex.id);
+			vertex.id = -1;
+		}
+		
+		removedVertices.clear();
+	}
+	
+	/**
+	 * Returns the Vertex with the given id
+	 *
+	 * @param id The {@link Vertex#getId() id} of the Vertex
+	 * @return The Vertex with the given id
+	 */
+	public Vertex getVertex(int id) {
+		return vertexIds[id];
+	}
+	
+	/**
+	 * Returns the number of Vertex ids assigned so far, which bounds the id of 
+	 * every Vertex in the database
+	 *
+	 * @return The {@link #vertexIdCount} attribute
+	 */
+	public synchronized int getVertexIdCount() {
+		return vertexIdCount;
+	}
+	
 	/**
 	 * Sets the airports HashSet of the database
 	 *
@@ -345,7 +700,9 @@ public class FlightPlan {
 	 * @throws NullPointerException When airport is null
 	 */
 	public void addAirport(Airport airport) throws FlightPlanException {
-		addVertex(airport, airports);
+		synchronized (routingGraphLock) {
+			addVertex(airport, airports);
+		}
 	}
 	
 	/**
@@ -357,7 +714,9 @@ public class FlightPlan {
 	 */
 	public void removeAirport(Airport airport) throws FlightPlanException {
 		try {
-			removeVertex(airport, airports);
+			synchronized (routingGraphLock) {
+				removeVertex(airport, airports);
+			}
 		} catch (FlightPlanException exception) {
 			throw new FlightPlanException(exception);
 		}
@@ -369,8 +728,10 @@ public class FlightPlan {
 	 *
 	 * @param airport The {@link Airport} to add to those with AVGAS fuel
 	 */
-	public void addAirportWithAVGAS(Airport airport) {
+	public synchronized void addAirportWithAVGAS(Airport airport) {
 		airportsWithAVGAS.add(airport);
+		invalidateRoutingData(airport, Airplane.AirplaneType.PROP);
+		updateRoutingGraphs(airport);
 	}
 	
 	/**
@@ -379,8 +740,10 @@ public class FlightPlan {
 	 *
 	 * @param airport The {@link Airport} to remove from those with AVGAS fuel
 	 */
-	public void removeAirportWithAVGAS(Airport airport) {
+	public synchronized void removeAirportWithAVGAS(Airport airport) {
 		airportsWithAVGAS.remove(airport);
+		invalidateRoutingData(airport, Airplane.AirplaneType.PROP);
+		updateRoutingGraphs(airport);
 	}
 	
 	/**
@@ -389,8 +752,10 @@ public class FlightPlan {
 	 *
 	 * @param airport The {@link Airport} to add to those with Jet-A fuel
 	 */
-	public void addAirportWithJA_a(Airport airport) {
+	public synchronized void addAirportWithJA_a(Airport airport) {
 		airportsWithJA_a.add(airport);
+		invalidateRoutingData(airport, Airplane.AirplaneType.JET);
+		updateRoutingGraphs(airport);
 	}
 	
 	/**
@@ -399,213 +764,876 @@ public class FlightPlan {
 	 *
 	 * @param airport The {@link Airport} to remove from those with Jet-A fuel
 	 */
-	public void removeAirportWithJA_a(Airport airport) {
+	public synchronized void removeAirportWithJA_a(Airport airport) {
 		airportsWithJA_a.remove(airport);
+		invalidateRoutingData(airport, Airplane.AirplaneType.JET);
+		updateRoutingGraphs(airport);
 	}
 	
 	/**
-	 * Sets the {@link NAVBeacon} HashSet of the database
+	 * Closes an {@link Airport} for now, as for a fuel outage or a closed runway, 
+	 * so no flight plan visits it until it is {@link #reopenAirport reopened}.  
+	 * Each {@link RoutingGraph} disconnects it in place, so a flight plan found 
+	 * again with a {@link LifelongPlanningAStar} only searches again around it.
 	 *
-	 * @param navbeacons The HashSet of {@link NAVBeacon} objects with which 
-	 *                   to initialize the database
-	 * @throws NullPointerException When navbeacons is null
+	 * @param airport The {@link Airport} to close
+	 * @throws NullPointerException When airport is null
 	 */
-	public void setNAVBeacons(HashSet<NAVBeacon> navbeacons) {
-		try {
-			// Resets the set of NAVBeacons in the database (this is important
-			// because the Coordinate and ICAO ID of every NAVBeacon must be
-			// reset too)
-			for (NAVBeacon navbeacon : getNAVBeacons()) {
-				removeNAVBeacon(navbeacon);
-			}
-			
-			// (Re)Initializes the NAVBeacon database (this is important
-			// because the Coordinate and ICAO ID of every NAVBeacon must
-			// be tracked for uniqueness)
-			for (NAVBeacon navbeacon : navbeacons.toArray(new NAVBeacon[0])) {
-				addNAVBeacon(navbeacon);
-			}
-		} catch (FlightPlanException exception) {
-			System.err.println(exception.getMessage());
-		} catch (NullPointerException exception) {
-			throw new NullPointerException("navbeacons may not be null");
+	public synchronized void closeAirport(Airport airport) {
+		if (airport == null) {
+			throw new NullPointerException("airport may not be null");
+		}
+		
+		if (closedAirports.add(airport)) {
+			invalidateRoutingData(airport, null);
+			updateRoutingGraphs(airport, false);
 		}
 	}
 	
 	/**
-	 * Returns an array containing all the {@link NAVBeacon} objects within
-	 * this database
+	 * Reopens an {@link Airport} closed by {@link #closeAirport(Airport)}
 	 *
-	 * @return The {@link #navbeacons} attribute copied to a {@link NAVBeacon}
-	 *         array
+	 * @param airport The {@link Airport} to reopen
+	 * @throws NullPointerException When airport is null
 	 */
-	public NAVBeacon[] getNAVBeacons() {
-		return navbeacons.toArray(new NAVBeacon[0]);
+	public synchronized void reopenAirport(Airport airport) {
+		if (airport == null) {
+			throw new NullPointerException("airport may not be null");
+		}
+		
+		if (closedAirports.remove(airport)) {
+			invalidateRoutingData(airport, null);
+			updateRoutingGraphs(airport, airports.contains(airport));
+		}
 	}
 	
 	/**
-	 * Adds a {@link NAVBeacon} object to the database
+	 * Returns whether an {@link Airport} is closed
 	 *
-	 * @param navbeacon The {@link NAVBeacon} object to add to the database
-	 * @throws NullPointerException When navbeacon is null
+	 * @param airport The {@link Airport} to check
+	 * @return Whether airport has been closed and not reopened
 	 */
-	public void addNAVBeacon(NAVBeacon navbeacon) {
-		try {
-			addVertex(navbeacon, navbeacons);
-		} catch (NullPointerException exception) {
-			throw new NullPointerException("navbeacon may not be null");
-		} catch (FlightPlanException exception) {
-			System.err.println(exception.getMessage());
-		}
+	public synchronized boolean isClosed(Airport airport) {
+		return closedAirports.contains(airport);
 	}
 	
 	/**
-	 * Removes a {@link NAVBeacon} object from the database
+	 * Returns every {@link Airport} which is closed
 	 *
-	 * @param navbeacon The {@link NAVBeacon} object to remove from the database
-	 * @throws FlightPlanException  When navbeacon is not in the database
-	 * @throws NullPointerException When navbeacon is null
+	 * @return The {@link #closedAirports} attribute copied to an {@link Airport} 
+	 *         array
 	 */
-	public void removeNAVBeacon(NAVBeacon navbeacon) throws FlightPlanException {
-		try {
-			removeVertex(navbeacon, navbeacons);
-		} catch (NullPointerException exception) {
-			throw new NullPointerException("navbeacon may not be null");
-		}
+	public synchronized Airport[] getClosedAirports() {
+		return closedAirports.toArray(new Airport[0]);
 	}
 	
 	/**
-	 * Sets the flight plan according to the user defined list of destinations
+	 * Returns the range class of an {@link Airplane}, which determines the 
+	 * {@link Airport}s at which it may refuel and how far apart they may be
 	 *
-	 * @param startDestination       The beginning destination of the flight plan
-	 * @param endDestination         The ending destination of the flight plan
-	 * @param additionalDestinations Additional destinations to add to the flight plan
-	 * @param airplane               The {@link Airplane} in which the user wishes to fly
-	 * @throws NullPointerException When any of the parameters is null
+	 * @param airplane The {@link Airplane} whose range class to return
+	 * @return A key identifying the range class of airplane
 	 */
-	public void setFlightPlan(Airport startDestination,
-	                          Airport endDestination,
-	                          ArrayList<Vertex> additionalDestinations,
-	                          Airplane airplane)
-	                          throws FlightPlanException {
+	protected static String getRangeClass(Airplane airplane) {
+		return airplane.getType() + "/" + airplane.getRange();
+	}
 	
-		if (startDestination == null) {
-			throw new NullPointerException("startDestination may not be null");
-		}
-		
-		if (endDestination == null) {
-			throw new NullPointerException("endDestination may not be null");
-		}
-		
+	/**
+	 * Starts building the routing data of the range class of an {@link Airplane} 
+	 * in the background, unless it has been requested before
+	 *
+	 * @param airplane The {@link Airplane} whose range class to register
+	 * @throws NullPointerException When airplane is null
+	 */
+	protected synchronized void registerRangeClass(Airplane airplane) {
 		if (airplane == null) {
 			throw new NullPointerException("airplane may not be null");
 		}
 		
-		// Holds all the Airports with the required type of fuel
-		Airport[] airports;
-		
-		// Determine whether the Airplane requires AVGAS or Jet-A fuel
-		if (airplane.getType().equals(Airplane.AirplaneType.PROP)) {
-			airports = airportsWithAVGAS.toArray(new Airport[0]);
-		} else {
-			airports = airportsWithJA_a.toArray(new Airport[0]);
-		}
-		
-		this.airplane = airplane;
-		
-		int indices = airports.length;
-		
-		int destinations;
-		if (additionalDestinations != null) {
-			destinations = additionalDestinations.size();
-		} else {
-			destinations = 0;
-		}
-		
-		// Holds the current time
-		long timestamp = System.currentTimeMillis();
+		String rangeClass = getRangeClass(airplane);
 		
-		// Two Vertex nodes to point to Destinations while the shortest paths are being
-		// calculated
-		Vertex destinationOne, destinationTwo;
-		
-		// Connect every Vertex node, whether Airport or NAVBeacon, together along the
-		// Flight Plan
-		for (int index = 0; index < indices; index ++) {
-			destinationOne = airports[index];
-			
-			destinationOne.addEdge(startDestination, timestamp, airplane);
-			startDestination.addEdge(destinationOne, timestamp, airplane);
+		if (!rangeClassTypes.containsKey(rangeClass)) {
+			rangeClassTypes.put(rangeClass, airplane.getType());
+			rangeClassRanges.put(rangeClass, airplane.getRange());
 			
-			destinationOne.addEdge(endDestination, timestamp, airplane);
-			endDestination.addEdge(destinationOne, timestamp, airplane);
+			// One RoutingGraph serves every Airplane of a type, so it is only 
+			// rebuilt when an Airplane with a longer range than any before arrives
+			RoutingGraph graph = routingGraphs.get(airplane.getType());
 			
-			// Adds an edge between each Airport with the required fuel type and each 
-			// additional destination (This is not executed if additionalDestinations 
-			// is either null or empty)
-			for (int innerIndex = 0; innerIndex < destinations; innerIndex ++) {
-				destinationTwo = additionalDestinations.get(innerIndex);
+			if (graph == null || graph.getRange() < airplane.getRange()) {
+				graph = new RoutingGraph(
+					getRefuelingAirports(rangeClass), getNAVBeacons(), 
+					airplane.getType(), airplane.getRange()
+				);
+				graph.setNeighborCacheSize(neighborCacheSize);
+				graph.setAirwayDegree(airwayDegree);
+				routingGraphs.put(airplane.getType(), graph);
 				
-				destinationOne.addEdge(destinationTwo, timestamp, airplane);
-				destinationTwo.addEdge(destinationOne, timestamp, airplane);
+				// Every flight plan searches the RoutingGraph, so it is connected 
+				// first
+				connectRoutingGraph(graph);
 			}
 			
-			// Adds an edge between each Airport with the required fuel type
-			for (int innerIndex = index; innerIndex < indices; innerIndex ++) {
-				destinationTwo = airports[innerIndex];
-				
-				destinationOne.addEdge(destinationTwo, timestamp, airplane);
-				destinationTwo.addEdge(destinationOne, timestamp, airplane);
-			}
+			routingDataVersions.put(rangeClass, 0L);
+			pendingRebuilds.add(rangeClass);
+			
+			// The Landmarks are far cheaper to build than the rest
+			buildLandmarks(rangeClass);
+			buildContractionHierarchy(rangeClass);
+			buildHubLabels(rangeClass);
 		}
+	}
+	
+	/**
+	 * Returns the heading, distance and time of the flight between two Vertex 
+	 * nodes at the cruise speed of an {@link Airplane}, computing them only if 
+	 * they are not kept, or either Vertex has moved since they were
+	 *
+	 * @param fromVertex The Vertex from which the flight originates
+	 * @param toVertex   The Vertex to which the flight leads
+	 * @param airplane   The {@link Airplane} flying between them
+	 * @return The {@link EdgeMetrics} of the flight from fromVertex to toVertex, 
+	 *         which may be shared with other flight plans
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	public EdgeMetrics getEdgeMetrics(Vertex fromVertex, Vertex toVertex, Airplane airplane) {
+		String leg = fromVertex.getId() + " " + toVertex.getId() + " " + airplane.getCruiseSpeed();
 		
-		// Compute the shortest paths between all Vertex nodes
-		dijkstra.computePaths(startDestination);
-		
-		// Holds all the Edges of startDestination
-		Hashtable<String, Edge> edges = startDestination.getEdges();
-		
-		// Heaps Edge nodes according to their weight
-		PriorityQueue<Edge> edgesByPriority = new PriorityQueue<Edge>();
-		
-		// Add every Edge along the additional destinations to the priority
-		// queue to be added to the Flight Plan
-		if (additionalDestinations != null) {
-			for (Vertex destination : additionalDestinations) {
-				edgesByPriority.add(edges.get(destination.getICAOid()));
+		synchronized (edgeMetrics) {
+			EdgeMetrics metrics = edgeMetrics.get(leg);
+			
+			if (metrics != null && metrics.isCurrent(fromVertex, toVertex)) {
+				return metrics;
 			}
 		}
 		
-		// Points to the current Edge being used
-		Edge edge;
+		// Compute the metrics outside the lock, since two Threads computing 
+		// those of the same leg at once find the same ones
+		EdgeMetrics metrics = new EdgeMetrics(fromVertex, toVertex, airplane.getCruiseSpeed());
 		
-		// Holds the shortest path between the two Vertex nodes being examined
-		ArrayList<Destination> shortestPath;
+		synchronized (edgeMetrics) {
+			edgeMetrics.put(leg, metrics);
+		}
 		
-		// Get the shortest path between each of the additional destinations
-		while ((edge = edgesByPriority.poll()) != null) {
-			Vertex destination = edge.getToVertex();
-			
-			// Get the shortest path between the additional destination and
-			// the last destination
-			shortestPath = 
-				dijkstra.getShortestPath(destination, airplane, timestamp);
-			
+		return metrics;
+	}
+	
+	/**
+	 * Returns the {@link RoutingGraph} of the type of an {@link Airplane}, which 
+	 * spans at least its range, and may still have {@link Airport}s waiting to be 
+	 * connected
+	 *
+	 * @param airplane The {@link Airplane} whose {@link RoutingGraph} to return
+	 * @return The {@link RoutingGraph} of the type of airplane
+	 * @throws NullPointerException When airplane is null
+	 */
+	public synchronized RoutingGraph getRoutingGraph(Airplane airplane) {
+		registerRangeClass(airplane);
+		return routingGraphs.get(airplane.getType());
+	}
+	
+	/**
+	 * Returns the {@link RoutingGraph} of the type of {@link Airplane} of the 
+	 * flight plan being found, with its destinations attached, or that of the 
+	 * last flight plan found
+	 *
+	 * @return The {@link #searchGraph} attribute
+	 */
+	public RoutingGraph getSearchGraph() {
+		return searchGraph;
+	}
+	
+	/**
+	 * Returns the range of the {@link Airplane} of the flight plan being found, 
+	 * or of the last flight plan found, beyond which searches traverse no 
+	 * {@link Edge} of the {@link #getSearchGraph() search graph}
+	 *
+	 * @return The {@link #searchRange} attribute
+	 */
+	public float getSearchRange() {
+		return searchRange;
+	}
+	
+	/**
+	 * Records that an {@link Airport} has gained or lost a type of fuel, or that 
+	 * a Vertex has been added or has moved, so that each {@link RoutingGraph} 
+	 * reconnects it in the background, or before its next flight plan, whichever 
+	 * is sooner, unless it is not yet in the database or is a closed Airport
+	 *
+	 * @param vertex The Vertex which has changed
+	 */
+	protected synchronized void updateRoutingGraphs(Vertex vertex) {
+		boolean inDatabase = airports.contains(vertex) || navbeacons.contains(vertex);
+		updateRoutingGraphs(vertex, inDatabase && !closedAirports.contains(vertex));
+	}
+	
+	/**
+	 * Records that a Vertex has changed, as {@link #updateRoutingGraphs(Vertex)} 
+	 * does, or has been removed from the database or closed, so that each 
+	 * {@link RoutingGraph} disconnects it
+	 *
+	 * @param vertex The Vertex which has changed
+	 * @param open   Whether vertex is still in the database and open
+	 */
+	protected synchronized void updateRoutingGraphs(Vertex vertex, boolean open) {
+		
+		// A Vertex without an id has never been connected, nor may it be
+		if (vertex.getId() == -1) {
+			return;
+		}
+		
+		for (RoutingGraph graph : routingGraphs.values()) {
+			boolean wasEmpty = open ? graph.update(vertex) : graph.remove(vertex);
+			
+			// Only one connection need be scheduled for any number of changes
+			if (wasEmpty) {
+				connectRoutingGraph(graph);
+			}
+		}
+	}
+	
+	/**
+	 * Schedules the connection of the changed {@link Airport}s of a 
+	 * {@link RoutingGraph} on the {@link #routingDataBuilder} Thread
+	 *
+	 * @param graph The {@link RoutingGraph} to connect
+	 */
+	protected void connectRoutingGraph(final RoutingGraph graph) {
+		routingDataBuilder.execute(new Runnable() {
+			
+			@Override
+			public void run() {
+				synchronized (routingGraphLock) {
+					graph.connect();
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Returns the {@link ContractionHierarchy} of the range class of an 
+	 * {@link Airplane} if it has been built, and otherwise starts building it 
+	 * in the background
+	 *
+	 * @param airplane The {@link Airplane} whose {@link ContractionHierarchy} to return
+	 * @return The {@link ContractionHierarchy} of the range class of airplane, or 
+	 *         null if it is not ready yet
+	 * @throws NullPointerException When airplane is null
+	 */
+	public synchronized ContractionHierarchy getContractionHierarchy(Airplane airplane) {
+		registerRangeClass(airplane);
+		return contractionHierarchies.get(getRangeClass(airplane));
+	}
+	
+	/**
+	 * Returns the {@link Landmarks} of the range class of an {@link Airplane} if 
+	 * they have been built, and otherwise starts building them in the background
+	 *
+	 * @param airplane The {@link Airplane} whose {@link Landmarks} to return
+	 * @return The {@link Landmarks} of the range class of airplane, or null if 
+	 *         they are not ready yet
+	 * @throws NullPointerException When airplane is null
+	 */
+	public synchronized Landmarks getLandmarks(Airplane airplane) {
+		registerRangeClass(airplane);
+		return landmarks.get(getRangeClass(airplane));
+	}
+	
+	/**
+	 * Returns the {@link HubLabels} of the range class of an {@link Airplane} if 
+	 * they have been built, and otherwise starts building them in the background
+	 *
+	 * @param airplane The {@link Airplane} whose {@link HubLabels} to return
+	 * @return The {@link HubLabels} of the range class of airplane, or null if 
+	 *         they are not ready yet
+	 * @throws NullPointerException When airplane is null
+	 */
+	public synchronized HubLabels getHubLabels(Airplane airplane) {
+		registerRangeClass(airplane);
+		return hubLabels.get(getRangeClass(airplane));
+	}
+	
+	/**
+	 * Returns the shortest route between two {@link Airport}s from the 
+	 * {@link HubLabels} of the range class of an {@link Airplane}, which takes 
+	 * no search at all, and is meant for answering many queries quickly.  Until 
+	 * the HubLabels are built, or rebuilt after the database changes, the route 
+	 * is found by a {@link RangeConstrainedDijkstra} over the 
+	 * {@link RoutingGraph} instead, as {@link ContractionHierarchyDijkstra} does.
+	 *
+	 * @param from     The {@link Airport} at which the route begins
+	 * @param to       The {@link Airport} at which the route ends
+	 * @param airplane The {@link Airplane} in which the user wishes to fly
+	 * @return The {@link Destination}s along the shortest route from from to to
+	 * @throws FlightPlanException When either {@link Airport} is not in the 
+	 *                             database, is closed, or has no hub label, or 
+	 *                             when there is no route between the two
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	public List<Destination> getRoute(Airport from, Airport to, Airplane airplane) 
+	                                  throws FlightPlanException {
+		
+		if (from == null) {
+			throw new NullPointerException("from may not be null");
+		}
+		
+		if (to == null) {
+			throw new NullPointerException("to may not be null");
+		}
+		
+		// No route may visit a closed Airport
+		checkOpen(from);
+		checkOpen(to);
+		
+		HubLabels labels = getHubLabels(airplane);
+		
+		if (labels == null) {
+			return searchRoute(from, to, airplane);
+		}
+		
+		List<Destination> route;
+		
+		try {
+			route = labels.getRoute(from, to, airplane.getType());
+		} catch (IllegalArgumentException exception) {
+			// Either Airport was left out of the labels when they were built
+			throw new FlightPlanException(exception.getMessage(), exception);
+		}
+		
+		if (route == null) {
+			throw new FlightPlanException(
+				"Due to lack of refueling facilities, this trip is impossible."
+			);
+		}
+		
+		return route;
+	}
+	
+	/**
+	 * Returns the shortest route between two {@link Airport}s found by a 
+	 * {@link RangeConstrainedDijkstra} of its own, for {@link #getRoute} to serve 
+	 * while the {@link HubLabels} are not ready
+	 *
+	 * @param from     The {@link Airport} at which the route begins
+	 * @param to       The {@link Airport} at which the route ends
+	 * @param airplane The {@link Airplane} in which the user wishes to fly
+	 * @return The {@link Destination}s along the shortest route from from to to
+	 * @throws FlightPlanException When there is no route between the two
+	 */
+	protected List<Destination> searchRoute(Airport from, Airport to, Airplane airplane) 
+	                                        throws FlightPlanException {
+		
+		RoutingGraph graph = getRoutingGraph(airplane);
+		ArrayList<Vertex> path;
+		
+		synchronized (routingGraphLock) {
+			graph.connect();
+			
+			searchGraph = graph;
+			searchRange = airplane.getRange();
+			
+			try {
+				graph.attach(from);
+				graph.attach(to);
+				
+				// The search keeps its state apart from that of the flight plan
+				Dijkstra search = new RangeConstrainedDijkstra();
+				search.computePath(from, to, airplane);
+				path = search.getPathVertices(to);
+			} finally {
+				graph.detachAll();
+			}
+		}
+		
+		ArrayList<Destination> route = new ArrayList<Destination>(path.size());
+		for (Vertex vertex : path) {
+			route.add(Dijkstra.createDestination(vertex, airplane.getType()));
+		}
+		
+		return route;
+	}
+	
+	/**
+	 * Discards the routing data of every range class, since the database has 
+	 * changed, and rebuilds it in the background
+	 */
+	protected synchronized void invalidateRoutingData() {
+		invalidateRoutingData(null);
+	}
+	
+	/**
+	 * Discards the routing data of the range classes affected by a change to an 
+	 * {@link Airport}, unless it is not in the database, as while it is being 
+	 * constructed, in which case adding it will discard the data instead
+	 *
+	 * @param airport The {@link Airport} which has changed
+	 * @param type    The type of {@link Airplane} whose range classes the change 
+	 *                affects, or null if it affects every range class
+	 */
+	protected synchronized void invalidateRoutingData(Airport airport, 
+	                                                  Airplane.AirplaneType type) {
+		if (airports.contains(airport)) {
+			invalidateRoutingData(type);
+		}
+	}
+	
+	/**
+	 * Discards the routing data of the range classes of a type of 
+	 * {@link Airplane}, and rebuilds it in the background.  A rebuild already 
+	 * scheduled but not started takes a snapshot of the database only once it 
+	 * starts, so it serves any number of mutations made before then.
+	 *
+	 * @param type The type of {@link Airplane} whose range classes to discard, 
+	 *             or null to discard every range class
+	 */
+	protected synchronized void invalidateRoutingData(Airplane.AirplaneType type) {
+		ArrayList<String> rebuilds = new ArrayList<String>();
+		
+		for (String rangeClass : rangeClassTypes.keySet()) {
+			if (type != null && !type.equals(rangeClassTypes.get(rangeClass))) {
+				continue;
+			}
+			
+			// Any build of rangeClass still running is now out of date, and the 
+			// data it replaces may route through Airports which have changed
+			routingDataVersions.put(rangeClass, routingDataVersions.get(rangeClass) + 1);
+			contractionHierarchies.remove(rangeClass);
+			landmarks.remove(rangeClass);
+			hubLabels.remove(rangeClass);
+			
+			if (pendingRebuilds.add(rangeClass)) {
+				rebuilds.add(rangeClass);
+			}
+		}
+		
+		// The Landmarks are far cheaper to build, so they are ready first
+		for (String rangeClass : rebuilds) {
+			buildLandmarks(rangeClass);
+		}
+		
+		for (String rangeClass : rebuilds) {
+			buildContractionHierarchy(rangeClass);
+			buildHubLabels(rangeClass);
+		}
+	}
+	
+	/**
+	 * Returns a snapshot of the {@link Airport}s at which a range class may refuel
+	 *
+	 * @param rangeClass The range class whose {@link Airport}s to return
+	 * @return The open {@link Airport}s with the fuel required by rangeClass
+	 */
+	protected synchronized Airport[] getRefuelingAirports(String rangeClass) {
+		HashSet<Airport> refuelingAirports;
+		
+		if (rangeClassTypes.get(rangeClass).equals(Airplane.AirplaneType.PROP)) {
+			refuelingAirports = new HashSet<Airport>(airportsWithAVGAS);
+		} else {
+			refuelingAirports = new HashSet<Airport>(airportsWithJA_a);
+		}
+		
+		refuelingAirports.removeAll(closedAirports);
+		return refuelingAirports.toArray(new Airport[0]);
+	}
+	
+	/**
+	 * Schedules the build of the {@link ContractionHierarchy} of a range class on 
+	 * the {@link #routingDataBuilder} Thread
+	 *
+	 * @param rangeClass The range class of the {@link ContractionHierarchy}
+	 */
+	protected void buildContractionHierarchy(final String rangeClass) {
+		final float range = rangeClassRanges.get(rangeClass);
+		
+		routingDataBuilder.execute(new Runnable() {
+			
+			@Override
+			public void run() {
+				ContractionHierarchy hierarchy;
+				long version;
+				
+				// Take a snapshot of the Airports as they are now, unless a build 
+				// scheduled earlier has already done so since the last mutation
+				synchronized (FlightPlan.this) {
+					if (contractionHierarchies.containsKey(rangeClass)) {
+						return;
+					}
+					
+					version = routingDataVersions.get(rangeClass);
+					hierarchy = new ContractionHierarchy(
+						getRefuelingAirports(rangeClass), range
+					);
+				}
+				
+				// Build it without holding the lock, so the database may keep changing
+				hierarchy.build();
+				
+				synchronized (FlightPlan.this) {
+					if (version == routingDataVersions.get(rangeClass)) {
+						contractionHierarchies.put(rangeClass, hierarchy);
+					}
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Schedules the build of the {@link Landmarks} of a range class on the 
+	 * {@link #routingDataBuilder} Thread
+	 *
+	 * @param rangeClass The range class of the {@link Landmarks}
+	 */
+	protected void buildLandmarks(final String rangeClass) {
+		final float range = rangeClassRanges.get(rangeClass);
+		
+		routingDataBuilder.execute(new Runnable() {
+			
+			@Override
+			public void run() {
+				Landmarks rangeClassLandmarks;
+				long version;
+				
+				// Take a snapshot of the Airports, as buildContractionHierarchy does; 
+				// the Landmarks start each rebuild, so any mutation from now on 
+				// schedules another
+				synchronized (FlightPlan.this) {
+					pendingRebuilds.remove(rangeClass);
+					
+					if (landmarks.containsKey(rangeClass)) {
+						return;
+					}
+					
+					version = routingDataVersions.get(rangeClass);
+					rangeClassLandmarks = new Landmarks(
+						getRefuelingAirports(rangeClass), range
+					);
+				}
+				
+				rangeClassLandmarks.build();
+				
+				synchronized (FlightPlan.this) {
+					if (version == routingDataVersions.get(rangeClass)) {
+						landmarks.put(rangeClass, rangeClassLandmarks);
+					}
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Schedules the build of the {@link HubLabels} of a range class on the 
+	 * {@link #routingDataBuilder} Thread, after its {@link ContractionHierarchy}
+	 *
+	 * @param rangeClass The range class of the {@link HubLabels}
+	 */
+	protected void buildHubLabels(final String rangeClass) {
+		routingDataBuilder.execute(new Runnable() {
+			
+			@Override
+			public void run() {
+				HubLabels labels;
+				long version;
+				
+				// The labels are derived from the ContractionHierarchy, which was 
+				// built by the task scheduled just before this one, unless the 
+				// database has changed since
+				synchronized (FlightPlan.this) {
+					ContractionHierarchy hierarchy = contractionHierarchies.get(rangeClass);
+					
+					if (hierarchy == null || hubLabels.containsKey(rangeClass)) {
+						return;
+					}
+					
+					version = routingDataVersions.get(rangeClass);
+					labels = new HubLabels(hierarchy, airports.toArray(new Airport[0]));
+				}
+				
+				labels.build();
+				
+				synchronized (FlightPlan.this) {
+					if (version == routingDataVersions.get(rangeClass)) {
+						hubLabels.put(rangeClass, labels);
+					}
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Sets the {@link NAVBeacon} HashSet of the database
+	 *
+	 * @param navbeacons The HashSet of {@link NAVBeacon} objects with which 
+	 *                   to initialize the database
+	 * @throws NullPointerException When navbeacons is null
+	 */
+	public void setNAVBeacons(HashSet<NAVBeacon> navbeacons) {
+		try {
+			// Resets the set of NAVBeacons in the database (this is important
+			// because the Coordinate and ICAO ID of every NAVBeacon must be
+			// reset too)
+			for (NAVBeacon navbeacon : getNAVBeacons()) {
+				removeNAVBeacon(navbeacon);
+			}
+			
+			// (Re)Initializes the NAVBeacon database (this is important
+			// because the Coordinate and ICAO ID of every NAVBeacon must
+			// be tracked for uniqueness)
+			for (NAVBeacon navbeacon : navbeacons.toArray(new NAVBeacon[0])) {
+				addNAVBeacon(navbeacon);
+			}
+		} catch (FlightPlanException exception) {
+			System.err.println(exception.getMessage());
+		} catch (NullPointerException exception) {
+			throw new NullPointerException("navbeacons may not be null");
+		}
+	}
+	
+	/**
+	 * Returns an array containing all the {@link NAVBeacon} objects within
+	 * this database
+	 *
+	 * @return The {@link #navbeacons} attribute copied to a {@link NAVBeacon}
+	 *         array
+	 */
+	public NAVBeacon[] getNAVBeacons() {
+		return navbeacons.toArray(new NAVBeacon[0]);
+	}
+	
+	/**
+	 * Adds a {@link NAVBeacon} object to the database
+	 *
+	 * @param navbeacon The {@link NAVBeacon} object to add to the database
+	 * @throws NullPointerException When navbeacon is null
+	 */
+	public void addNAVBeacon(NAVBeacon navbeacon) {
+		try {
+			synchronized (routingGraphLock) {
+				addVertex(navbeacon, navbeacons);
+			}
+		} catch (NullPointerException exception) {
+			throw new NullPointerException("navbeacon may not be null");
+		} catch (FlightPlanException exception) {
+			System.err.println(exception.getMessage());
+		}
+	}
+	
+	/**
+	 * Removes a {@link NAVBeacon} object from the database
+	 *
+	 * @param navbeacon The {@link NAVBeacon} object to remove from the database
+	 * @throws FlightPlanException  When navbeacon is not in the database
+	 * @throws NullPointerException When navbeacon is null
+	 */
+	public void removeNAVBeacon(NAVBeacon navbeacon) throws FlightPlanException {
+		try {
+			synchronized (routingGraphLock) {
+				removeVertex(navbeacon, navbeacons);
+			}
+		} catch (NullPointerException exception) {
+			throw new NullPointerException("navbeacon may not be null");
+		}
+	}
+	
+	/**
+	 * Sets the flight plan according to the user defined list of destinations
+	 *
+	 * @param startDestination       The beginning destination of the flight plan
+	 * @param endDestination         The ending destination of the flight plan
+	 * @param additionalDestinations Additional destinations to add to the flight plan
+	 * @param airplane               The {@link Airplane} in which the user wishes to fly
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	public void setFlightPlan(Airport startDestination,
+	                          Airport endDestination,
+	                          ArrayList<Vertex> additionalDestinations,
+	                          Airplane airplane)
+	                          throws FlightPlanException {
+	
+		if (startDestination == null) {
+			throw new NullPointerException("startDestination may not be null");
+		}
+		
+		if (endDestination == null) {
+			throw new NullPointerException("endDestination may not be null");
+		}
+		
+		if (airplane == null) {
+			throw new NullPointerException("airplane may not be null");
+		}
+		
+		// No flight plan may visit a closed Airport
+		checkOpen(startDestination);
+		checkOpen(endDestination);
+		
+		if (additionalDestinations != null) {
+			for (Vertex destination : additionalDestinations) {
+				checkOpen(destination);
+			}
+		}
+		
+		this.airplane = airplane;
+		this.startDestination = startDestination;
+		this.endDestination = endDestination;
+		this.additionalDestinations = additionalDestinations != null 
+			? new ArrayList<Vertex>(additionalDestinations) : null;
+		
+		// Holds the unique timestamp of this flight plan
+		long timestamp = timestamps.incrementAndGet();
+		
+		// Holds the Edges between the Airports with the required type of fuel, 
+		// which are kept from one flight plan to the next
+		RoutingGraph graph = getRoutingGraph(airplane);
+		
+		synchronized (routingGraphLock) {
+			
+			// Reconnect any Airports which have changed since the last flight plan
+			graph.connect();
+			
+			// Search the Edges of this type of Airplane, up to its range
+			searchGraph = graph;
+			searchRange = airplane.getRange();
+			
+			try {
+				// Connect the destinations of the Flight Plan to every Airport with 
+				// the required type of fuel
+				graph.attach(startDestination);
+				graph.attach(endDestination);
+				
+				if (additionalDestinations != null) {
+					for (Vertex destination : additionalDestinations) {
+						graph.attach(destination);
+					}
+				}
+				
+				setFlightDestinations(
+					startDestination, endDestination, additionalDestinations, airplane, timestamp
+				);
+			} finally {
+				// Leave only the Edges between the Airports for the next flight plan
+				graph.detachAll();
+			}
+		}
+	}
+	
+	/**
+	 * Throws a FlightPlanException if a destination is not in the database, or 
+	 * is a closed {@link Airport}
+	 *
+	 * @param destination The destination to check
+	 * @throws FlightPlanException When destination is not in the database, or 
+	 *                             is a closed {@link Airport}
+	 */
+	protected void checkOpen(Vertex destination) throws FlightPlanException {
+		if (destination.getId() == -1) {
+			throw new FlightPlanException(destination.getName() + " is not in the database");
+		}
+		
+		if (destination instanceof Airport && isClosed((Airport) destination)) {
+			throw new FlightPlanException(destination.getName() + " is closed");
+		}
+	}
+	
+	/**
+	 * Finds the current flight plan again, as once {@link Airport}s have been 
+	 * closed or reopened since it was found.  The default 
+	 * {@link RangeConstrainedDijkstra} searches each leg afresh; with a 
+	 * {@link LifelongPlanningAStar} {@link #setDijkstra set} instead, only the 
+	 * search around the Airports which changed is repeated, and only the legs the 
+	 * {@link Airplane} cannot fly are searched afresh, so both find flight plans 
+	 * of the same length.
+	 * <br /><br />
+	 * Only the flight plan found last is kept, so only it may be found again; 
+	 * keeping every flight plan issued would mean keeping its destinations and 
+	 * Airplane too, which a FlightPlan, holding one flight plan at a time, does not
+	 *
+	 * @throws FlightPlanException When no flight plan has been found yet, or it 
+	 *                             may no longer be flown
+	 */
+	public void replan() throws FlightPlanException {
+		if (startDestination == null) {
+			throw new FlightPlanException("No flight plan has been found yet");
+		}
+		
+		setFlightPlan(startDestination, endDestination, additionalDestinations, airplane);
+	}
+	
+	/**
+	 * Finds the shortest path of each leg of the flight plan, once its destinations 
+	 * have been attached to the {@link RoutingGraph}
+	 *
+	 * @param startDestination       The beginning destination of the flight plan
+	 * @param endDestination         The ending destination of the flight plan
+	 * @param additionalDestinations Additional destinations to add to the flight plan
+	 * @param airplane               The {@link Airplane} in which the user wishes to fly
+	 * @param timestamp              The unique timestamp of the flight plan
+	 */
+	protected void setFlightDestinations(Airport startDestination,
+	                                     Airport endDestination,
+	                                     ArrayList<Vertex> additionalDestinations,
+	                                     Airplane airplane,
+	                                     long timestamp)
+	                                     throws FlightPlanException {
+		
+		// Holds the additional destinations in the order in which to visit them
+		List<Vertex> stops = orderStops(startDestination, endDestination, additionalDestinations, airplane);
+		
+		if (legFinder != null && !stops.isEmpty()) {
+			
+			// Holds the start, each additional destination and the end, in order
+			ArrayList<Vertex> itinerary = new ArrayList<Vertex>();
+			itinerary.add(startDestination);
+			itinerary.addAll(stops);
+			itinerary.add(endDestination);
+			
+			// Fly the legs found at once in order, so the distance flown since 
+			// refueling carries over from one to the next as usual
+			for (ArrayList<Vertex> leg : findLegs(itinerary, airplane, legFinder)) {
+				appendToFlightDestinations(dijkstra.getShortestPath(leg, airplane, timestamp), timestamp);
+			}
+		} else {
+			// Holds the shortest path between the two Vertex nodes being examined
+			ArrayList<Destination> shortestPath;
+			
+			// Holds the last destination reached by the Flight Plan
+			Vertex lastDestination = startDestination;
+			
+			// Holds the distance flown since the Airplane last refueled, which the 
+			// Airplane departs the start of the Flight Plan without
+			float distanceFlown = 0;
+			
+			// Get the shortest path between each of the additional destinations
+			for (Vertex destination : stops) {
+				
+				// Compute the shortest path between the last destination and the 
+				// additional destination
+				dijkstra.computePath(lastDestination, destination, airplane, distanceFlown);
+				
+				// Get the shortest path between the additional destination and
+				// the last destination
+				shortestPath = 
+					dijkstra.getShortestPath(destination, airplane, timestamp);
+				distanceFlown = dijkstra.getDistanceFlown();
+				
+				// Append it to the Flight Plan
+				appendToFlightDestinations(shortestPath, timestamp);
+				
+				lastDestination = destination;
+			}
+			
+			// Compute the shortest path between the last destination and the ending
+			// Airport
+			dijkstra.computePath(lastDestination, endDestination, airplane, distanceFlown);
+			
+			// Get the shortest path between the last destination and the ending
+			// Airport
+			shortestPath = 
+				dijkstra.getShortestPath(endDestination, airplane, timestamp);
+			
 			// Append it to the Flight Plan
 			appendToFlightDestinations(shortestPath, timestamp);
 			
-			// Compute the next shortest paths relative to the current destination
-			dijkstra.computePaths(destination);
 		}
 		
-		// Get the shortest path between the last destination and the ending
-		// Airport
-		shortestPath = 
-			dijkstra.getShortestPath(endDestination, airplane, timestamp);
-		
-		// Append it to the Flight Plan
-		appendToFlightDestinations(shortestPath, timestamp);
-		
 		// Add "beginning the flight" to the list of reasons for visiting 
 		// the first Airport
 		flightDestinations.get(0).addReason("beginning the flight");
@@ -616,6 +1644,545 @@ public class FlightPlan {
 		                  .addReason("ending the flight");
 	}
 	
+	/**
+	 * Finds the path of each leg of an itinerary on a bounded pool of Threads, 
+	 * splitting the legs into runs which each begin where the {@link Airplane} 
+	 * departs with a full tank, so no run depends on another.  The legs of each 
+	 * run are found one after another, carrying over the distance flown since 
+	 * refueling, so each path is that found were every leg found in order.
+	 *
+	 * @param itinerary The start, each additional destination and the end of the 
+	 *                  flight plan, in the order in which to visit them
+	 * @param airplane  The {@link Airplane} in which the user wishes to fly
+	 * @param executor  The pool of Threads on which to find the runs
+	 * @return The {@link Vertex} nodes of the path of each leg, in order
+	 * @throws FlightPlanException When a leg may not be flown, the first such in 
+	 *                             order being reported
+	 */
+	protected List<ArrayList<Vertex>> findLegs(final List<Vertex> itinerary,
+	                                           final Airplane airplane,
+	                                           ExecutorService executor)
+	                                           throws FlightPlanException {
+		
+		final Airplane.AirplaneType type = airplane.getType();
+		
+		// Holds the tasks finding each run of legs
+		ArrayList<Callable<List<ArrayList<Vertex>>>> runs = 
+			new ArrayList<Callable<List<ArrayList<Vertex>>>>();
+		
+		for (int first = 0; first < itinerary.size() - 1; ) {
+			
+			// Each run ends before the next stop at which the Airplane refuels
+			int end = first + 1;
+			while (end < itinerary.size() - 1 && !Dijkstra.canRefuel(itinerary.get(end), type)) {
+				end ++;
+			}
+			
+			final int firstLeg = first;
+			final int endLeg = end;
+			
+			runs.add(new Callable<List<ArrayList<Vertex>>>() {
+				
+				@Override
+				public List<ArrayList<Vertex>> call() throws FlightPlanException {
+					ArrayList<ArrayList<Vertex>> legs = new ArrayList<ArrayList<Vertex>>();
+					
+					// Holds the distance flown since the Airplane last refueled
+					float distanceFlown = 0;
+					
+					for (int leg = firstLeg; leg < endLeg; leg ++) {
+						Vertex destination = itinerary.get(leg + 1);
+						
+						dijkstra.computePath(itinerary.get(leg), destination, airplane, distanceFlown);
+						ArrayList<Vertex> path = dijkstra.getPathVertices(destination);
+						
+						// Fly the path as Dijkstra#getShortestPath will, without 
+						// changing the state of the shared Dijkstra
+						Vertex previousVertex = null;
+						
+						for (Vertex vertex : path) {
+							if (previousVertex != null) {
+								distanceFlown += Edge.getWeight(previousVertex, vertex);
+							}
+							
+							if (Dijkstra.canRefuel(vertex, type)) {
+								distanceFlown = 0;
+							}
+							
+							previousVertex = vertex;
+						}
+						
+						legs.add(path);
+					}
+					
+					return legs;
+				}
+			});
+			
+			first = end;
+		}
+		
+		ArrayList<ArrayList<Vertex>> legs = new ArrayList<ArrayList<Vertex>>();
+		
+		try {
+			for (Future<List<ArrayList<Vertex>>> run : executor.invokeAll(runs)) {
+				legs.addAll(run.get());
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new FlightPlanException("Interrupted while finding the legs of the flight plan", exception);
+		} catch (ExecutionException exception) {
+			Throwable cause = exception.getCause();
+			
+			if (cause instanceof FlightPlanException) {
+				throw (FlightPlanException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			
+			throw new FlightPlanException("Could not find the legs of the flight plan", cause);
+		}
+		
+		return legs;
+	}
+	
+	/**
+	 * Returns the additional destinations of a flight plan in the order in which 
+	 * to visit them: that which flies the shortest distance from the start through 
+	 * each to the end, found by {@link #stopOrdering} for up to 
+	 * {@link HeldKarp#MAX_STOPS} of them, and otherwise the shortest found by the 
+	 * {@link #anytimeStopOrdering} within its budget.  The destinations must be 
+	 * attached to the {@link RoutingGraph} of the {@link Airplane}, since the 
+	 * distances are those of the legs found by the {@link #dijkstra}.
+	 *
+	 * @param startDestination       The beginning destination of the flight plan
+	 * @param endDestination         The ending destination of the flight plan
+	 * @param additionalDestinations The additional destinations, or null
+	 * @param airplane               The {@link Airplane} in which the user wishes to fly
+	 * @return The additional destinations in the order in which to visit them
+	 * @throws FlightPlanException When a leg between them may not be searched
+	 */
+	protected List<Vertex> orderStops(Airport startDestination,
+	                                  Airport endDestination,
+	                                  ArrayList<Vertex> additionalDestinations,
+	                                  Airplane airplane)
+	                                  throws FlightPlanException {
+		
+		ArrayList<Vertex> stops = new ArrayList<Vertex>();
+		
+		if (additionalDestinations == null || additionalDestinations.isEmpty()) {
+			return stops;
+		}
+		
+		// Holds the start, each additional destination and the end
+		ArrayList<Vertex> waypoints = new ArrayList<Vertex>();
+		waypoints.add(startDestination);
+		waypoints.addAll(additionalDestinations);
+		waypoints.add(endDestination);
+		
+		StopOrdering ordering = additionalDestinations.size() <= HeldKarp.MAX_STOPS 
+			? stopOrdering : anytimeStopOrdering;
+		
+		for (int stop : ordering.order(getWaypointDistances(waypoints, airplane))) {
+			stops.add(waypoints.get(stop));
+		}
+		
+		return stops;
+	}
+	
+	/**
+	 * Returns the distance an {@link Airplane} flies from each waypoint of a 
+	 * flight plan to each other, found by the {@link #dijkstra} as in 
+	 * {@link #getDistanceMatrix}, while the waypoints are attached to the 
+	 * {@link RoutingGraph} of its type.  Those legs are flown with a full tank, 
+	 * which is only known from the start and the waypoints where the Airplane 
+	 * refuels; from any other waypoint the range left depends on the legs flown 
+	 * before it, so the straight-line distance is taken instead, unless the 
+	 * Airplane cannot fly the leg even with a full tank.
+	 *
+	 * @param waypoints The waypoints of the flight plan
+	 * @param airplane  The {@link Airplane} in which the user wishes to fly
+	 * @return The distance of the leg from each waypoint to each other, indexed as 
+	 *         waypoints is, or infinity where the Airplane cannot fly it
+	 * @throws FlightPlanException When a leg may not be searched
+	 */
+	protected float[][] getWaypointDistances(List<Vertex> waypoints, Airplane airplane) 
+	                                         throws FlightPlanException {
+		
+		float[][] distances = new DistanceMatrix(waypoints, dijkstra, airplane).getDistanceRows();
+		
+		for (int from = 1; from < waypoints.size(); from ++) {
+			if (Dijkstra.canRefuel(waypoints.get(from), airplane.getType())) {
+				continue;
+			}
+			
+			for (int to = 0; to < waypoints.size(); to ++) {
+				if (distances[from][to] != Float.POSITIVE_INFINITY) {
+					distances[from][to] = Edge.getWeight(waypoints.get(from), waypoints.get(to));
+				}
+			}
+		}
+		
+		return distances;
+	}
+	
+	/**
+	 * Returns the shortest distance an {@link Airplane} flies from each of the
+	 * given waypoints to each other, and the Vertex nodes along each leg, found
+	 * with one search per waypoint in parallel, while the waypoints are attached
+	 * to the {@link RoutingGraph} of its type
+	 *
+	 * @param waypoints The waypoints between which to find the legs
+	 * @param airplane  The {@link Airplane} which flies each leg, departing with
+	 *                  a full tank
+	 * @return The {@link DistanceMatrix} of the waypoints
+	 * @throws FlightPlanException  When a leg may not be searched
+	 * @throws NullPointerException When either parameter, or any waypoint, is null
+	 */
+	public DistanceMatrix getDistanceMatrix(List<Vertex> waypoints, Airplane airplane)
+	                                        throws FlightPlanException {
+		
+		if (waypoints == null) {
+			throw new NullPointerException("waypoints may not be null");
+		}
+		
+		if (airplane == null) {
+			throw new NullPointerException("airplane may not be null");
+		}
+		
+		// No leg may visit a Vertex outside the database, or a closed Airport
+		for (Vertex waypoint : waypoints) {
+			checkOpen(waypoint);
+		}
+		
+		RoutingGraph graph = getRoutingGraph(airplane);
+		
+		synchronized (routingGraphLock) {
+			graph.connect();
+			
+			searchGraph = graph;
+			searchRange = airplane.getRange();
+			
+			try {
+				for (Vertex waypoint : waypoints) {
+					graph.attach(waypoint);
+				}
+				
+				// The searches only read the graph, which stays locked until all
+				// of them are done
+				return new DistanceMatrix(waypoints, dijkstra, airplane);
+			} finally {
+				graph.detachAll();
+			}
+		}
+	}
+	
+	/**
+	 * Returns the shortest routes the {@link Airplane} can fly between two 
+	 * {@link Airport}s, ranked from shortest to longest, each of which may serve 
+	 * as an alternative to the flight plan between them.  The routes are found by 
+	 * Yen's algorithm over the {@link RoutingGraph} of the type of the Airplane, 
+	 * whose searches from each spur run at once, each keeping to the range the 
+	 * Airplane has left, so every route found may be flown.  The current flight 
+	 * plan is left as is.
+	 *
+	 * @param startDestination The beginning destination of each route
+	 * @param endDestination   The ending destination of each route
+	 * @param airplane         The {@link Airplane} in which the user wishes to fly
+	 * @param count            The number of routes to return
+	 * @return At most count routes the Airplane can fly, shortest first
+	 * @throws DijkstraException        When the Airplane can fly none of them
+	 * @throws FlightPlanException      When either destination is closed
+	 * @throws IllegalArgumentException When count is not positive
+	 * @throws NullPointerException     When any of the parameters is null
+	 */
+	public List<Route> getAlternativeRoutes(Airport startDestination,
+	                                        Airport endDestination,
+	                                        Airplane airplane,
+	                                        int count)
+	                                        throws FlightPlanException {
+		
+		if (startDestination == null) {
+			throw new NullPointerException("startDestination may not be null");
+		}
+		
+		if (endDestination == null) {
+			throw new NullPointerException("endDestination may not be null");
+		}
+		
+		if (airplane == null) {
+			throw new NullPointerException("airplane may not be null");
+		}
+		
+		if (count <= 0) {
+			throw new IllegalArgumentException("count must be positive");
+		}
+		
+		checkOpen(startDestination);
+		checkOpen(endDestination);
+		
+		// Holds the unique timestamp of the flights along the routes
+		long timestamp = timestamps.incrementAndGet();
+		
+		RoutingGraph graph = getRoutingGraph(airplane);
+		ArrayList<Route> routes = new ArrayList<Route>();
+		
+		synchronized (routingGraphLock) {
+			graph.connect();
+			
+			searchGraph = graph;
+			searchRange = airplane.getRange();
+			
+			try {
+				graph.attach(startDestination);
+				graph.attach(endDestination);
+				
+				Iterator<ArrayList<Vertex>> paths = 
+					kShortestPaths.getPaths(startDestination, endDestination, airplane);
+				
+				while (routes.size() < count && paths.hasNext()) {
+					
+					// Fly each route with a Dijkstra of its own, which checks its range and 
+					// sums its distance and time without changing those of the flight plan
+					Dijkstra flight = new Dijkstra();
+					
+					try {
+						ArrayList<Destination> destinations = 
+							flight.getShortestPath(paths.next(), airplane, timestamp);
+						
+						destinations.get(0).addReason("beginning the flight");
+						destinations.get(destinations.size() - 1).addReason("ending the flight");
+						
+						routes.add(new Route(destinations, flight.getTotalDistance(), flight.getTotalTime()));
+					} catch (DijkstraException exception) {
+						// Every route found can be flown, but the flight sums its legs 
+						// afresh, so one at the very edge of the range is passed over
+					}
+				}
+			} finally {
+				graph.detachAll();
+			}
+		}
+		
+		if (routes.isEmpty()) {
+			throw new DijkstraException(
+				"Due to lack of refueling facilities, this trip is impossible."
+			);
+		}
+		
+		return routes;
+	}
+	
+	/**
+	 * Sets the time within which the order of the additional destinations of each 
+	 * flight plan with more than {@link HeldKarp#MAX_STOPS} of them is improved, 
+	 * past which the shortest order found is flown
+	 *
+	 * @param budget The time in milliseconds within which to improve each order
+	 * @throws IllegalArgumentException When budget is negative
+	 */
+	public void setStopOrderingBudget(long budget) {
+		anytimeStopOrdering = new AnytimeTour(budget);
+	}
+	
+	/**
+	 * Returns the time within which the order of many additional destinations is 
+	 * improved
+	 *
+	 * @return The budget in milliseconds of the {@link #anytimeStopOrdering}
+	 */
+	public long getStopOrderingBudget() {
+		return anytimeStopOrdering.getBudget();
+	}
+	
+	/**
+	 * Sets the {@link Dijkstra} object used to find the shortest path of each leg 
+	 * of the flight plan, such as an {@link AStar} object
+	 *
+	 * @param dijkstra The {@link Dijkstra} object with which to find shortest paths
+	 * @throws NullPointerException When dijkstra is null
+	 */
+	public void setDijkstra(Dijkstra dijkstra) {
+		if (dijkstra == null) {
+			throw new NullPointerException("dijkstra may not be null");
+		}
+		
+		this.dijkstra = dijkstra;
+	}
+	
+	/**
+	 * Returns the {@link Dijkstra} object used to find the shortest path of each 
+	 * leg of the flight plan
+	 *
+	 * @return The {@link #dijkstra} attribute
+	 */
+	public Dijkstra getDijkstra() {
+		return dijkstra;
+	}
+	
+	/**
+	 * Sets the way in which each leg of the flight plan is optimized, replacing 
+	 * the {@link Dijkstra} object with one which optimizes it that way
+	 *
+	 * @param mode The {@link PlanningMode} with which to plan flights
+	 * @throws NullPointerException When mode is null
+	 */
+	public void setPlanningMode(PlanningMode mode) {
+		if (mode == null) {
+			throw new NullPointerException("mode may not be null");
+		}
+		
+		if (mode.equals(PlanningMode.FEWEST_STOPS)) {
+			dijkstra = new MinimumStopsDijkstra();
+		} else {
+			dijkstra = new RangeConstrainedDijkstra();
+		}
+	}
+	
+	/**
+	 * Sets the number of {@link Edge}s each {@link RoutingGraph} keeps from one 
+	 * flight plan to the next, generating the Edges of each {@link Airport} only 
+	 * once a search reaches it, which suits databases with too many Airports in 
+	 * range of one another to hold every Edge between them
+	 *
+	 * @param size The number of Edges each {@link RoutingGraph} keeps in its 
+	 *             {@link NeighborCache}, or 0 to hold every Edge
+	 * @throws IllegalArgumentException When size is negative
+	 */
+	public void setNeighborCacheSize(int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException("size may not be negative");
+		}
+		
+		synchronized (routingGraphLock) {
+			synchronized (this) {
+				neighborCacheSize = size;
+				
+				for (RoutingGraph graph : routingGraphs.values()) {
+					graph.setNeighborCacheSize(size);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of {@link Edge}s each {@link RoutingGraph} keeps from one 
+	 * flight plan to the next
+	 *
+	 * @return The {@link #neighborCacheSize} attribute, which is 0 if every Edge 
+	 *         is held
+	 */
+	public synchronized int getNeighborCacheSize() {
+		return neighborCacheSize;
+	}
+	
+	/**
+	 * Sets the number of nearest neighbors to which each {@link RoutingGraph} 
+	 * joins each {@link NAVBeacon} and {@link Airport} by airways, so that flight 
+	 * plans may follow chains of NAVBeacons between the Airports, flown as far as 
+	 * the range of the {@link Airplane} allows by a {@link RangeConstrainedDijkstra}
+	 *
+	 * @param degree The number of nearest neighbors to which each Vertex is 
+	 *               joined, or 0 to join only the Airports in range
+	 * @throws IllegalArgumentException When degree is negative
+	 */
+	public void setAirwayDegree(int degree) {
+		if (degree < 0) {
+			throw new IllegalArgumentException("degree may not be negative");
+		}
+		
+		synchronized (routingGraphLock) {
+			synchronized (this) {
+				airwayDegree = degree;
+				
+				for (RoutingGraph graph : routingGraphs.values()) {
+					graph.setAirwayDegree(degree);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of nearest neighbors to which each {@link RoutingGraph} 
+	 * joins each {@link NAVBeacon} and {@link Airport} by airways
+	 *
+	 * @return The {@link #airwayDegree} attribute, which is 0 if only the 
+	 *         Airports in range are joined
+	 */
+	public synchronized int getAirwayDegree() {
+		return airwayDegree;
+	}
+	
+	/**
+	 * Sets the number of Threads on which the legs of each flight plan with 
+	 * additional destinations are found at once, once the order in which to visit 
+	 * the destinations is known.  The flight plans found are the same either way.
+	 *
+	 * @param threads The number of Threads on which to find the legs, or 0 to 
+	 *                find them one after another
+	 * @throws IllegalArgumentException When threads is negative
+	 */
+	public void setLegThreads(int threads) {
+		if (threads < 0) {
+			throw new IllegalArgumentException("threads may not be negative");
+		}
+		
+		synchronized (routingGraphLock) {
+			synchronized (this) {
+				if (threads == legThreads) {
+					return;
+				}
+				
+				// No flight plan is being found, so none is using the Threads
+				if (legFinder != null) {
+					legFinder.shutdown();
+				}
+				
+				legThreads = threads;
+				legFinder = threads == 0 ? null : Executors.newFixedThreadPool(threads, new ThreadFactory() {
+					
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, "Leg finder");
+						
+						// Never keep the application alive just to find a leg
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of Threads on which the legs of each flight plan with 
+	 * additional destinations are found at once
+	 *
+	 * @return The {@link #legThreads} attribute, which is 0 if the legs are found 
+	 *         one after another
+	 */
+	public synchronized int getLegThreads() {
+		return legThreads;
+	}
+	
+	/**
+	 * Returns the way in which each leg of the flight plan is optimized, which 
+	 * depends on the {@link Dijkstra} object in use
+	 *
+	 * @return {@link PlanningMode#FEWEST_STOPS} if the {@link #dijkstra} attribute 
+	 *         is a {@link MinimumStopsDijkstra}, and otherwise 
+	 *         {@link PlanningMode#SHORTEST_DISTANCE}
+	 */
+	public PlanningMode getPlanningMode() {
+		if (dijkstra instanceof MinimumStopsDijkstra) {
+			return PlanningMode.FEWEST_STOPS;
+		} else {
+			return PlanningMode.SHORTEST_DISTANCE;
+		}
+	}
+	
 	/**
 	 * Appends a list of Destination objects to the flight plan
 	 *
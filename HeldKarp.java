@@ -0,0 +1,247 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Finds the order of the stops of a flight plan which flies the shortest
+ * distance between them, by the Held-Karp dynamic program: for each set of
+ * stops and each stop in it, the shortest distance from the start through every
+ * stop of the set, ending at that stop, is the least over the other stops of the
+ * set of the distance through the rest of the set ending at that other stop, and
+ * from there to the stop.  Each set is held as a bit mask of its stops, so the
+ * distances fill an array of 2<sup>n</sup> &times; n entries, which bounds the
+ * number of stops to {@link #MAX_STOPS}.  The order is exact for the distances
+ * it is given, which a {@link FlightPlan} takes from the legs it flies where the
+ * {@link Airplane} departs with a full tank; an infinite distance, for a leg
+ * which cannot be flown, is passed over by any order which avoids it.
+ * <br /><br />
+ * The distances through the sets of one size depend only on those through the
+ * sets one smaller, so each layer of sets is found in blocks on a ForkJoinPool
+ * once the layer below is done.  Where several orders are equally short, the one
+ * found first is kept, so the order returned is the same however the work is
+ * split.
+ *
+ * @author Dylon Edwards
+ */
+public class HeldKarp implements StopOrdering {
+	
+	/** Holds the largest number of stops which may be ordered */
+	public static final int MAX_STOPS = 20;
+	
+	/** Holds the number of sets of stops below which a block is not split further */
+	protected static final int SPLIT_THRESHOLD = 1 << 10;
+	
+	/** Holds the ForkJoinPool on which the layers are found */
+	protected final ForkJoinPool pool;
+	
+	/**
+	 * Constructs a HeldKarp which finds the layers on the common ForkJoinPool
+	 */
+	public HeldKarp() {
+		this(ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Constructs a HeldKarp which finds the layers on the given ForkJoinPool
+	 *
+	 * @param pool The ForkJoinPool on which to find the layers
+	 * @throws NullPointerException When pool is null
+	 */
+	public HeldKarp(ForkJoinPool pool) {
+		if (pool == null) {
+			throw new NullPointerException("pool may not be null");
+		}
+		
+		this.pool = pool;
+	}
+	
+	/**
+	 * Returns the order of the stops which flies the shortest distance from the
+	 * start of the flight plan, through every stop, to its end
+	 *
+	 * @param distances The distance from each waypoint to each other, where the
+	 *                  first waypoint is the start of the flight plan, the last
+	 *                  is its end, and those between are its stops
+	 * @return The indices of the stops, from 1 to distances.length - 2, in the
+	 *         order in which to visit them
+	 * @throws IllegalArgumentException When there are more than {@link #MAX_STOPS}
+	 *                                  stops, or no start and end
+	 * @throws NullPointerException     When distances is null
+	 */
+	@Override
+	public int[] order(float[][] distances) {
+		if (distances.length < 2) {
+			throw new IllegalArgumentException("distances must hold a start and an end");
+		}
+		
+		int stopCount = distances.length - 2;
+		
+		if (stopCount > MAX_STOPS) {
+			throw new IllegalArgumentException(
+				"no more than " + MAX_STOPS + " stops may be ordered exactly"
+			);
+		}
+		
+		if (stopCount == 0) {
+			return new int[0];
+		}
+		
+		int setCount = 1 << stopCount;
+		
+		// Holds the shortest distance through each set of stops ending at each of
+		// them, at set * stopCount + stop, and the stop visited before it
+		float[] setDistances = new float[setCount * stopCount];
+		byte[] previousStops = new byte[setCount * stopCount];
+		
+		Arrays.fill(setDistances, Float.POSITIVE_INFINITY);
+		
+		for (int stop = 0; stop < stopCount; stop ++) {
+			setDistances[(1 << stop) * stopCount + stop] = distances[0][stop + 1];
+			previousStops[(1 << stop) * stopCount + stop] = -1;
+		}
+		
+		// Holds the distance to each stop from each other, at stop * stopCount + other,
+		// so the distances to one stop are read in order
+		float[] legs = new float[stopCount * stopCount];
+		
+		for (int stop = 0; stop < stopCount; stop ++) {
+			for (int other = 0; other < stopCount; other ++) {
+				legs[stop * stopCount + other] = distances[other + 1][stop + 1];
+			}
+		}
+		
+		for (int setSize = 2; setSize <= stopCount; setSize ++) {
+			pool.invoke(new LayerTask(stopCount, legs, setDistances, previousStops, setSize, 0, setCount));
+		}
+		
+		// Find the last stop from which the end is nearest after every stop
+		int set = setCount - 1;
+		int lastStop = 0;
+		float shortestDistance = Float.POSITIVE_INFINITY;
+		
+		for (int stop = 0; stop < stopCount; stop ++) {
+			float distance = setDistances[set * stopCount + stop] + distances[stop + 1][stopCount + 1];
+			
+			if (distance < shortestDistance) {
+				shortestDistance = distance;
+				lastStop = stop;
+			}
+		}
+		
+		// Follow the stops visited before each back to the first
+		int[] order = new int[stopCount];
+		
+		for (int index = stopCount - 1, stop = lastStop; index >= 0; index --) {
+			order[index] = stop + 1;
+			
+			int previousStop = previousStops[set * stopCount + stop];
+			set &= ~(1 << stop);
+			stop = previousStop;
+		}
+		
+		return order;
+	}
+	
+	/**
+	 * Finds the shortest distance through each set of a given size in a block of
+	 * sets, ending at each of its stops, splitting the block among the threads of
+	 * the pool
+	 */
+	protected static class LayerTask extends RecursiveAction {
+		
+		/** Generated by the serialver utility */
+		private static final long serialVersionUID = 6496560601179815729L;
+		
+		/** Holds the number of stops */
+		protected final int stopCount;
+		
+		/** Holds the distance to each stop from each other */
+		protected final float[] legs;
+		
+		/** Holds the shortest distance through each set ending at each stop */
+		protected final float[] setDistances;
+		
+		/** Holds the stop visited before the last of each set */
+		protected final byte[] previousStops;
+		
+		/** Holds the number of stops in each set of the layer */
+		protected final int setSize;
+		
+		/** Holds the first set of the block */
+		protected final int from;
+		
+		/** Holds the set after the last of the block */
+		protected final int to;
+		
+		/**
+		 * Constructs a LayerTask over a block of sets
+		 *
+		 * @param stopCount     The number of stops
+		 * @param legs          The distance to each stop from each other
+		 * @param setDistances  The shortest distance through each set ending at
+		 *                      each stop
+		 * @param previousStops The stop visited before the last of each set
+		 * @param setSize       The number of stops in each set of the layer
+		 * @param from          The first set of the block
+		 * @param to            The set after the last of the block
+		 */
+		protected LayerTask(int stopCount, float[] legs, float[] setDistances, byte[] previousStops,
+		                    int setSize, int from, int to) {
+			
+			this.stopCount = stopCount;
+			this.legs = legs;
+			this.setDistances = setDistances;
+			this.previousStops = previousStops;
+			this.setSize = setSize;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from > SPLIT_THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				
+				invokeAll(
+					new LayerTask(stopCount, legs, setDistances, previousStops, setSize, from, middle),
+					new LayerTask(stopCount, legs, setDistances, previousStops, setSize, middle, to)
+				);
+				
+				return;
+			}
+			
+			for (int set = from; set < to; set ++) {
+				if (Integer.bitCount(set) != setSize) {
+					continue;
+				}
+				
+				// Visit only the stops of the set, lowest first
+				for (int stops = set; stops != 0; stops &= stops - 1) {
+					int stop = Integer.numberOfTrailingZeros(stops);
+					
+					// Holds the set without its last stop, which is in the layer below
+					int rest = set & ~(1 << stop);
+					
+					float shortestDistance = Float.POSITIVE_INFINITY;
+					int previousStop = -1;
+					
+					for (int others = rest; others != 0; others &= others - 1) {
+						int other = Integer.numberOfTrailingZeros(others);
+						float distance = setDistances[rest * stopCount + other] + legs[stop * stopCount + other];
+						
+						// Even a set no order flies through keeps an order to follow
+						if (previousStop == -1 || distance < shortestDistance) {
+							shortestDistance = distance;
+							previousStop = other;
+						}
+					}
+					
+					setDistances[set * stopCount + stop] = shortestDistance;
+					previousStops[set * stopCount + stop] = (byte) previousStop;
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
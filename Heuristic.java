@@ -0,0 +1,21 @@
+package edu.usca.acsc492l.flightplanner;
+
+/**
+ * Estimates the weight of the shortest path between two {@link Vertex} nodes for
+ * goal-directed searches such as {@link AStar}.  An implementation must never
+ * overestimate the weight of the shortest path, or the search may return a path
+ * which is not the shortest.
+ *
+ * @author Dylon Edwards
+ */
+public interface Heuristic {
+	
+	/**
+	 * Returns a lower bound on the weight of every path from vertex to target
+	 *
+	 * @param vertex The {@link Vertex} from which the path begins
+	 * @param target The {@link Vertex} at which the path ends
+	 * @return A lower bound on the weight of the shortest path from vertex to target
+	 */
+	public float getLowerBound(Vertex vertex, Vertex target);
+}
\ No newline at end of file
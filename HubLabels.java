@@ -0,0 +1,577 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.Math.*;
+
+/**
+ * A hub-labeling distance oracle over the {@link Airport}s of one range class of
+ * {@link Airplane}.  Every Airport is given a label: a list of hub nodes, sorted by
+ * node, along with the weight of the shortest path from the Airport to each of them.
+ * Every shortest path passes through a hub in the labels of both of its ends, so the
+ * weight between two Airports is found by merging their two labels, without any
+ * search at all.
+ * <br /><br />
+ * The labels are derived from a built {@link ContractionHierarchy}: the label of each
+ * node is the upward search space of that node, pruned of every hub to which some
+ * other hub already gives a path at least as short.  Airports outside the hierarchy
+ * (those without the fuel of the range class) are labeled through every node within
+ * range of them, just as {@link FlightPlan#setFlightPlan} connects them.  Each entry
+ * also records the next node toward its hub, so the path may be reconstructed by
+ * following the labels, unpacking shortcuts through the hierarchy.
+ * <br /><br />
+ * HubLabels are immutable (and safe to query from any Thread) once built.
+ *
+ * @author Dylon Edwards
+ */
+public class HubLabels {
+	
+	/** Holds the {@link ContractionHierarchy} from which the labels are derived */
+	protected final ContractionHierarchy hierarchy;
+	
+	/** Holds the Airports outside the hierarchy, indexed by owner less the node count */
+	protected final Airport[] extraAirports;
+	
+	/**
+	 * Holds the owner of the label of each {@link Vertex} id, or -1 if it has none,
+	 * where the owners below the node count are the nodes of the hierarchy
+	 */
+	protected int[] owners;
+	
+	/** Holds the offsets of each owner's label in the arrays below */
+	protected int[] labelOffsets;
+	
+	/** Holds the hub node of each label entry, sorted within each label */
+	protected int[] labelHubs;
+	
+	/** Holds the weight of the shortest path from the owner of each entry to its hub */
+	protected float[] labelWeights;
+	
+	/** Holds the next node toward the hub of each entry, or -1 at the hub itself */
+	protected int[] labelNexts;
+	
+	/**
+	 * Constructs unbuilt HubLabels from a built {@link ContractionHierarchy}
+	 *
+	 * @param hierarchy The built {@link ContractionHierarchy} of the range class
+	 * @param airports  Every {@link Airport} in the database, of which those outside
+	 *                  the hierarchy are labeled through the Airports within range
+	 * @throws NullPointerException When either parameter is null
+	 * @throws IllegalStateException When hierarchy has not been built
+	 */
+	public HubLabels(ContractionHierarchy hierarchy, Airport[] airports) {
+		if (hierarchy == null) {
+			throw new NullPointerException("hierarchy may not be null");
+		}
+		
+		if (airports == null) {
+			throw new NullPointerException("airports may not be null");
+		}
+		
+		if (hierarchy.ranks == null) {
+			throw new IllegalStateException("The hierarchy has not been built");
+		}
+		
+		this.hierarchy = hierarchy;
+		
+		ArrayList<Airport> extraAirports = new ArrayList<Airport>();
+		for (Airport airport : airports) {
+			if (hierarchy.getNode(airport) == -1) {
+				extraAirports.add(airport);
+			}
+		}
+		
+		this.extraAirports = extraAirports.toArray(new Airport[0]);
+	}
+	
+	/**
+	 * Computes the label of every node from the top of the hierarchy down, then the
+	 * label of every Airport outside the hierarchy
+	 */
+	public void build() {
+		int count = hierarchy.airports.length;
+		int ownerCount = count + extraAirports.length;
+		
+		int[][] hubs = new int[ownerCount][];
+		float[][] weights = new float[ownerCount][];
+		int[][] nexts = new int[ownerCount][];
+		
+		// Holds the candidate entries of the label being computed, by hub
+		float[] candidateWeights = new float[count];
+		int[] candidateNexts = new int[count];
+		int[] candidateHubs = new int[count];
+		int[] keptHubs = new int[count];
+		Arrays.fill(candidateWeights, Float.POSITIVE_INFINITY);
+		
+		// Visit the nodes from the highest rank to the lowest, so the label of
+		// every node above each one is already complete
+		int[] byRank = new int[count];
+		for (int node = 0; node < count; node ++) {
+			byRank[hierarchy.ranks[node]] = node;
+		}
+		
+		for (int rank = count - 1; rank >= 0; rank --) {
+			int v = byRank[rank];
+			
+			// Every node is a hub of its own label
+			candidateWeights[v] = 0;
+			candidateNexts[v] = -1;
+			candidateHubs[0] = v;
+			int candidateCount = 1;
+			
+			// Extend the label of each node one upward edge away
+			for (int index = hierarchy.upwardOffsets[v];
+			     index < hierarchy.upwardOffsets[v + 1];
+			     index ++) {
+				
+				int u = hierarchy.upwardTargets[index];
+				candidateCount = extend(
+					u, hierarchy.upwardWeights[index], hubs, weights,
+					candidateWeights, candidateNexts, candidateHubs, candidateCount
+				);
+			}
+			
+			Arrays.sort(candidateHubs, 0, candidateCount);
+			
+			// Prune every hub to which another hub gives a path at least as short,
+			// since no shortest path needs it
+			int kept = 0;
+			for (int index = 0; index < candidateCount; index ++) {
+				int hub = candidateHubs[index];
+				
+				if (hub == v || getMergedWeight(candidateHubs, candidateCount,
+				                                candidateWeights, hubs[hub], weights[hub])
+				                >= candidateWeights[hub]) {
+					
+					keptHubs[kept ++] = hub;
+				}
+			}
+			
+			store(v, keptHubs, kept, candidateWeights, candidateNexts,
+			      hubs, weights, nexts);
+			
+			// Clear the candidates for the next node
+			for (int index = 0; index < candidateCount; index ++) {
+				candidateWeights[candidateHubs[index]] = Float.POSITIVE_INFINITY;
+			}
+		}
+		
+		// An Airport outside the hierarchy reaches it through every node within range
+		for (int extra = 0; extra < extraAirports.length; extra ++) {
+			int candidateCount = 0;
+			
+			for (int u = 0; u < count; u ++) {
+				float weight = hierarchy.getWeight(extraAirports[extra], u);
+				
+				if (weight <= hierarchy.range) {
+					candidateCount = extend(
+						u, weight, hubs, weights,
+						candidateWeights, candidateNexts, candidateHubs, candidateCount
+					);
+				}
+			}
+			
+			Arrays.sort(candidateHubs, 0, candidateCount);
+			
+			store(count + extra, candidateHubs, candidateCount, candidateWeights,
+			      candidateNexts, hubs, weights, nexts);
+			
+			for (int index = 0; index < candidateCount; index ++) {
+				candidateWeights[candidateHubs[index]] = Float.POSITIVE_INFINITY;
+			}
+		}
+		
+		// Lay every label out end to end
+		int[] labelOffsets = new int[ownerCount + 1];
+		for (int owner = 0; owner < ownerCount; owner ++) {
+			labelOffsets[owner + 1] = labelOffsets[owner] + hubs[owner].length;
+		}
+		
+		int[] labelHubs = new int[labelOffsets[ownerCount]];
+		float[] labelWeights = new float[labelOffsets[ownerCount]];
+		int[] labelNexts = new int[labelOffsets[ownerCount]];
+		
+		for (int owner = 0; owner < ownerCount; owner ++) {
+			int offset = labelOffsets[owner];
+			int length = hubs[owner].length;
+			
+			System.arraycopy(hubs[owner], 0, labelHubs, offset, length);
+			System.arraycopy(weights[owner], 0, labelWeights, offset, length);
+			System.arraycopy(nexts[owner], 0, labelNexts, offset, length);
+		}
+		
+		// Map each Vertex id to the owner of its label
+		int maxId = hierarchy.nodes.length - 1;
+		for (Airport airport : extraAirports) {
+			maxId = max(maxId, airport.getId());
+		}
+		
+		int[] owners = new int[maxId + 1];
+		Arrays.fill(owners, -1);
+		
+		for (int node = 0; node < count; node ++) {
+			owners[hierarchy.airports[node].getId()] = node;
+		}
+		
+		for (int extra = 0; extra < extraAirports.length; extra ++) {
+			owners[extraAirports[extra].getId()] = count + extra;
+		}
+		
+		this.labelOffsets = labelOffsets;
+		this.labelHubs = labelHubs;
+		this.labelWeights = labelWeights;
+		this.labelNexts = labelNexts;
+		this.owners = owners;
+	}
+	
+	/**
+	 * Adds the entries of the label of a node, extended by the weight of the edge to
+	 * it, to the candidate entries of the label being computed
+	 *
+	 * @param u                The node whose label to extend
+	 * @param weight           The weight of the edge to u
+	 * @param hubs             The hubs of the completed labels
+	 * @param weights          The weights of the completed labels
+	 * @param candidateWeights The weight of each candidate entry, by hub
+	 * @param candidateNexts   The next node of each candidate entry, by hub
+	 * @param candidateHubs    The hubs of the candidate entries
+	 * @param candidateCount   The number of candidate entries
+	 * @return The new number of candidate entries
+	 */
+	protected int extend(int u,
+	                     float weight,
+	                     int[][] hubs,
+	                     float[][] weights,
+	                     float[] candidateWeights,
+	                     int[] candidateNexts,
+	                     int[] candidateHubs,
+	                     int candidateCount) {
+		
+		int[] uHubs = hubs[u];
+		float[] uWeights = weights[u];
+		
+		for (int index = 0; index < uHubs.length; index ++) {
+			int hub = uHubs[index];
+			float weightThroughU = weight + uWeights[index];
+			
+			if (weightThroughU < candidateWeights[hub]) {
+				if (candidateWeights[hub] == Float.POSITIVE_INFINITY) {
+					candidateHubs[candidateCount ++] = hub;
+				}
+				
+				candidateWeights[hub] = weightThroughU;
+				candidateNexts[hub] = u;
+			}
+		}
+		
+		return candidateCount;
+	}
+	
+	/**
+	 * Stores the chosen candidate entries as the completed label of an owner
+	 *
+	 * @param owner            The owner of the label
+	 * @param candidateHubs    The sorted hubs of the chosen entries
+	 * @param length           The number of chosen entries
+	 * @param candidateWeights The weight of each candidate entry, by hub
+	 * @param candidateNexts   The next node of each candidate entry, by hub
+	 * @param hubs             The hubs of the completed labels
+	 * @param weights          The weights of the completed labels
+	 * @param nexts            The next nodes of the completed labels
+	 */
+	protected void store(int owner,
+	                     int[] candidateHubs,
+	                     int length,
+	                     float[] candidateWeights,
+	                     int[] candidateNexts,
+	                     int[][] hubs,
+	                     float[][] weights,
+	                     int[][] nexts) {
+		
+		hubs[owner] = Arrays.copyOf(candidateHubs, length);
+		weights[owner] = new float[length];
+		nexts[owner] = new int[length];
+		
+		for (int index = 0; index < length; index ++) {
+			weights[owner][index] = candidateWeights[candidateHubs[index]];
+			nexts[owner][index] = candidateNexts[candidateHubs[index]];
+		}
+	}
+	
+	/**
+	 * Returns the weight of the shortest path through a hub common to a candidate
+	 * label and a completed one
+	 *
+	 * @param candidateHubs    The sorted hubs of the candidate label
+	 * @param candidateCount   The number of candidate entries
+	 * @param candidateWeights The weight of each candidate entry, by hub
+	 * @param hubs             The sorted hubs of the completed label
+	 * @param weights          The weights of the completed label
+	 * @return The minimum weight through a common hub, or infinity if there is none
+	 */
+	protected float getMergedWeight(int[] candidateHubs,
+	                                int candidateCount,
+	                                float[] candidateWeights,
+	                                int[] hubs,
+	                                float[] weights) {
+		
+		float mergedWeight = Float.POSITIVE_INFINITY;
+		int i = 0, j = 0;
+		
+		while (i < candidateCount && j < hubs.length) {
+			if (candidateHubs[i] < hubs[j]) {
+				i ++;
+			} else if (candidateHubs[i] > hubs[j]) {
+				j ++;
+			} else {
+				mergedWeight = min(mergedWeight, candidateWeights[candidateHubs[i]] + weights[j]);
+				i ++;
+				j ++;
+			}
+		}
+		
+		return mergedWeight;
+	}
+	
+	/**
+	 * Returns the owner of the label of a {@link Vertex}
+	 *
+	 * @param vertex The {@link Vertex}
+	 * @return The owner of the label of vertex
+	 * @throws IllegalArgumentException When vertex has no label
+	 * @throws IllegalStateException When these HubLabels have not been built
+	 */
+	protected int getOwner(Vertex vertex) {
+		if (owners == null) {
+			throw new IllegalStateException("The hub labels have not been built");
+		}
+		
+		int id = vertex.getId();
+		int owner = id >= 0 && id < owners.length ? owners[id] : -1;
+		
+		if (owner == -1 || getAirport(owner) != vertex) {
+			throw new IllegalArgumentException(vertex.getName() + " has no hub label");
+		}
+		
+		return owner;
+	}
+	
+	/**
+	 * Returns the {@link Airport} which owns a label
+	 *
+	 * @param owner The owner of the label
+	 * @return The {@link Airport} of owner
+	 */
+	protected Airport getAirport(int owner) {
+		int count = hierarchy.airports.length;
+		return owner < count ? hierarchy.airports[owner] : extraAirports[owner - count];
+	}
+	
+	/**
+	 * Returns the entry of the label of two owners through which the shortest path
+	 * between them passes
+	 *
+	 * @param from The owner at which the path begins
+	 * @param to   The owner at which the path ends
+	 * @return The offset of the entry within the label of from, or -1 if there is no
+	 *         path between the two
+	 */
+	protected int getMeetingEntry(int from, int to) {
+		int i = labelOffsets[from], iEnd = labelOffsets[from + 1];
+		int j = labelOffsets[to], jEnd = labelOffsets[to + 1];
+		
+		float shortestWeight = Float.POSITIVE_INFINITY;
+		int meetingEntry = -1;
+		
+		while (i < iEnd && j < jEnd) {
+			if (labelHubs[i] < labelHubs[j]) {
+				i ++;
+			} else if (labelHubs[i] > labelHubs[j]) {
+				j ++;
+			} else {
+				float weight = labelWeights[i] + labelWeights[j];
+				
+				if (weight < shortestWeight) {
+					shortestWeight = weight;
+					meetingEntry = i;
+				}
+				
+				i ++;
+				j ++;
+			}
+		}
+		
+		return meetingEntry;
+	}
+	
+	/**
+	 * Returns the entry of a label with the given hub
+	 *
+	 * @param owner The owner of the label
+	 * @param hub   The hub to look for
+	 * @return The offset of the entry of hub within the label of owner, or -1 if the
+	 *         label does not have it
+	 */
+	protected int getEntry(int owner, int hub) {
+		int entry = Arrays.binarySearch(
+			labelHubs, labelOffsets[owner], labelOffsets[owner + 1], hub
+		);
+		
+		return entry >= 0 ? entry : -1;
+	}
+	
+	/**
+	 * Returns the weight of the shortest path between two {@link Airport}s
+	 *
+	 * @param a The {@link Airport} at which the path begins
+	 * @param z The {@link Airport} at which the path ends
+	 * @return The weight of the shortest path from a to z, or infinity if there is none
+	 * @throws NullPointerException When either parameter is null
+	 * @throws IllegalArgumentException When either parameter has no hub label
+	 */
+	public float getDistance(Vertex a, Vertex z) {
+		if (a == null) {
+			throw new NullPointerException("a may not be null");
+		}
+		
+		if (z == null) {
+			throw new NullPointerException("z may not be null");
+		}
+		
+		int from = getOwner(a);
+		int to = getOwner(z);
+		
+		if (from == to) {
+			return 0;
+		}
+		
+		int entry = getMeetingEntry(from, to);
+		
+		if (entry == -1) {
+			return Float.POSITIVE_INFINITY;
+		}
+		
+		return labelWeights[entry] + labelWeights[getEntry(to, labelHubs[entry])];
+	}
+	
+	/**
+	 * Returns the shortest path between two {@link Airport}s
+	 *
+	 * @param a The {@link Airport} at which the path begins
+	 * @param z The {@link Airport} at which the path ends
+	 * @return The {@link Vertex} nodes along the shortest path from a to z, or null
+	 *         if there is no such path
+	 * @throws NullPointerException When either parameter is null
+	 * @throws IllegalArgumentException When either parameter has no hub label
+	 */
+	public ArrayList<Vertex> getShortestPath(Vertex a, Vertex z) {
+		if (a == null) {
+			throw new NullPointerException("a may not be null");
+		}
+		
+		if (z == null) {
+			throw new NullPointerException("z may not be null");
+		}
+		
+		int from = getOwner(a);
+		int to = getOwner(z);
+		
+		ArrayList<Vertex> path = new ArrayList<Vertex>();
+		path.add(a);
+		
+		if (from == to) {
+			return path;
+		}
+		
+		int entry = getMeetingEntry(from, to);
+		
+		if (entry == -1) {
+			return null;
+		}
+		
+		int hub = labelHubs[entry];
+		
+		// Follow the labels up from `a' to the hub, then from `z' up to the hub,
+		// and join the two halves at the hub
+		appendPathToHub(from, hub, path);
+		
+		ArrayList<Vertex> backward = new ArrayList<Vertex>();
+		backward.add(z);
+		appendPathToHub(to, hub, backward);
+		
+		Collections.reverse(backward);
+		path.addAll(backward.subList(1, backward.size()));
+		
+		return path;
+	}
+	
+	/**
+	 * Appends the {@link Airport}s along the shortest path from the owner of a label
+	 * to one of its hubs, excluding the owner itself
+	 *
+	 * @param owner The owner of the label
+	 * @param hub   The hub at which the path ends
+	 * @param path  The path to which to append the {@link Airport}s
+	 */
+	protected void appendPathToHub(int owner, int hub, ArrayList<Vertex> path) {
+		int count = hierarchy.airports.length;
+		
+		while (owner != hub) {
+			int next = labelNexts[getEntry(owner, hub)];
+			
+			// An Airport outside the hierarchy is joined to its next node directly,
+			// while an edge of the hierarchy may be a shortcut
+			if (owner >= count) {
+				path.add(hierarchy.airports[next]);
+			} else {
+				hierarchy.unpack(owner, next, path);
+			}
+			
+			owner = next;
+		}
+	}
+	
+	/**
+	 * Returns the shortest route between two {@link Airport}s as the
+	 * {@link Destination}s along it, equivalent to the path returned by
+	 * {@link Dijkstra#getShortestPath}
+	 *
+	 * @param a    The {@link Airport} at which the route begins
+	 * @param z    The {@link Airport} at which the route ends
+	 * @param type The {@link Airplane.AirplaneType} of the {@link Airplane} being used
+	 * @return The {@link Destination}s along the shortest route from a to z, or null
+	 *         if there is no such route
+	 * @throws NullPointerException When any of the parameters is null
+	 * @throws IllegalArgumentException When a or z has no hub label
+	 */
+	public List<Destination> getRoute(Vertex a, Vertex z, Airplane.AirplaneType type) {
+		if (type == null) {
+			throw new NullPointerException("type may not be null");
+		}
+		
+		ArrayList<Vertex> path = getShortestPath(a, z);
+		
+		if (path == null) {
+			return null;
+		}
+		
+		ArrayList<Destination> route = new ArrayList<Destination>(path.size());
+		for (Vertex vertex : path) {
+			route.add(Dijkstra.createDestination(vertex, type));
+		}
+		
+		return route;
+	}
+	
+	/**
+	 * Returns the number of entries in every label together
+	 *
+	 * @return The length of {@link #labelHubs}
+	 */
+	public int getEntryCount() {
+		return labelHubs.length;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,306 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed binary min-heap of integer ids ordered by float keys.  Unlike
+ * java.util.PriorityQueue, the position of every id within the heap is tracked,
+ * so the key of an id already in the heap may be changed, or the id removed, in
+ * <em>O(log n)</em> time rather than with a linear scan.
+ * <br /><br />
+ * Ids must lie within [0, {@link #capacity()}); the heap grows on demand through
+ * {@link #ensureCapacity(int)}.
+ *
+ * @author Dylon Edwards
+ */
+public class IndexedHeap {
+	
+	/** Holds the ids in heap order, such that heap[0] has the minimum key */
+	protected int[] heap;
+	
+	/**
+	 * Holds one plus the position of each id within {@link #heap}, or zero when the
+	 * id is not in the heap
+	 */
+	protected int[] positions;
+	
+	/** Holds the key of each id in the heap */
+	protected float[] keys;
+	
+	/** Holds the number of ids in the heap */
+	protected int size;
+	
+	/**
+	 * Constructs an empty IndexedHeap able to hold the ids [0, capacity)
+	 *
+	 * @param capacity The initial number of ids this IndexedHeap may hold
+	 * @throws IllegalArgumentException When capacity is negative
+	 */
+	public IndexedHeap(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity may not be negative");
+		}
+		
+		heap = new int[capacity];
+		positions = new int[capacity];
+		keys = new float[capacity];
+		size = 0;
+	}
+	
+	/**
+	 * Grows this IndexedHeap so it may hold the ids [0, capacity)
+	 *
+	 * @param capacity The number of ids this IndexedHeap must be able to hold
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity > positions.length) {
+			
+			// Grow geometrically so repeated calls remain amortized constant time
+			int newCapacity = Math.max(capacity, positions.length * 2);
+			
+			heap = Arrays.copyOf(heap, newCapacity);
+			positions = Arrays.copyOf(positions, newCapacity);
+			keys = Arrays.copyOf(keys, newCapacity);
+		}
+	}
+	
+	/**
+	 * Returns the number of ids this IndexedHeap may hold
+	 *
+	 * @return The length of {@link #positions}
+	 */
+	public int capacity() {
+		return positions.length;
+	}
+	
+	/**
+	 * Returns the number of ids in this IndexedHeap
+	 *
+	 * @return The {@link #size} attribute
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns whether this IndexedHeap is empty
+	 *
+	 * @return Whether {@link #size} is zero
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * Returns whether the given id is in this IndexedHeap
+	 *
+	 * @param id The id to look for
+	 * @return Whether id is in this IndexedHeap
+	 */
+	public boolean contains(int id) {
+		return positions[id] != 0;
+	}
+	
+	/**
+	 * Returns the key of the given id
+	 *
+	 * @param id The id whose key to return
+	 * @return The key of id, which is only meaningful while id is in this IndexedHeap
+	 */
+	public float getKey(int id) {
+		return keys[id];
+	}
+	
+	/**
+	 * Adds an id to this IndexedHeap with the given key, or lowers its key if it is
+	 * already in the heap and key is smaller than its current one
+	 *
+	 * @param id  The id to add or update
+	 * @param key The (new) key of id
+	 */
+	public void addOrDecreaseKey(int id, float key) {
+		if (positions[id] == 0) {
+			
+			// Append id to the bottom of the heap and let it rise to its place
+			keys[id] = key;
+			heap[size] = id;
+			positions[id] = ++ size;
+			siftUp(size - 1);
+		} else if (key < keys[id]) {
+			
+			// Only lower keys are allowed, so id may only ever move up
+			keys[id] = key;
+			siftUp(positions[id] - 1);
+		}
+	}
+	
+	/**
+	 * Adds an id to this IndexedHeap with the given key, or changes its key if it
+	 * is already in the heap, whether the new key is smaller or larger
+	 *
+	 * @param id  The id to add or update
+	 * @param key The (new) key of id
+	 */
+	public void update(int id, float key) {
+		if (positions[id] == 0) {
+			addOrDecreaseKey(id, key);
+			return;
+		}
+		
+		float oldKey = keys[id];
+		keys[id] = key;
+		
+		if (key < oldKey) {
+			siftUp(positions[id] - 1);
+		} else {
+			siftDown(positions[id] - 1);
+		}
+	}
+	
+	/**
+	 * Removes an id from this IndexedHeap, if it is in the heap
+	 *
+	 * @param id The id to remove
+	 */
+	public void remove(int id) {
+		int position = positions[id] - 1;
+		
+		if (position == -1) {
+			return;
+		}
+		
+		size --;
+		positions[id] = 0;
+		
+		// Move the last id in the heap into the hole and let it move to its place,
+		// which may be above or below the hole
+		if (position < size) {
+			int last = heap[size];
+			heap[position] = last;
+			positions[last] = position + 1;
+			siftDown(position);
+			siftUp(positions[last] - 1);
+		}
+	}
+	
+	/**
+	 * Returns the id with the minimum key without removing it
+	 *
+	 * @return The id at the top of the heap
+	 * @throws NoSuchElementException When this IndexedHeap is empty
+	 */
+	public int peek() {
+		if (size == 0) {
+			throw new NoSuchElementException("The heap is empty");
+		}
+		
+		return heap[0];
+	}
+	
+	/**
+	 * Returns the minimum key in this IndexedHeap
+	 *
+	 * @return The key of the id at the top of the heap
+	 * @throws NoSuchElementException When this IndexedHeap is empty
+	 */
+	public float peekKey() {
+		return keys[peek()];
+	}
+	
+	/**
+	 * Removes and returns the id with the minimum key
+	 *
+	 * @return The id that was at the top of the heap
+	 * @throws NoSuchElementException When this IndexedHeap is empty
+	 */
+	public int poll() {
+		int id = peek();
+		
+		// Move the last id in the heap to the top and let it sink to its place
+		size --;
+		positions[id] = 0;
+		
+		if (size > 0) {
+			int last = heap[size];
+			heap[0] = last;
+			positions[last] = 1;
+			siftDown(0);
+		}
+		
+		return id;
+	}
+	
+	/**
+	 * Removes every id from this IndexedHeap in time proportional to its size
+	 */
+	public void clear() {
+		for (int index = 0; index < size; index ++) {
+			positions[heap[index]] = 0;
+		}
+		
+		size = 0;
+	}
+	
+	/**
+	 * Moves the id at the given heap position up until its parent's key is no larger
+	 *
+	 * @param position The position within {@link #heap} of the id to move
+	 */
+	protected void siftUp(int position) {
+		int id = heap[position];
+		float key = keys[id];
+		
+		while (position > 0) {
+			int parentPosition = (position - 1) >>> 1;
+			int parent = heap[parentPosition];
+			
+			if (keys[parent] <= key) {
+				break;
+			}
+			
+			// Pull the parent down into the hole left by id
+			heap[position] = parent;
+			positions[parent] = position + 1;
+			position = parentPosition;
+		}
+		
+		heap[position] = id;
+		positions[id] = position + 1;
+	}
+	
+	/**
+	 * Moves the id at the given heap position down until neither child has a smaller key
+	 *
+	 * @param position The position within {@link #heap} of the id to move
+	 */
+	protected void siftDown(int position) {
+		int id = heap[position];
+		float key = keys[id];
+		int half = size >>> 1;
+		
+		while (position < half) {
+			int childPosition = (position << 1) + 1;
+			int child = heap[childPosition];
+			int rightPosition = childPosition + 1;
+			
+			// Pick the smaller of the two children
+			if (rightPosition < size && keys[heap[rightPosition]] < keys[child]) {
+				childPosition = rightPosition;
+				child = heap[childPosition];
+			}
+			
+			if (key <= keys[child]) {
+				break;
+			}
+			
+			// Pull the child up into the hole left by id
+			heap[position] = child;
+			positions[child] = position + 1;
+			position = childPosition;
+		}
+		
+		heap[position] = id;
+		positions[id] = position + 1;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,525 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Finds the <em>k</em> shortest paths an {@link Airplane} can fly between two
+ * Vertex nodes of the {@link FlightPlan#getSearchGraph() search graph} by Yen's
+ * algorithm: once the shortest path is found, each further path leaves the last
+ * path found at one of its Vertex nodes, the spur, and follows the shortest path
+ * from there which visits no Vertex before the spur and leaves it by no
+ * {@link Edge} already taken from there by a path found with the same beginning.
+ * The shortest of all the paths so found, not yet taken, is the next path.
+ * <br /><br />
+ * Each search from a spur keeps the labels of a {@link RangeConstrainedDijkstra},
+ * beginning with the range the Airplane has left once it has flown the path up
+ * to the spur, so every path found is one the Airplane can fly.  As there, a
+ * path may only pass a Vertex after the spur twice where the Airplane refuels
+ * elsewhere in between.
+ * <br /><br />
+ * The searches from the spurs of a path depend only on the paths found before
+ * it, so they are run at once on a ForkJoinPool, each with the
+ * {@link SearchContext} of its own Thread.  Paths of equal weight are ranked by
+ * their number of Vertex nodes and then by their ids, so the paths found are the
+ * same however the searches are split.
+ *
+ * @author Dylon Edwards
+ */
+public class KShortestPaths {
+	
+	/** Ranks paths by weight, then by their number of Vertex nodes, then by their ids */
+	protected static final Comparator<Path> RANKING = new Comparator<Path>() {
+		
+		@Override
+		public int compare(Path path, Path other) {
+			int comparison = Float.compare(path.weight, other.weight);
+			
+			if (comparison == 0) {
+				comparison = path.vertices.length - other.vertices.length;
+			}
+			
+			for (int index = 0; comparison == 0 && index < path.vertices.length; index ++) {
+				comparison = path.vertices[index] - other.vertices[index];
+			}
+			
+			return comparison;
+		}
+	};
+	
+	/** Holds the ForkJoinPool on which the spurs are searched */
+	protected final ForkJoinPool pool;
+	
+	/** Holds the labels of each Thread searching from a spur */
+	protected final ThreadLocal<RangeConstrainedDijkstra.Labels> labels =
+		new ThreadLocal<RangeConstrainedDijkstra.Labels>() {
+			
+			@Override
+			protected RangeConstrainedDijkstra.Labels initialValue() {
+				return new RangeConstrainedDijkstra.Labels();
+			}
+		};
+	
+	/**
+	 * Constructs a KShortestPaths which searches the spurs on the common ForkJoinPool
+	 */
+	public KShortestPaths() {
+		this(ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Constructs a KShortestPaths which searches the spurs on the given ForkJoinPool
+	 *
+	 * @param pool The ForkJoinPool on which to search the spurs
+	 * @throws NullPointerException When pool is null
+	 */
+	public KShortestPaths(ForkJoinPool pool) {
+		if (pool == null) {
+			throw new NullPointerException("pool may not be null");
+		}
+		
+		this.pool = pool;
+	}
+	
+	/**
+	 * Returns the shortest paths an {@link Airplane} can fly from the origin vertex
+	 * to the target vertex over the search graph of their {@link FlightPlan}, to
+	 * which both must be attached, departing with a full tank
+	 *
+	 * @param a        The origin {@link Vertex} of each path
+	 * @param z        The target {@link Vertex} of each path
+	 * @param airplane The {@link Airplane} which flies each path
+	 * @param count    The number of paths to find
+	 * @return At most count paths, shortest first, each holding its Vertex nodes
+	 *         from a to z
+	 * @throws IllegalArgumentException When count is not positive
+	 * @throws NullPointerException     When a, z or airplane is null
+	 */
+	public List<ArrayList<Vertex>> getPaths(Vertex a, Vertex z, Airplane airplane, int count) {
+		if (count <= 0) {
+			throw new IllegalArgumentException("count must be positive");
+		}
+		
+		Iterator<ArrayList<Vertex>> paths = getPaths(a, z, airplane);
+		ArrayList<ArrayList<Vertex>> vertexPaths = new ArrayList<ArrayList<Vertex>>();
+		
+		while (vertexPaths.size() < count && paths.hasNext()) {
+			vertexPaths.add(paths.next());
+		}
+		
+		return vertexPaths;
+	}
+	
+	/**
+	 * Returns the paths an {@link Airplane} can fly from the origin vertex to the
+	 * target vertex, as {@link #getPaths(Vertex, Vertex, Airplane, int)} does, but
+	 * one at a time: each path is only found once the one before it has been
+	 * taken, so a caller may take as many as it needs.  Both Vertex nodes must stay
+	 * attached to the search graph, and it may not change, until the last path
+	 * needed has been taken.
+	 *
+	 * @param a        The origin {@link Vertex} of each path
+	 * @param z        The target {@link Vertex} of each path
+	 * @param airplane The {@link Airplane} which flies each path
+	 * @return The paths, shortest first, each holding its Vertex nodes from a to z
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	public Iterator<ArrayList<Vertex>> getPaths(Vertex a, Vertex z, Airplane airplane) {
+		if (a == null) {
+			throw new NullPointerException("a may not be null");
+		}
+		
+		if (z == null) {
+			throw new NullPointerException("z may not be null");
+		}
+		
+		if (airplane == null) {
+			throw new NullPointerException("airplane may not be null");
+		}
+		
+		return new PathIterator(a, z, airplane);
+	}
+	
+	/**
+	 * Returns the shortest path which leaves a path at one of its Vertex nodes,
+	 * avoiding every Vertex before it and every {@link Edge} taken from it by a
+	 * path already found with the same beginning
+	 *
+	 * @param flightPlan The {@link FlightPlan} whose search graph is searched
+	 * @param airplane   The {@link Airplane} which flies the path
+	 * @param paths      The paths already found
+	 * @param lastPath   The last path found, which is left
+	 * @param spur       The index in lastPath of the Vertex at which it is left
+	 * @param target     The id of the target Vertex
+	 * @return The path found, or null if there is none
+	 */
+	protected Path searchSpur(FlightPlan flightPlan, Airplane airplane, List<Path> paths,
+	                          Path lastPath, int spur, int target) {
+		
+		// Holds the ids of the Vertex nodes of the last path up to the spur
+		int[] root = new int[spur + 1];
+		System.arraycopy(lastPath.vertices, 0, root, 0, spur + 1);
+		
+		// Holds the ids of the Vertex nodes to which no Edge from the spur leads
+		BitSet blockedTargets = new BitSet();
+		
+		for (Path path : paths) {
+			if (path.vertices.length > spur + 1 && path.beginsWith(root)) {
+				blockedTargets.set(path.vertices[spur + 1]);
+			}
+		}
+		
+		return search(flightPlan, airplane, root, target, blockedTargets);
+	}
+	
+	/**
+	 * Returns the shortest path the {@link Airplane} can fly which begins with the
+	 * given Vertex nodes and continues to the target without returning to any of
+	 * them before the last
+	 *
+	 * @param flightPlan     The {@link FlightPlan} whose search graph is searched
+	 * @param airplane       The {@link Airplane} which flies the path, departing
+	 *                       its first Vertex with a full tank
+	 * @param root           The ids of the Vertex nodes with which the path begins,
+	 *                       the last being where the search starts
+	 * @param target         The id of the target Vertex
+	 * @param blockedTargets The ids of the Vertex nodes to which the path may not
+	 *                       continue from the last of root
+	 * @return The path found, or null if there is none
+	 */
+	protected Path search(FlightPlan flightPlan, Airplane airplane, int[] root, int target,
+	                      BitSet blockedTargets) {
+		
+		Airplane.AirplaneType type = airplane.getType();
+		float range = airplane.getRange();
+		int source = root[root.length - 1];
+		
+		// Fly the root to find the range left at the spur, refueling along the way
+		// as a flight plan would; its Vertex nodes before the spur are never visited
+		// again
+		BitSet rootVertices = new BitSet();
+		float sourceRange = range;
+		
+		for (int index = 1; index < root.length; index ++) {
+			Vertex from = flightPlan.getVertex(root[index - 1]);
+			Vertex to = flightPlan.getVertex(root[index]);
+			
+			rootVertices.set(root[index - 1]);
+			sourceRange = Dijkstra.canRefuel(to, type) ? range : sourceRange - Edge.getWeight(from, to);
+		}
+		
+		RangeConstrainedDijkstra.Labels labels = this.labels.get();
+		labels.reset(flightPlan.getVertexIdCount());
+		
+		IndexedHeap labelQueue = labels.queue;
+		RoutingGraph graph = flightPlan.getSearchGraph();
+		
+		int label = labels.add(source, 0, sourceRange, -1);
+		labelQueue.addOrDecreaseKey(label, 0);
+		
+		int targetLabel = -1;
+		
+		while (!labelQueue.isEmpty()) {
+			label = labelQueue.poll();
+			
+			int uId = labels.vertices[label];
+			float uWeight = labels.weights[label];
+			float uRange = labels.ranges[label];
+			
+			if (labels.isDominated(uId, uRange)) {
+				continue;
+			}
+			
+			labels.settle(label);
+			
+			if (uId == target) {
+				targetLabel = label;
+				break;
+			}
+			
+			for (int e = graph.getFirstEdge(uId, uRange); e != -1; e = graph.getNextEdge(uId, e, uRange)) {
+				int vId = graph.getTarget(e);
+				
+				// Only the spur itself, not a later visit to it, is left by no Edge 
+				// already taken
+				if (rootVertices.get(vId) || labels.parents[label] == -1 && blockedTargets.get(vId)) {
+					continue;
+				}
+				
+				float weight = graph.getWeight(e);
+				boolean refuels = Dijkstra.canRefuel(flightPlan.getVertex(vId), type);
+				float vRange = refuels ? range : uRange - weight;
+				
+				if (labels.isDominated(vId, vRange)) {
+					continue;
+				}
+				
+				float weightThroughU = uWeight + weight;
+				
+				// Only the lightest label of an Airport where the Airplane refuels 
+				// need wait in the queue
+				int vLabel = refuels ? labels.getRefueled(vId) : -1;
+				
+				if (vLabel != -1 && labelQueue.contains(vLabel)) {
+					if (weightThroughU < labels.weights[vLabel]) {
+						labels.weights[vLabel] = weightThroughU;
+						labels.parents[vLabel] = label;
+						labelQueue.addOrDecreaseKey(vLabel, weightThroughU);
+					}
+					
+					continue;
+				}
+				
+				vLabel = labels.add(vId, weightThroughU, vRange, label);
+				labelQueue.addOrDecreaseKey(vLabel, weightThroughU);
+				
+				if (refuels) {
+					labels.setRefueled(vId, vLabel);
+				}
+			}
+		}
+		
+		if (targetLabel == -1) {
+			return null;
+		}
+		
+		// Count the Vertex nodes from the spur to the target
+		int spurLength = 0;
+		for (label = targetLabel; label != -1; label = labels.parents[label]) {
+			spurLength ++;
+		}
+		
+		int[] vertices = new int[root.length - 1 + spurLength];
+		System.arraycopy(root, 0, vertices, 0, root.length - 1);
+		
+		for (int index = vertices.length - 1; index >= root.length - 1; index --) {
+			vertices[index] = labels.vertices[targetLabel];
+			targetLabel = labels.parents[targetLabel];
+		}
+		
+		return new Path(flightPlan, vertices);
+	}
+	
+	/**
+	 * Takes the paths found by Yen's algorithm one at a time, searching from the
+	 * spurs of each path only once the next one is asked for
+	 */
+	protected class PathIterator implements Iterator<ArrayList<Vertex>> {
+		
+		/** Holds the {@link FlightPlan} whose search graph is searched */
+		protected final FlightPlan flightPlan;
+		
+		/** Holds the {@link Airplane} which flies each path */
+		protected final Airplane airplane;
+		
+		/** Holds the id of the target Vertex */
+		protected final int target;
+		
+		/** Holds the paths taken, shortest first */
+		protected final ArrayList<Path> paths = new ArrayList<Path>();
+		
+		/** Holds the paths leaving those taken at a spur, which are not yet taken */
+		protected final TreeSet<Path> candidates = new TreeSet<Path>(RANKING);
+		
+		/** Holds the next path to take, or null if it has not been found yet */
+		protected Path nextPath;
+		
+		/**
+		 * Constructs a PathIterator which finds the shortest path at once
+		 *
+		 * @param a        The origin {@link Vertex} of each path
+		 * @param z        The target {@link Vertex} of each path
+		 * @param airplane The {@link Airplane} which flies each path
+		 */
+		protected PathIterator(Vertex a, Vertex z, Airplane airplane) {
+			flightPlan = a.flightPlan;
+			this.airplane = airplane;
+			target = z.getId();
+			nextPath = search(flightPlan, airplane, new int[] {a.getId()}, target, new BitSet());
+		}
+		
+		@Override
+		public boolean hasNext() {
+			if (nextPath == null && !paths.isEmpty()) {
+				Path lastPath = paths.get(paths.size() - 1);
+				
+				// Holds the path found from each spur of the last path, or null
+				Path[] spurPaths = new Path[lastPath.vertices.length - 1];
+				pool.invoke(new SpurTask(
+					flightPlan, airplane, paths, lastPath, target, spurPaths, 0, spurPaths.length
+				));
+				
+				for (Path spurPath : spurPaths) {
+					if (spurPath != null) {
+						candidates.add(spurPath);
+					}
+				}
+				
+				nextPath = candidates.pollFirst();
+			}
+			
+			return nextPath != null;
+		}
+		
+		@Override
+		public ArrayList<Vertex> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("There are no more paths");
+			}
+			
+			Path path = nextPath;
+			paths.add(path);
+			nextPath = null;
+			
+			ArrayList<Vertex> vertices = new ArrayList<Vertex>();
+			
+			for (int vertex : path.vertices) {
+				vertices.add(flightPlan.getVertex(vertex));
+			}
+			
+			return vertices;
+		}
+		
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("Paths may not be removed");
+		}
+	}
+	
+	/**
+	 * Holds a path as the ids of its Vertex nodes, and its weight
+	 */
+	protected static class Path {
+		
+		/** Holds the ids of the Vertex nodes of this Path, in the order flown */
+		protected final int[] vertices;
+		
+		/** Holds the sum of the weights of the {@link Edge}s of this Path */
+		protected final float weight;
+		
+		/**
+		 * Constructs a Path through the given Vertex nodes
+		 *
+		 * @param flightPlan The {@link FlightPlan} which maps the ids to Vertex nodes
+		 * @param vertices   The ids of the Vertex nodes of the Path, in the order flown
+		 */
+		protected Path(FlightPlan flightPlan, int[] vertices) {
+			this.vertices = vertices;
+			
+			// Sum the Edges from the first Vertex forward, as a flight plan would
+			float weight = 0;
+			
+			for (int index = 1; index < vertices.length; index ++) {
+				weight += Edge.getWeight(
+					flightPlan.getVertex(vertices[index - 1]), flightPlan.getVertex(vertices[index])
+				);
+			}
+			
+			this.weight = weight;
+		}
+		
+		/**
+		 * Returns whether this Path begins with the given Vertex nodes
+		 *
+		 * @param root The ids of the Vertex nodes
+		 * @return Whether the first Vertex nodes of this Path are those of root
+		 */
+		protected boolean beginsWith(int[] root) {
+			if (vertices.length < root.length) {
+				return false;
+			}
+			
+			for (int index = 0; index < root.length; index ++) {
+				if (vertices[index] != root[index]) {
+					return false;
+				}
+			}
+			
+			return true;
+		}
+	}
+	
+	/**
+	 * Searches from a block of the spurs of the last path found, splitting the
+	 * block until each spur has a task of its own
+	 */
+	protected class SpurTask extends RecursiveAction {
+		
+		/** Generated by the serialver utility */
+		private static final long serialVersionUID = -6668707539987762420L;
+		
+		/** Holds the {@link FlightPlan} whose search graph is searched */
+		protected final FlightPlan flightPlan;
+		
+		/** Holds the {@link Airplane} which flies each path */
+		protected final Airplane airplane;
+		
+		/** Holds the paths already found */
+		protected final List<Path> paths;
+		
+		/** Holds the last path found */
+		protected final Path lastPath;
+		
+		/** Holds the id of the target Vertex */
+		protected final int target;
+		
+		/** Holds the path found from each spur, or null */
+		protected final Path[] spurPaths;
+		
+		/** Holds the index of the first spur of the block */
+		protected final int from;
+		
+		/** Holds the index after the last spur of the block */
+		protected final int to;
+		
+		/**
+		 * Constructs a SpurTask over a block of spurs
+		 *
+		 * @param flightPlan The {@link FlightPlan} whose search graph is searched
+		 * @param airplane   The {@link Airplane} which flies each path
+		 * @param paths      The paths already found
+		 * @param lastPath   The last path found
+		 * @param target     The id of the target Vertex
+		 * @param spurPaths  The path found from each spur, or null
+		 * @param from       The index of the first spur of the block
+		 * @param to         The index after the last spur of the block
+		 */
+		protected SpurTask(FlightPlan flightPlan, Airplane airplane, List<Path> paths, Path lastPath,
+		                   int target, Path[] spurPaths, int from, int to) {
+			
+			this.flightPlan = flightPlan;
+			this.airplane = airplane;
+			this.paths = paths;
+			this.lastPath = lastPath;
+			this.target = target;
+			this.spurPaths = spurPaths;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int middle = (from + to) >>> 1;
+				
+				invokeAll(
+					new SpurTask(flightPlan, airplane, paths, lastPath, target, spurPaths, from, middle),
+					new SpurTask(flightPlan, airplane, paths, lastPath, target, spurPaths, middle, to)
+				);
+				
+				return;
+			}
+			
+			for (int spur = from; spur < to; spur ++) {
+				spurPaths[spur] = searchSpur(flightPlan, airplane, paths, lastPath, spur, target);
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package edu.usca.acsc492l.flightplanner;
+
+/**
+ * An {@link AStar} which directs each search with the {@link Landmarks} that its
+ * {@link FlightPlan} keeps for the range class of the {@link Airplane}, giving the
+ * ALT algorithm.  While those landmarks are still being built on the background
+ * Thread, searches fall back to the {@link Heuristic} of the superclass.
+ *
+ * @author Dylon Edwards
+ */
+public class LandmarkAStar extends AStar {
+	
+	/**
+	 * Computes the shortest path from the origin vertex to the target vertex,
+	 * directed by the {@link Landmarks} of the range class of airplane
+	 *
+	 * @param a        The origin {@link Vertex} from which the shortest path is calculated
+	 * @param z        The target {@link Vertex} to which the shortest path is calculated
+	 * @param airplane The {@link Airplane} being used to traverse the path
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	@Override
+	public void computePath(Vertex a, Vertex z, Airplane airplane) throws VertexException {
+		if (a == null) {
+			throw new NullPointerException("a may not be null");
+		}
+		
+		if (z == null) {
+			throw new NullPointerException("z may not be null");
+		}
+		
+		if (airplane == null) {
+			throw new NullPointerException("airplane may not be null");
+		}
+		
+		Landmarks landmarks = a.flightPlan.getLandmarks(airplane);
+		
+		// Until the landmarks are ready, direct the search as AStar does
+		search(a, z, landmarks != null ? landmarks : heuristic);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,428 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.Arrays;
+
+import static java.lang.Math.*;
+
+/**
+ * A {@link Heuristic} for the ALT algorithm (A*, Landmarks and the Triangle inequality)
+ * over the {@link Airport}s with the fuel required by one range class of
+ * {@link Airplane}.  {@link #build()} picks a few landmark Airports spread across the
+ * graph and stores the weight of the shortest path between each landmark and every
+ * Airport.  For any landmark <em>L</em>, the triangle inequality gives
+ * <em>d(v, t) &ge; |d(L, t) - d(L, v)|</em>, which is usually far tighter than the
+ * straight-line distance, since range limits force paths to detour through Airports
+ * at which the Airplane may refuel.
+ * <br /><br />
+ * Every {@link Edge} is undirected, so the weight from each landmark to an Airport is
+ * also the weight from the Airport back to the landmark, and only one table is kept.
+ * A {@link Vertex} outside this graph, such as the start or end of a flight plan, is
+ * connected to it through every Airport within range, just as
+ * {@link FlightPlan#setFlightPlan} connects it.
+ * <br /><br />
+ * Like the {@link ContractionHierarchy}, the Airports and their {@link Coordinate}s
+ * are copied on construction, so the landmarks may be built on a background Thread,
+ * and are immutable (and safe to query from any Thread) once built.
+ *
+ * @author Dylon Edwards
+ */
+public class Landmarks implements Heuristic {
+	
+	/** Holds the number of landmarks to pick when none is specified */
+	public static final int DEFAULT_LANDMARK_COUNT = 16;
+	
+	/**
+	 * Shrinks each estimate slightly so that float rounding in the {@link Edge} weights
+	 * can never make the estimate exceed the weight of a path
+	 */
+	protected static final float ROUNDING_FACTOR = 0.9999f;
+	
+	/** Holds the Airports of this graph, indexed by node */
+	protected final Airport[] airports;
+	
+	/** Holds the latitude of each node */
+	protected final float[] latitudes;
+	
+	/** Holds the longitude of each node */
+	protected final float[] longitudes;
+	
+	/** Holds the range of the {@link Airplane}s this graph serves */
+	protected final float range;
+	
+	/** Holds the node of each {@link Vertex} id, or -1 if it is not in this graph */
+	protected final int[] nodes;
+	
+	/** Holds the maximum number of landmarks to pick */
+	protected final int maxLandmarkCount;
+	
+	/** Holds the number of landmarks actually picked */
+	protected int landmarkCount;
+	
+	/** Holds the node of each landmark */
+	protected int[] landmarks;
+	
+	/**
+	 * Holds the weight of the shortest path between each node and each landmark, at
+	 * distances[node * landmarkCount + landmark], or infinity if there is none
+	 */
+	protected float[] distances;
+	
+	/** Estimates the weight remaining wherever the landmarks cannot do better */
+	protected final Heuristic straightLineHeuristic = new StraightLineHeuristic();
+	
+	/** Holds the landmark weights of the last target queried on each Thread */
+	protected final ThreadLocal<Target> targets = new ThreadLocal<Target>() {
+		
+		@Override
+		protected Target initialValue() {
+			return new Target();
+		}
+	};
+	
+	/**
+	 * Holds the landmark weights of a target, which are computed once per search
+	 * rather than for every {@link Vertex} it estimates the weight from
+	 */
+	protected class Target {
+		
+		/** Holds the target {@link Vertex}, or null if there is none yet */
+		protected Vertex vertex = null;
+		
+		/** Holds the latitude of the target when its weights were computed */
+		protected float latitude;
+		
+		/** Holds the longitude of the target when its weights were computed */
+		protected float longitude;
+		
+		/** Holds the weight between the target and each landmark */
+		protected final float[] distances = new float[landmarkCount];
+		
+		/** Holds the weight between a {@link Vertex} outside the graph and each landmark */
+		protected final float[] vertexDistances = new float[landmarkCount];
+	}
+	
+	/**
+	 * Constructs an unbuilt Landmarks object over a snapshot of the given Airports,
+	 * which will pick {@link #DEFAULT_LANDMARK_COUNT} landmarks
+	 *
+	 * @param airports The {@link Airport}s with the fuel required by the range class
+	 * @param range    The range of the {@link Airplane}s in the range class
+	 * @throws NullPointerException When airports is null
+	 */
+	public Landmarks(Airport[] airports, float range) {
+		this(airports, range, DEFAULT_LANDMARK_COUNT);
+	}
+	
+	/**
+	 * Constructs an unbuilt Landmarks object over a snapshot of the given Airports
+	 *
+	 * @param airports      The {@link Airport}s with the fuel required by the range class
+	 * @param range         The range of the {@link Airplane}s in the range class
+	 * @param landmarkCount The maximum number of landmarks to pick
+	 * @throws NullPointerException When airports is null
+	 * @throws IllegalArgumentException When landmarkCount is negative
+	 */
+	public Landmarks(Airport[] airports, float range, int landmarkCount) {
+		if (airports == null) {
+			throw new NullPointerException("airports may not be null");
+		}
+		
+		if (landmarkCount < 0) {
+			throw new IllegalArgumentException("landmarkCount may not be negative");
+		}
+		
+		this.airports = airports.clone();
+		this.range = range;
+		this.maxLandmarkCount = landmarkCount;
+		
+		int count = this.airports.length;
+		latitudes = new float[count];
+		longitudes = new float[count];
+		
+		// Map each Vertex id to its node
+		int maxId = -1;
+		for (Airport airport : this.airports) {
+			maxId = max(maxId, airport.getId());
+		}
+		
+		nodes = new int[maxId + 1];
+		Arrays.fill(nodes, -1);
+		
+		for (int node = 0; node < count; node ++) {
+			Coordinate coordinate = this.airports[node].getCoordinate();
+			latitudes[node] = coordinate.getLatitude();
+			longitudes[node] = coordinate.getLongitude();
+			nodes[this.airports[node].getId()] = node;
+		}
+	}
+	
+	/**
+	 * Picks the landmarks and computes the weight of the shortest path between each
+	 * of them and every node.  The first landmark is the node farthest from the
+	 * center of the graph, and each one after it the reachable node farthest from
+	 * every landmark picked so far, which spreads them around the edges of the graph
+	 * where they give the tightest bounds.
+	 */
+	public void build() {
+		int count = airports.length;
+		int[] landmarks = new int[min(maxLandmarkCount, count)];
+		float[][] columns = new float[landmarks.length][];
+		
+		// Holds the weight between each node and its nearest landmark
+		float[] nearestWeights = new float[count];
+		Arrays.fill(nearestWeights, Float.POSITIVE_INFINITY);
+		
+		int landmarkCount = 0;
+		int landmark = getFarthestFromCenter();
+		
+		while (landmarkCount < landmarks.length && landmark != -1) {
+			landmarks[landmarkCount] = landmark;
+			columns[landmarkCount] = getShortestPathWeights(landmark);
+			
+			// Pick the reachable node farthest from its nearest landmark next
+			landmark = -1;
+			float farthestWeight = 0;
+			
+			for (int node = 0; node < count; node ++) {
+				nearestWeights[node] = min(nearestWeights[node], columns[landmarkCount][node]);
+				
+				if (nearestWeights[node] != Float.POSITIVE_INFINITY &&
+				    nearestWeights[node] > farthestWeight) {
+					
+					landmark = node;
+					farthestWeight = nearestWeights[node];
+				}
+			}
+			
+			landmarkCount ++;
+		}
+		
+		// Lay the weights of each node out together, as they are read together
+		float[] distances = new float[count * landmarkCount];
+		for (int index = 0; index < landmarkCount; index ++) {
+			for (int node = 0; node < count; node ++) {
+				distances[node * landmarkCount + index] = columns[index][node];
+			}
+		}
+		
+		this.landmarkCount = landmarkCount;
+		this.landmarks = Arrays.copyOf(landmarks, landmarkCount);
+		this.distances = distances;
+	}
+	
+	/**
+	 * Returns the node farthest from the mean {@link Coordinate} of every node
+	 *
+	 * @return The node farthest from the center of the graph, or -1 if there are none
+	 */
+	protected int getFarthestFromCenter() {
+		int count = airports.length;
+		
+		if (count == 0) {
+			return -1;
+		}
+		
+		double latitude = 0, longitude = 0;
+		for (int node = 0; node < count; node ++) {
+			latitude += latitudes[node];
+			longitude += longitudes[node];
+		}
+		
+		latitude /= count;
+		longitude /= count;
+		
+		int farthest = 0;
+		float farthestWeight = -1;
+		
+		for (int node = 0; node < count; node ++) {
+			float weight = ContractionHierarchy.getWeight(
+				(float)latitude, (float)longitude, latitudes[node], longitudes[node]
+			);
+			
+			if (weight > farthestWeight) {
+				farthest = node;
+				farthestWeight = weight;
+			}
+		}
+		
+		return farthest;
+	}
+	
+	/**
+	 * Computes the weight of the shortest path from a node to every other node with
+	 * Dijkstra's algorithm.  Every pair of nodes within range is adjacent, so rather
+	 * than a heap, each step simply scans for the nearest unsettled node, which takes
+	 * <em>O(n<sup>2</sup>)</em> time overall, no more than relaxing the edges does.
+	 *
+	 * @param source The node from which the shortest paths begin
+	 * @return The weight of the shortest path to each node, or infinity if there is none
+	 */
+	protected float[] getShortestPathWeights(int source) {
+		int count = airports.length;
+		float[] minWeights = new float[count];
+		boolean[] settled = new boolean[count];
+		
+		Arrays.fill(minWeights, Float.POSITIVE_INFINITY);
+		minWeights[source] = 0;
+		
+		for (int iteration = 0; iteration < count; iteration ++) {
+			
+			// Settle the nearest unsettled node
+			int u = -1;
+			for (int node = 0; node < count; node ++) {
+				if (!settled[node] && (u == -1 || minWeights[node] < minWeights[u])) {
+					u = node;
+				}
+			}
+			
+			// Every node left is unreachable
+			if (minWeights[u] == Float.POSITIVE_INFINITY) {
+				break;
+			}
+			
+			settled[u] = true;
+			
+			for (int v = 0; v < count; v ++) {
+				if (!settled[v]) {
+					float weight = ContractionHierarchy.getWeight(
+						latitudes[u], longitudes[u], latitudes[v], longitudes[v]
+					);
+					
+					if (weight <= range && minWeights[u] + weight < minWeights[v]) {
+						minWeights[v] = minWeights[u] + weight;
+					}
+				}
+			}
+		}
+		
+		return minWeights;
+	}
+	
+	/**
+	 * Copies the weight between a {@link Vertex} and each landmark into the given array
+	 *
+	 * @param vertex  The {@link Vertex} whose weights to copy
+	 * @param weights The array to hold the weights, one per landmark
+	 * @return weights
+	 */
+	protected float[] getDistances(Vertex vertex, float[] weights) {
+		int id = vertex.getId();
+		int node = id < nodes.length ? nodes[id] : -1;
+		
+		if (node != -1) {
+			System.arraycopy(distances, node * landmarkCount, weights, 0, landmarkCount);
+			return weights;
+		}
+		
+		// A Vertex outside the graph reaches each landmark through the Airports
+		// within range of it
+		Arrays.fill(weights, Float.POSITIVE_INFINITY);
+		
+		Coordinate coordinate = vertex.getCoordinate();
+		float latitude = coordinate.getLatitude();
+		float longitude = coordinate.getLongitude();
+		
+		for (int other = 0; other < airports.length; other ++) {
+			float weight = ContractionHierarchy.getWeight(
+				latitude, longitude, latitudes[other], longitudes[other]
+			);
+			
+			if (weight <= range) {
+				int offset = other * landmarkCount;
+				
+				for (int index = 0; index < landmarkCount; index ++) {
+					weights[index] = min(weights[index], distances[offset + index] + weight);
+				}
+			}
+		}
+		
+		return weights;
+	}
+	
+	/**
+	 * Returns the largest lower bound given by the triangle inequality over every
+	 * landmark, or the straight-line distance if that is larger
+	 *
+	 * @param vertex The {@link Vertex} from which the path begins
+	 * @param target The {@link Vertex} at which the path ends
+	 * @return A lower bound on the weight of the shortest path from vertex to target
+	 * @throws IllegalStateException When the landmarks have not been built
+	 */
+	@Override
+	public float getLowerBound(Vertex vertex, Vertex target) {
+		if (distances == null) {
+			throw new IllegalStateException("The landmarks have not been built");
+		}
+		
+		float lowerBound = straightLineHeuristic.getLowerBound(vertex, target);
+		
+		// Look up the weights of the target only when it changes
+		Target cached = targets.get();
+		Coordinate coordinate = target.getCoordinate();
+		
+		if (cached.vertex != target ||
+		    cached.latitude != coordinate.getLatitude() ||
+		    cached.longitude != coordinate.getLongitude()) {
+			
+			getDistances(target, cached.distances);
+			cached.vertex = target;
+			cached.latitude = coordinate.getLatitude();
+			cached.longitude = coordinate.getLongitude();
+		}
+		
+		float[] targetDistances = cached.distances;
+		
+		int id = vertex.getId();
+		int node = id < nodes.length ? nodes[id] : -1;
+		
+		float[] vertexDistances;
+		int offset;
+		
+		if (node != -1) {
+			vertexDistances = distances;
+			offset = node * landmarkCount;
+		} else {
+			vertexDistances = getDistances(vertex, cached.vertexDistances);
+			offset = 0;
+		}
+		
+		for (int index = 0; index < landmarkCount; index ++) {
+			float targetDistance = targetDistances[index];
+			float vertexDistance = vertexDistances[offset + index];
+			
+			// A landmark which cannot reach both bounds nothing
+			if (targetDistance != Float.POSITIVE_INFINITY &&
+			    vertexDistance != Float.POSITIVE_INFINITY) {
+				
+				lowerBound = max(lowerBound,
+				                 abs(targetDistance - vertexDistance) * ROUNDING_FACTOR);
+			}
+		}
+		
+		return lowerBound;
+	}
+	
+	/**
+	 * Returns the number of landmarks picked by {@link #build()}
+	 *
+	 * @return The {@link #landmarkCount} attribute
+	 */
+	public int getLandmarkCount() {
+		return landmarkCount;
+	}
+	
+	/**
+	 * Returns the landmark {@link Airport}s picked by {@link #build()}
+	 *
+	 * @return The landmark {@link Airport}s, in the order in which they were picked
+	 */
+	public Airport[] getLandmarks() {
+		Airport[] landmarkAirports = new Airport[landmarkCount];
+		
+		for (int index = 0; index < landmarkCount; index ++) {
+			landmarkAirports[index] = airports[landmarks[index]];
+		}
+		
+		return landmarkAirports;
+	}
+}
\ No newline at end of file
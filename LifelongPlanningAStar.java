@@ -0,0 +1,575 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An {@link AStar} which keeps the search of each leg it finds, and when the same
+ * leg is found again, repairs that search with Lifelong Planning A* (Koenig,
+ * Likhachev and Furcy) rather than starting over.  Each Vertex keeps both its
+ * minimum weight <em>g</em> and a one-step lookahead <em>rhs</em>, the least
+ * weight through any of its neighbors, and only the Vertex nodes where the two
+ * differ are queued.  Once {@link Airport}s have been closed, reopened or moved,
+ * the {@link RoutingGraph} reports the Vertex ids whose {@link Edge}s changed, so
+ * only those and the Vertex nodes whose weights depend on them are searched again.
+ * <br /><br />
+ * A search is only kept for the same {@link RoutingGraph}, range and attached
+ * destinations, which is to say the same leg of the same flight plan, and only
+ * the {@link #MAX_SEARCHES} most recently used are kept.
+ * <br /><br />
+ * The search kept for each leg follows every {@link Edge} within the range of the
+ * {@link Airplane}, as any {@link AStar} does, so its shortest path is only a lower
+ * bound on the shortest path the Airplane can fly.  Whenever the Airplane can fly
+ * the path found, having flown the given distance since it last refueled, no path it
+ * can fly is shorter; otherwise the leg is found again by a
+ * {@link RangeConstrainedDijkstra}, so the paths found are as short as those of the
+ * default engine, though where several are equally short, either may be returned,
+ * and only the legs which run short of fuel are searched afresh.
+ *
+ * @author Dylon Edwards
+ */
+public class LifelongPlanningAStar extends AStar {
+	
+	/** Holds the number of searches kept, beyond which the least recently used is discarded */
+	protected static final int MAX_SEARCHES = 16;
+	
+	/** Holds the search of each leg, keyed by {@link #getLeg}, least recently used first */
+	protected final LinkedHashMap<String, Search> searches =
+		new LinkedHashMap<String, Search>(16, 0.75f, true) {
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Search> eldest) {
+				return size() > MAX_SEARCHES;
+			}
+		};
+	
+	/** Holds the search of the legs whose shortest paths the {@link Airplane} cannot fly */
+	protected final RangeConstrainedDijkstra rangeConstrained;
+	
+	/** Holds whether the last search of each Thread was made by {@link #rangeConstrained} */
+	protected final ThreadLocal<Boolean> rangeConstrainedSearches = new ThreadLocal<Boolean>() {
+		
+		@Override
+		protected Boolean initialValue() {
+			return Boolean.FALSE;
+		}
+	};
+	
+	/**
+	 * Constructs a LifelongPlanningAStar object which estimates the weight
+	 * remaining to the target with a {@link StraightLineHeuristic}
+	 */
+	public LifelongPlanningAStar() {
+		super();
+		rangeConstrained = new RangeConstrainedDijkstra(heuristic);
+	}
+	
+	/**
+	 * Constructs a LifelongPlanningAStar object with the given {@link Heuristic},
+	 * which must never overestimate the weight of an {@link Edge} plus the estimate
+	 * from the Vertex to which it leads, or a repaired search may miss a shorter path
+	 *
+	 * @param heuristic The {@link Heuristic} which estimates the weight remaining
+	 *                  to the target
+	 * @throws NullPointerException When heuristic is null
+	 */
+	public LifelongPlanningAStar(Heuristic heuristic) {
+		super(heuristic);
+		rangeConstrained = new RangeConstrainedDijkstra(heuristic);
+	}
+	
+	/**
+	 * Computes the shortest path the {@link Airplane} can fly from the origin vertex
+	 * to the target vertex, departing with a full tank
+	 *
+	 * @param a        The origin {@link Vertex} from which the shortest path is calculated
+	 * @param z        The target {@link Vertex} to which the shortest path is calculated
+	 * @param airplane The {@link Airplane} being used to traverse the path
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	@Override
+	public void computePath(Vertex a, Vertex z, Airplane airplane) throws VertexException {
+		computePath(a, z, airplane, 0);
+	}
+	
+	/**
+	 * Repairs the search of the leg from the origin vertex to the target vertex, and
+	 * if the {@link Airplane} cannot fly the shortest path found, having already flown
+	 * the given distance since refueling, finds the shortest path it can fly with
+	 * {@link #rangeConstrained} instead
+	 *
+	 * @param a             The origin {@link Vertex} from which the shortest path is calculated
+	 * @param z             The target {@link Vertex} to which the shortest path is calculated
+	 * @param airplane      The {@link Airplane} being used to traverse the path
+	 * @param distanceFlown The distance flown since the Airplane last refueled
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	@Override
+	public void computePath(Vertex a, Vertex z, Airplane airplane, float distanceFlown)
+	                        throws VertexException {
+		
+		if (airplane == null) {
+			throw new NullPointerException("airplane may not be null");
+		}
+		
+		computePath(a, z);
+		
+		// No path the Airplane can fly is shorter than the shortest of all, nor does
+		// one lead where no path does
+		if (getMinWeight(z) != Float.POSITIVE_INFINITY && !canFly(z, airplane, distanceFlown)) {
+			rangeConstrained.computePath(a, z, airplane, distanceFlown);
+			rangeConstrainedSearches.set(Boolean.TRUE);
+		}
+	}
+	
+	/**
+	 * Returns whether the {@link Airplane} can fly the shortest path to the target
+	 * vertex found by the last search on the current Thread, refueling wherever it
+	 * can along the way
+	 *
+	 * @param z             The target vertex of the last search on the current Thread
+	 * @param airplane      The {@link Airplane} being used to traverse the path
+	 * @param distanceFlown The distance flown since the Airplane last refueled, at
+	 *                      the origin of the path
+	 * @return Whether the Airplane has the range to fly each leg between refuelings
+	 */
+	protected boolean canFly(Vertex z, Airplane airplane, float distanceFlown) {
+		Airplane.AirplaneType type = airplane.getType();
+		float range = airplane.getRange();
+		
+		ArrayList<Vertex> vertices = new ArrayList<Vertex>();
+		for (Vertex vertex = z; vertex != null; vertex = getPreviousVertex(vertex)) {
+			vertices.add(vertex);
+		}
+		
+		// Fly the path forwards from its origin, which the Airplane leaves with a
+		// full tank if it refuels there
+		float distance = distanceFlown;
+		
+		for (int index = vertices.size() - 1; index >= 0; index --) {
+			Vertex vertex = vertices.get(index);
+			
+			if (index < vertices.size() - 1) {
+				distance += Edge.getWeight(vertices.get(index + 1), vertex);
+				
+				if (distance > range) {
+					return false;
+				}
+			}
+			
+			if (canRefuel(vertex, type)) {
+				distance = 0;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Repairs the search of the leg from the origin vertex to the target vertex if
+	 * it has been found before, and otherwise starts a new one, then records the
+	 * shortest path in the {@link SearchContext} of the current Thread
+	 *
+	 * @param a         The origin {@link Vertex} from which the shortest path is calculated
+	 * @param z         The target {@link Vertex} to which the shortest path is calculated,
+	 *                  or null to settle every reachable {@link Vertex}, which leaves
+	 *                  nothing to repair
+	 * @param heuristic The {@link Heuristic} which directs the search toward z
+	 */
+	@Override
+	protected void search(Vertex a, Vertex z, Heuristic heuristic) {
+		rangeConstrainedSearches.set(Boolean.FALSE);
+		
+		if (z == null || heuristic == null) {
+			super.search(a, z, heuristic);
+			return;
+		}
+		
+		FlightPlan flightPlan = a.flightPlan;
+		RoutingGraph graph = flightPlan.getSearchGraph();
+		float range = flightPlan.getSearchRange();
+		String leg = getLeg(a, z, range, graph);
+		Search search;
+		
+		synchronized (searches) {
+			search = searches.get(leg);
+			
+			// A search of another RoutingGraph has nothing left to repair
+			if (search == null || search.graph != graph || search.heuristic != heuristic) {
+				search = new Search(graph, a, z, range, heuristic);
+				searches.put(leg, search);
+			}
+		}
+		
+		SearchContext context = getSearchContext();
+		context.reset(flightPlan.getVertexIdCount());
+		
+		synchronized (search) {
+			search.repair(flightPlan, context);
+		}
+	}
+	
+	/**
+	 * Returns the number of {@link Vertex} nodes settled by the last search on the
+	 * current Thread, along with the labels settled by {@link #rangeConstrained}
+	 * if the leg was found again by it
+	 *
+	 * @return The number of {@link Vertex} nodes and labels settled
+	 */
+	@Override
+	public int getSettledCount() {
+		int settled = super.getSettledCount();
+		
+		if (rangeConstrainedSearches.get()) {
+			settled += rangeConstrained.getSettledCount();
+		}
+		
+		return settled;
+	}
+	
+	/**
+	 * Returns the minimum weight of a {@link Vertex} as determined by the last
+	 * search on the current Thread, by {@link #rangeConstrained} if the leg was
+	 * found again by it
+	 *
+	 * @param vertex The {@link Vertex} whose minimum weight to return
+	 * @return The minimum weight of vertex, or infinity if it was not reached
+	 */
+	@Override
+	public float getMinWeight(Vertex vertex) {
+		if (rangeConstrainedSearches.get()) {
+			return rangeConstrained.getMinWeight(vertex);
+		}
+		
+		return super.getMinWeight(vertex);
+	}
+	
+	/**
+	 * Returns the previous {@link Vertex} of a {@link Vertex} as determined by the
+	 * last search on the current Thread, by {@link #rangeConstrained} if the leg
+	 * was found again by it
+	 *
+	 * @param vertex The {@link Vertex} whose previous {@link Vertex} to return
+	 * @return The previous {@link Vertex} of vertex, or null if there is none
+	 */
+	@Override
+	public Vertex getPreviousVertex(Vertex vertex) {
+		if (rangeConstrainedSearches.get()) {
+			return rangeConstrained.getPreviousVertex(vertex);
+		}
+		
+		return super.getPreviousVertex(vertex);
+	}
+	
+	/**
+	 * Returns the {@link Vertex} nodes along the shortest path to the target vertex
+	 * found by the last search on the current Thread, read back from the labels of
+	 * {@link #rangeConstrained} if the leg was found again by it
+	 *
+	 * @param z The target vertex of the last search on the current Thread
+	 * @return The {@link Vertex} nodes of the path, from the source vertex to z
+	 * @throws DijkstraException When the last search never reached z
+	 * @throws NullPointerException When z is null
+	 */
+	@Override
+	public ArrayList<Vertex> getPathVertices(Vertex z) throws DijkstraException {
+		if (rangeConstrainedSearches.get()) {
+			return rangeConstrained.getPathVertices(z);
+		}
+		
+		return super.getPathVertices(z);
+	}
+	
+	/**
+	 * Returns the key of the search of a leg, which names its origin, target and
+	 * range, along with every destination attached to the {@link RoutingGraph} and
+	 * where it is, since their Edges are not kept from one flight plan to the next;
+	 * where the origin and target are is named too, since their ids may be freed
+	 * and assigned to other Vertex nodes
+	 *
+	 * @param a     The origin {@link Vertex} of the leg
+	 * @param z     The target {@link Vertex} of the leg
+	 * @param range The length of the longest {@link Edge} followed
+	 * @param graph The {@link RoutingGraph} searched
+	 * @return The key of the search of the leg
+	 */
+	protected static String getLeg(Vertex a, Vertex z, float range, RoutingGraph graph) {
+		StringBuilder leg = new StringBuilder();
+		leg.append(a.getId()).append(a.getCoordinate()).append('>');
+		leg.append(z.getId()).append(z.getCoordinate()).append('/').append(range);
+		
+		for (Vertex vertex : graph.getAttachedVertices()) {
+			leg.append(' ').append(vertex.getId()).append(vertex.getCoordinate());
+		}
+		
+		return leg.toString();
+	}
+	
+	/**
+	 * Holds the state of the search of one leg, which is kept from one flight plan
+	 * to the next; only one Thread may use it at once
+	 */
+	protected static class Search {
+		
+		/** Holds the {@link RoutingGraph} searched */
+		protected final RoutingGraph graph;
+		
+		/** Holds the {@link Heuristic} which directs the search */
+		protected final Heuristic heuristic;
+		
+		/** Holds the id of the origin Vertex */
+		protected final int start;
+		
+		/** Holds the id of the target Vertex */
+		protected final int goal;
+		
+		/** Holds the target Vertex, toward which the {@link #heuristic} directs the search */
+		protected final Vertex target;
+		
+		/** Holds the length of the longest {@link Edge} followed */
+		protected final float range;
+		
+		/** Holds the version of the {@link #graph} searched last, or -1 if none has been */
+		protected long version = -1;
+		
+		/** Holds the minimum weight of each Vertex id */
+		protected float[] minWeights = new float[0];
+		
+		/** Holds the least weight of each Vertex id through any of its neighbors */
+		protected float[] lookaheads = new float[0];
+		
+		/** Holds the Vertex ids whose minimum weights and lookaheads differ */
+		protected final IndexedHeap queue = new IndexedHeap(0);
+		
+		/**
+		 * Constructs a Search which has not yet searched anything
+		 *
+		 * @param graph     The {@link RoutingGraph} to search
+		 * @param a         The origin {@link Vertex}
+		 * @param z         The target {@link Vertex}
+		 * @param range     The length of the longest {@link Edge} to follow
+		 * @param heuristic The {@link Heuristic} which directs the search toward z
+		 */
+		protected Search(RoutingGraph graph, Vertex a, Vertex z, float range, Heuristic heuristic) {
+			this.graph = graph;
+			this.heuristic = heuristic;
+			this.range = range;
+			start = a.getId();
+			goal = z.getId();
+			target = z;
+		}
+		
+		/**
+		 * Brings the minimum weights up to date with the {@link RoutingGraph},
+		 * searching again only from the Vertex ids whose Edges changed since the
+		 * last search and the destinations attached, unless too many versions have passed to know which, and
+		 * records the shortest path to the target in a {@link SearchContext}
+		 *
+		 * @param flightPlan The {@link FlightPlan} which maps Vertex ids back to
+		 *                   their Vertex nodes
+		 * @param context    The {@link SearchContext} in which to record the path
+		 */
+		protected void repair(FlightPlan flightPlan, SearchContext context) {
+			ensureCapacity(flightPlan.getVertexIdCount());
+			
+			BitSet changes = version != -1 ? graph.getChangesSince(version) : null;
+			
+			if (changes == null) {
+				Arrays.fill(minWeights, Float.POSITIVE_INFINITY);
+				Arrays.fill(lookaheads, Float.POSITIVE_INFINITY);
+				queue.clear();
+				
+				lookaheads[start] = 0;
+				enqueue(flightPlan, start);
+			} else {
+				for (int id = changes.nextSetBit(0); id != -1 && id < minWeights.length;
+				     id = changes.nextSetBit(id + 1)) {
+					
+					updateVertex(flightPlan, id);
+				}
+				
+				// The destinations attached are never among the changes, though an
+				// Airport may have moved into or out of range of them
+				for (Vertex vertex : graph.getAttachedVertices()) {
+					updateVertex(flightPlan, vertex.getId());
+				}
+			}
+			
+			version = graph.getVersion();
+			
+			computeShortestPath(flightPlan, context);
+			recordPath(context);
+		}
+		
+		/**
+		 * Grows the arrays to hold the given number of Vertex ids, none of which
+		 * has been reached
+		 *
+		 * @param capacity The number of Vertex ids
+		 */
+		protected void ensureCapacity(int capacity) {
+			int oldCapacity = minWeights.length;
+			
+			if (capacity > oldCapacity) {
+				minWeights = Arrays.copyOf(minWeights, capacity);
+				lookaheads = Arrays.copyOf(lookaheads, capacity);
+				Arrays.fill(minWeights, oldCapacity, capacity, Float.POSITIVE_INFINITY);
+				Arrays.fill(lookaheads, oldCapacity, capacity, Float.POSITIVE_INFINITY);
+				queue.ensureCapacity(capacity);
+			}
+		}
+		
+		/**
+		 * Returns the key of a Vertex id in the queue: the lesser of its minimum
+		 * weight and lookahead, plus the {@link #heuristic} estimate of the weight
+		 * remaining to the target
+		 *
+		 * @param flightPlan The {@link FlightPlan} which maps Vertex ids back to
+		 *                   their Vertex nodes
+		 * @param id         The id of the Vertex
+		 * @return The key of id
+		 */
+		protected float getKey(FlightPlan flightPlan, int id) {
+			float weight = Math.min(minWeights[id], lookaheads[id]);
+			
+			if (weight == Float.POSITIVE_INFINITY) {
+				return weight;
+			}
+			
+			return weight + heuristic.getLowerBound(flightPlan.getVertex(id), target);
+		}
+		
+		/**
+		 * Queues a Vertex id if its minimum weight and lookahead differ, and
+		 * otherwise removes it from the queue
+		 *
+		 * @param flightPlan The {@link FlightPlan} which maps Vertex ids back to
+		 *                   their Vertex nodes
+		 * @param id         The id of the Vertex
+		 */
+		protected void enqueue(FlightPlan flightPlan, int id) {
+			if (minWeights[id] != lookaheads[id]) {
+				queue.update(id, getKey(flightPlan, id));
+			} else {
+				queue.remove(id);
+			}
+		}
+		
+		/**
+		 * Finds the lookahead of a Vertex id again from the minimum weights of its
+		 * neighbors, and queues it if it differs from its minimum weight.  Every Edge
+		 * of the {@link RoutingGraph} has a twin of the same weight leading back, so
+		 * the Edges leaving the Vertex also give those leading to it.
+		 *
+		 * @param flightPlan The {@link FlightPlan} which maps Vertex ids back to
+		 *                   their Vertex nodes
+		 * @param id         The id of the Vertex
+		 */
+		protected void updateVertex(FlightPlan flightPlan, int id) {
+			if (id != start) {
+				float lookahead = Float.POSITIVE_INFINITY;
+				
+				for (int e = graph.getFirstEdge(id, range); e != -1; e = graph.getNextEdge(id, e, range)) {
+					lookahead = Math.min(lookahead, minWeights[graph.getTarget(e)] + graph.getWeight(e));
+				}
+				
+				lookaheads[id] = lookahead;
+			}
+			
+			enqueue(flightPlan, id);
+		}
+		
+		/**
+		 * Settles the queued Vertex ids until the minimum weight of the target is
+		 * known, lowering the minimum weight of each whose lookahead is lower, and
+		 * raising to infinity that of each whose lookahead is higher, so it is
+		 * queued again with its new lookahead
+		 *
+		 * @param flightPlan The {@link FlightPlan} which maps Vertex ids back to
+		 *                   their Vertex nodes
+		 * @param context    The {@link SearchContext} which counts the Vertex ids
+		 *                   settled
+		 */
+		protected void computeShortestPath(FlightPlan flightPlan, SearchContext context) {
+			
+			// Ties with the key of the target are settled too, since a Vertex id with
+			// the same key may still change the minimum weight of the target
+			while (!queue.isEmpty() && (queue.peekKey() <= getKey(flightPlan, goal) ||
+			                            minWeights[goal] != lookaheads[goal])) {
+				
+				int u = queue.poll();
+				context.settle();
+				
+				if (minWeights[u] > lookaheads[u]) {
+					float uMinWeight = minWeights[u] = lookaheads[u];
+					
+					for (int e = graph.getFirstEdge(u, range); e != -1; e = graph.getNextEdge(u, e, range)) {
+						int v = graph.getTarget(e);
+						float weightThroughU = uMinWeight + graph.getWeight(e);
+						
+						if (v != start && weightThroughU < lookaheads[v]) {
+							lookaheads[v] = weightThroughU;
+							enqueue(flightPlan, v);
+						}
+					}
+				} else {
+					float oldMinWeight = minWeights[u];
+					minWeights[u] = Float.POSITIVE_INFINITY;
+					updateVertex(flightPlan, u);
+					
+					// Only the neighbors whose lookaheads came through u need finding again
+					for (int e = graph.getFirstEdge(u, range); e != -1; e = graph.getNextEdge(u, e, range)) {
+						int v = graph.getTarget(e);
+						
+						if (lookaheads[v] == oldMinWeight + graph.getWeight(e)) {
+							updateVertex(flightPlan, v);
+						}
+					}
+				}
+			}
+		}
+		
+		/**
+		 * Records the shortest path to the target in a {@link SearchContext}, working
+		 * backwards from the target through the neighbor of each Vertex along which
+		 * its minimum weight was reached
+		 *
+		 * @param context The {@link SearchContext} in which to record the path
+		 */
+		protected void recordPath(SearchContext context) {
+			if (minWeights[goal] == Float.POSITIVE_INFINITY) {
+				return;
+			}
+			
+			int v = goal;
+			
+			// Every Edge has a positive weight, so the minimum weights fall all the
+			// way back to the origin, though the steps are bounded all the same
+			for (int steps = 0; v != start && steps < minWeights.length; steps ++) {
+				int previous = -1;
+				float previousWeight = Float.POSITIVE_INFINITY;
+				
+				for (int e = graph.getFirstEdge(v, range); e != -1; e = graph.getNextEdge(v, e, range)) {
+					float weight = minWeights[graph.getTarget(e)] + graph.getWeight(e);
+					
+					if (weight < previousWeight) {
+						previous = graph.getTarget(e);
+						previousWeight = weight;
+					}
+				}
+				
+				if (previous == -1) {
+					return;
+				}
+				
+				context.setMinWeight(v, minWeights[v], previous);
+				v = previous;
+			}
+			
+			context.setMinWeight(start, 0, -1);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,362 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A {@link RangeConstrainedDijkstra} which finds the path the {@link Airplane} can
+ * fly with the fewest landings along the way, rather than the fewest Kilometers,
+ * breaking ties between paths with as many landings by their weight.
+ * <br /><br />
+ * The search proceeds in layers, as a breadth-first search does, where each label
+ * belongs to the layer of the fewest landings any path through it could make:
+ * those made along its own path, plus a lower bound on those still to come, as
+ * the Airplane must land at least once more for every full range by which the
+ * target lies beyond the range it has left.  Each layer is settled in order of
+ * weight, as in {@link AStar}, and the labels each one reaches either join it or
+ * wait for a later one.  The first label of the target settled therefore has the
+ * fewest landings, and the least weight of the paths with that many.
+ * <br /><br />
+ * Since every label is bounded by the landings still to come, the labels leading
+ * away from the target wait for later layers, which are seldom reached; and a
+ * label is dropped whenever another of the same {@link Vertex} has landed no more
+ * times, weighs no more if it landed as many, and has as much range left, so each
+ * {@link Airport} where the Airplane refuels is settled at most once per layer.
+ *
+ * @author Dylon Edwards
+ */
+public class MinimumStopsDijkstra extends RangeConstrainedDijkstra {
+	
+	/** Holds the layers of each Thread using this MinimumStopsDijkstra */
+	protected final ThreadLocal<Layers> layers = new ThreadLocal<Layers>() {
+		
+		@Override
+		protected Layers initialValue() {
+			return new Layers();
+		}
+	};
+	
+	/**
+	 * Holds the layers of a search: the number of landings along the path of each
+	 * label, and the labels waiting for each later layer to be reached
+	 */
+	protected static class Layers {
+		
+		/** Holds the number of landings along the path of each label */
+		protected int[] stops = new int[64];
+		
+		/** Holds the labels waiting for each layer */
+		protected int[][] waiting = new int[8][];
+		
+		/** Holds the number of labels waiting for each layer */
+		protected int[] sizes = new int[8];
+		
+		/** Holds the number of landings of the path found by the search, or -1 */
+		protected int stopCount = -1;
+		
+		/**
+		 * Starts a new search
+		 */
+		protected void reset() {
+			Arrays.fill(sizes, 0);
+			stopCount = -1;
+		}
+		
+		/**
+		 * Sets the number of landings along the path of a label
+		 *
+		 * @param label The label
+		 * @param count The number of landings along its path
+		 */
+		protected void setStops(int label, int count) {
+			if (label >= stops.length) {
+				stops = Arrays.copyOf(stops, Math.max(label + 1, stops.length * 2));
+			}
+			
+			stops[label] = count;
+		}
+		
+		/**
+		 * Adds a label to the labels waiting for a layer
+		 *
+		 * @param layer The layer of the label
+		 * @param label The label
+		 */
+		protected void add(int layer, int label) {
+			if (layer >= sizes.length) {
+				int newCapacity = Math.max(layer + 1, sizes.length * 2);
+				
+				waiting = Arrays.copyOf(waiting, newCapacity);
+				sizes = Arrays.copyOf(sizes, newCapacity);
+			}
+			
+			if (waiting[layer] == null) {
+				waiting[layer] = new int[16];
+			} else if (sizes[layer] == waiting[layer].length) {
+				waiting[layer] = Arrays.copyOf(waiting[layer], sizes[layer] * 2);
+			}
+			
+			waiting[layer][sizes[layer] ++] = label;
+		}
+		
+		/**
+		 * Returns the first layer after the given one for which labels are waiting
+		 *
+		 * @param layer The current layer
+		 * @return The next layer with labels waiting for it, or -1 if there is none
+		 */
+		protected int getNextLayer(int layer) {
+			for (int next = layer + 1; next < sizes.length; next ++) {
+				if (sizes[next] > 0) {
+					return next;
+				}
+			}
+			
+			return -1;
+		}
+	}
+	
+	/**
+	 * Constructs a MinimumStopsDijkstra which estimates the weight remaining to
+	 * the target with a {@link StraightLineHeuristic}
+	 */
+	public MinimumStopsDijkstra() {
+		super();
+	}
+	
+	/**
+	 * Constructs a MinimumStopsDijkstra with the given {@link Heuristic}
+	 *
+	 * @param heuristic The {@link Heuristic} which estimates the weight remaining
+	 *                  to the target, or null to expand uniformly
+	 */
+	public MinimumStopsDijkstra(Heuristic heuristic) {
+		super(heuristic);
+	}
+	
+	/**
+	 * Leaves the paths from the origin vertex to be found one at a time, since the
+	 * layers of each search are bounded by the landings still to come to its target
+	 *
+	 * @param a        The origin {@link Vertex} from which the paths are calculated
+	 * @param targets  The target {@link Vertex} nodes to which the paths are calculated
+	 * @param airplane The {@link Airplane} being used to traverse the paths
+	 * @return false, since no path is computed
+	 */
+	@Override
+	public boolean computePaths(Vertex a, Collection<? extends Vertex> targets, Airplane airplane) {
+		return false;
+	}
+	
+	/**
+	 * Computes the path with the fewest landings the {@link Airplane} can fly from
+	 * the origin vertex to the target vertex, having already flown the given
+	 * distance since refueling
+	 *
+	 * @param a             The origin {@link Vertex} from which the path is calculated
+	 * @param z             The target {@link Vertex} to which the path is calculated
+	 * @param airplane      The {@link Airplane} being used to traverse the path
+	 * @param distanceFlown The distance flown since the Airplane last refueled
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	@Override
+	public void computePath(Vertex a, Vertex z, Airplane airplane, float distanceFlown)
+	                        throws VertexException {
+		
+		if (a == null) {
+			throw new NullPointerException("a may not be null");
+		}
+		
+		if (z == null) {
+			throw new NullPointerException("z may not be null");
+		}
+		
+		if (airplane == null) {
+			throw new NullPointerException("airplane may not be null");
+		}
+		
+		FlightPlan flightPlan = a.flightPlan;
+		Airplane.AirplaneType type = airplane.getType();
+		float range = airplane.getRange();
+		
+		Labels labels = this.labels.get();
+		labels.reset(flightPlan.getVertexIdCount());
+		
+		Layers layers = this.layers.get();
+		layers.reset();
+		
+		IndexedHeap labelQueue = labels.queue;
+		
+		SearchContext context = getSearchContext();
+		context.reset(flightPlan.getVertexIdCount());
+		
+		// Holds the Edges of the flight plan being found
+		RoutingGraph graph = flightPlan.getSearchGraph();
+		
+		// The Airplane leaves `a' with a full tank if it refuels there
+		float aRange = canRefuel(a, type) ? range : range - distanceFlown;
+		int label = labels.add(a.getId(), 0, aRange, -1);
+		layers.setStops(label, 0);
+		
+		float aLowerBound = heuristic != null ? heuristic.getLowerBound(a, z) : 0;
+		int layer = getStopsLowerBound(aLowerBound, aRange, range);
+		
+		labelQueue.addOrDecreaseKey(label, aLowerBound);
+		
+		int target = -1;
+		
+		while (target == -1) {
+			
+			// Once a layer is settled, move on to the next one with labels waiting
+			if (labelQueue.isEmpty()) {
+				layer = layers.getNextLayer(layer);
+				
+				if (layer == -1) {
+					break;
+				}
+				
+				for (int index = 0; index < layers.sizes[layer]; index ++) {
+					label = layers.waiting[layer][index];
+					
+					int vId = labels.vertices[label];
+					float weight = labels.weights[label];
+					
+					// A label may have been dominated since it began waiting
+					if (!isDominated(labels, layers, vId, layers.stops[label], weight, labels.ranges[label])) {
+						labelQueue.addOrDecreaseKey(
+							label,
+							heuristic != null ? weight + heuristic.getLowerBound(flightPlan.getVertex(vId), z)
+							                  : weight
+						);
+					}
+				}
+				
+				layers.sizes[layer] = 0;
+				continue;
+			}
+			
+			label = labelQueue.poll();
+			
+			int uId = labels.vertices[label];
+			int uStops = layers.stops[label];
+			float uWeight = labels.weights[label];
+			float uRange = labels.ranges[label];
+			
+			if (isDominated(labels, layers, uId, uStops, uWeight, uRange)) {
+				continue;
+			}
+			
+			labels.settle(label);
+			context.settle();
+			
+			Vertex u = flightPlan.getVertex(uId);
+			
+			// The first label of `z' settled has the fewest landings
+			if (u == z) {
+				target = label;
+				break;
+			}
+			
+			// Departing an Airport other than `a' means the Airplane landed there
+			int vStops = u != a && u instanceof Airport ? uStops + 1 : uStops;
+			
+			// The Airplane cannot fly farther than the range it has left, so only
+			// the Edges within it are followed
+			for (int e = graph.getFirstEdge(uId, uRange); e != -1; e = graph.getNextEdge(uId, e, uRange)) {
+				float weight = graph.getWeight(e);
+				int vId = graph.getTarget(e);
+				Vertex v = flightPlan.getVertex(vId);
+				float vRange = canRefuel(v, type) ? range : uRange - weight;
+				float weightThroughU = uWeight + weight;
+				
+				if (isDominated(labels, layers, vId, vStops, weightThroughU, vRange)) {
+					continue;
+				}
+				
+				int vLabel = labels.add(vId, weightThroughU, vRange, label);
+				layers.setStops(vLabel, vStops);
+				
+				float vLowerBound = heuristic != null ? heuristic.getLowerBound(v, z) : 0;
+				int vLayer = vStops + getStopsLowerBound(vLowerBound, vRange, range);
+				
+				// The bound never falls along an Edge but for float rounding, so any
+				// label it would place in an earlier layer belongs to this one
+				if (vLayer <= layer) {
+					labelQueue.addOrDecreaseKey(vLabel, weightThroughU + vLowerBound);
+				} else {
+					layers.add(vLayer, vLabel);
+				}
+			}
+		}
+		
+		if (target != -1) {
+			layers.stopCount = layers.stops[target];
+		}
+		
+		// Record the weight of each Vertex along the path, or leave `z' unreached
+		// if the Airplane cannot fly there; the path itself is read back from the
+		// labels, since it may pass a Vertex twice
+		for (label = target; label != -1; label = labels.parents[label]) {
+			int parent = labels.parents[label];
+			
+			context.setMinWeight(
+				labels.vertices[label],
+				labels.weights[label],
+				parent != -1 ? labels.vertices[parent] : -1
+			);
+		}
+	}
+	
+	/**
+	 * Returns a lower bound on the number of times the {@link Airplane} must land
+	 * before reaching the target: once for every full range, or part of one, by
+	 * which the target lies beyond the range it has left
+	 *
+	 * @param lowerBound A lower bound on the weight of the path to the target
+	 * @param rangeLeft  The range the Airplane has left
+	 * @param range      The range of the Airplane
+	 * @return A lower bound on the number of landings before the target
+	 */
+	protected static int getStopsLowerBound(float lowerBound, float rangeLeft, float range) {
+		return lowerBound > rangeLeft ? (int) Math.ceil((lowerBound - rangeLeft) / range) : 0;
+	}
+	
+	/**
+	 * Returns whether a settled label of a Vertex id makes a label with the given
+	 * landings, weight and range left useless, having landed fewer times, or as
+	 * many times with no more weight, and having as much range left
+	 *
+	 * @param labels The labels of the search
+	 * @param layers The layers of the search
+	 * @param vertex The id of the Vertex
+	 * @param stops  The number of landings along the path of the label
+	 * @param weight The weight of the path of the label
+	 * @param range  The range left at the end of the path of the label
+	 * @return Whether a settled label of vertex dominates the label
+	 */
+	protected static boolean isDominated(Labels labels, Layers layers, int vertex,
+	                                     int stops, float weight, float range) {
+		
+		for (int label = labels.getFirstSettled(vertex); label != -1; label = labels.nextSettled[label]) {
+			int settledStops = layers.stops[label];
+			
+			if (labels.ranges[label] >= range &&
+			    (settledStops < stops || settledStops == stops && labels.weights[label] <= weight)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Returns the number of {@link Airport}s landed at between the origin and the
+	 * target of the last search on the current Thread
+	 *
+	 * @return The number of landings along the last path found, or -1 if the
+	 *         target could not be reached
+	 */
+	public int getStopCount() {
+		return layers.get().stopCount;
+	}
+}
\ No newline at end of file
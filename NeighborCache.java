@@ -0,0 +1,293 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Generates the {@link Edge}s of each {@link Airport} from a {@link SpatialIndex}
+ * the first time a search reaches it, rather than holding every Edge between the
+ * Airports at once, as a {@link CompressedGraph} does.  The rows generated are
+ * kept in the order they were last used, and once they hold more Edges than the
+ * capacity, the least recently used are discarded, so the memory held depends on
+ * the area searched rather than on the number of Edges in the graph.
+ * <br /><br />
+ * Rows are only discarded by {@link #evict()}, {@link #discard(BitSet, BitSet)}
+ * and {@link #clear()}, between searches, so the number of an Edge stays valid throughout a search, which may
+ * hold more Edges than the capacity while it runs.  Rows are generated by one
+ * Thread at a time, so several Threads may search a NeighborCache at once.
+ *
+ * @author Dylon Edwards
+ */
+public class NeighborCache implements Adjacency {
+	
+	/** Holds the {@link Airport}s whose Edges are generated, by location */
+	protected final SpatialIndex<Airport> index;
+	
+	/** Holds the length of the longest Edge */
+	protected final float range;
+	
+	/** Holds the number of Edges kept from one search to the next */
+	protected final int capacity;
+	
+	/** Holds the first Edge of the row of each Vertex id, or -1 if it has none */
+	protected volatile int[] rowStarts = new int[0];
+	
+	/** Holds the Edge after the last of the row of each Vertex id */
+	protected volatile int[] rowEnds = new int[0];
+	
+	/** Holds the Vertex id to which each Edge leads */
+	protected volatile int[] targets = new int[64];
+	
+	/** Holds the weight of each Edge */
+	protected volatile float[] weights = new float[64];
+	
+	/** Holds the number of Edges generated */
+	protected int size = 0;
+	
+	/** Holds the number of Edges generated whose rows have since been discarded */
+	protected int garbage = 0;
+	
+	/**
+	 * Holds the number of Edges in the row of each {@link Airport} generated, keyed
+	 * by Vertex id, from the least recently used to the most
+	 */
+	protected final LinkedHashMap<Integer, Integer> rows =
+		new LinkedHashMap<Integer, Integer>(16, 0.75f, true);
+	
+	/**
+	 * Constructs an empty NeighborCache
+	 *
+	 * @param index    The {@link Airport}s whose Edges to generate, by location
+	 * @param range    The length of the longest Edge
+	 * @param capacity The number of Edges to keep from one search to the next
+	 * @throws NullPointerException When index is null
+	 */
+	public NeighborCache(SpatialIndex<Airport> index, float range, int capacity) {
+		if (index == null) {
+			throw new NullPointerException("index may not be null");
+		}
+		
+		this.index = index;
+		this.range = range;
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * Returns the first Edge of the row of a Vertex id, generating the row if it
+	 * is not held, and marking it as the most recently used
+	 *
+	 * @param vertex The id of the Vertex
+	 * @return The number of the first Edge of vertex
+	 */
+	@Override
+	public synchronized int getRowStart(int vertex) {
+		if (vertex >= rowStarts.length) {
+			int oldCapacity = rowStarts.length;
+			int newCapacity = Math.max(vertex + 1, oldCapacity * 2);
+			
+			int[] rowStarts = Arrays.copyOf(this.rowStarts, newCapacity);
+			Arrays.fill(rowStarts, oldCapacity, newCapacity, -1);
+			
+			rowEnds = Arrays.copyOf(rowEnds, newCapacity);
+			this.rowStarts = rowStarts;
+		}
+		
+		if (rowStarts[vertex] == -1) {
+			generate(vertex);
+		} else {
+			rows.get(vertex);
+		}
+		
+		return rowStarts[vertex];
+	}
+	
+	/**
+	 * Generates the row of a Vertex id, which is empty unless it is that of one of
+	 * the {@link Airport}s of the {@link SpatialIndex}
+	 *
+	 * @param vertex The id of the Vertex
+	 */
+	protected void generate(int vertex) {
+		Airport airport = index.get(vertex);
+		long[] row = airport != null ? CompressedGraph.getNeighbors(airport, index, range) : new long[0];
+		
+		// Publish new arrays only once they hold every Edge of the old ones, so a
+		// Thread reading either finds its own rows in it
+		if (size + row.length > targets.length) {
+			int newCapacity = Math.max(size + row.length, targets.length * 2);
+			
+			float[] weights = Arrays.copyOf(this.weights, newCapacity);
+			targets = Arrays.copyOf(targets, newCapacity);
+			this.weights = weights;
+		}
+		
+		int[] targets = this.targets;
+		float[] weights = this.weights;
+		int start = size;
+		
+		for (long entry : row) {
+			targets[size] = CompressedGraph.getTarget(entry);
+			weights[size] = CompressedGraph.getWeight(entry);
+			size ++;
+		}
+		
+		rowEnds[vertex] = size;
+		rowStarts[vertex] = start;
+		
+		// Vertex nodes without Edges cost nothing to keep
+		if (airport != null) {
+			rows.put(vertex, row.length);
+		}
+	}
+	
+	/**
+	 * Returns the Edge after the last of the row of a Vertex id, once its row has
+	 * been started
+	 *
+	 * @param vertex The id of the Vertex
+	 * @return The number of the Edge after the last of vertex
+	 */
+	@Override
+	public int getRowEnd(int vertex) {
+		return rowEnds[vertex];
+	}
+	
+	/**
+	 * Returns the id of the Vertex to which an Edge leads
+	 *
+	 * @param edge The number of the Edge
+	 * @return The entry of {@link #targets} for edge
+	 */
+	@Override
+	public int getTarget(int edge) {
+		return targets[edge];
+	}
+	
+	/**
+	 * Returns the weight of an Edge
+	 *
+	 * @param edge The number of the Edge
+	 * @return The entry of {@link #weights} for edge
+	 */
+	@Override
+	public float getWeight(int edge) {
+		return weights[edge];
+	}
+	
+	/**
+	 * Returns the number of Edges held
+	 *
+	 * @return The number of Edges generated whose rows are still held
+	 */
+	@Override
+	public synchronized int getEdgeCount() {
+		return size - garbage;
+	}
+	
+	/**
+	 * Discards the least recently used rows until the rest hold no more Edges than
+	 * the capacity, packing those kept together, which renumbers their Edges, so
+	 * no search may be running
+	 */
+	public synchronized void evict() {
+		if (size <= capacity) {
+			return;
+		}
+		
+		int kept = size - garbage;
+		Iterator<Map.Entry<Integer, Integer>> iterator = rows.entrySet().iterator();
+		
+		while (kept > capacity && iterator.hasNext()) {
+			kept -= iterator.next().getValue();
+			iterator.remove();
+		}
+		
+		int[] targets = new int[Math.max(kept, 64)];
+		float[] weights = new float[targets.length];
+		int[] rowStarts = new int[this.rowStarts.length];
+		int[] rowEnds = new int[this.rowEnds.length];
+		
+		// Vertex nodes without Edges are forgotten, and regenerated when reached
+		Arrays.fill(rowStarts, -1);
+		size = 0;
+		garbage = 0;
+		
+		for (int vertex : rows.keySet()) {
+			int start = this.rowStarts[vertex];
+			int length = this.rowEnds[vertex] - start;
+			
+			System.arraycopy(this.targets, start, targets, size, length);
+			System.arraycopy(this.weights, start, weights, size, length);
+			
+			rowStarts[vertex] = size;
+			size += length;
+			rowEnds[vertex] = size;
+		}
+		
+		this.targets = targets;
+		this.weights = weights;
+		this.rowEnds = rowEnds;
+		this.rowStarts = rowStarts;
+	}
+	
+	/**
+	 * Discards the rows of the given Vertex ids, along with every row leading to
+	 * any of the given targets, as when {@link Airport}s of the {@link SpatialIndex}
+	 * have been added, removed or moved, so no search may be running; their Edges
+	 * are only reclaimed by the next {@link #evict()}
+	 *
+	 * @param vertices The ids of the Vertex nodes whose rows to discard
+	 * @param targets  The ids of the Vertex nodes to which no row may lead
+	 * @throws NullPointerException When vertices or targets is null
+	 */
+	public synchronized void discard(BitSet vertices, BitSet targets) {
+		for (int vertex = vertices.nextSetBit(0);
+		     vertex != -1 && vertex < rowStarts.length;
+		     vertex = vertices.nextSetBit(vertex + 1)) {
+			
+			discard(vertex);
+		}
+		
+		Iterator<Integer> iterator = rows.keySet().iterator();
+		
+		while (iterator.hasNext()) {
+			int vertex = iterator.next();
+			
+			for (int edge = rowStarts[vertex]; edge < rowEnds[vertex]; edge ++) {
+				if (targets.get(this.targets[edge])) {
+					garbage += rowEnds[vertex] - rowStarts[vertex];
+					rowStarts[vertex] = -1;
+					iterator.remove();
+					break;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Discards the row of a Vertex id, if it is held
+	 *
+	 * @param vertex The id of the Vertex
+	 */
+	protected void discard(int vertex) {
+		if (rowStarts[vertex] != -1) {
+			garbage += rowEnds[vertex] - rowStarts[vertex];
+			rowStarts[vertex] = -1;
+			rows.remove(vertex);
+		}
+	}
+	
+	/**
+	 * Discards every row, as when the {@link Airport}s of the {@link SpatialIndex}
+	 * have changed, so no search may be running
+	 */
+	public synchronized void clear() {
+		rows.clear();
+		Arrays.fill(rowStarts, -1);
+		size = 0;
+		garbage = 0;
+	}
+}
\ No newline at end of file
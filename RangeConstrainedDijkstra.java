@@ -0,0 +1,468 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+
+/**
+ * A {@link Dijkstra} which only ever finds paths the {@link Airplane} can actually
+ * fly.  Rather than one minimum weight per {@link Vertex}, the search keeps labels,
+ * each carrying the weight of a path and the range the Airplane has left at its end.
+ * An {@link Edge} longer than the range left is never followed, and the range left
+ * is restored in full at every {@link Airport} with the fuel the Airplane requires.
+ * <br /><br />
+ * A label is dropped whenever another label at the same Vertex has both a weight no
+ * greater and a range left no smaller, so at an Airport where the Airplane refuels,
+ * only the lightest label waits in the queue, as in Dijkstra's algorithm, and only
+ * the first label settled survives; only at Vertex nodes without fuel, such as
+ * NAV Beacons, may several labels be kept.  A path which returns to a Vertex without
+ * refueling in between is dominated by its own earlier visit, so the search ends,
+ * and since no label is dropped but by the dominance check, the first label of the
+ * target settled has the shortest path the Airplane can fly, even where that path
+ * doubles back through a Vertex after refueling elsewhere.
+ * <br /><br />
+ * Such a path cannot be held as one previous Vertex per Vertex, so each path is
+ * read back from the parents of its labels by {@link #getPathVertices(Vertex)}; the
+ * {@link SearchContext} only holds the minimum weight of each Vertex settled, and
+ * the Vertex before it along its shortest path.
+ * <br /><br />
+ * The labels are keyed by their weight plus a {@link Heuristic} lower bound on the
+ * weight remaining, as in {@link AStar}.
+ *
+ * @author Dylon Edwards
+ */
+public class RangeConstrainedDijkstra extends Dijkstra {
+	
+	/** Holds the labels of each Thread using this RangeConstrainedDijkstra */
+	protected final ThreadLocal<Labels> labels = new ThreadLocal<Labels>() {
+		
+		@Override
+		protected Labels initialValue() {
+			return new Labels();
+		}
+	};
+	
+	/**
+	 * Holds the labels of a search: the Vertex, weight, range left and parent of
+	 * each label, along with the settled labels of each Vertex id
+	 */
+	protected static class Labels {
+		
+		/** Holds the id of the Vertex of each label */
+		protected int[] vertices = new int[64];
+		
+		/** Holds the weight of the path of each label */
+		protected float[] weights = new float[64];
+		
+		/** Holds the range left at the end of the path of each label */
+		protected float[] ranges = new float[64];
+		
+		/** Holds the label preceding each label along its path, or -1 if there is none */
+		protected int[] parents = new int[64];
+		
+		/** Holds the next settled label of the same Vertex as each label, or -1 */
+		protected int[] nextSettled = new int[64];
+		
+		/** Holds the number of labels */
+		protected int size;
+		
+		/** Holds the first settled label of each Vertex id, valid only where stamped */
+		protected int[] firstSettled = new int[0];
+		
+		/** Holds the generation in which each entry of firstSettled was written */
+		protected int[] stamps = new int[0];
+		
+		/**
+		 * Holds the label last queued of each Vertex id where the Airplane refuels,
+		 * valid only where stamped
+		 */
+		protected int[] refueled = new int[0];
+		
+		/** Holds the generation in which each entry of refueled was written */
+		protected int[] refueledStamps = new int[0];
+		
+		/** Holds the generation of the current search */
+		protected int generation;
+		
+		/** Holds the queue of labels waiting to be settled */
+		protected final IndexedHeap queue = new IndexedHeap(64);
+		
+		/**
+		 * Starts a new search over a graph with the given number of Vertex ids
+		 *
+		 * @param capacity The number of Vertex ids in the graph being searched
+		 */
+		protected void reset(int capacity) {
+			if (capacity > stamps.length) {
+				int newCapacity = Math.max(capacity, stamps.length * 2);
+				
+				firstSettled = Arrays.copyOf(firstSettled, newCapacity);
+				stamps = Arrays.copyOf(stamps, newCapacity);
+				refueled = Arrays.copyOf(refueled, newCapacity);
+				refueledStamps = Arrays.copyOf(refueledStamps, newCapacity);
+			}
+			
+			size = 0;
+			queue.clear();
+			
+			if (++ generation == 0) {
+				Arrays.fill(stamps, 0);
+				Arrays.fill(refueledStamps, 0);
+				generation = 1;
+			}
+		}
+		
+		/**
+		 * Adds a label
+		 *
+		 * @param vertex The id of the Vertex of the label
+		 * @param weight The weight of the path of the label
+		 * @param range  The range left at the end of the path
+		 * @param parent The label preceding the new one, or -1 if there is none
+		 * @return The new label
+		 */
+		protected int add(int vertex, float weight, float range, int parent) {
+			if (size == vertices.length) {
+				int newCapacity = size * 2;
+				
+				vertices = Arrays.copyOf(vertices, newCapacity);
+				weights = Arrays.copyOf(weights, newCapacity);
+				ranges = Arrays.copyOf(ranges, newCapacity);
+				parents = Arrays.copyOf(parents, newCapacity);
+				nextSettled = Arrays.copyOf(nextSettled, newCapacity);
+				queue.ensureCapacity(newCapacity);
+			}
+			
+			vertices[size] = vertex;
+			weights[size] = weight;
+			ranges[size] = range;
+			parents[size] = parent;
+			nextSettled[size] = -1;
+			
+			return size ++;
+		}
+		
+		/**
+		 * Returns the first settled label of a Vertex id
+		 *
+		 * @param vertex The id of the Vertex
+		 * @return The first settled label of vertex, or -1 if there is none
+		 */
+		protected int getFirstSettled(int vertex) {
+			return vertex < stamps.length && stamps[vertex] == generation ?
+				firstSettled[vertex] : -1;
+		}
+		
+		/**
+		 * Returns the label of a Vertex id where the Airplane refuels last added to
+		 * the queue
+		 *
+		 * @param vertex The id of the Vertex
+		 * @return The label of vertex last queued, or -1 if there is none
+		 */
+		protected int getRefueled(int vertex) {
+			return refueledStamps[vertex] == generation ? refueled[vertex] : -1;
+		}
+		
+		/**
+		 * Records the label of a Vertex id where the Airplane refuels last added to
+		 * the queue
+		 *
+		 * @param vertex The id of the Vertex
+		 * @param label  The label of vertex added to the queue
+		 */
+		protected void setRefueled(int vertex, int label) {
+			refueled[vertex] = label;
+			refueledStamps[vertex] = generation;
+		}
+		
+		/**
+		 * Settles a label, adding it to the settled labels of its Vertex
+		 *
+		 * @param label The label to settle
+		 */
+		protected void settle(int label) {
+			int vertex = vertices[label];
+			
+			nextSettled[label] = getFirstSettled(vertex);
+			firstSettled[vertex] = label;
+			stamps[vertex] = generation;
+		}
+		
+		/**
+		 * Returns whether a settled label of a Vertex id has at least the given range
+		 * left, and so dominates any label of the Vertex settled later
+		 *
+		 * @param vertex The id of the Vertex
+		 * @param range  The range left
+		 * @return Whether a settled label of vertex has at least range left
+		 */
+		protected boolean isDominated(int vertex, float range) {
+			for (int label = getFirstSettled(vertex); label != -1; label = nextSettled[label]) {
+				if (ranges[label] >= range) {
+					return true;
+				}
+			}
+			
+			return false;
+		}
+	}
+	
+	/**
+	 * Constructs a RangeConstrainedDijkstra which estimates the weight remaining to
+	 * the target with a {@link StraightLineHeuristic}
+	 */
+	public RangeConstrainedDijkstra() {
+		this(new StraightLineHeuristic());
+	}
+	
+	/**
+	 * Constructs a RangeConstrainedDijkstra with the given {@link Heuristic}
+	 *
+	 * @param heuristic The {@link Heuristic} which estimates the weight remaining
+	 *                  to the target, or null to expand uniformly
+	 */
+	public RangeConstrainedDijkstra(Heuristic heuristic) {
+		this.heuristic = heuristic;
+	}
+	
+	/**
+	 * Computes the shortest paths the {@link Airplane} can fly from the origin vertex
+	 * to each of the target vertices, departing with a full tank, in one search which
+	 * stops once every target is settled, unless this RangeConstrainedDijkstra has a
+	 * {@link Heuristic}, since a search directed toward each target in turn settles
+	 * far fewer labels than one directed toward none
+	 *
+	 * @param a        The origin {@link Vertex} from which the shortest paths are calculated
+	 * @param targets  The target {@link Vertex} nodes to which the shortest paths are
+	 *                 calculated
+	 * @param airplane The {@link Airplane} being used to traverse the paths
+	 * @return Whether the paths were computed, which they are only without a
+	 *         {@link Heuristic}
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	@Override
+	public boolean computePaths(Vertex a, Collection<? extends Vertex> targets, Airplane airplane)
+	                            throws VertexException {
+		
+		if (a == null) {
+			throw new NullPointerException("a may not be null");
+		}
+		
+		if (targets == null) {
+			throw new NullPointerException("targets may not be null");
+		}
+		
+		if (airplane == null) {
+			throw new NullPointerException("airplane may not be null");
+		}
+		
+		if (heuristic != null) {
+			return false;
+		}
+		
+		// `a' is settled first, so it need not be sought
+		HashSet<Vertex> remaining = new HashSet<Vertex>(targets);
+		remaining.remove(a);
+		
+		if (!remaining.isEmpty()) {
+			search(a, null, remaining, airplane, 0);
+		} else {
+			search(a, a, null, airplane, 0);
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Computes the shortest path the {@link Airplane} can fly from the origin vertex
+	 * to the target vertex, departing with a full tank
+	 *
+	 * @param a        The origin {@link Vertex} from which the shortest path is calculated
+	 * @param z        The target {@link Vertex} to which the shortest path is calculated
+	 * @param airplane The {@link Airplane} being used to traverse the path
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	@Override
+	public void computePath(Vertex a, Vertex z, Airplane airplane) throws VertexException {
+		computePath(a, z, airplane, 0);
+	}
+	
+	/**
+	 * Computes the shortest path the {@link Airplane} can fly from the origin vertex
+	 * to the target vertex, having already flown the given distance since refueling
+	 *
+	 * @param a             The origin {@link Vertex} from which the shortest path is calculated
+	 * @param z             The target {@link Vertex} to which the shortest path is calculated
+	 * @param airplane      The {@link Airplane} being used to traverse the path
+	 * @param distanceFlown The distance flown since the Airplane last refueled
+	 * @throws NullPointerException When any of the parameters is null
+	 */
+	@Override
+	public void computePath(Vertex a, Vertex z, Airplane airplane, float distanceFlown)
+	                        throws VertexException {
+		
+		if (a == null) {
+			throw new NullPointerException("a may not be null");
+		}
+		
+		if (z == null) {
+			throw new NullPointerException("z may not be null");
+		}
+		
+		if (airplane == null) {
+			throw new NullPointerException("airplane may not be null");
+		}
+		
+		search(a, z, null, airplane, distanceFlown);
+	}
+	
+	/**
+	 * Searches the labels of the paths the {@link Airplane} can fly from the origin
+	 * vertex, recording the minimum weight of each {@link Vertex} settled
+	 *
+	 * @param a             The origin {@link Vertex} from which the paths are flown
+	 * @param z             The target {@link Vertex} toward which to direct the
+	 *                      search and at which to stop, or null if there is none
+	 * @param targets       The target {@link Vertex} nodes not settled yet, once all
+	 *                      of which are the search stops, or null if there are none
+	 * @param airplane      The {@link Airplane} being used to traverse the paths
+	 * @param distanceFlown The distance flown since the Airplane last refueled
+	 */
+	protected void search(Vertex a, Vertex z, HashSet<Vertex> targets, Airplane airplane,
+	                      float distanceFlown) {
+		
+		// Only direct the search when there is a target to direct it to
+		Heuristic heuristic = z != null ? this.heuristic : null;
+		
+		FlightPlan flightPlan = a.flightPlan;
+		Airplane.AirplaneType type = airplane.getType();
+		float range = airplane.getRange();
+		
+		Labels labels = this.labels.get();
+		labels.reset(flightPlan.getVertexIdCount());
+		
+		IndexedHeap labelQueue = labels.queue;
+		
+		SearchContext context = getSearchContext();
+		context.reset(flightPlan.getVertexIdCount());
+		
+		// Holds the Edges of the flight plan being found
+		RoutingGraph graph = flightPlan.getSearchGraph();
+		
+		// The Airplane leaves `a' with a full tank if it refuels there
+		int label = labels.add(
+			a.getId(), 0, canRefuel(a, type) ? range : range - distanceFlown, -1
+		);
+		labelQueue.addOrDecreaseKey(label, heuristic != null ? heuristic.getLowerBound(a, z) : 0);
+		
+		while (!labelQueue.isEmpty()) {
+			label = labelQueue.poll();
+			
+			int uId = labels.vertices[label];
+			float uWeight = labels.weights[label];
+			float uRange = labels.ranges[label];
+			
+			// Every label settled before this one weighs no more, so one with as
+			// much range left makes this one useless
+			if (labels.isDominated(uId, uRange)) {
+				continue;
+			}
+			
+			Vertex u = flightPlan.getVertex(uId);
+			
+			// The first label of `u' settled has its shortest feasible path
+			boolean first = labels.getFirstSettled(uId) == -1;
+			
+			if (first) {
+				int parent = labels.parents[label];
+				context.setMinWeight(uId, uWeight, parent != -1 ? labels.vertices[parent] : -1);
+			}
+			
+			labels.settle(label);
+			context.settle();
+			
+			if (u == z || first && targets != null && targets.remove(u) && targets.isEmpty()) {
+				break;
+			}
+			
+			// The Airplane cannot fly farther than the range it has left, so only
+			// the Edges within it are followed
+			for (int e = graph.getFirstEdge(uId, uRange); e != -1; e = graph.getNextEdge(uId, e, uRange)) {
+				float weight = graph.getWeight(e);
+				int vId = graph.getTarget(e);
+				Vertex v = flightPlan.getVertex(vId);
+				boolean refuels = canRefuel(v, type);
+				float vRange = refuels ? range : uRange - weight;
+				
+				if (labels.isDominated(vId, vRange)) {
+					continue;
+				}
+				
+				float weightThroughU = uWeight + weight;
+				float key = heuristic != null ? weightThroughU + heuristic.getLowerBound(v, z)
+				                              : weightThroughU;
+				
+				// Every label of `v' leaves it with a full tank, so only the lightest
+				// need wait in the queue, as in Dijkstra's algorithm
+				int vLabel = refuels ? labels.getRefueled(vId) : -1;
+				
+				if (vLabel != -1 && labelQueue.contains(vLabel)) {
+					if (weightThroughU < labels.weights[vLabel]) {
+						labels.weights[vLabel] = weightThroughU;
+						labels.parents[vLabel] = label;
+						labelQueue.addOrDecreaseKey(vLabel, key);
+					}
+					
+					continue;
+				}
+				
+				vLabel = labels.add(vId, weightThroughU, vRange, label);
+				labelQueue.addOrDecreaseKey(vLabel, key);
+				
+				if (refuels) {
+					labels.setRefueled(vId, vLabel);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the {@link Vertex} nodes of the shortest path to the target vertex
+	 * found by the last search on the current Thread, read back from the parents
+	 * of the first label of the target settled
+	 *
+	 * @param z The target vertex of the last search on the current Thread
+	 * @return The {@link Vertex} nodes of the path, from the source vertex to z
+	 * @throws DijkstraException When the last search never reached z
+	 * @throws NullPointerException When z is null
+	 */
+	@Override
+	public ArrayList<Vertex> getPathVertices(Vertex z) throws DijkstraException {
+		Labels labels = this.labels.get();
+		
+		// The settled labels of `z' are held from the last settled to the first
+		int label = labels.getFirstSettled(z.getId());
+		
+		if (label == -1) {
+			throw new DijkstraException(
+				"Due to lack of refueling facilities, this trip is impossible."
+			);
+		}
+		
+		while (labels.nextSettled[label] != -1) {
+			label = labels.nextSettled[label];
+		}
+		
+		ArrayList<Vertex> vertices = new ArrayList<Vertex>();
+		for (; label != -1; label = labels.parents[label]) {
+			vertices.add(z.flightPlan.getVertex(labels.vertices[label]));
+		}
+		
+		Collections.reverse(vertices);
+		
+		return vertices;
+	}
+}
\ No newline at end of file
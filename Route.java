@@ -0,0 +1,67 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.ArrayList;
+
+/**
+ * Holds one of the alternative routes between two {@link Airport}s, as the
+ * {@link Destination}s visited along it, with the distance and time required to
+ * fly it
+ *
+ * @author Dylon Edwards
+ */
+public class Route {
+	
+	/** Holds the Destinations visited along this Route, in the order flown */
+	protected final ArrayList<Destination> destinations;
+	
+	/** Holds the distance in Kilometers flown along this Route */
+	protected final float distance;
+	
+	/** Holds the time in hours required to fly this Route */
+	protected final float time;
+	
+	/**
+	 * Constructs a Route through the given Destinations
+	 *
+	 * @param destinations The Destinations visited along the Route, in the order flown
+	 * @param distance     The distance flown along the Route
+	 * @param time         The time required to fly the Route
+	 * @throws NullPointerException When destinations is null
+	 */
+	public Route(ArrayList<Destination> destinations, float distance, float time) {
+		if (destinations == null) {
+			throw new NullPointerException("destinations may not be null");
+		}
+		
+		this.destinations = destinations;
+		this.distance = distance;
+		this.time = time;
+	}
+	
+	/**
+	 * Returns the Destinations visited along this Route
+	 *
+	 * @return The {@link #destinations} attribute
+	 */
+	public ArrayList<Destination> getDestinations() {
+		return destinations;
+	}
+	
+	/**
+	 * Returns the distance flown along this Route
+	 *
+	 * @return The {@link #distance} attribute
+	 */
+	public float getDistance() {
+		return distance;
+	}
+	
+	/**
+	 * Returns the time required to fly this Route
+	 *
+	 * @return The {@link #time} attribute
+	 */
+	public float getTime() {
+		return time;
+	}
+}
\ No newline at end of file
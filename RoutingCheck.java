@@ -0,0 +1,556 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks each routing engine which promises the results of a simpler search
+ * against that search, over small databases of {@link Airport}s generated from a
+ * fixed seed, so that a difference shows up the same way on every run.  Each
+ * check prints how many cases it compared and how many of them differed, and the
+ * program exits with a status of 1 if any did.
+ * <br /><br />
+ * The Flight Planner is built without a test suite, so the checks are run by
+ * hand, as with <code>java edu.usca.acsc492l.flightplanner.RoutingCheck</code>,
+ * after changing any of the engines checked.
+ *
+ * @author Dylon Edwards
+ */
+public class RoutingCheck {
+	
+	/** Holds the seed from which every database and case is generated */
+	protected static final long SEED = 42;
+	
+	/** Holds the {@link FlightPlan} whose database is searched */
+	protected final FlightPlan flightPlan = new FlightPlan();
+	
+	/** Holds the {@link Airport}s of the database, in the order they were added */
+	protected final ArrayList<Airport> airports = new ArrayList<Airport>();
+	
+	/** Holds the {@link Airplane} which flies every path checked */
+	protected final Airplane airplane;
+	
+	/** Holds the generator of the database and of the cases checked */
+	protected final Random random;
+	
+	/** Holds the height of the region over which the Vertex nodes are scattered, in degrees */
+	protected final int degrees;
+	
+	/** Holds the Coordinates taken, since no two Vertex nodes may share one */
+	protected final HashSet<String> coordinates = new HashSet<String>();
+	
+	/** Holds the number of nearest neighbors joined by airways, or 0 if there are none */
+	protected int airwayDegree = 0;
+	
+	/**
+	 * Constructs a RoutingCheck over a database of Airports scattered at random
+	 * over a region of the given size, about two thirds of which carry AVGAS, and
+	 * an {@link Airplane} which needs it
+	 *
+	 * @param seed         The seed from which the database and cases are generated
+	 * @param airportCount The number of {@link Airport}s in the database
+	 * @param degrees      The height of the region in degrees of latitude, which
+	 *                     is three times as wide in degrees of longitude
+	 * @param tankSize     The size of the fuel tank of the {@link Airplane} in
+	 *                     Liters, which sets its range
+	 * @throws FlightPlanException When an {@link Airport} or the {@link Airplane}
+	 *                             may not be created
+	 */
+	public RoutingCheck(long seed, int airportCount, int degrees, String tankSize)
+	                    throws FlightPlanException {
+		
+		this.random = new Random(seed);
+		this.degrees = degrees;
+		
+		for (int id = 0; id < airportCount; id ++) {
+			Airport airport = new Airport(
+				flightPlan, getICAOid('K', id), getICAOid('K', id) + " Airport",
+				random.nextInt(3) > 0, random.nextBoolean(), getFreeCoordinate(), "100"
+			);
+			
+			flightPlan.addAirport(airport);
+			airports.add(airport);
+		}
+		
+		airplane = new Airplane("Cessna", "172", Airplane.AirplaneType.PROP, tankSize, "35", "110", flightPlan);
+	}
+	
+	/**
+	 * Returns an ICAO ID of four letters, the first given and the rest spelling
+	 * out a number
+	 *
+	 * @param prefix The first letter of the ICAO ID
+	 * @param id     The number spelled out, less than 26<sup>3</sup>
+	 * @return The ICAO ID
+	 */
+	protected static String getICAOid(char prefix, int id) {
+		return "" + prefix + (char) ('A' + id / 676) + (char) ('A' + id / 26 % 26) + (char) ('A' + id % 26);
+	}
+	
+	/**
+	 * Returns a random Coordinate within the region which no Vertex has taken
+	 *
+	 * @return The Coordinate
+	 * @throws CoordinateException When the Coordinate is invalid
+	 */
+	protected Coordinate getFreeCoordinate() throws CoordinateException {
+		while (true) {
+			String latitude = Float.toString(30 + random.nextInt(degrees * 100) / 100f);
+			String longitude = Float.toString(-120 + random.nextInt(degrees * 300) / 100f);
+			
+			if (coordinates.add(latitude + "," + longitude)) {
+				return Coordinate.getValidCoordinate(latitude, longitude, null, flightPlan);
+			}
+		}
+	}
+	
+	/**
+	 * Scatters the given number of {@link NAVBeacon}s over the region, and joins
+	 * each Vertex to its nearest neighbors by airways, so the paths searched may
+	 * follow chains of NAVBeacons, where the {@link #airplane} cannot refuel
+	 *
+	 * @param beaconCount  The number of {@link NAVBeacon}s to add
+	 * @param airwayDegree The number of nearest neighbors to which each Vertex is joined
+	 * @return This RoutingCheck
+	 * @throws FlightPlanException When a {@link NAVBeacon} may not be created
+	 */
+	public RoutingCheck useAirways(int beaconCount, int airwayDegree) throws FlightPlanException {
+		for (int id = 0; id < beaconCount; id ++) {
+			flightPlan.addNAVBeacon(new NAVBeacon(
+				flightPlan, getICAOid('V', id), getICAOid('V', id) + " NAV Beacon",
+				NAVBeacon.NAVBeaconType.VOR, getFreeCoordinate()
+			));
+		}
+		
+		flightPlan.setAirwayDegree(airwayDegree);
+		this.airwayDegree = airwayDegree;
+		
+		return this;
+	}
+	
+	/**
+	 * Runs every check, and exits with a status of 1 if any case differed
+	 *
+	 * @param args The command line arguments, which are ignored
+	 * @throws FlightPlanException When a database may not be generated, or a
+	 *                             search may not be run
+	 */
+	public static void main(String[] args) throws FlightPlanException {
+		int failures = 0;
+		
+		failures += new RoutingCheck(SEED, 400, 10, "200").checkDeltaStepping(10);
+		failures += checkHeldKarp(new Random(SEED), 200, 8);
+		failures += new RoutingCheck(SEED, 150, 10, "40").checkDistanceMatrix(5, 6);
+		failures += new RoutingCheck(SEED, 10, 3, "100").checkKShortestPaths(20, 10);
+		failures += new RoutingCheck(SEED, 8, 3, "80").useAirways(8, 3).checkKShortestPaths(20, 10);
+		
+		System.exit(failures > 0 ? 1 : 0);
+	}
+	
+	/**
+	 * Prints the result of a check
+	 *
+	 * @param check    The name of the check
+	 * @param cases    The number of cases compared
+	 * @param failures The number of cases which differed
+	 * @return failures
+	 */
+	protected static int report(String check, int cases, int failures) {
+		System.out.println(
+			(failures > 0 ? "FAILED " : "passed ") + check + ": " + failures + " of " + cases + " cases differed"
+		);
+		
+		return failures;
+	}
+	
+	/**
+	 * Returns the {@link RoutingGraph} of the {@link #airplane}, connected and set
+	 * as the search graph of the {@link #flightPlan}; the
+	 * {@link FlightPlan#routingGraphLock} must be held, and
+	 * {@link RoutingGraph#detachAll()} called once the searches are done
+	 *
+	 * @return The search graph
+	 */
+	protected RoutingGraph getSearchGraph() {
+		RoutingGraph graph = flightPlan.getRoutingGraph(airplane);
+		graph.connect();
+		
+		flightPlan.searchGraph = graph;
+		flightPlan.searchRange = airplane.getRange();
+		
+		return graph;
+	}
+	
+	/**
+	 * Checks that the minimum weights and previous Vertex nodes found by a
+	 * {@link DeltaSteppingDijkstra} from random origins are those found by
+	 * Dijkstra's algorithm, which they must match exactly
+	 *
+	 * @param origins The number of origins from which to search
+	 * @return The number of origins from which any Airport differed
+	 * @throws FlightPlanException When a search may not be run
+	 */
+	public int checkDeltaStepping(int origins) throws FlightPlanException {
+		int failures = 0;
+		
+		synchronized (flightPlan.routingGraphLock) {
+			RoutingGraph graph = getSearchGraph();
+			
+			try {
+				for (int origin = 0; origin < origins; origin ++) {
+					Airport a = airports.get(random.nextInt(airports.size()));
+					graph.attach(a);
+					
+					Dijkstra dijkstra = new Dijkstra();
+					dijkstra.computePaths(a);
+					
+					DeltaSteppingDijkstra deltaStepping = new DeltaSteppingDijkstra();
+					deltaStepping.computePaths(a);
+					
+					for (Airport airport : airports) {
+						if (Float.compare(dijkstra.getMinWeight(airport), deltaStepping.getMinWeight(airport)) != 0 ||
+						    dijkstra.getPreviousVertex(airport) != deltaStepping.getPreviousVertex(airport)) {
+							
+							failures ++;
+							break;
+						}
+					}
+					
+					graph.detachAll();
+				}
+			} finally {
+				graph.detachAll();
+			}
+		}
+		
+		return report("delta-stepping against Dijkstra's algorithm", origins, failures);
+	}
+	
+	/**
+	 * Checks that each leg of the {@link DistanceMatrix} of random waypoints is as
+	 * long as the shortest path a {@link RangeConstrainedDijkstra} of its own finds
+	 * for that leg alone, and that it leads from the one waypoint to the other
+	 * and may be flown
+	 *
+	 * @param matrices  The number of sets of waypoints whose matrices to find
+	 * @param waypoints The number of waypoints in each set
+	 * @return The number of legs which differed
+	 * @throws FlightPlanException When a search may not be run
+	 */
+	public int checkDistanceMatrix(int matrices, int waypoints) throws FlightPlanException {
+		int legs = 0;
+		int failures = 0;
+		
+		for (int matrix = 0; matrix < matrices; matrix ++) {
+			List<Vertex> waypointList = new ArrayList<Vertex>();
+			
+			while (waypointList.size() < waypoints) {
+				Airport waypoint = airports.get(random.nextInt(airports.size()));
+				
+				if (!waypointList.contains(waypoint)) {
+					waypointList.add(waypoint);
+				}
+			}
+			
+			DistanceMatrix distances = flightPlan.getDistanceMatrix(waypointList, airplane);
+			
+			synchronized (flightPlan.routingGraphLock) {
+				RoutingGraph graph = getSearchGraph();
+				
+				try {
+					for (Vertex waypoint : waypointList) {
+						graph.attach(waypoint);
+					}
+					
+					for (int from = 0; from < waypoints; from ++) {
+						for (int to = 0; to < waypoints; to ++) {
+							if (from == to) {
+								continue;
+							}
+							
+							Vertex a = waypointList.get(from);
+							Vertex z = waypointList.get(to);
+							
+							RangeConstrainedDijkstra dijkstra = new RangeConstrainedDijkstra();
+							dijkstra.computePath(a, z, airplane);
+							
+							legs ++;
+							
+							if (Float.compare(distances.getDistance(from, to), dijkstra.getMinWeight(z)) != 0 ||
+							    !isFlyable(distances.getLeg(from, to), a, z, distances.getDistance(from, to))) {
+								
+								failures ++;
+							}
+						}
+					}
+				} finally {
+					graph.detachAll();
+				}
+			}
+		}
+		
+		return report("distance matrix against a search per leg", legs, failures);
+	}
+	
+	/**
+	 * Returns whether a leg leads from one Vertex to another, and the
+	 * {@link #airplane} can fly it, departing with a full tank, if it may be flown
+	 * at all, and is empty otherwise
+	 *
+	 * @param leg      The {@link Vertex} nodes of the leg
+	 * @param a        The {@link Vertex} from which the leg must lead
+	 * @param z        The {@link Vertex} to which the leg must lead
+	 * @param distance The distance of the leg, infinite if it may not be flown
+	 * @return Whether the leg is as it should be
+	 */
+	protected boolean isFlyable(List<Vertex> leg, Vertex a, Vertex z, float distance) {
+		if (distance == Float.POSITIVE_INFINITY) {
+			return leg.isEmpty();
+		}
+		
+		if (leg.isEmpty() || leg.get(0) != a || leg.get(leg.size() - 1) != z) {
+			return false;
+		}
+		
+		try {
+			new Dijkstra().getShortestPath(new ArrayList<Vertex>(leg), airplane, 0);
+		} catch (DijkstraException exception) {
+			return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Checks that the paths found by {@link KShortestPaths} between random pairs of
+	 * Airports are as long as the shortest paths found by listing every path the
+	 * {@link #airplane} can fly without visiting a Vertex twice, shortest first,
+	 * and that each of them is such a path
+	 *
+	 * @param pairs The number of pairs of Airports between which to find paths
+	 * @param count The number of paths to find between each pair
+	 * @return The number of pairs between which the paths differed
+	 * @throws FlightPlanException When a search may not be run
+	 */
+	public int checkKShortestPaths(int pairs, int count) throws FlightPlanException {
+		int failures = 0;
+		
+		for (int pair = 0; pair < pairs; pair ++) {
+			Airport a = airports.get(random.nextInt(airports.size()));
+			Airport z = airports.get(random.nextInt(airports.size()));
+			
+			if (a == z) {
+				pair --;
+				continue;
+			}
+			
+			synchronized (flightPlan.routingGraphLock) {
+				RoutingGraph graph = getSearchGraph();
+				
+				try {
+					graph.attach(a);
+					graph.attach(z);
+					
+					List<ArrayList<Vertex>> paths = new KShortestPaths().getPaths(a, z, airplane, count);
+					
+					ArrayList<Float> distances = new ArrayList<Float>();
+					BitSet visited = new BitSet();
+					visited.set(a.getId());
+					
+					listPaths(graph, a.getId(), z.getId(), visited, 0, airplane.getRange(), distances);
+					Collections.sort(distances);
+					
+					boolean differs = paths.size() != Math.min(count, distances.size());
+					
+					for (int path = 0; !differs && path < paths.size(); path ++) {
+						ArrayList<Vertex> vertices = paths.get(path);
+						float distance = getDistance(vertices);
+						
+						differs = new HashSet<Vertex>(vertices).size() != vertices.size() ||
+						          !isFlyable(vertices, a, z, distance) ||
+						          Math.abs(distance - distances.get(path)) > distance * 1e-5f;
+					}
+					
+					if (differs) {
+						failures ++;
+					}
+				} finally {
+					graph.detachAll();
+				}
+			}
+		}
+		
+		return report(
+			"k shortest paths against every path" + (airwayDegree > 0 ? " along airways" : ""), pairs, failures
+		);
+	}
+	
+	/**
+	 * Lists the distance of every path the {@link #airplane} can fly from a Vertex to
+	 * the target without visiting any Vertex twice, refueling wherever it can
+	 *
+	 * @param graph     The {@link RoutingGraph} searched
+	 * @param u         The id of the Vertex reached
+	 * @param z         The id of the target Vertex
+	 * @param visited   The ids of the Vertex nodes visited so far, u included
+	 * @param distance  The distance flown so far
+	 * @param range     The range the Airplane has left at u
+	 * @param distances The distance of each path found, to which those found are added
+	 */
+	protected void listPaths(RoutingGraph graph, int u, int z, BitSet visited, float distance,
+	                         float range, ArrayList<Float> distances) {
+		
+		if (u == z) {
+			distances.add(distance);
+			return;
+		}
+		
+		for (int e = graph.getFirstEdge(u, range); e != -1; e = graph.getNextEdge(u, e, range)) {
+			int v = graph.getTarget(e);
+			
+			if (visited.get(v)) {
+				continue;
+			}
+			
+			Vertex vertex = flightPlan.getVertex(v);
+			float weight = Edge.getWeight(flightPlan.getVertex(u), vertex);
+			float vRange = Dijkstra.canRefuel(vertex, airplane.getType()) ? airplane.getRange()
+			                                                               : range - graph.getWeight(e);
+			
+			visited.set(v);
+			listPaths(graph, v, z, visited, distance + weight, vRange, distances);
+			visited.clear(v);
+		}
+	}
+	
+	/**
+	 * Returns the distance flown along a path, summed from its first leg to its last
+	 *
+	 * @param vertices The {@link Vertex} nodes of the path
+	 * @return The distance of the path
+	 */
+	protected static float getDistance(List<Vertex> vertices) {
+		float distance = 0;
+		
+		for (int vertex = 1; vertex < vertices.size(); vertex ++) {
+			distance += Edge.getWeight(vertices.get(vertex - 1), vertices.get(vertex));
+		}
+		
+		return distance;
+	}
+	
+	/**
+	 * Checks that the order of the stops found by {@link HeldKarp} flies no farther
+	 * than the shortest order found by trying every one, over random distances, a
+	 * tenth of which are infinite, between at most the given number of stops
+	 *
+	 * @param random   The generator of the distances
+	 * @param cases    The number of sets of distances to order
+	 * @param maxStops The largest number of stops to order
+	 * @return The number of sets of distances ordered differently
+	 */
+	public static int checkHeldKarp(Random random, int cases, int maxStops) {
+		int failures = 0;
+		
+		for (int test = 0; test < cases; test ++) {
+			int waypoints = random.nextInt(maxStops + 1) + 2;
+			float[][] distances = new float[waypoints][waypoints];
+			
+			for (int from = 0; from < waypoints; from ++) {
+				for (int to = 0; to < waypoints; to ++) {
+					distances[from][to] = random.nextInt(10) == 0 ? Float.POSITIVE_INFINITY
+					                                               : random.nextInt(100000) / 100f;
+				}
+			}
+			
+			int[] order = new HeldKarp().order(distances);
+			
+			// Holds whether each stop is visited, which every order must do once
+			boolean[] visited = new boolean[waypoints];
+			boolean permutation = order.length == waypoints - 2;
+			
+			for (int stop : order) {
+				permutation &= stop >= 1 && stop <= waypoints - 2 && !visited[stop];
+				visited[Math.max(0, Math.min(stop, waypoints - 1))] = true;
+			}
+			
+			int[] stops = new int[waypoints - 2];
+			for (int stop = 0; stop < stops.length; stop ++) {
+				stops[stop] = stop + 1;
+			}
+			
+			if (!permutation ||
+			    Float.compare(getTourDistance(distances, order), getShortestTourDistance(distances, stops, 0)) != 0) {
+				
+				failures ++;
+			}
+		}
+		
+		return report("Held-Karp against every order of the stops", cases, failures);
+	}
+	
+	/**
+	 * Returns the distance flown from the first waypoint, through the stops in
+	 * the given order, to the last waypoint, summed from the first leg to the last
+	 * as {@link HeldKarp} sums them
+	 *
+	 * @param distances The distance from each waypoint to each other
+	 * @param order     The indices of the stops in the order in which they are visited
+	 * @return The distance flown
+	 */
+	protected static float getTourDistance(float[][] distances, int[] order) {
+		float distance = 0;
+		int from = 0;
+		
+		for (int stop : order) {
+			distance += distances[from][stop];
+			from = stop;
+		}
+		
+		return distance + distances[from][distances.length - 1];
+	}
+	
+	/**
+	 * Returns the shortest distance of any order of the stops which keeps those
+	 * before the given index in place, trying each stop after it in turn at the
+	 * index
+	 *
+	 * @param distances The distance from each waypoint to each other
+	 * @param stops     The indices of the stops, which are swapped about in place
+	 *                  and restored before returning
+	 * @param index     The index of the first stop which may be moved
+	 * @return The shortest distance of any such order
+	 */
+	protected static float getShortestTourDistance(float[][] distances, int[] stops, int index) {
+		if (index == stops.length) {
+			return getTourDistance(distances, stops);
+		}
+		
+		float shortest = Float.POSITIVE_INFINITY;
+		
+		for (int stop = index; stop < stops.length; stop ++) {
+			swap(stops, index, stop);
+			shortest = Math.min(shortest, getShortestTourDistance(distances, stops, index + 1));
+			swap(stops, index, stop);
+		}
+		
+		return shortest;
+	}
+	
+	/**
+	 * Swaps two entries of an array
+	 *
+	 * @param array The array whose entries to swap
+	 * @param i     The index of one entry
+	 * @param j     The index of the other
+	 */
+	protected static void swap(int[] array, int i, int j) {
+		int entry = array[i];
+		array[i] = array[j];
+		array[j] = entry;
+	}
+}
\ No newline at end of file
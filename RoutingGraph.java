@@ -0,0 +1,762 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Holds the {@link Edge}s between the {@link Airport}s at which the {@link Airplane}s
+ * of one type may refuel, up to the longest range of any of them, which every flight
+ * plan of that type flies between.  Rather than being rebuilt for each flight plan,
+ * the Edges are kept from one to the next, and once Airports have changed, only
+ * the rows of those Airports and of the Airports in range of them are found again,
+ * so a flight plan need only attach its own destinations to the Airports in range.
+ * <br /><br />
+ * The Edges between the Airports are held in a {@link CompressedGraph}, and those of
+ * the attached destinations in a few arrays beside it, so a search walks the Edges
+ * of a Vertex id within the range of its Airplane with
+ * {@link #getFirstEdge(int, float)} and {@link #getNextEdge(int, int, float)},
+ * reading each with {@link #getTarget(int)} and {@link #getWeight(int)}, without
+ * touching a single Edge object.  The Edges of a Vertex id are those of the
+ * CompressedGraph, nearest first, followed by those attached.
+ * <br /><br />
+ * Where there are too many Edges between the Airports to hold at once, a
+ * RoutingGraph may instead be given a {@link NeighborCache} size, so the Edges of
+ * each Airport are only generated once a search reaches it, and only those of the
+ * Airports searched most recently are kept.
+ * <br /><br />
+ * A RoutingGraph may instead be given an {@link #setAirwayDegree(int) airway
+ * degree}, so its Edges are those of an {@link AirwayGraph}, which joins each
+ * {@link NAVBeacon} and Airport to only its nearest neighbors, and routes follow
+ * chains of NAVBeacons between the Airports.
+ * <br /><br />
+ * Each connection which changes any Edges starts a new {@link #getVersion()
+ * version}, and the Vertex ids whose Edges changed in the latest versions are
+ * kept, so an incremental search such as {@link LifelongPlanningAStar} may repair
+ * its results rather than starting over.
+ * <br /><br />
+ * A RoutingGraph is not itself safe for use by several Threads, save for
+ * {@link #update(Vertex)} and {@link #remove(Vertex)}; its {@link FlightPlan}
+ * only uses it while holding its {@link FlightPlan#routingGraphLock lock}, though
+ * any number of Threads may search it at once while nothing changes it.
+ *
+ * @author Dylon Edwards
+ */
+public class RoutingGraph {
+	
+	/** Numbers the attached Edges after every Edge of the {@link #adjacency} */
+	protected static final int ATTACHED_EDGES = 1 << 30;
+	
+	/** Holds the number of versions whose changed Vertex ids are kept */
+	protected static final int CHANGE_LOG_SIZE = 64;
+	
+	/** Holds the type of the {@link Airplane}s served */
+	protected final Airplane.AirplaneType type;
+	
+	/** Holds the longest range of the {@link Airplane}s served */
+	protected final float range;
+	
+	/** Holds the {@link Airport}s at which the {@link Airplane}s may refuel */
+	protected final ArrayList<Airport> airports = new ArrayList<Airport>();
+	
+	/** Holds the {@link Airport}s at which the {@link Airplane}s may refuel by location */
+	protected final SpatialIndex<Airport> index;
+	
+	/** Holds the {@link NAVBeacon}s in the database, which only airways join, by id */
+	protected final Hashtable<Integer, NAVBeacon> beacons = new Hashtable<Integer, NAVBeacon>();
+	
+	/**
+	 * Holds the Edges between the {@link Airport}s: a {@link CompressedGraph}, a
+	 * {@link NeighborCache} when its size is set, or an {@link AirwayGraph} when the
+	 * airway degree is set
+	 */
+	protected Adjacency adjacency;
+	
+	/** Holds the number of Edges kept by the {@link NeighborCache}, or 0 if none is used */
+	protected int neighborCacheSize = 0;
+	
+	/**
+	 * Holds the number of nearest neighbors to which the {@link AirwayGraph} joins
+	 * each Vertex, or 0 if none is used
+	 */
+	protected int airwayDegree = 0;
+	
+	/**
+	 * Holds the Vertex nodes which have changed since they were last connected,
+	 * each with whether it is still in the database and open
+	 */
+	protected final LinkedHashMap<Vertex, Boolean> changedVertices =
+		new LinkedHashMap<Vertex, Boolean>();
+	
+	/** Holds the number of connections which have changed any Edges */
+	protected long version = 0;
+	
+	/**
+	 * Holds the ids of the Vertex nodes whose Edges changed in each of the latest
+	 * {@link #CHANGE_LOG_SIZE} versions, the oldest first
+	 */
+	protected final LinkedList<BitSet> changeLog = new LinkedList<BitSet>();
+	
+	/** Holds the Vertex nodes attached for the current flight plan */
+	protected final ArrayList<Vertex> attachedVertices = new ArrayList<Vertex>();
+	
+	/** Holds the first attached Edge of each Vertex id, or -1 if there is none */
+	protected int[] attachedHeads = new int[0];
+	
+	/** Holds the Vertex id to which each attached Edge leads */
+	protected int[] attachedTargets = new int[16];
+	
+	/** Holds the weight of each attached Edge */
+	protected float[] attachedWeights = new float[16];
+	
+	/** Holds the next attached Edge of the same Vertex as each, or -1 */
+	protected int[] attachedNext = new int[16];
+	
+	/** Holds the number of attached Edges */
+	protected int attachedEdgeCount = 0;
+	
+	/**
+	 * Constructs a RoutingGraph for the given type of {@link Airplane}, which
+	 * connects the given {@link Airport}s the first time it is
+	 * {@link #connect() connected}
+	 *
+	 * @param airports The {@link Airport}s at which the {@link Airplane}s may refuel
+	 * @param type     The type of the {@link Airplane}s served
+	 * @param range    The longest range of the {@link Airplane}s served
+	 * @throws NullPointerException When airports or type is null
+	 */
+	public RoutingGraph(Airport[] airports, Airplane.AirplaneType type, float range) {
+		this(airports, new NAVBeacon[0], type, range);
+	}
+	
+	/**
+	 * Constructs a RoutingGraph for the given type of {@link Airplane}, which
+	 * connects the given {@link Airport}s the first time it is
+	 * {@link #connect() connected}, and the given {@link NAVBeacon}s too once its
+	 * {@link #setAirwayDegree(int) airway degree} is set
+	 *
+	 * @param airports The {@link Airport}s at which the {@link Airplane}s may refuel
+	 * @param beacons  The {@link NAVBeacon}s in the database
+	 * @param type     The type of the {@link Airplane}s served
+	 * @param range    The longest range of the {@link Airplane}s served
+	 * @throws NullPointerException When airports, beacons or type is null
+	 */
+	public RoutingGraph(Airport[] airports, NAVBeacon[] beacons, Airplane.AirplaneType type,
+	                    float range) {
+		
+		if (type == null) {
+			throw new NullPointerException("type may not be null");
+		}
+		
+		this.type = type;
+		this.range = range;
+		index = new SpatialIndex<Airport>(range);
+		adjacency = new CompressedGraph(new Airport[0], index, range);
+		
+		for (Airport airport : airports) {
+			update(airport);
+		}
+		
+		for (NAVBeacon beacon : beacons) {
+			update(beacon);
+		}
+	}
+	
+	/**
+	 * Records that an {@link Airport} has changed, whether it has gained or lost
+	 * the fuel of the {@link Airplane}s served or has moved, or that a
+	 * {@link NAVBeacon} has been added or has moved, so it is reconnected the next
+	 * time this RoutingGraph is {@link #connect() connected}
+	 *
+	 * @param vertex The Vertex which has changed
+	 * @return Whether no other Vertex was waiting to be reconnected
+	 */
+	public boolean update(Vertex vertex) {
+		return update(vertex, true);
+	}
+	
+	/**
+	 * Records that an {@link Airport} or {@link NAVBeacon} has been removed from
+	 * the database, or an Airport closed, so it is disconnected the next time this
+	 * RoutingGraph is {@link #connect() connected}, whatever fuel it carries
+	 *
+	 * @param vertex The Vertex which has been removed or closed
+	 * @return Whether no other Vertex was waiting to be reconnected
+	 */
+	public boolean remove(Vertex vertex) {
+		return update(vertex, false);
+	}
+	
+	/**
+	 * Records that a Vertex has changed
+	 *
+	 * @param vertex The Vertex which has changed
+	 * @param open   Whether vertex is still in the database and open
+	 * @return Whether no other Vertex was waiting to be reconnected
+	 */
+	protected boolean update(Vertex vertex, boolean open) {
+		synchronized (changedVertices) {
+			boolean wasEmpty = changedVertices.isEmpty();
+			
+			// Move vertex to the end, so the latest change is applied last
+			changedVertices.remove(vertex);
+			changedVertices.put(vertex, open);
+			return wasEmpty;
+		}
+	}
+	
+	/**
+	 * Reconnects every {@link Airport} which has changed since this RoutingGraph
+	 * was last connected, finding the rows of the {@link CompressedGraph} again for
+	 * only the changed Airports and those in range of where they were and are, or
+	 * discarding those rows from the {@link NeighborCache}, so the time taken grows
+	 * with the number of Airports changed rather than with the number connected;
+	 * the NeighborCache is also trimmed back to its size, so no search may be
+	 * running.  The {@link AirwayGraph}, whose Edges depend on the nearest
+	 * neighbors of each Vertex rather than on those in range, is built again
+	 * whenever any Vertex has changed.
+	 */
+	public void connect() {
+		Vertex[] changedVertices;
+		Boolean[] changedOpen;
+		
+		synchronized (this.changedVertices) {
+			changedVertices = this.changedVertices.keySet().toArray(new Vertex[0]);
+			changedOpen = this.changedVertices.values().toArray(new Boolean[0]);
+			this.changedVertices.clear();
+		}
+		
+		// Holds the changed Airports, since the NAVBeacons are only joined by airways
+		ArrayList<Airport> changedAirports = new ArrayList<Airport>();
+		ArrayList<Boolean> airportsOpen = new ArrayList<Boolean>();
+		
+		for (int vertex = 0; vertex < changedVertices.length; vertex ++) {
+			if (changedVertices[vertex] instanceof Airport) {
+				changedAirports.add((Airport) changedVertices[vertex]);
+				airportsOpen.add(changedOpen[vertex]);
+			} else if (changedVertices[vertex] instanceof NAVBeacon) {
+				NAVBeacon beacon = (NAVBeacon) changedVertices[vertex];
+				
+				if (changedOpen[vertex]) {
+					beacons.put(beacon.getId(), beacon);
+				} else {
+					beacons.remove(beacon.getId());
+				}
+			}
+		}
+		
+		Airport[] changed = changedAirports.toArray(new Airport[0]);
+		Boolean[] open = airportsOpen.toArray(new Boolean[0]);
+		
+		// Holds the ids of the changed Airports, and of every Vertex whose row
+		// changes with them
+		BitSet changedIds = new BitSet();
+		BitSet affectedIds = new BitSet();
+		
+		// Holds the ids of the Airports which may have been in range of where a
+		// changed one was, when the NeighborCache holds no row to list them
+		BitSet formerNeighborIds = new BitSet();
+		
+		for (int airport = 0; airport < changed.length; airport ++) {
+			int id = changed[airport].getId();
+			
+			changedIds.set(id);
+			affectedIds.set(id);
+			
+			if (index.contains(changed[airport])) {
+				
+				// Every Edge has a twin leading back, so the row of the Airport, which
+				// still holds the Edges of where it was, lists the rows leading to it
+				if (neighborCacheSize == 0 && airwayDegree == 0) {
+					for (int edge = adjacency.getRowStart(id); edge < adjacency.getRowEnd(id); edge ++) {
+						affectedIds.set(adjacency.getTarget(edge));
+					}
+				} else if (airwayDegree == 0) {
+					for (Airport neighbor : index.getCandidatesWhereAdded(changed[airport], range)) {
+						formerNeighborIds.set(neighbor.getId());
+					}
+				}
+				
+				airports.remove(changed[airport]);
+				index.remove(changed[airport]);
+			}
+			
+			if (open[airport] && Dijkstra.canRefuel(changed[airport], type)) {
+				airports.add(changed[airport]);
+				index.add(changed[airport]);
+			}
+		}
+		
+		if (airwayDegree > 0) {
+			if (changedVertices.length > 0) {
+				adjacency = createAdjacency();
+				startOver();
+			}
+			
+			return;
+		}
+		
+		// Holds the new row of each changed Airport which is connected
+		Hashtable<Integer, long[]> changedRows = new Hashtable<Integer, long[]>();
+		
+		// Holds the Edges which each other Airport in range of where a changed one
+		// now is gains to it
+		Hashtable<Integer, ArrayList<Long>> gainedEdges = new Hashtable<Integer, ArrayList<Long>>();
+		
+		for (Airport airport : changed) {
+			if (!index.contains(airport)) {
+				continue;
+			}
+			
+			long[] row = CompressedGraph.getNeighbors(airport, index, range);
+			changedRows.put(airport.getId(), row);
+			
+			for (long entry : row) {
+				int target = CompressedGraph.getTarget(entry);
+				affectedIds.set(target);
+				
+				if (!changedIds.get(target)) {
+					ArrayList<Long> edges = gainedEdges.get(target);
+					
+					if (edges == null) {
+						edges = new ArrayList<Long>();
+						gainedEdges.put(target, edges);
+					}
+					
+					edges.add(CompressedGraph.getEntry(CompressedGraph.getWeight(entry), airport.getId()));
+				}
+			}
+		}
+		
+		if (!affectedIds.isEmpty()) {
+			version ++;
+			
+			// The NeighborCache finds the rows leading to the changed Airports by 
+			// itself, but the searches must still be told of every such row
+			BitSet changes = (BitSet) affectedIds.clone();
+			changes.or(formerNeighborIds);
+			changeLog.add(changes);
+			
+			if (changeLog.size() > CHANGE_LOG_SIZE) {
+				changeLog.removeFirst();
+			}
+		}
+		
+		if (neighborCacheSize > 0) {
+			NeighborCache cache = (NeighborCache) adjacency;
+			
+			// The NeighborCache need not hold the rows of the changed Airports, and
+			// they may have moved since, so it looks through its rows for any
+			// leading to them instead
+			cache.discard(affectedIds, changedIds);
+			cache.evict();
+		} else if (affectedIds.cardinality() > airports.size() / 2) {
+			
+			// Once most rows have changed, building them all at once is cheaper
+			adjacency = new CompressedGraph(airports.toArray(new Airport[0]), index, range);
+		} else {
+			CompressedGraph graph = (CompressedGraph) adjacency;
+			
+			for (int id = affectedIds.nextSetBit(0); id != -1; id = affectedIds.nextSetBit(id + 1)) {
+				if (changedIds.get(id)) {
+					long[] row = changedRows.get(id);
+					graph.setRow(id, row != null ? row : new long[0]);
+				} else {
+					
+					// The rows of the other Airports keep their Edges to those which
+					// have not changed, so only the Edges to those which have are
+					// replaced, without looking through the SpatialIndex again
+					ArrayList<Long> edges = gainedEdges.get(id);
+					graph.patchRow(id, changedIds, edges != null ? edges : new ArrayList<Long>());
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of connections which have changed any Edges of this
+	 * RoutingGraph
+	 *
+	 * @return The {@link #version} attribute
+	 */
+	public long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Returns the ids of every Vertex whose Edges have changed since the given
+	 * version, which are the changed {@link Airport}s and those in range of where
+	 * they were and are
+	 *
+	 * @param version A version returned by {@link #getVersion()}
+	 * @return The ids of the Vertex nodes whose Edges have changed since version,
+	 *         or null if that version is too old for them to be known
+	 */
+	public BitSet getChangesSince(long version) {
+		if (version < this.version - changeLog.size() || version > this.version) {
+			return null;
+		}
+		
+		BitSet changes = new BitSet();
+		Iterator<BitSet> iterator = changeLog.descendingIterator();
+		
+		for (long logVersion = this.version; logVersion > version; logVersion --) {
+			changes.or(iterator.next());
+		}
+		
+		return changes;
+	}
+	
+	/**
+	 * Starts a new version in which every Edge may have changed, so no earlier
+	 * version has its changes known
+	 */
+	protected void startOver() {
+		version ++;
+		changeLog.clear();
+	}
+	
+	/**
+	 * Sets the number of Edges this RoutingGraph keeps in a {@link NeighborCache},
+	 * generating the Edges of each {@link Airport} only once a search reaches it,
+	 * or holds every Edge in a {@link CompressedGraph}, so no search may be running;
+	 * while the airway degree is set, the size only takes effect once it is unset
+	 *
+	 * @param size The number of Edges to keep from one search to the next, or 0 to
+	 *             hold every Edge
+	 * @throws IllegalArgumentException When size is negative
+	 */
+	public void setNeighborCacheSize(int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException("size may not be negative");
+		}
+		
+		if (size == neighborCacheSize) {
+			return;
+		}
+		
+		neighborCacheSize = size;
+		
+		if (airwayDegree == 0) {
+			adjacency = createAdjacency();
+		}
+	}
+	
+	/**
+	 * Returns the number of Edges this RoutingGraph keeps in a {@link NeighborCache}
+	 *
+	 * @return The {@link #neighborCacheSize} attribute
+	 */
+	public int getNeighborCacheSize() {
+		return neighborCacheSize;
+	}
+	
+	/**
+	 * Sets the number of nearest neighbors to which this RoutingGraph joins each
+	 * {@link NAVBeacon} and {@link Airport} in an {@link AirwayGraph}, so routes
+	 * follow chains of NAVBeacons, or joins only the Airports, each to every other
+	 * in range, so no search may be running.  Only a search which tracks the
+	 * distance flown since refueling, such as {@link RangeConstrainedDijkstra}, may
+	 * fly a chain of NAVBeacons as far as it reaches, and the heuristics of the
+	 * {@link Landmarks}, which only join the Airports, may overestimate its
+	 * distances.
+	 *
+	 * @param degree The number of nearest neighbors to which each Vertex is joined,
+	 *               or 0 to join the Airports in range
+	 * @throws IllegalArgumentException When degree is negative
+	 */
+	public void setAirwayDegree(int degree) {
+		if (degree < 0) {
+			throw new IllegalArgumentException("degree may not be negative");
+		}
+		
+		if (degree == airwayDegree) {
+			return;
+		}
+		
+		airwayDegree = degree;
+		adjacency = createAdjacency();
+		startOver();
+	}
+	
+	/**
+	 * Returns the number of nearest neighbors to which this RoutingGraph joins each
+	 * {@link NAVBeacon} and {@link Airport}
+	 *
+	 * @return The {@link #airwayDegree} attribute, which is 0 if only the Airports
+	 *         in range are joined
+	 */
+	public int getAirwayDegree() {
+		return airwayDegree;
+	}
+	
+	/**
+	 * Returns new Edges between the connected Vertex nodes, held as the airway
+	 * degree and {@link NeighborCache} size call for
+	 *
+	 * @return An {@link AirwayGraph}, {@link NeighborCache} or {@link CompressedGraph}
+	 */
+	protected Adjacency createAdjacency() {
+		if (airwayDegree > 0) {
+			ArrayList<Vertex> vertices = new ArrayList<Vertex>(airports);
+			vertices.addAll(beacons.values());
+			
+			return new AirwayGraph(vertices.toArray(new Vertex[0]), airwayDegree, range);
+		}
+		
+		if (neighborCacheSize > 0) {
+			return new NeighborCache(index, range, neighborCacheSize);
+		}
+		
+		return new CompressedGraph(airports.toArray(new Airport[0]), index, range);
+	}
+	
+	/**
+	 * Returns whether a Vertex is connected to the others, which an {@link Airport}
+	 * is if the {@link Airplane}s served may refuel there, and a {@link NAVBeacon}
+	 * is if the airway degree is set
+	 *
+	 * @param vertex The Vertex to check
+	 * @return Whether vertex is one of the connected {@link Airport}s, or an airway
+	 *         {@link NAVBeacon}
+	 */
+	public boolean isConnected(Vertex vertex) {
+		if (index.contains(vertex)) {
+			return true;
+		}
+		
+		return airwayDegree > 0 && vertex instanceof NAVBeacon && beacons.containsKey(vertex.getId());
+	}
+	
+	/**
+	 * Attaches a destination of the current flight plan to every {@link Airport} in
+	 * range, or to its nearest neighbors in the {@link AirwayGraph}, in both
+	 * directions, unless it is connected already
+	 *
+	 * @param vertex The Vertex to attach
+	 * @throws NullPointerException When vertex is null
+	 */
+	public void attach(Vertex vertex) {
+		if (vertex == null) {
+			throw new NullPointerException("vertex may not be null");
+		}
+		
+		if (isConnected(vertex) || attachedVertices.contains(vertex)) {
+			return;
+		}
+		
+		int id = vertex.getId();
+		
+		if (airwayDegree > 0) {
+			
+			// Every Edge has the same weight either way
+			for (long entry : ((AirwayGraph) adjacency).getNearest(vertex)) {
+				addAttachedEdge(id, CompressedGraph.getTarget(entry), CompressedGraph.getWeight(entry));
+				addAttachedEdge(CompressedGraph.getTarget(entry), id, CompressedGraph.getWeight(entry));
+			}
+			
+			attachedVertices.add(vertex);
+			return;
+		}
+		
+		for (Airport airport : index.getCandidates(vertex.getCoordinate(), range)) {
+			float weight = Edge.getWeight(vertex, airport);
+			
+			if (weight <= range) {
+				addAttachedEdge(id, airport.getId(), weight);
+				addAttachedEdge(airport.getId(), id, Edge.getWeight(airport, vertex));
+			}
+		}
+		
+		attachedVertices.add(vertex);
+	}
+	
+	/**
+	 * Adds an attached Edge, ahead of the others attached to the same Vertex id
+	 *
+	 * @param from   The id of the Vertex from which the Edge originates
+	 * @param to     The id of the Vertex to which the Edge leads
+	 * @param weight The weight of the Edge
+	 */
+	protected void addAttachedEdge(int from, int to, float weight) {
+		if (from >= attachedHeads.length) {
+			int oldCapacity = attachedHeads.length;
+			
+			attachedHeads = Arrays.copyOf(attachedHeads, Math.max(from + 1, oldCapacity * 2));
+			Arrays.fill(attachedHeads, oldCapacity, attachedHeads.length, -1);
+		}
+		
+		if (attachedEdgeCount == attachedTargets.length) {
+			int newCapacity = attachedEdgeCount * 2;
+			
+			attachedTargets = Arrays.copyOf(attachedTargets, newCapacity);
+			attachedWeights = Arrays.copyOf(attachedWeights, newCapacity);
+			attachedNext = Arrays.copyOf(attachedNext, newCapacity);
+		}
+		
+		attachedTargets[attachedEdgeCount] = to;
+		attachedWeights[attachedEdgeCount] = weight;
+		attachedNext[attachedEdgeCount] = attachedHeads[from];
+		attachedHeads[from] = attachedEdgeCount ++;
+	}
+	
+	/**
+	 * Returns the Vertex nodes attached for the current flight plan
+	 *
+	 * @return The {@link #attachedVertices} attribute, which may not be changed
+	 */
+	public List<Vertex> getAttachedVertices() {
+		return Collections.unmodifiableList(attachedVertices);
+	}
+	
+	/**
+	 * Detaches every destination attached for the current flight plan
+	 */
+	public void detachAll() {
+		for (int edge = 0; edge < attachedEdgeCount; edge ++) {
+			attachedHeads[attachedTargets[edge]] = -1;
+		}
+		
+		attachedVertices.clear();
+		attachedEdgeCount = 0;
+	}
+	
+	/**
+	 * Returns the first Edge of a Vertex id no longer than a range
+	 *
+	 * @param vertex The id of the Vertex
+	 * @param range  The length of the longest Edge to return
+	 * @return The first Edge of vertex within range, or -1 if it has none
+	 */
+	public int getFirstEdge(int vertex, float range) {
+		Adjacency adjacency = this.adjacency;
+		int edge = adjacency.getRowStart(vertex);
+		
+		if (edge < adjacency.getRowEnd(vertex) && adjacency.getWeight(edge) <= range) {
+			return edge;
+		}
+		
+		return getAttachedEdge(vertex < attachedHeads.length ? attachedHeads[vertex] : -1, range);
+	}
+	
+	/**
+	 * Returns the Edge of a Vertex id no longer than a range following the given one
+	 *
+	 * @param vertex The id of the Vertex
+	 * @param edge   An Edge of vertex
+	 * @param range  The length of the longest Edge to return
+	 * @return The next Edge of vertex within range, or -1 if edge was its last
+	 */
+	public int getNextEdge(int vertex, int edge, float range) {
+		if (edge < ATTACHED_EDGES) {
+			Adjacency adjacency = this.adjacency;
+			
+			// The row is sorted by weight, so the first Edge beyond range ends it
+			if (++ edge < adjacency.getRowEnd(vertex) && adjacency.getWeight(edge) <= range) {
+				return edge;
+			}
+			
+			return getAttachedEdge(vertex < attachedHeads.length ? attachedHeads[vertex] : -1, range);
+		}
+		
+		return getAttachedEdge(attachedNext[edge - ATTACHED_EDGES], range);
+	}
+	
+	/**
+	 * Returns the first attached Edge no longer than a range, starting from the
+	 * given one and following those attached to the same Vertex id, numbered from
+	 * {@link #ATTACHED_EDGES}
+	 *
+	 * @param attached The index of the attached Edge from which to start, or -1
+	 * @param range    The length of the longest Edge to return
+	 * @return The first attached Edge within range, or -1 if there is none
+	 */
+	protected int getAttachedEdge(int attached, float range) {
+		for (; attached != -1; attached = attachedNext[attached]) {
+			if (attachedWeights[attached] <= range) {
+				return ATTACHED_EDGES + attached;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Returns the id of the Vertex to which an Edge leads
+	 *
+	 * @param edge The Edge
+	 * @return The id of the Vertex to which edge leads
+	 */
+	public int getTarget(int edge) {
+		return edge < ATTACHED_EDGES ? adjacency.getTarget(edge) : attachedTargets[edge - ATTACHED_EDGES];
+	}
+	
+	/**
+	 * Returns the weight of an Edge
+	 *
+	 * @param edge The Edge
+	 * @return The weight of edge
+	 */
+	public float getWeight(int edge) {
+		return edge < ATTACHED_EDGES ? adjacency.getWeight(edge) : attachedWeights[edge - ATTACHED_EDGES];
+	}
+	
+	/**
+	 * Returns the {@link Edge} between two Vertex nodes, if this RoutingGraph holds
+	 * one no longer than a range
+	 *
+	 * @param fromVertex The Vertex from which the Edge originates
+	 * @param toVertex   The Vertex to which the Edge leads
+	 * @param range      The length of the longest Edge to return
+	 * @return A new Edge from fromVertex to toVertex, or null if they are not
+	 *         adjacent within range
+	 * @throws NullPointerException When fromVertex or toVertex is null
+	 */
+	public Edge getEdge(Vertex fromVertex, Vertex toVertex, float range) {
+		int from = fromVertex.getId();
+		int to = toVertex.getId();
+		
+		for (int edge = getFirstEdge(from, range); edge != -1; edge = getNextEdge(from, edge, range)) {
+			if (getTarget(edge) == to) {
+				return new Edge(fromVertex, toVertex);
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Returns the longest range of the {@link Airplane}s this RoutingGraph serves
+	 *
+	 * @return The {@link #range} attribute
+	 */
+	public float getRange() {
+		return range;
+	}
+	
+	/**
+	 * Returns the number of {@link Airport}s connected by this RoutingGraph
+	 *
+	 * @return The size of {@link #airports}
+	 */
+	public int getAirportCount() {
+		return airports.size();
+	}
+	
+	/**
+	 * Returns the number of Edges between the {@link Airport}s held by this
+	 * RoutingGraph, which are only those generated when it uses a
+	 * {@link NeighborCache}
+	 *
+	 * @return The number of Edges in the {@link #adjacency}
+	 */
+	public int getEdgeCount() {
+		return adjacency.getEdgeCount();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.Arrays;
+
+/**
+ * Holds the per-search state of a shortest path search, namely the minimum weight
+ * and previous {@link Vertex} of every Vertex, indexed by {@link Vertex#getId() id}.
+ * <br /><br />
+ * Rather than walking every Vertex to reset it before each search, every entry is
+ * stamped with the generation of the search that wrote it, and {@link #reset(int)}
+ * simply starts a new generation.  Entries with an older stamp read as unreached.
+ * <br /><br />
+ * A SearchContext is not thread-safe; each thread should use its own, as is done
+ * through the ThreadLocal held by each {@link Dijkstra} instance.
+ *
+ * @author Dylon Edwards
+ */
+public class SearchContext {
+	
+	/** Holds the minimum weight of each Vertex, valid only where stamped */
+	protected float[] minWeights;
+	
+	/** Holds the id of the previous Vertex of each Vertex, valid only where stamped */
+	protected int[] previousVertices;
+	
+	/** Holds the generation in which each entry was last written */
+	protected int[] stamps;
+	
+	/** Holds the generation of the current search */
+	protected int generation;
+	
+	/** Holds the number of Vertex ids settled by the current search */
+	protected int settledCount;
+	
+	/** Holds the queue of Vertex ids waiting to be settled */
+	protected final IndexedHeap queue;
+	
+	/**
+	 * Constructs a SearchContext able to hold the given number of Vertex ids
+	 *
+	 * @param capacity The initial number of Vertex ids
+	 */
+	public SearchContext(int capacity) {
+		minWeights = new float[capacity];
+		previousVertices = new int[capacity];
+		stamps = new int[capacity];
+		generation = 0;
+		queue = new IndexedHeap(capacity);
+	}
+	
+	/**
+	 * Starts a new search over a graph with the given number of Vertex ids in
+	 * constant time (aside from growing the arrays when the graph has grown)
+	 *
+	 * @param capacity The number of Vertex ids in the graph being searched
+	 */
+	public void reset(int capacity) {
+		if (capacity > stamps.length) {
+			int newCapacity = Math.max(capacity, stamps.length * 2);
+			
+			minWeights = Arrays.copyOf(minWeights, newCapacity);
+			previousVertices = Arrays.copyOf(previousVertices, newCapacity);
+			stamps = Arrays.copyOf(stamps, newCapacity);
+		}
+		
+		queue.ensureCapacity(capacity);
+		queue.clear();
+		settledCount = 0;
+		
+		// In the unlikely event the generation wraps around, the stamps must
+		// actually be cleared so that no stale entry appears current
+		if (++ generation == 0) {
+			Arrays.fill(stamps, 0);
+			generation = 1;
+		}
+	}
+	
+	/**
+	 * Returns whether the given Vertex id has been reached by the current search
+	 *
+	 * @param id The id of the Vertex
+	 * @return Whether the entry of id belongs to the current generation
+	 */
+	public boolean isReached(int id) {
+		return id < stamps.length && stamps[id] == generation;
+	}
+	
+	/**
+	 * Returns the minimum weight of the given Vertex id in the current search
+	 *
+	 * @param id The id of the Vertex
+	 * @return The minimum weight of id, or infinity if it has not been reached
+	 */
+	public float getMinWeight(int id) {
+		return isReached(id) ? minWeights[id] : Float.POSITIVE_INFINITY;
+	}
+	
+	/**
+	 * Returns the id of the previous Vertex of the given Vertex id in the current search
+	 *
+	 * @param id The id of the Vertex
+	 * @return The id of the previous Vertex, or -1 if there is none
+	 */
+	public int getPreviousVertex(int id) {
+		return isReached(id) ? previousVertices[id] : -1;
+	}
+	
+	/**
+	 * Records the minimum weight and previous Vertex of the given Vertex id
+	 *
+	 * @param id             The id of the Vertex
+	 * @param minWeight      The minimum weight of id
+	 * @param previousVertex The id of the previous Vertex, or -1 if there is none
+	 */
+	public void setMinWeight(int id, float minWeight, int previousVertex) {
+		minWeights[id] = minWeight;
+		previousVertices[id] = previousVertex;
+		stamps[id] = generation;
+	}
+	
+	/**
+	 * Counts a Vertex id as settled by the current search
+	 */
+	public void settle() {
+		settledCount ++;
+	}
+	
+	/**
+	 * Returns the number of Vertex ids settled by the current search
+	 *
+	 * @return The {@link #settledCount} attribute
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+	
+	/**
+	 * Returns the queue of Vertex ids waiting to be settled
+	 *
+	 * @return The {@link #queue} attribute
+	 */
+	public IndexedHeap getQueue() {
+		return queue;
+	}
+}
\ No newline at end of file
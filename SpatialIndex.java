@@ -0,0 +1,250 @@
+package edu.usca.acsc492l.flightplanner;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+
+/**
+ * Buckets Vertex nodes into a uniform grid of latitude and longitude cells, so the
+ * Vertex nodes within some distance of a {@link Coordinate} may be found by looking
+ * through the few cells around it, rather than through every Vertex.  Since the
+ * weight of an {@link Edge} is the straight-line distance between the latitudes and
+ * longitudes of its Vertex nodes, a cell as wide as the range of an {@link Airplane}
+ * leaves every Vertex in range within the cell of the Coordinate or the eight
+ * around it.
+ * <br /><br />
+ * A SpatialIndex is not safe for use by several Threads at once while any of them
+ * changes it, though any number may look through it while none does.
+ *
+ * @param <V> The type of Vertex held by this SpatialIndex
+ * @author Dylon Edwards
+ */
+public class SpatialIndex<V extends Vertex> {
+	
+	/** 
+	 * Stretches each distance slightly so that float rounding in the {@link Edge}
+	 * weights can never place a Vertex in range beyond the cells looked through
+	 */
+	protected static final float ROUNDING_FACTOR = 1.001f;
+	
+	/** Holds the width and height of each cell in degrees */
+	protected final float cellSize;
+	
+	/** Holds the Vertex nodes of each non-empty cell, keyed by {@link #getCell} */
+	protected final Hashtable<Long, ArrayList<V>> cells = new Hashtable<Long, ArrayList<V>>();
+	
+	/**
+	 * Holds the cell in which each Vertex was added, keyed by Vertex id, since the
+	 * Vertex may have moved by the time it is removed
+	 */
+	protected final Hashtable<Integer, Long> vertexCells = new Hashtable<Integer, Long>();
+	
+	/**
+	 * Constructs an empty SpatialIndex whose cells are wide enough that every Vertex
+	 * within the given distance of a {@link Coordinate} lies in its cell or the
+	 * eight around it
+	 *
+	 * @param distance The distance in Kilometers which most searches look within
+	 */
+	public SpatialIndex(float distance) {
+		
+		// 1 degree latitude = 40,000 / 360 = ~111.1 Kilometers
+		cellSize = Math.max(distance * ROUNDING_FACTOR / 111.1f, 0.01f);
+	}
+	
+	/**
+	 * Returns the cell containing a latitude and longitude
+	 *
+	 * @param latitude  The latitude
+	 * @param longitude The longitude
+	 * @return The key of the cell, which packs its row and column into a long
+	 */
+	protected long getCell(float latitude, float longitude) {
+		return getCell((int) Math.floor(latitude / cellSize), (int) Math.floor(longitude / cellSize));
+	}
+	
+	/**
+	 * Returns the cell at a row and column
+	 *
+	 * @param row    The row of the cell
+	 * @param column The column of the cell
+	 * @return The key of the cell, which packs its row and column into a long
+	 */
+	protected static long getCell(int row, int column) {
+		return ((long) row << 32) | (column & 0xFFFFFFFFL);
+	}
+	
+	/**
+	 * Adds a Vertex to the cell of its {@link Coordinate}, unless it is already held
+	 *
+	 * @param vertex The Vertex to add
+	 * @throws NullPointerException When vertex is null
+	 */
+	public void add(V vertex) {
+		if (vertexCells.containsKey(vertex.getId())) {
+			return;
+		}
+		
+		Coordinate coordinate = vertex.getCoordinate();
+		long cell = getCell(coordinate.getLatitude(), coordinate.getLongitude());
+		
+		ArrayList<V> cellVertices = cells.get(cell);
+		if (cellVertices == null) {
+			cellVertices = new ArrayList<V>();
+			cells.put(cell, cellVertices);
+		}
+		
+		cellVertices.add(vertex);
+		vertexCells.put(vertex.getId(), cell);
+	}
+	
+	/**
+	 * Removes a Vertex from the cell in which it was added, if it is held
+	 *
+	 * @param vertex The Vertex to remove
+	 * @throws NullPointerException When vertex is null
+	 */
+	public void remove(V vertex) {
+		Long cell = vertexCells.remove(vertex.getId());
+		
+		if (cell == null) {
+			return;
+		}
+		
+		ArrayList<V> cellVertices = cells.get(cell);
+		
+		// Remove this very Vertex, rather than one which merely equals it
+		for (int index = 0; index < cellVertices.size(); index ++) {
+			if (cellVertices.get(index) == vertex) {
+				cellVertices.remove(index);
+				break;
+			}
+		}
+		
+		if (cellVertices.isEmpty()) {
+			cells.remove(cell);
+		}
+	}
+	
+	/**
+	 * Returns every Vertex held in the cells within a distance of a
+	 * {@link Coordinate}, which includes every Vertex within that distance of it,
+	 * along with some farther away, which the caller must still check
+	 *
+	 * @param coordinate The {@link Coordinate} around which to look
+	 * @param distance   The distance in Kilometers within which to look
+	 * @return The Vertex nodes which may lie within distance of coordinate
+	 * @throws NullPointerException When coordinate is null
+	 */
+	public ArrayList<V> getCandidates(Coordinate coordinate, float distance) {
+		int row = (int) Math.floor(coordinate.getLatitude() / cellSize);
+		int column = (int) Math.floor(coordinate.getLongitude() / cellSize);
+		
+		return getCandidates(row, column, distance);
+	}
+	
+	/**
+	 * Returns every Vertex held in the cells within a distance of the cell in which
+	 * a Vertex was added, which includes every Vertex within that distance of where
+	 * it was then, even if it has moved since, along with some farther away
+	 *
+	 * @param vertex   The Vertex around whose cell to look
+	 * @param distance The distance in Kilometers within which to look
+	 * @return The Vertex nodes which may lie within distance of where vertex was 
+	 *         added, or none if it is not held
+	 * @throws NullPointerException When vertex is null
+	 */
+	public ArrayList<V> getCandidatesWhereAdded(Vertex vertex, float distance) {
+		Long cell = vertexCells.get(vertex.getId());
+		
+		if (cell == null) {
+			return new ArrayList<V>();
+		}
+		
+		return getCandidates((int)(cell >> 32), (int)(long) cell, distance);
+	}
+	
+	/**
+	 * Returns every Vertex held in the cells within a distance of a cell
+	 *
+	 * @param row      The row of the cell
+	 * @param column   The column of the cell
+	 * @param distance The distance in Kilometers within which to look
+	 * @return The Vertex nodes which may lie within distance of the cell
+	 */
+	protected ArrayList<V> getCandidates(int row, int column, float distance) {
+		ArrayList<V> candidates = new ArrayList<V>();
+		
+		// Holds the number of cells the distance reaches in each direction
+		int reach = (int) Math.ceil(distance * ROUNDING_FACTOR / 111.1f / cellSize);
+		
+		// Once the cells around the Coordinate outnumber the non-empty ones, look
+		// through the non-empty ones instead
+		long width = 2L * reach + 1;
+		if (width * width > cells.size()) {
+			for (Long cell : cells.keySet()) {
+				int cellRow = (int)(cell >> 32);
+				int cellColumn = (int)(long) cell;
+				
+				if (Math.abs((long) cellRow - row) <= reach &&
+				    Math.abs((long) cellColumn - column) <= reach) {
+					
+					candidates.addAll(cells.get(cell));
+				}
+			}
+			
+			return candidates;
+		}
+		
+		for (int r = row - reach; r <= row + reach; r ++) {
+			for (int c = column - reach; c <= column + reach; c ++) {
+				ArrayList<V> cellVertices = cells.get(getCell(r, c));
+				
+				if (cellVertices != null) {
+					candidates.addAll(cellVertices);
+				}
+			}
+		}
+		
+		return candidates;
+	}
+	
+	/**
+	 * Returns whether a Vertex is held by this SpatialIndex
+	 *
+	 * @param vertex The Vertex to look for
+	 * @return Whether a Vertex with the id of vertex has been added and not removed
+	 * @throws NullPointerException When vertex is null
+	 */
+	public boolean contains(Vertex vertex) {
+		return vertexCells.containsKey(vertex.getId());
+	}
+	
+	/**
+	 * Returns the Vertex held by this SpatialIndex with the given id
+	 *
+	 * @param id The id of the Vertex
+	 * @return The Vertex with the given id, or null if none is held
+	 */
+	public V get(int id) {
+		Long cell = vertexCells.get(id);
+		
+		if (cell != null) {
+			for (V vertex : cells.get(cell)) {
+				if (vertex.getId() == id) {
+					return vertex;
+				}
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Returns the number of Vertex nodes held by this SpatialIndex
+	 *
+	 * @return The number of Vertex nodes added and not yet removed
+	 */
+	public int size() {
+		return vertexCells.size();
+	}
+}
\ No newline at end of file
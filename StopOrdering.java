@@ -0,0 +1,22 @@
+package edu.usca.acsc492l.flightplanner;
+
+/**
+ * Orders the additional destinations, or stops, of a flight plan between its
+ * start and its end, given the distance between every two of its waypoints, so
+ * the flight plan flies as short a distance as may be found between them.
+ *
+ * @author Dylon Edwards
+ */
+public interface StopOrdering {
+	
+	/**
+	 * Returns the order in which to visit the stops of a flight plan
+	 *
+	 * @param distances The distance from each waypoint to each other, where the
+	 *                  first waypoint is the start of the flight plan, the last
+	 *                  is its end, and those between are its stops
+	 * @return The indices of the stops, from 1 to distances.length - 2, in the
+	 *         order in which to visit them
+	 */
+	public int[] order(float[][] distances);
+}
\ No newline at end of file
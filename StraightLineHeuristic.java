@@ -0,0 +1,41 @@
+package edu.usca.acsc492l.flightplanner;
+
+import static java.lang.Math.*;
+
+/**
+ * Estimates the weight of the shortest path between two {@link Vertex} nodes by the
+ * straight-line distance between their {@link Coordinate}s.  Since the weight of every
+ * {@link Edge} is itself the straight-line distance between its two Vertex nodes, no
+ * path can be shorter than this estimate.
+ *
+ * @author Dylon Edwards
+ */
+public class StraightLineHeuristic implements Heuristic {
+	
+	/** 
+	 * Shrinks each estimate slightly so that float rounding in the {@link Edge} weights
+	 * can never make the estimate exceed the weight of a path
+	 */
+	protected static final float ROUNDING_FACTOR = 0.9999f;
+	
+	/**
+	 * Returns the straight-line distance in Kilometers between vertex and target,
+	 * measured the same way as the weight of an {@link Edge}
+	 *
+	 * @param vertex The {@link Vertex} from which the path begins
+	 * @param target The {@link Vertex} at which the path ends
+	 * @return A lower bound on the weight of the shortest path from vertex to target
+	 */
+	@Override
+	public float getLowerBound(Vertex vertex, Vertex target) {
+		Coordinate from = vertex.getCoordinate();
+		Coordinate to = target.getCoordinate();
+		
+		// Determine the difference of the latitudes and longitudes
+		float v_x = to.getLatitude() - from.getLatitude();
+		float v_y = to.getLongitude() - from.getLongitude();
+		
+		// 1 degree latitude = 40,000 / 360 = ~111.1 Kilometers
+		return (float)(sqrt(v_x * v_x + v_y * v_y)) * 111.1f * ROUNDING_FACTOR;
+	}
+}
\ No newline at end of file
@@ -8,7 +8,7 @@ import java.util.Hashtable;
  *
  * @author Dylon Edwards
  */
-public abstract class Vertex implements Comparable<Vertex> {
+public abstract class Vertex {
 	
 	/** Holds the current {@link FlightPlan} instance */
 	protected final FlightPlan flightPlan;
@@ -23,21 +23,10 @@ public abstract class Vertex implements Comparable<Vertex> {
 	protected Coordinate coordinate;
 	
 	/** 
-	 * Holds the minimum weight between this Vertex and all its 
-	 * adjacent Vertex objects 
+	 * Holds the id of this Vertex, which indexes the per-search state held 
+	 * by a {@link SearchContext}, or -1 while it is not in the database
 	 */
-	protected float minWeight;
-	
-	/** 
-	 * Holds the previous vertex to this one in Dijkstra's shortest path 
-	 */
-	protected Vertex previousVertex;
-	
-	/** Holds all the Edges adjacent to this one */
-	protected Hashtable<String, Edge> edges;
-	
-	/** Holds the timestamp of the last time this Vertex was used was */
-	private long timestamp;
+	protected int id = -1;
 	
 	/** 
 	 * Holds the longest string width for the labels in the 
@@ -75,10 +64,6 @@ public abstract class Vertex implements Comparable<Vertex> {
 		setICAOid(ICAOid);
 		setName(name);
 		setCoordinate(coordinate);
-		
-		// Although this method is used primarily to reset this Vertex object's
-		// attributes, it is also useful for initializing them
-		resetVertex();
 	}
 	
 	/**
@@ -359,6 +344,14 @@ public abstract class Vertex implements Comparable<Vertex> {
 			
 			// Add a reference to the new coordinate of this Vertex to coordinates
 			coordinates.put(this.coordinate.toString(), this);
+			
+			// Moving an Airport changes the routes between the Airports
+			if (this instanceof Airport) {
+				flightPlan.invalidateRoutingData((Airport) this, null);
+			}
+			
+			// Moving a NAVBeacon changes the airways joining it
+			flightPlan.updateRoutingGraphs(this);
 		} catch (NullPointerException exception) {
 			throw new NullPointerException("coordinate may not be null");
 		}
@@ -374,117 +367,12 @@ public abstract class Vertex implements Comparable<Vertex> {
 	}
 	
 	/**
-	 * Sets the minimum weight as determined by a {@link Dijkstra} object.
-	 * <br /><br />
-	 * <em>NOTE:</em> This should only be called by a {@link Dijkstra} object.
-	 *
-	 * @param minWeight The minimum set by a Dijkstra object
-	 */
-	public void setMinWeight(float minWeight) {
-		this.minWeight = minWeight;
-	}
-	
-	/**
-	 * Returns this Vertex object's minWeight
-	 *
-	 * @return The {@link #minWeight} attribute
-	 */
-	public float getMinWeight() {
-		return minWeight;
-	}
-	
-	/**
-	 * Adds an Edge between this Vertex and another
+	 * Returns the id of this Vertex
 	 *
-	 * @param vertex    The Vertex object with which to connect this one
-	 * @param timestamp The current time in milliseconds
+	 * @return The {@link #id} attribute
 	 */
-	public void addEdge(Vertex vertex, long timestamp, Airplane airplane) {
-		
-		// Reset all the Edge objects in this Vertex if this.timestamp 
-		// differs from the timestamp passed as a parameter
-		if (this.timestamp != timestamp) {
-			this.timestamp = timestamp;
-			resetVertex();
-		}
-		
-		try {
-			Edge edge = new Edge(this, vertex, airplane);
-			edges.put(vertex.getICAOid(), edge);
-		} catch (VertexException exception) {
-			// The selected Airplane cannot traverse this Edge,
-			// so don't add it to the list of Edges
-		}
-	}
-	
-	/**
-	 * Returns the Edge object corresponding to the given Vertex, or null if it 
-	 * doesn't exist
-	 *
-	 * @param vertex The Vertex with which to retrieve an Edge from {@link #edges}
-	 * @return The Edge object contained at {@link #edges}.get(vertex.getICAOid())
-	 */
-	public Edge getEdge(Vertex vertex) {
-		return edges.get(vertex.getICAOid());
-	}
-	
-	/**
-	 * Removes an Edge object from this.edges
-	 *
-	 * @param vertex The Vertex object to disconnect from this one
-	 */
-	public void removeEdge(Vertex vertex) {
-		edges.remove(vertex.getICAOid());
-	}
-	
-	/**
-	 * Returns all the Edges adjacent to this Vertex
-	 *
-	 * @return The {@link #edges} attribute
-	 */
-	public Hashtable<String, Edge> getEdges() {
-		return edges;
-	}
-	
-	/**
-	 * Sets the previous Vertex, as determined by a {@link Dijkstra} object
-	 * <br /><br />
-	 * <em>NOTE:</em> This should only be called by a {@link Dijkstra} object.
-	 *
-	 * @param previousVertex The previous Vertex set by a Dijkstra object
-	 */
-	public void setPreviousVertex(Vertex previousVertex) {
-		this.previousVertex = previousVertex;
-	}
-	
-	/**
-	 * Returns the previous Vertex of this one
-	 *
-	 * @return The {@link #previousVertex} attribute
-	 */
-	public Vertex getPreviousVertex() {
-		return previousVertex;
-	}
-	
-	/**
-	 * Resets the attributes of this Vertex relating to Dijkstra objects
-	 */
-	protected void resetVertex() {
-		minWeight = Float.POSITIVE_INFINITY;
-		previousVertex = null;
-		edges = new Hashtable<String, Edge>();
-	}
-	
-	/**
-	 * Compares this Vertex with another
-	 *
-	 * @return Either -1, 0, or 1 depending on whether the {@link #minWeight} of 
-	 *         this Vertex is less than, equal to, or greater than that of the 
-	 *         one being compared
-	 */
-	@Override
-	public int compareTo(Vertex vertex) {
-		return Float.compare(minWeight, vertex.getMinWeight());
+	public int getId() {
+		return id;
 	}
 	
 	/**